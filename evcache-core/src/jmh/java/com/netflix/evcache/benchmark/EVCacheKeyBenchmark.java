@@ -0,0 +1,77 @@
+package com.netflix.evcache.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.netflix.evcache.EVCacheKey;
+import com.netflix.evcache.util.KeyHasher;
+
+/**
+ * Micro benchmark of the key handling on the read path : creating an {@link EVCacheKey}, using it as a map key (as the
+ * in-memory, negative and coalescing caches do) and hashing it. Run with : ./gradlew :evcache-core:jmh, the GC profiler
+ * reports the bytes allocated per op (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EVCacheKeyBenchmark {
+
+    private static final int KEYS = 1024;
+
+    private String[] keys;
+    private String[] canonicalKeys;
+    private EVCacheKey[] duetKeys;
+    private Map<EVCacheKey, Integer> map;
+    private int next;
+
+    @Setup
+    public void setup() {
+        keys = new String[KEYS];
+        canonicalKeys = new String[KEYS];
+        duetKeys = new EVCacheKey[KEYS];
+        map = new HashMap<EVCacheKey, Integer>(KEYS * 2);
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "user:" + (i * 7919) + ":profile";
+            canonicalKeys[i] = "cache:" + keys[i];
+            duetKeys[i] = new EVCacheKey("EVCACHE_BENCH", keys[i], canonicalKeys[i], null, null);
+            duetKeys[i].getCanonicalKey(true);
+            map.put(new EVCacheKey("EVCACHE_BENCH", keys[i], canonicalKeys[i], null, null), Integer.valueOf(i));
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (KEYS - 1);
+        return next;
+    }
+
+    @Benchmark
+    public Integer createAndLookup() {
+        final int i = nextIndex();
+        return map.get(new EVCacheKey("EVCACHE_BENCH", keys[i], canonicalKeys[i], null, null));
+    }
+
+    @Benchmark
+    public int duetKeyHashCode() {
+        return duetKeys[nextIndex()].hashCode();
+    }
+
+    @Benchmark
+    public String hashKeyMurmur3() {
+        return KeyHasher.getHashedKey(keys[nextIndex()], "murmur3");
+    }
+}
@@ -1,5 +1,8 @@
 package com.netflix.evcache;
 
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -69,9 +72,17 @@ import rx.Single;
 public interface EVCache {
 
     public static enum Call {
-        GET, GETL, GET_AND_TOUCH, ASYNC_GET, BULK, SET, DELETE, INCR, DECR, TOUCH, APPEND, PREPEND, REPLACE, ADD, APPEND_OR_ADD, GET_ALL, META_GET, META_SET, META_DEBUG
+        GET, GETL, GET_AND_TOUCH, ASYNC_GET, BULK, SET, DELETE, INCR, DECR, TOUCH, APPEND, PREPEND, REPLACE, ADD, APPEND_OR_ADD, GET_ALL, META_GET, META_SET, META_DEBUG, SET_BULK, DELETE_BULK, TOUCH_BULK
     };
 
+    /**
+     * Loads the value of a key from the backing store on a cache miss. See {@link EVCache#get(String, Transcoder, Loader)}.
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load(String key) throws Exception;
+    }
+
     /**
      * Set an object in the EVCACHE (using the default Transcoder) regardless of
      * any existing value.
@@ -270,6 +281,105 @@ public interface EVCache {
     <T> EVCacheLatch set(String key, T value, Transcoder<T> tc, int timeToLive, EVCacheLatch.Policy policy)
             throws EVCacheException;
 
+    /**
+     * Set the given objects in the EVCACHE (using the default Transcoder)
+     * regardless of any existing values. The keys are grouped by the memcached
+     * node they map to and each group is written as one pipelined batch. Every
+     * key is still a regular set with its own reply, quiet (noreply) stores are
+     * not used as the latch needs the reply of every operation.
+     *
+     * @param keyValues
+     *            the keys and the objects to store. Ensure the keys are properly
+     *            encoded and do not contain whitespace or control characters.
+     * @param timeToLive
+     *            the expiration of these objects i.e. less than 30 days in
+     *            seconds or the exact expiry time as UNIX time
+     * @param policy
+     *            The Latch will be returned based on the Policy. The policy is
+     *            applied to the replicas of each key i.e. the latch is released
+     *            once the number of operations the policy requires for one key
+     *            times the number of keys have completed. The count is not
+     *            tracked per key.
+     * @return EVCacheLatch which encompasses all the operations of this call.
+     * @throws EVCacheException
+     *             in the rare circumstance where queue is too full to accept
+     *             any more requests or issues Serializing the values or any IO
+     *             Related issues
+     */
+    default <T> EVCacheLatch setBulk(Map<String, T> keyValues, int timeToLive, EVCacheLatch.Policy policy) throws EVCacheException {
+        throw new EVCacheException("Default implementation. If you are implementing EVCache interface you need to implement this method.");
+    }
+
+    /**
+     * Set the given objects in the EVCACHE using the given Transcoder. See
+     * {@link #setBulk(Map, int, EVCacheLatch.Policy)}.
+     */
+    default <T> EVCacheLatch setBulk(Map<String, T> keyValues, Transcoder<T> tc, int timeToLive, EVCacheLatch.Policy policy) throws EVCacheException {
+        throw new EVCacheException("Default implementation. If you are implementing EVCache interface you need to implement this method.");
+    }
+
+    /**
+     * Set the data read from the given stream in the EVCACHE as a byte array,
+     * regardless of any existing value. The data is stored in chunks as it is
+     * read so a large value is never held in memory as a whole; the stream is
+     * read once and each chunk is written to all the replicas. This requires
+     * chunking to be enabled and keys that are not hashed.
+     *
+     * @param key
+     *            the key under which this object should be added. Ensure the
+     *            key is properly encoded and does not contain whitespace or
+     *            control characters.
+     * @param in
+     *            the stream to read the data from. Exactly length bytes are
+     *            read and the stream is not closed.
+     * @param length
+     *            the number of bytes of the value
+     * @param timeToLive
+     *            the expiration of this object i.e. less than 30 days in
+     *            seconds or the exact expiry time as UNIX time
+     * @param policy
+     *            The Latch will be returned based on the Policy. A replica
+     *            completes once all the chunks and then the metadata of the
+     *            value are stored in it.
+     * @return EVCacheLatch which encompasses the writes to all the replicas.
+     * @throws EVCacheException
+     *             if the stream ends before length bytes are read or cannot
+     *             be read, or in the rare circumstance where queue is too full
+     *             to accept any more requests
+     */
+    default EVCacheLatch setStream(String key, InputStream in, long length, int timeToLive, EVCacheLatch.Policy policy) throws EVCacheException {
+        throw new EVCacheException("Default implementation. If you are implementing EVCache interface you need to implement this method.");
+    }
+
+    /**
+     * Set the data read from the given channel in the EVCACHE as a byte array.
+     * See {@link #setStream(String, InputStream, long, int, EVCacheLatch.Policy)}.
+     */
+    default EVCacheLatch setStream(String key, ReadableByteChannel channel, long length, int timeToLive, EVCacheLatch.Policy policy) throws EVCacheException {
+        return setStream(key, Channels.newInputStream(channel), length, timeToLive, policy);
+    }
+
+    /**
+     * Retrieve the data of the value associated with the given key as a
+     * stream. The data is returned as it was stored i.e. as written by
+     * {@link #setStream(String, InputStream, long, int, EVCacheLatch.Policy)}.
+     * A chunked value is fetched a few chunks at a time as the stream is read
+     * and its checksum is verified at the end of the stream; a missing chunk
+     * or a checksum mismatch is reported as an IOException by the stream. The
+     * stream should be closed once it is no longer needed.
+     *
+     * @param key
+     *            key to get. Ensure the key is properly encoded and does not
+     *            contain whitespace or control characters.
+     * @return the stream over the data or null if the key is not found
+     * @throws EVCacheException
+     *             in the rare circumstance where queue is too full to accept
+     *             any more requests
+     */
+    default InputStream getStream(String key) throws EVCacheException {
+        throw new EVCacheException("Default implementation. If you are implementing EVCache interface you need to implement this method.");
+    }
+
     /**
      * Replace an existing object in the EVCACHE using the default Transcoder &
      * default TTL. If the object does not exist in EVCACHE then the value is
@@ -457,6 +567,27 @@ public interface EVCache {
      */
     <T> EVCacheLatch delete(String key, EVCacheLatch.Policy policy) throws EVCacheException;
 
+    /**
+     * Remove the given keys from all the replicas. The keys are grouped by the
+     * memcached node they map to and each group is sent as one pipelined batch.
+     *
+     * @param keys
+     *            the keys to delete.
+     * @param policy
+     *            The Latch will be returned based on the Policy. The policy is
+     *            applied to the replicas of each key i.e. the latch is released
+     *            once the number of operations the policy requires for one key
+     *            times the number of keys have completed. The count is not
+     *            tracked per key.
+     * @return EVCacheLatch which encompasses all the operations of this call.
+     * @throws EVCacheException
+     *             in the rare circumstance where queue is too full to accept
+     *             any more requests or any IO Related issues
+     */
+    default <T> EVCacheLatch deleteBulk(Collection<String> keys, EVCacheLatch.Policy policy) throws EVCacheException {
+        throw new EVCacheException("Default implementation. If you are implementing EVCache interface you need to implement this method.");
+    }
+
     /**
      * Retrieve the value for the given key.
      *
@@ -516,6 +647,38 @@ public interface EVCache {
      */
     <T> T get(String key, Transcoder<T> tc) throws EVCacheException;
 
+    /**
+     * Retrieve the value for the given key and load it using the given Loader
+     * if it is not found. To keep all the callers across the fleet from loading
+     * a popular key at the same time, a short lived lease is taken with an add
+     * of a lease marker. Only the caller holding the lease loads the value and
+     * sets it with the default TTL. The other callers wait briefly and re-read
+     * the key; if it is still not found once the wait is over they load the
+     * value themselves without setting it.
+     *
+     * If early refresh is enabled the value is read with meta get and, with a
+     * probability that rises as its remaining ttl nears zero, it is reloaded
+     * on the worker executor of the pool manager before it expires.
+     *
+     * @param key
+     *            key to get. Ensure the key is properly encoded and does not
+     *            contain whitespace or control characters. The max length of the key (including prefix)
+     *            is 250 characters.
+     * @param tc
+     *            the Transcoder to serialize and deserialize the data
+     * @param loader
+     *            loads the value from the backing store on a miss
+     * @return the value for the given key (null if neither the cache nor the
+     *         loader has it).
+     * @throws EVCacheException
+     *             in the rare circumstance where queue is too full to accept
+     *             any more requests, issues during serialization, if the loader
+     *             fails or any IO Related issues
+     */
+    default <T> T get(String key, Transcoder<T> tc, Loader<T> loader) throws EVCacheException {
+        throw new EVCacheException("Default implementation. If you are implementing EVCache interface you need to implement this method.");
+    }
+
     /**
      * Retrieve the meta data for the given a key 
      *
@@ -1039,6 +1202,31 @@ public interface EVCache {
      */
     <T> EVCacheLatch touch(String key, int ttl, EVCacheLatch.Policy policy) throws EVCacheException;
 
+    /**
+     * Touch the given keys on all the replicas with the given ttl. The keys are
+     * grouped by the memcached node they map to and each group is sent as one
+     * pipelined batch.
+     *
+     * @param keys
+     *            the keys to touch.
+     * @param ttl
+     *            the new expiration of the objects i.e. less than 30 days in
+     *            seconds or the exact expiry time as UNIX time
+     * @param policy
+     *            The Latch will be returned based on the Policy. The policy is
+     *            applied to the replicas of each key i.e. the latch is released
+     *            once the number of operations the policy requires for one key
+     *            times the number of keys have completed. The count is not
+     *            tracked per key.
+     * @return EVCacheLatch which encompasses all the operations of this call.
+     * @throws EVCacheException
+     *             in the rare circumstance where queue is too full to accept
+     *             any more requests or any IO Related issues
+     */
+    default <T> EVCacheLatch touchBulk(Collection<String> keys, int ttl, EVCacheLatch.Policy policy) throws EVCacheException {
+        throw new EVCacheException("Default implementation. If you are implementing EVCache interface you need to implement this method.");
+    }
+
     /**
      * Append the given value to the existing value in EVCache. If the Key does not exist the the key will added.
      *
@@ -1098,6 +1286,18 @@ public interface EVCache {
      */
     <T> EVCacheLatch appendOrAdd(String key, T value, Transcoder<T> tc, int timeToLive, Policy policy) throws EVCacheException;
 
+    /**
+     * Returns the non blocking view of this {@code EVCache}. The operations on the returned {@link EVCacheAsync} do
+     * not block the calling thread while the operation is in flight.
+     *
+     * @return the {@link EVCacheAsync} backed by this {@code EVCache}
+     * @throws EVCacheException
+     *             if this {@code EVCache} does not support non blocking operations
+     */
+    default EVCacheAsync async() throws EVCacheException {
+        throw new EVCacheException("Default implementation. If you are implementing EVCache interface you need to implement this method.");
+    }
+
     /**
      * The {@code appName} that will be used by this {@code EVCache}.
      *
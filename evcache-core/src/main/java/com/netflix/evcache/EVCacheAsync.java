@@ -0,0 +1,153 @@
+package com.netflix.evcache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+import com.netflix.evcache.EVCacheLatch.Policy;
+
+import net.spy.memcached.transcoders.Transcoder;
+
+/**
+ * A non blocking view of an {@link EVCache}. None of the operations park the calling thread while the operation is
+ * in flight; the returned {@link CompletionStage} is completed from the memcached callback threads once the operation
+ * finishes or the read or operation timeout of the app has elapsed. Dependent stages that do expensive work should
+ * therefore use one of the {@code *Async} methods of {@link CompletionStage} with their own executor.
+ *
+ * Errors are reported the same way as by {@link EVCache}: the stage is completed exceptionally with an
+ * {@link EVCacheException} only if the cache is configured to throw exceptions, otherwise a miss is returned.
+ *
+ * <pre>
+ * EVCacheAsync asyncCache = myCache.async();
+ * asyncCache.get("name").thenAccept(value -&gt; ...);
+ * </pre>
+ *
+ * Note: Values that are chunked or hashed by server group need more than one operation to be read; those reads are
+ * performed on the EVCacheExecutor.
+ */
+public interface EVCacheAsync {
+
+    /**
+     * Retrieve the value for the given key using the default Transcoder. If the value is not found in the local
+     * server group the other server groups are tried.
+     *
+     * @param key
+     *            key to get. Ensure the key is properly encoded and does not
+     *            contain whitespace or control characters. The max length of the key (including prefix)
+     *            is 250 characters.
+     * @return a stage completed with the value or null if there is none
+     */
+    <T> CompletionStage<T> get(String key);
+
+    /**
+     * Retrieve the value for the given key using the specified Transcoder.
+     *
+     * @param key
+     *            key to get.
+     * @param tc
+     *            the Transcoder to deserialize the data
+     * @return a stage completed with the value or null if there is none
+     */
+    <T> CompletionStage<T> get(String key, Transcoder<T> tc);
+
+    /**
+     * Retrieve the values for the collection of keys using the default Transcoder.
+     *
+     * @param keys
+     *            the keys for which we need the values
+     * @return a stage completed with a map of the values. Keys that were not found are mapped to null.
+     */
+    <T> CompletionStage<Map<String, T>> getBulk(Collection<String> keys);
+
+    /**
+     * Retrieve the values for the collection of keys using the specified Transcoder.
+     *
+     * @param keys
+     *            the keys for which we need the values
+     * @param tc
+     *            the Transcoder to deserialize the data
+     * @return a stage completed with a map of the values. Keys that were not found are mapped to null.
+     */
+    <T> CompletionStage<Map<String, T>> getBulk(Collection<String> keys, Transcoder<T> tc);
+
+    /**
+     * Set the value for the given key using the default Transcoder.
+     *
+     * @param key
+     *            the key under which this object should be added.
+     * @param value
+     *            the object to store
+     * @param timeToLive
+     *            the expiration of this object i.e. less than 30 days in
+     *            seconds or the exact expiry time as UNIX time
+     * @param policy
+     *            the Policy that decides when the returned stage is completed
+     * @return a stage completed with the latch of this operation once it is released as per the Policy or the
+     *         operation timeout has elapsed. The latch can be queried for the status of the operation.
+     */
+    <T> CompletionStage<EVCacheLatch> set(String key, T value, int timeToLive, Policy policy);
+
+    /**
+     * Set the value for the given key using the specified Transcoder.
+     *
+     * @see #set(String, Object, int, Policy)
+     */
+    <T> CompletionStage<EVCacheLatch> set(String key, T value, Transcoder<T> tc, int timeToLive, Policy policy);
+
+    /**
+     * Delete the given key from all the server groups.
+     *
+     * @param key
+     *            the key to delete.
+     * @param policy
+     *            the Policy that decides when the returned stage is completed
+     * @return a stage completed with the latch of this operation once it is released as per the Policy or the
+     *         operation timeout has elapsed.
+     */
+    CompletionStage<EVCacheLatch> delete(String key, Policy policy);
+
+    /**
+     * Touch the given key and reset its expiration time.
+     *
+     * @param key
+     *            the key to touch.
+     * @param timeToLive
+     *            the new expiration time in seconds
+     * @param policy
+     *            the Policy that decides when the returned stage is completed
+     * @return a stage completed with the latch of this operation once it is released as per the Policy or the
+     *         operation timeout has elapsed.
+     */
+    CompletionStage<EVCacheLatch> touch(String key, int timeToLive, Policy policy);
+
+    /**
+     * Add the given value if the key does not exist.
+     *
+     * @param key
+     *            the key under which this object should be added.
+     * @param value
+     *            the value to be added
+     * @param tc
+     *            the Transcoder to serialize the data
+     * @param timeToLive
+     *            the expiration of this object i.e. less than 30 days in
+     *            seconds or the exact expiry time as UNIX time
+     * @return a stage completed with true if the value was added and false if the key already exists.
+     */
+    <T> CompletionStage<Boolean> add(String key, T value, Transcoder<T> tc, int timeToLive);
+
+    /**
+     * Increment the given counter, returning the new value.
+     *
+     * @param key
+     *            the key
+     * @param by
+     *            the amount to increment
+     * @param defaultVal
+     *            the default value (if the counter does not exist)
+     * @param timeToLive
+     *            the expiration of this object
+     * @return a stage completed with the new value, or -1 if we were unable to increment or add
+     */
+    CompletionStage<Long> incr(String key, long by, long defaultVal, int timeToLive);
+}
@@ -0,0 +1,91 @@
+package com.netflix.evcache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import com.netflix.evcache.EVCacheLatch.Policy;
+
+import net.spy.memcached.transcoders.Transcoder;
+
+/**
+ * {@link EVCacheAsync} backed by an {@link EVCacheImpl}. Writes use the latch based write path of EVCacheImpl, which
+ * does not wait for the operations, and complete the stage once the latch is released.
+ */
+final class EVCacheAsyncImpl implements EVCacheAsync {
+
+    private final EVCacheImpl impl;
+
+    EVCacheAsyncImpl(EVCacheImpl impl) {
+        this.impl = impl;
+    }
+
+    @Override
+    public <T> CompletionStage<T> get(String key) {
+        return impl.getAsync(key, null);
+    }
+
+    @Override
+    public <T> CompletionStage<T> get(String key, Transcoder<T> tc) {
+        return impl.getAsync(key, tc);
+    }
+
+    @Override
+    public <T> CompletionStage<Map<String, T>> getBulk(Collection<String> keys) {
+        return impl.getBulkAsync(keys, null);
+    }
+
+    @Override
+    public <T> CompletionStage<Map<String, T>> getBulk(Collection<String> keys, Transcoder<T> tc) {
+        return impl.getBulkAsync(keys, tc);
+    }
+
+    @Override
+    public <T> CompletionStage<EVCacheLatch> set(String key, T value, int timeToLive, Policy policy) {
+        return set(key, value, null, timeToLive, policy);
+    }
+
+    @Override
+    public <T> CompletionStage<EVCacheLatch> set(String key, T value, Transcoder<T> tc, int timeToLive, Policy policy) {
+        try {
+            return impl.whenReleased(impl.set(key, value, tc, timeToLive, policy), policy);
+        } catch (Exception e) {
+            return failed(e);
+        }
+    }
+
+    @Override
+    public CompletionStage<EVCacheLatch> delete(String key, Policy policy) {
+        try {
+            return impl.whenReleased(impl.delete(key, policy), policy);
+        } catch (Exception e) {
+            return failed(e);
+        }
+    }
+
+    @Override
+    public CompletionStage<EVCacheLatch> touch(String key, int timeToLive, Policy policy) {
+        try {
+            return impl.whenReleased(impl.touch(key, timeToLive, policy), policy);
+        } catch (Exception e) {
+            return failed(e);
+        }
+    }
+
+    @Override
+    public <T> CompletionStage<Boolean> add(String key, T value, Transcoder<T> tc, int timeToLive) {
+        return impl.addAsync(key, value, tc, timeToLive);
+    }
+
+    @Override
+    public CompletionStage<Long> incr(String key, long by, long defaultVal, int timeToLive) {
+        return impl.incrAsync(key, by, defaultVal, timeToLive);
+    }
+
+    private static <V> CompletableFuture<V> failed(Exception e) {
+        final CompletableFuture<V> f = new CompletableFuture<V>();
+        f.completeExceptionally(e);
+        return f;
+    }
+}
@@ -2,22 +2,39 @@ package com.netflix.evcache;
 
 import static com.netflix.evcache.util.Sneaky.sneakyThrow;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.management.ManagementFactory;
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
 
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
@@ -32,7 +49,12 @@ import com.netflix.evcache.EVCacheInMemoryCache.DataNotFoundException;
 import com.netflix.evcache.EVCacheLatch.Policy;
 import com.netflix.evcache.event.EVCacheEvent;
 import com.netflix.evcache.event.EVCacheEventListener;
+import com.netflix.evcache.event.hotkey.HotKeyCache;
+import com.netflix.evcache.metrics.EVCacheCallTimers;
 import com.netflix.evcache.metrics.EVCacheMetricsFactory;
+import com.netflix.evcache.metrics.EVCacheMetricsFactory.CacheHit;
+import com.netflix.evcache.metrics.EVCacheMetricsFactory.IpcResult;
+import com.netflix.evcache.operation.EVCacheBulkGetFuture;
 import com.netflix.evcache.operation.EVCacheFuture;
 import com.netflix.evcache.operation.EVCacheItem;
 import com.netflix.evcache.operation.EVCacheItemMetaData;
@@ -45,6 +67,9 @@ import com.netflix.evcache.pool.EVCacheClientUtil;
 import com.netflix.evcache.pool.EVCacheValue;
 import com.netflix.evcache.pool.ServerGroup;
 import com.netflix.evcache.util.KeyHasher;
+import com.netflix.evcache.util.LatencyHistogram;
+import com.netflix.evcache.util.NegativeCache;
+import com.netflix.evcache.util.WriteGenerations;
 import com.netflix.spectator.api.BasicTag;
 import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.DistributionSummary;
@@ -52,6 +77,8 @@ import com.netflix.spectator.api.Tag;
 import com.netflix.spectator.api.Timer;
 
 import net.spy.memcached.CachedData;
+import net.spy.memcached.internal.CheckedOperationTimeoutException;
+import net.spy.memcached.internal.OperationFuture;
 import net.spy.memcached.transcoders.Transcoder;
 import rx.Observable;
 import rx.Scheduler;
@@ -73,6 +100,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
 
     private final String _appName;
     private final String _cacheName;
+    private final String _cacheNamePrefix;
     private final String _metricPrefix;
     private final Transcoder<?> _transcoder;
     private final boolean _zoneFallback;
@@ -84,8 +112,10 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
     private final Property<Boolean> _throwExceptionFP, _zoneFallbackFP, _useInMemoryCache;
     private final Property<Boolean> _bulkZoneFallbackFP;
     private final Property<Boolean> _bulkPartialZoneFallbackFP;
+    private final Property<Boolean> _bulkPartialZoneFallbackParallelFP;
     private final List<Tag> tags;
     private EVCacheInMemoryCache<?> cache;
+    private final HotKeyCache _hotKeyCache;
     private EVCacheClientUtil clientUtil = null;
     private final Property<Boolean> ignoreTouch;
     private final Property<Boolean> hashKey;
@@ -94,7 +124,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
     private final Property<Integer> maxReadDuration, maxWriteDuration;
 
     private final EVCacheClientPoolManager _poolManager;
-    private final Map<String, Timer> timerMap = new ConcurrentHashMap<String, Timer>();
+    private final EVCacheCallTimers callTimers;
     private final Map<String, DistributionSummary> distributionSummaryMap = new ConcurrentHashMap<String, DistributionSummary>();
     private final Map<String, Counter> counterMap = new ConcurrentHashMap<String, Counter>();
     private final Property<Boolean> _eventsUsingLatchFP, autoHashKeys;
@@ -103,10 +133,38 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
     private final Property<Integer> maxKeyLength;
     private final Property<String> alias;
 
+    private final Property<Boolean> _hedgeReadsFP;
+    private final Property<Double> hedgeLatencyPercentile;
+    private final Property<Integer> hedgeMinDelay, hedgeBudgetPercent;
+    private final LatencyHistogram readLatencyHistogram = new LatencyHistogram(30000);
+    private final AtomicLong hedgeCredits = new AtomicLong(0);
+    private final EVCacheAsync async = new EVCacheAsyncImpl(this);
+
+    private final Property<Boolean> _coalesceReadsFP;
+    private final Map<String, InFlightRead> inFlightGets = new ConcurrentHashMap<String, InFlightRead>();
+    private final Map<String, InFlightRead> inFlightGetAndTouches = new ConcurrentHashMap<String, InFlightRead>();
+
+    private static final String LEASE_SUFFIX = ":evc.lease";
+    private static final byte[] LEASE_MARKER = new byte[] { 1 };
+    private final Property<Integer> leaseTTL, leaseWaitInterval, leaseWaitMax;
+
+    private final Property<Boolean> _earlyRefreshFP;
+    private final Property<Double> earlyRefreshBeta;
+    private final Property<Integer> earlyRefreshDefaultCost;
+    private final AtomicLong loadCostMicros = new AtomicLong(-1);
+    private final Map<String, Boolean> refreshingKeys = new ConcurrentHashMap<String, Boolean>();
+
+    private final Property<Boolean> _negativeCacheFP;
+    private final Property<Integer> negativeCacheTTL, negativeCacheSize;
+    private volatile NegativeCache negativeCache;
+    private final WriteGenerations missGenerations = new WriteGenerations(1024); // a miss read before a write completed is not added to the negative cache
+    private final Property<Integer> streamMaxPendingChunks;
+
     EVCacheImpl(String appName, String cacheName, int timeToLive, Transcoder<?> transcoder, boolean enableZoneFallback,
             boolean throwException, EVCacheClientPoolManager poolManager) {
         this._appName = appName;
         this._cacheName = cacheName;
+        this._cacheNamePrefix = (cacheName == null) ? null : cacheName + ':';
 
         if(_cacheName != null && _cacheName.length() > 0) {
             for(int i = 0; i < cacheName.length(); i++) {
@@ -124,16 +182,19 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         tags = new ArrayList<Tag>(3);
         EVCacheMetricsFactory.getInstance().addAppNameTags(tags, _appName);
         if(_cacheName != null && _cacheName.length() > 0) tags.add(new BasicTag(EVCacheMetricsFactory.PREFIX, _cacheName));
+        callTimers = new EVCacheCallTimers(tags);
 
         final String _metricName = (_cacheName == null) ? _appName : _appName + "." + _cacheName;
         _metricPrefix = _appName + "-";
         this._poolManager = poolManager;
+        this._hotKeyCache = poolManager.getHotKeyCache(_appName);
         this._pool = poolManager.getEVCacheClientPool(_appName);
         final PropertyRepository propertyRepository = poolManager.getEVCacheConfig().getPropertyRepository();
         _throwExceptionFP = propertyRepository.get(_metricName + ".throw.exception", Boolean.class).orElseGet(_appName + ".throw.exception").orElse(false);
         _zoneFallbackFP = propertyRepository.get(_metricName + ".fallback.zone", Boolean.class).orElseGet(_appName + ".fallback.zone").orElse(true);
         _bulkZoneFallbackFP = propertyRepository.get(_appName + ".bulk.fallback.zone", Boolean.class).orElse(true);
         _bulkPartialZoneFallbackFP = propertyRepository.get(_appName+ ".bulk.partial.fallback.zone", Boolean.class).orElse(true);
+        _bulkPartialZoneFallbackParallelFP = propertyRepository.get(_appName+ ".bulk.partial.fallback.zone.parallel", Boolean.class).orElseGet("evcache.bulk.partial.fallback.zone.parallel").orElse(false);
         if(_cacheName == null) {
             _useInMemoryCache = propertyRepository.get(_appName + ".use.inmemory.cache", Boolean.class).orElseGet("evcache.use.inmemory.cache").orElse(false);
         } else {
@@ -155,6 +216,34 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         // auto key prepend with appname for duet feature.
         this.maxKeyLength = propertyRepository.get(_appName + ".max.key.length", Integer.class).orElseGet("evcache.max.key.length").orElse(200);
 
+        // hedged reads : fire a second get at another server group if the first one has not returned within the given
+        // percentile of the recent read latency. The budget limits the extra load (in percent of gets) hedging can add.
+        this._hedgeReadsFP = propertyRepository.get(_appName + ".hedge.reads", Boolean.class).orElseGet("evcache.hedge.reads").orElse(false);
+        this.hedgeLatencyPercentile = propertyRepository.get(_appName + ".hedge.latency.percentile", Double.class).orElseGet("evcache.hedge.latency.percentile").orElse(95.0);
+        this.hedgeMinDelay = propertyRepository.get(_appName + ".hedge.min.delay.micros", Integer.class).orElseGet("evcache.hedge.min.delay.micros").orElse(500);
+        this.hedgeBudgetPercent = propertyRepository.get(_appName + ".hedge.budget.percent", Integer.class).orElseGet("evcache.hedge.budget.percent").orElse(5);
+
+        // single flight : concurrent get or getAndTouch calls for the same key share one in flight memcached operation
+        this._coalesceReadsFP = propertyRepository.get(_appName + ".coalesce.reads", Boolean.class).orElseGet("evcache.coalesce.reads").orElse(false);
+
+        // read through leases : ttl (in seconds) of the lease marker and how long the callers not holding it wait for the value
+        this.leaseTTL = propertyRepository.get(_appName + ".lease.ttl", Integer.class).orElseGet("evcache.lease.ttl").orElse(5);
+        this.leaseWaitInterval = propertyRepository.get(_appName + ".lease.wait.interval.millis", Integer.class).orElseGet("evcache.lease.wait.interval.millis").orElse(20);
+        this.leaseWaitMax = propertyRepository.get(_appName + ".lease.wait.max.millis", Integer.class).orElseGet("evcache.lease.wait.max.millis").orElse(200);
+
+        // early refresh (XFetch) of read through values based on the remaining ttl returned by meta get
+        this._earlyRefreshFP = propertyRepository.get(_appName + ".early.refresh", Boolean.class).orElseGet("evcache.early.refresh").orElse(false);
+        this.earlyRefreshBeta = propertyRepository.get(_appName + ".early.refresh.beta", Double.class).orElseGet("evcache.early.refresh.beta").orElse(1.0);
+        this.earlyRefreshDefaultCost = propertyRepository.get(_appName + ".early.refresh.default.cost.millis", Integer.class).orElseGet("evcache.early.refresh.default.cost.millis").orElse(100);
+
+        // negative cache : gets for keys that were not found within the ttl (in millis) return null without a round trip
+        this._negativeCacheFP = propertyRepository.get(_appName + ".negative.cache", Boolean.class).orElseGet("evcache.negative.cache").orElse(false);
+        this.negativeCacheTTL = propertyRepository.get(_appName + ".negative.cache.ttl.millis", Integer.class).orElseGet("evcache.negative.cache.ttl.millis").orElse(1000);
+        this.negativeCacheSize = propertyRepository.get(_appName + ".negative.cache.size", Integer.class).orElseGet("evcache.negative.cache.size").orElse(100000);
+        this.negativeCacheSize.subscribe(i -> this.negativeCache = null);
+        // the number of chunks of a streamed value that can be in flight to a replica before the stream is read further
+        this.streamMaxPendingChunks = propertyRepository.get(_appName + ".stream.max.pending.chunks", Integer.class).orElseGet("evcache.stream.max.pending.chunks").orElse(64);
+
         // if alias changes, refresh my pool to point to the correct alias app
         this.alias = propertyRepository.get("EVCacheClientPoolManager." + appName + ".alias", String.class);
         this.alias.subscribe(i -> {
@@ -191,25 +280,19 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             }
         }
 
-        final String canonicalKey;
-        if (this._cacheName == null) {
-            canonicalKey = key;
-        } else {
-            final int keyLength = _cacheName.length() + 1 + key.length();
-            canonicalKey  = new StringBuilder(keyLength).append(_cacheName).append(':').append(key).toString();
-        }
+        // concat sizes the result exactly and avoids the intermediate StringBuilder
+        final String canonicalKey = (this._cacheNamePrefix == null) ? key : _cacheNamePrefix.concat(key);
 
         final String hashedKey;
-        if(hashKey.get()) {
-            hashedKey = KeyHasher.getHashedKey(canonicalKey, hashingAlgo.get());
-        } else if(autoHashKeys.get() && canonicalKey.length() > this.maxKeyLength.get()) {
+        final int maxKeyLength = this.maxKeyLength.get().intValue();
+        if(hashKey.get().booleanValue() || (autoHashKeys.get().booleanValue() && canonicalKey.length() > maxKeyLength)) {
             hashedKey = KeyHasher.getHashedKey(canonicalKey, hashingAlgo.get());
         } else {
             hashedKey = null;
         }
 
-        if (hashedKey == null && canonicalKey.length() > this.maxKeyLength.get()) {
-            throw new IllegalArgumentException("Key is too long (maxlen = " + this.maxKeyLength.get() + ')');
+        if (hashedKey == null && canonicalKey.length() > maxKeyLength) {
+            throw new IllegalArgumentException("Key is too long (maxlen = " + maxKeyLength + ')');
         }
 
         final EVCacheKey evcKey = new EVCacheKey(_appName, key, canonicalKey, hashedKey, hashingAlgo);
@@ -307,6 +390,51 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         return (EVCacheInMemoryCache<T>) cache;
     }
 
+    /**
+     * Drops the keys from the in memory caches, see {@link #invalidateInMemory(Collection)}, once all the writes of the
+     * latch have completed so that a value that was read while they were in flight is not kept.
+     */
+    private void invalidateInMemory(Collection<EVCacheKey> evcKeys, EVCacheLatch latch) {
+        invalidateInMemory(evcKeys, (latch == null) ? Collections.<Future<Boolean>> emptyList() : latch.getAllFutures());
+    }
+
+    private void invalidateInMemory(Collection<EVCacheKey> evcKeys, List<Future<Boolean>> futures) {
+        if (cache == null && !_negativeCacheFP.get() && negativeCache == null && _hotKeyCache.isEmpty() && !_useInMemoryCache.get()) return;
+        final AtomicInteger pending = new AtomicInteger(futures.size() + 1);
+        final Runnable completed = () -> {
+            if (pending.decrementAndGet() == 0) invalidateInMemory(evcKeys);
+        };
+        for (Future<Boolean> future : futures) {
+            if (future instanceof OperationFuture) {
+                ((OperationFuture<Boolean>) future).addListener(f -> completed.run());
+            } else {
+                completed.run(); // the write was not issued
+            }
+        }
+        completed.run();
+    }
+
+    /**
+     * Drops the keys from the in memory, hot key and negative caches after a write and, if the in memory cache is
+     * enabled and an invalidation bus is set on the pool manager, from the in memory caches of the other client instances.
+     */
+    private void invalidateInMemory(Collection<EVCacheKey> evcKeys) {
+        final EVCacheInMemoryCache<?> inMemoryCache = cache;
+        final NegativeCache misses = negativeCache;
+        final boolean negativeCacheEnabled = _negativeCacheFP.get().booleanValue();
+        for (EVCacheKey evcKey : evcKeys) {
+            if (inMemoryCache != null) inMemoryCache.invalidate(evcKey);
+            _hotKeyCache.invalidate(evcKey.getCanonicalKey(false));
+            if (negativeCacheEnabled) missGenerations.increment(evcKey);
+            if (misses != null) misses.remove(evcKey.getCanonicalKey(false));
+        }
+        if (_useInMemoryCache.get()) _poolManager.publishInvalidation(this, evcKeys);
+    }
+
+    private void invalidateInMemory(EVCacheKey evcKey) {
+        invalidateInMemory(Collections.singletonList(evcKey));
+    }
+
     public <T> T get(String key) throws EVCacheException {
         return this.get(key, (Transcoder<T>) _transcoder);
     }
@@ -387,6 +515,24 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         counter.increment();
     }
 
+    /**
+     * Increments the counter of a read path outcome, tagged with the call, the call type if not null and the status.
+     */
+    private void increment(String metricName, Call call, String callType, String status) {
+        final String name = metricName + call.name() + status;
+        Counter counter = counterMap.get(name);
+        if(counter == null) {
+            final List<Tag> tagList = new ArrayList<Tag>(tags.size() + 3);
+            tagList.addAll(tags);
+            tagList.add(new BasicTag(EVCacheMetricsFactory.CALL_TAG, call.name()));
+            if(callType != null) tagList.add(new BasicTag(EVCacheMetricsFactory.CALL_TYPE_TAG, callType));
+            tagList.add(new BasicTag(EVCacheMetricsFactory.OPERATION_STATUS, status));
+            counter = EVCacheMetricsFactory.getInstance().getCounter(metricName, tagList);
+            counterMap.put(name, counter);
+        }
+        counter.increment();
+    }
+
     public <T> T get(String key, Transcoder<T> tc) throws EVCacheException {
         if (null == key) throw new IllegalArgumentException("Key cannot be null");
         final EVCacheKey evcKey = getEVCacheKey(key);
@@ -416,12 +562,173 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                 if (log.isInfoEnabled() && shouldLog()) log.info("Value not_found in inmemory cache for APP " + _appName + ", key : " + evcKey + "; value : " + value );
             }
         }
-        return doGet(evcKey, tc);
+        final String canonicalKey = evcKey.getCanonicalKey(false);
+        final T hotValue = _hotKeyCache.get(canonicalKey, tc);
+        if (hotValue != null) {
+            if (log.isDebugEnabled() && shouldLog()) log.debug("Value retrieved from hot key cache for APP " + _appName + ", key : " + evcKey);
+            return hotValue;
+        }
+        final long hotKeyStamp = _hotKeyCache.stamp();
+        final T value;
+        if (_coalesceReadsFP.get()) {
+            value = coalesce(inFlightGets, evcKey, tc, 0, Call.GET, transcoder -> doGet(evcKey, transcoder));
+        } else {
+            value = doGet(evcKey, tc);
+        }
+        _hotKeyCache.put(canonicalKey, value, tc, hotKeyStamp);
+        return value;
+    }
+
+    public <T> T get(String key, Transcoder<T> tc, Loader<T> loader) throws EVCacheException {
+        if (null == loader) throw new IllegalArgumentException("Loader cannot be null");
+        T value = null;
+        if (_earlyRefreshFP.get() && !hashKey.get()) {
+            final EVCacheItem<T> item = metaGet(key, tc);
+            if (item != null && item.getData() != null) {
+                if (shouldRefreshEarly(item.getItemMetaData().getSecondsLeftToExpire())) refreshEarly(key, tc, loader);
+                return item.getData();
+            }
+        } else {
+            value = get(key, tc);
+            if (value != null) return value;
+        }
+
+        final EVCacheKey leaseKey = getLeaseKey(key);
+        if (acquireLease(leaseKey)) {
+            increment(EVCacheMetricsFactory.INTERNAL_LEASE, Call.GET, null, EVCacheMetricsFactory.LEASE_ACQUIRED);
+            try {
+                value = load(key, loader);
+                if (value != null) set(key, value, tc, _timeToLive, Policy.NONE);
+                return value;
+            } finally {
+                try {
+                    delete(leaseKey.getKey(), Policy.NONE);
+                } catch (Exception e) {
+                    if (log.isDebugEnabled() && shouldLog()) log.debug("Exception releasing the lease for APP " + _appName + ", key : " + leaseKey, e);
+                }
+            }
+        }
+
+        // some one else holds the lease. Wait for the value to show up before loading it ourselves.
+        final long waitUntil = System.currentTimeMillis() + leaseWaitMax.get().longValue();
+        while (System.currentTimeMillis() < waitUntil) {
+            try {
+                Thread.sleep(leaseWaitInterval.get().longValue());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new EVCacheException("Thread was Interrupted while waiting for the lease on key " + key, e);
+            }
+            value = get(key, tc);
+            if (value != null) {
+                increment(EVCacheMetricsFactory.INTERNAL_LEASE, Call.GET, null, EVCacheMetricsFactory.LEASE_WAIT_HIT);
+                return value;
+            }
+        }
+        increment(EVCacheMetricsFactory.INTERNAL_LEASE, Call.GET, null, EVCacheMetricsFactory.LEASE_WAIT_EXPIRED);
+        return load(key, loader);
+    }
+
+    /**
+     * The lease key of a key whose lease key would exceed the max key length is derived from the hash of the key.
+     */
+    private EVCacheKey getLeaseKey(String key) {
+        final int prefixLength = (_cacheNamePrefix == null) ? 0 : _cacheNamePrefix.length();
+        if (prefixLength + key.length() + LEASE_SUFFIX.length() <= maxKeyLength.get().intValue()) return getEVCacheKey(key + LEASE_SUFFIX);
+        return getEVCacheKey(KeyHasher.getHashedKey(key, hashingAlgo.get()) + LEASE_SUFFIX);
+    }
+
+    /**
+     * The lease is acquired only if it was added to all the server groups. If it already exists in any of them, or
+     * the add fails or times out, some one else may hold it.
+     */
+    private boolean acquireLease(EVCacheKey leaseKey) {
+        try {
+            if(clientUtil == null) clientUtil = new EVCacheClientUtil(_pool);
+            final CachedData cd = new CachedData(0, LEASE_MARKER, CachedData.MAX_SIZE);
+            return clientUtil.asyncAdd(leaseKey, cd, hashKey.get(), evcacheValueTranscoder, leaseTTL.get().intValue()).get(_pool.getOperationTimeout().get(), TimeUnit.MILLISECONDS).booleanValue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            if (log.isDebugEnabled() && shouldLog()) log.debug("Exception acquiring the lease for APP " + _appName + ", key : " + leaseKey, e);
+            return false;
+        }
+    }
+
+    private <T> T load(String key, Loader<T> loader) throws EVCacheException {
+        final long start = System.nanoTime();
+        try {
+            return loader.load(key);
+        } catch (EVCacheException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new EVCacheException("Exception loading the data for APP " + _appName + ", key : " + key, e);
+        } finally {
+            final long took = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+            final long cost = loadCostMicros.get();
+            // exponentially weighted moving average with a weight of 1/8 for the latest sample
+            loadCostMicros.set(cost < 0 ? took : cost + ((took - cost) >> 3));
+        }
+    }
+
+    /**
+     * XFetch : refresh with a probability that rises as the item nears its expiry, weighted by the cost of loading
+     * it i.e. refresh if -cost * beta * ln(random) >= remaining ttl. This spreads the reloads of keys written with
+     * the same ttl over time instead of all of them expiring at once.
+     */
+    private boolean shouldRefreshEarly(long secondsLeftToExpire) {
+        if (secondsLeftToExpire < 0) return false; // never expires
+        long cost = loadCostMicros.get();
+        if (cost < 0) cost = TimeUnit.MILLISECONDS.toMicros(earlyRefreshDefaultCost.get().longValue());
+        final double gap = -(cost / 1000000.0) * earlyRefreshBeta.get().doubleValue() * Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        return gap >= secondsLeftToExpire;
+    }
+
+    private <T> void refreshEarly(String key, Transcoder<T> tc, Loader<T> loader) {
+        if (refreshingKeys.putIfAbsent(key, Boolean.TRUE) != null) return;
+        try {
+            _poolManager.getEVCacheWorkerExecutor().execute(() -> {
+                try {
+                    final T value = load(key, loader);
+                    if (value != null) set(key, value, tc, _timeToLive, Policy.NONE);
+                } catch (Exception e) {
+                    if (log.isDebugEnabled() && shouldLog()) log.debug("Exception refreshing the data for APP " + _appName + ", key : " + key, e);
+                } finally {
+                    refreshingKeys.remove(key);
+                }
+            });
+            increment(EVCacheMetricsFactory.INTERNAL_EARLY_REFRESH, Call.GET, null, EVCacheMetricsFactory.EARLY_REFRESH);
+        } catch (RejectedExecutionException e) {
+            refreshingKeys.remove(key);
+            if (log.isDebugEnabled() && shouldLog()) log.debug("Could not schedule the refresh for APP " + _appName + ", key : " + key, e);
+        }
+    }
+
+    /**
+     * Returns the negative cache if it is turned on. It is created on first use and again after its size was changed.
+     */
+    private NegativeCache getNegativeCache() {
+        if (!_negativeCacheFP.get()) return null;
+        NegativeCache misses = negativeCache;
+        if (misses == null) {
+            synchronized (this) {
+                if ((misses = negativeCache) == null) negativeCache = misses = new NegativeCache(negativeCacheSize.get().intValue());
+            }
+        }
+        return misses;
     }
 
     <T> T doGet(EVCacheKey evcKey , Transcoder<T> tc) throws EVCacheException {
+        final NegativeCache misses = getNegativeCache();
+        if (misses != null && misses.contains(evcKey.getCanonicalKey(false), System.currentTimeMillis())) {
+            increment(EVCacheMetricsFactory.INTERNAL_NEGATIVE_CACHE, Call.GET, null, EVCacheMetricsFactory.NEGATIVE_CACHE_HIT);
+            if (log.isDebugEnabled() && shouldLog()) log.debug("GET : APP " + _appName + " ; key : " + evcKey + " was recently not found");
+            return null;
+        }
+        // a miss is only added if no write of the key completed while it was read
+        final long missGeneration = (misses == null) ? 0 : missGenerations.get(evcKey);
         final boolean throwExc = doThrowException();
-        EVCacheClient client = _pool.getEVCacheClientForRead();
+        EVCacheClient client = _pool.getEVCacheClientForRead(evcKey);
         if (client == null) {
             incrementFastFail(EVCacheMetricsFactory.NULL_CLIENT, Call.GET);
             if (throwExc) throw new EVCacheException("Could not find a client to get the data APP " + _appName);
@@ -446,34 +753,59 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         }
 
         final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
-        String status = EVCacheMetricsFactory.SUCCESS;
-        String cacheOperation = EVCacheMetricsFactory.YES;
+        IpcResult status = IpcResult.SUCCESS;
+        CacheHit cacheOperation = CacheHit.YES;
         int tries = 1;
         try {
             final boolean hasZF = hasZoneFallback();
             boolean throwEx = hasZF ? false : throwExc;
-            T data = getData(client, evcKey, tc, throwEx, hasZF);
+            List<EVCacheClient> fbClients = null;
+            HedgedRead hedgedRead = null;
+            if (hasZF && _hedgeReadsFP.get()) {
+                fbClients = _pool.getEVCacheClientsForReadExcluding(client.getServerGroup());
+                if (fbClients != null && !fbClients.isEmpty()) hedgedRead = getHedgedRead(client, fbClients.get(0), evcKey, tc);
+            }
+            int fbStart = 0;
+            T data = null;
+            // set if a read failed, so that a miss that might not be one is not added to the negative cache
+            final boolean[] readFailed = new boolean[1];
+            if (hedgedRead != null) {
+                if (hedgedRead.hedgeFired) {
+                    tries++;
+                    fbStart = 1;
+                }
+                if (hedgedRead.winner != null) {
+                    data = getHedgedData(hedgedRead.winner, evcKey, tc);
+                    if (data != null) client = hedgedRead.winner.getEVCacheClient();
+                }
+                if (hedgedRead.winner == null || hedgedRead.error != null) readFailed[0] = true;
+                // the hedge was the last server group to fall back to, so an error is reported the same way as for the last fallback get
+                if (data == null && throwExc && hedgedRead.error != null && fbStart >= fbClients.size()) throw hedgedRead.error;
+            } else {
+                data = (misses == null) ? getData(client, evcKey, tc, throwEx, hasZF) : getData(client, evcKey, tc, throwEx, hasZF, readFailed);
+            }
             if (data == null && hasZF) {
-                final List<EVCacheClient> fbClients = _pool.getEVCacheClientsForReadExcluding(client.getServerGroup());
+                if (fbClients == null) fbClients = _pool.getEVCacheClientsForReadExcluding(client.getServerGroup());
                 if (fbClients != null && !fbClients.isEmpty()) {
-                    for (int i = 0; i < fbClients.size(); i++) {
+                    for (int i = fbStart; i < fbClients.size(); i++) {
                         final EVCacheClient fbClient = fbClients.get(i);
                         if(i >= fbClients.size() - 1) throwEx = throwExc;
                         if (event != null) {
                             try {
                                 if (shouldThrottle(event)) {
-                                    status = EVCacheMetricsFactory.THROTTLED;
+                                    status = IpcResult.THROTTLED;
                                     if (throwExc) throw new EVCacheException("Request Throttled for app " + _appName + " & key " + evcKey);
                                     return null;
                                 }
                             } catch(EVCacheException ex) {
                                 if(throwExc) throw ex;
-                                status = EVCacheMetricsFactory.THROTTLED;
+                                status = IpcResult.THROTTLED;
                                 return null;
                             }
                         }
                         tries++;
-                        data = getData(fbClient, evcKey, tc, throwEx, (i < fbClients.size() - 1) ? true : false);
+                        final boolean fbHasZF = (i < fbClients.size() - 1) ? true : false;
+                        data = (misses == null) ? getData(fbClient, evcKey, tc, throwEx, fbHasZF) : getData(fbClient, evcKey, tc, throwEx, fbHasZF, readFailed);
                         if (log.isDebugEnabled() && shouldLog()) log.debug("Retry for APP " + _appName + ", key [" + evcKey + (log.isTraceEnabled() ? "], Value [" + data : "") + "], ServerGroup : " + fbClient.getServerGroup());
                         if (data != null) {
                             client = fbClient;
@@ -485,17 +817,26 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             if (data != null) {
                 if (event != null) event.setAttribute("status", "GHIT");
             } else {
-                cacheOperation = EVCacheMetricsFactory.NO;
+                cacheOperation = CacheHit.NO;
                 if (event != null) event.setAttribute("status", "GMISS");
                 if (log.isInfoEnabled() && shouldLog()) log.info("GET : APP " + _appName + " ; cache miss for key : " + evcKey);
+                if (misses != null && !readFailed[0] && missGenerations.get(evcKey) == missGeneration) {
+                    misses.add(evcKey.getCanonicalKey(false), System.currentTimeMillis(), negativeCacheTTL.get().intValue());
+                    if (missGenerations.get(evcKey) != missGeneration) {
+                        // a write completed while the miss was added and may have removed it before
+                        misses.remove(evcKey.getCanonicalKey(false));
+                    } else {
+                        increment(EVCacheMetricsFactory.INTERNAL_NEGATIVE_CACHE, Call.GET, null, EVCacheMetricsFactory.NEGATIVE_CACHE_ADD);
+                    }
+                }
             }
             if (log.isDebugEnabled() && shouldLog()) log.debug("GET : APP " + _appName + ", key [" + evcKey + (log.isTraceEnabled() ? "], Value [" + data : "") + "], ServerGroup : " + client.getServerGroup());
             if (event != null) endEvent(event);
             return data;
         } catch (net.spy.memcached.internal.CheckedOperationTimeoutException ex) {
-            status = EVCacheMetricsFactory.TIMEOUT;
+            status = IpcResult.TIMEOUT;
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return null;
@@ -503,25 +844,150 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                     + ".\nYou can set the following property to increase the timeout " + _appName
                     + ".EVCacheClientPool.readTimeout=<timeout in milli-seconds>", ex);
         } catch (Exception ex) {
-            status = EVCacheMetricsFactory.ERROR;
+            status = IpcResult.ERROR;
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return null;
             throw new EVCacheException("Exception getting data for APP " + _appName + ", key = " + evcKey, ex);
         } finally {
             final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
-            getTimer(Call.GET.name(), EVCacheMetricsFactory.READ, cacheOperation, status, tries, maxReadDuration.get().intValue(), client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.GET, EVCacheMetricsFactory.READ, cacheOperation, status, tries, maxReadDuration.get().intValue(), client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("GET : APP " + _appName + ", Took " + duration + " milliSec.");
         }
     }
 
+    private static final class HedgedRead {
+        private final EVCacheOperationFuture<Object> winner;
+        private final boolean hedgeFired;
+        private final Exception error;
+
+        private HedgedRead(EVCacheOperationFuture<Object> winner, boolean hedgeFired, Exception error) {
+            this.winner = winner;
+            this.hedgeFired = hedgeFired;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Issues a non blocking get to the client and, if it has not completed within the hedge delay, a second get to the
+     * hedgeClient. The first hit wins and the other request is cancelled. A miss wins only once no other request is
+     * pending. Returns null if the key cannot be fetched with a non blocking get so that the caller can use the
+     * regular read path. The winner is null if neither request completed within the read timeout. If there is no hit
+     * the error of a failed request, or the timeout, is returned with the result.
+     */
+    private HedgedRead getHedgedRead(final EVCacheClient client, EVCacheClient hedgeClient, EVCacheKey evcKey, Transcoder<?> tc) throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<EVCacheOperationFuture<Object>> winner = new AtomicReference<EVCacheOperationFuture<Object>>();
+        final AtomicReference<Exception> error = new AtomicReference<Exception>();
+        final AtomicInteger pending = new AtomicInteger(1);
+        final long start = System.nanoTime();
+        final EVCacheGetOperationListener<Object> listener = future -> {
+            boolean hit = false;
+            if (!future.isCancelled()) {
+                try {
+                    hit = future.get() != null;
+                    // only the requests that completed are recorded, a cancelled loser would skew the latencies
+                    if (future.getEVCacheClient() == client) readLatencyHistogram.recordMicros(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                } catch (Exception e) {
+                    if (log.isDebugEnabled() && shouldLog()) log.debug("Exception getting hedged value for APP " + _appName + ", key : " + future.getKey() + "; ServerGroup : " + future.getServerGroup(), e);
+                    error.compareAndSet(null, (e instanceof ExecutionException && e.getCause() instanceof Exception) ? (Exception) e.getCause() : e);
+                }
+            }
+            final int left = pending.decrementAndGet();
+            if ((hit || left <= 0) && winner.compareAndSet(null, future)) latch.countDown();
+        };
+
+        final EVCacheOperationFuture<Object> primary = asyncGetForHedge(client, evcKey, tc, listener);
+        if (primary == null) return null;
+
+        if (hedgeCredits.get() < 10000) hedgeCredits.addAndGet(hedgeBudgetPercent.get().intValue());
+        final long timeout = TimeUnit.MILLISECONDS.toMicros(client.getEffectiveReadTimeout());
+        final long delay = getHedgeDelayMicros();
+        EVCacheOperationFuture<Object> hedge = null;
+        if (delay >= 0 && delay < timeout && !latch.await(delay, TimeUnit.MICROSECONDS)) {
+            if (acquireHedgeCredit()) {
+                pending.incrementAndGet();
+                if (winner.get() == null) hedge = asyncGetForHedge(hedgeClient, evcKey, tc, listener);
+                if (hedge == null) {
+                    if (pending.decrementAndGet() <= 0 && primary.isDone() && winner.compareAndSet(null, primary)) latch.countDown();
+                } else {
+                    increment(EVCacheMetricsFactory.INTERNAL_HEDGE, Call.GET, EVCacheMetricsFactory.READ, EVCacheMetricsFactory.HEDGE_FIRED);
+                    if (log.isDebugEnabled() && shouldLog()) log.debug("GET : APP " + _appName + ", key [" + evcKey + "], Hedge fired after " + delay + " micros to ServerGroup : " + hedgeClient.getServerGroup());
+                }
+            } else {
+                increment(EVCacheMetricsFactory.INTERNAL_HEDGE, Call.GET, EVCacheMetricsFactory.READ, EVCacheMetricsFactory.HEDGE_BUDGET_EXHAUSTED);
+            }
+        }
+
+        final long remaining = timeout - TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        if (remaining > 0) latch.await(remaining, TimeUnit.MICROSECONDS);
+        final EVCacheOperationFuture<Object> won = winner.get();
+        if (won == null) {
+            if (!primary.isDone()) primary.cancel();
+            if (hedge != null && !hedge.isDone()) hedge.cancel();
+            final Exception ex = error.get();
+            return new HedgedRead(null, hedge != null, (ex != null) ? ex : new CheckedOperationTimeoutException("Timed out waiting for the hedged get of key " + evcKey, primary.getOperation()));
+        }
+        final boolean hit = getHedgedValue(won) != null;
+        if (hedge != null) {
+            final EVCacheOperationFuture<Object> loser = (won == primary) ? hedge : primary;
+            if (!loser.isDone()) loser.cancel();
+            if (won == hedge && hit) increment(EVCacheMetricsFactory.INTERNAL_HEDGE, Call.GET, EVCacheMetricsFactory.READ, EVCacheMetricsFactory.HEDGE_WON);
+        }
+        return new HedgedRead(won, hedge != null, hit ? null : error.get());
+    }
+
+    private EVCacheOperationFuture<Object> asyncGetForHedge(EVCacheClient client, EVCacheKey evcKey, Transcoder<?> tc, EVCacheGetOperationListener<Object> listener) throws Exception {
+        final String hashKey = evcKey.getHashKey(client.isDuetClient());
+        if (hashKey != null) return client.asyncGet(hashKey, evcacheValueTranscoder, listener);
+        final Transcoder<Object> transcoder = (Transcoder<Object>) ((tc == null) ? ((_transcoder == null) ? client.getTranscoder() : _transcoder) : tc);
+        return client.asyncGet(evcKey.getCanonicalKey(client.isDuetClient()), transcoder, listener);
+    }
+
+    private <T> T getHedgedData(EVCacheOperationFuture<Object> future, EVCacheKey evcKey, Transcoder<T> tc) {
+        final Object obj = getHedgedValue(future);
+        if (obj == null) return null;
+        final EVCacheClient client = future.getEVCacheClient();
+        if (evcKey.getHashKey(client.isDuetClient()) == null) return (T) obj;
+        final Transcoder<T> transcoder = (tc == null) ? ((_transcoder == null) ? (Transcoder<T>) client.getTranscoder() : (Transcoder<T>) _transcoder) : tc;
+        return decodeEVCacheValue(obj, evcKey.getCanonicalKey(client.isDuetClient()), transcoder, Call.GET);
+    }
+
+    private static Object getHedgedValue(EVCacheOperationFuture<Object> future) {
+        if (!future.isDone() || future.isCancelled()) return null;
+        try {
+            return future.get();
+        } catch (Exception e) {
+            if (log.isDebugEnabled()) log.debug("Exception getting hedged value for key : " + future.getKey(), e);
+            return null;
+        }
+    }
+
+    private long getHedgeDelayMicros() {
+        final long percentile = readLatencyHistogram.getPercentileMicros(hedgeLatencyPercentile.get().doubleValue(), 100);
+        if (percentile < 0) return -1;
+        return Math.max(percentile, hedgeMinDelay.get().longValue());
+    }
+
+    /**
+     * Every hedge eligible get deposits hedge.budget.percent credits and each hedge costs 100. This caps the hedges
+     * to the budget percentage of gets while still allowing short bursts.
+     */
+    private boolean acquireHedgeCredit() {
+        while (true) {
+            final long credits = hedgeCredits.get();
+            if (credits < 100) return false;
+            if (hedgeCredits.compareAndSet(credits, credits - 100)) return true;
+        }
+    }
+
     public EVCacheItemMetaData metaDebug(String key) throws EVCacheException {
         if (null == key) throw new IllegalArgumentException("Key cannot be null");
         final EVCacheKey evcKey = getEVCacheKey(key);
         final boolean throwExc = doThrowException();
-        EVCacheClient client = _pool.getEVCacheClientForRead();
+        EVCacheClient client = _pool.getEVCacheClientForRead(evcKey);
         if (client == null) {
             incrementFastFail(EVCacheMetricsFactory.NULL_CLIENT, Call.META_DEBUG);
             if (throwExc) throw new EVCacheException("Could not find a client to get the metadata for APP " + _appName);
@@ -546,8 +1012,8 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         }
 
         final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
-        String status = EVCacheMetricsFactory.SUCCESS;
-        String cacheOperation = EVCacheMetricsFactory.YES;
+        IpcResult status = IpcResult.SUCCESS;
+        CacheHit cacheOperation = CacheHit.YES;
         int tries = 1;
         try {
             final boolean hasZF = hasZoneFallback();
@@ -562,13 +1028,13 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                         if (event != null) {
                             try {
                                 if (shouldThrottle(event)) {
-                                    status = EVCacheMetricsFactory.THROTTLED;
+                                    status = IpcResult.THROTTLED;
                                     if (throwExc) throw new EVCacheException("Request Throttled for app " + _appName + " & key " + evcKey);
                                     return null;
                                 }
                             } catch(EVCacheException ex) {
                                 if(throwExc) throw ex;
-                                status = EVCacheMetricsFactory.THROTTLED;
+                                status = IpcResult.THROTTLED;
                                 return null;
                             }
                         }
@@ -585,7 +1051,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             if (data != null) {
                 if (event != null) event.setAttribute("status", "MDHIT");
             } else {
-                cacheOperation = EVCacheMetricsFactory.NO;
+                cacheOperation = CacheHit.NO;
                 if (event != null) event.setAttribute("status", "MDMISS");
                 if (log.isInfoEnabled() && shouldLog()) log.info("META_DEBUG : APP " + _appName + " ; cache miss for key : " + evcKey);
             }
@@ -593,9 +1059,9 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             if (event != null) endEvent(event);
             return data;
         } catch (net.spy.memcached.internal.CheckedOperationTimeoutException ex) {
-            status = EVCacheMetricsFactory.TIMEOUT;
+            status = IpcResult.TIMEOUT;
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return null;
@@ -603,16 +1069,16 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                     + ".\nYou can set the following property to increase the timeout " + _appName
                     + ".EVCacheClientPool.readTimeout=<timeout in milli-seconds>", ex);
         } catch (Exception ex) {
-            status = EVCacheMetricsFactory.ERROR;
+            status = IpcResult.ERROR;
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return null;
             throw new EVCacheException("Exception getting with metadata for APP " + _appName + ", key = " + evcKey, ex);
         } finally {
             final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
-            getTimer(Call.META_DEBUG.name(), EVCacheMetricsFactory.READ, cacheOperation, status, tries, maxReadDuration.get().intValue(), client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.META_DEBUG, EVCacheMetricsFactory.READ, cacheOperation, status, tries, maxReadDuration.get().intValue(), client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("META_DEBUG : APP " + _appName + ", Took " + duration + " milliSec.");
         }
     }
@@ -621,7 +1087,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         if (null == key) throw new IllegalArgumentException("Key cannot be null");
         final EVCacheKey evcKey = getEVCacheKey(key);
         final boolean throwExc = doThrowException();
-        EVCacheClient client = _pool.getEVCacheClientForRead();
+        EVCacheClient client = _pool.getEVCacheClientForRead(evcKey);
         if (client == null) {
             incrementFastFail(EVCacheMetricsFactory.NULL_CLIENT, Call.META_GET);
             if (throwExc) throw new EVCacheException("Could not find a client to get the data APP " + _appName);
@@ -646,8 +1112,8 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         }
 
         final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
-        String status = EVCacheMetricsFactory.SUCCESS;
-        String cacheOperation = EVCacheMetricsFactory.YES;
+        IpcResult status = IpcResult.SUCCESS;
+        CacheHit cacheOperation = CacheHit.YES;
         int tries = 1;
         try {
             final boolean hasZF = hasZoneFallback();
@@ -662,13 +1128,13 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                         if (event != null) {
                             try {
                                 if (shouldThrottle(event)) {
-                                    status = EVCacheMetricsFactory.THROTTLED;
+                                    status = IpcResult.THROTTLED;
                                     if (throwExc) throw new EVCacheException("Request Throttled for app " + _appName + " & key " + evcKey);
                                     return null;
                                 }
                             } catch(EVCacheException ex) {
                                 if(throwExc) throw ex;
-                                status = EVCacheMetricsFactory.THROTTLED;
+                                status = IpcResult.THROTTLED;
                                 return null;
                             }
                         }
@@ -685,7 +1151,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             if (data != null) {
                 if (event != null) event.setAttribute("status", "MGHIT");
             } else {
-                cacheOperation = EVCacheMetricsFactory.NO;
+                cacheOperation = CacheHit.NO;
                 if (event != null) event.setAttribute("status", "MGMISS");
                 if (log.isInfoEnabled() && shouldLog()) log.info("META_GET : APP " + _appName + " ; cache miss for key : " + evcKey);
             }
@@ -693,9 +1159,9 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             if (event != null) endEvent(event);
             return data;
         } catch (net.spy.memcached.internal.CheckedOperationTimeoutException ex) {
-            status = EVCacheMetricsFactory.TIMEOUT;
+            status = IpcResult.TIMEOUT;
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return null;
@@ -703,16 +1169,16 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                     + ".\nYou can set the following property to increase the timeout " + _appName
                     + ".EVCacheClientPool.readTimeout=<timeout in milli-seconds>", ex);
         } catch (Exception ex) {
-            status = EVCacheMetricsFactory.ERROR;
+            status = IpcResult.ERROR;
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return null;
             throw new EVCacheException("Exception getting with meta data for APP " + _appName + ", key = " + evcKey, ex);
         } finally {
             final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
-            getTimer(Call.META_GET.name(), EVCacheMetricsFactory.READ, cacheOperation, status, tries, maxReadDuration.get().intValue(), client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.META_GET, EVCacheMetricsFactory.READ, cacheOperation, status, tries, maxReadDuration.get().intValue(), client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("META_GET : APP " + _appName + ", Took " + duration + " milliSec.");
         }
     }
@@ -758,10 +1224,11 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
 
         final int expectedSuccessCount = policyToCount(policy, clients.length);
         if(expectedSuccessCount <= 1) return get(key, tc);
+        if(supportsNonBlockingRead(clients)) return getQuorum(key, tc, policy, clients, expectedSuccessCount, throwExc);
 
         final long startTime = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
-        String status = EVCacheMetricsFactory.SUCCESS;
-        String cacheOperation = EVCacheMetricsFactory.YES;
+        IpcResult status = IpcResult.SUCCESS;
+        CacheHit cacheOperation = CacheHit.YES;
         int tries = 1;
         try {
             final List<Future<T>> futureList = new ArrayList<Future<T>>(clients.length);
@@ -814,15 +1281,239 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             if (log.isDebugEnabled() && shouldLog()) log.debug("GET : CONSISTENT : policy : " + policy + " was NOT met. Will return NULL. Total Duration : " + (System.currentTimeMillis() - startTime) + " milli Seconds.");
             return null;
         } catch (Exception ex) {
-            status = EVCacheMetricsFactory.ERROR;
+            status = IpcResult.ERROR;
+            if (!throwExc) return null;
+            throw new EVCacheException("Exception getting data for APP " + _appName + ", key = " + key, ex);
+        } finally {
+            final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- startTime;
+            getTimer(Call.GET_ALL, EVCacheMetricsFactory.READ, cacheOperation, status, tries, maxReadDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
+            if (log.isDebugEnabled() && shouldLog()) log.debug("GET : CONSISTENT : APP " + _appName + ", Took " + duration + " milliSec.");
+        }
+
+    }
+
+    private boolean supportsNonBlockingRead(EVCacheClient[] clients) {
+        for (EVCacheClient client : clients) {
+            if (!client.supportsNonBlockingRead()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Consistent get that returns as soon as the expected number of replicas agree on a value. The replicas are
+     * compared on the raw bytes they hold. Once all the replicas have replied, the ones holding a different value and
+     * the ones that do not have the key are repaired on the worker executor by writing back the winning value with its
+     * remaining ttl.
+     */
+    private <T> T getQuorum(String key, Transcoder<T> tc, Policy policy, EVCacheClient[] clients, int expectedSuccessCount, boolean throwExc) throws EVCacheException {
+        final EVCacheKey evcKey = getEVCacheKey(key);
+        final long startTime = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
+        IpcResult status = IpcResult.SUCCESS;
+        CacheHit cacheOperation = CacheHit.YES;
+        try {
+            final QuorumRead read = new QuorumRead(expectedSuccessCount, clients.length);
+            for (EVCacheClient client : clients) {
+                getRawDataAsync(client, evcKey).whenComplete((raw, ex) -> {
+                    if (ex != null && log.isDebugEnabled() && shouldLog()) log.debug("GET : CONSISTENT : Exception getting key : " + evcKey + " from client : " + client, ex);
+                    read.reply(client, ex == null ? getComparableData(client, evcKey, raw) : null, ex == null && raw == null);
+                });
+            }
+            read.done.thenRun(() -> {
+                try {
+                    _poolManager.getEVCacheWorkerExecutor().execute(() -> repair(evcKey, read));
+                } catch (RejectedExecutionException e) {
+                    if (log.isDebugEnabled() && shouldLog()) log.debug("GET : CONSISTENT : Could not schedule the repair of key : " + evcKey, e);
+                }
+            });
+
+            CachedData winner = null;
+            try {
+                winner = read.result.get(_pool.getReadTimeout().get().intValue(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (log.isDebugEnabled() && shouldLog()) log.debug("GET : CONSISTENT : Timed out waiting for replies for key : " + evcKey);
+            }
+            if (winner == null) {
+                cacheOperation = CacheHit.NO;
+                if (log.isDebugEnabled() && shouldLog()) log.debug("GET : CONSISTENT : policy : " + policy + " was NOT met. Will return NULL. Total Duration : " + (System.currentTimeMillis() - startTime) + " milli Seconds.");
+                return null;
+            }
+            if (log.isDebugEnabled() && shouldLog()) log.debug("GET : CONSISTENT : policy : " + policy + " was met. Will return the value. Total Duration : " + (System.currentTimeMillis() - startTime) + " milli Seconds.");
+            final Transcoder<T> transcoder = (tc == null) ? ((_transcoder == null) ? (Transcoder<T>) clients[0].getTranscoder() : (Transcoder<T>) _transcoder) : tc;
+            return transcoder.decode(winner);
+        } catch (Exception ex) {
+            status = IpcResult.ERROR;
             if (!throwExc) return null;
             throw new EVCacheException("Exception getting data for APP " + _appName + ", key = " + key, ex);
         } finally {
             final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- startTime;
-            getTimer(Call.GET_ALL.name(), EVCacheMetricsFactory.READ, cacheOperation, status, tries, maxReadDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.GET_ALL, EVCacheMetricsFactory.READ, cacheOperation, status, 1, maxReadDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("GET : CONSISTENT : APP " + _appName + ", Took " + duration + " milliSec.");
         }
+    }
+
+    private CompletableFuture<CachedData> getRawDataAsync(final EVCacheClient client, final EVCacheKey evcKey) {
+        final CompletableFuture<CachedData> attempt = new CompletableFuture<CachedData>();
+        try {
+            final EVCacheGetOperationListener<CachedData> listener = future -> {
+                try {
+                    attempt.complete(future.get());
+                } catch (Throwable t) {
+                    attempt.completeExceptionally(t);
+                }
+            };
+            final Transcoder<CachedData> rawTranscoder = client.getChunkingTranscoder();
+            final EVCacheOperationFuture<CachedData> future = client.asyncGet(evcKey.getDerivedKey(client.isDuetClient()), rawTranscoder, listener);
+            if (future == null) {
+                attempt.complete(null); // node not available
+            } else if (!future.isDone()) {
+                scheduleTimeout(attempt, client.getEffectiveReadTimeout(), () -> {
+                    if (attempt.completeExceptionally(new CheckedOperationTimeoutException("Timed out waiting for get of key " + evcKey, future.getOperation()))) future.cancel();
+                });
+            }
+        } catch (Throwable t) {
+            attempt.completeExceptionally(t);
+        }
+        return attempt;
+    }
+
+    /**
+     * Returns the flags and bytes of the value held in the raw data i.e. unwraps the EVCacheValue when the key is hashed.
+     */
+    private CachedData getComparableData(EVCacheClient client, EVCacheKey evcKey, CachedData raw) {
+        if (raw == null || evcKey.getHashKey(client.isDuetClient()) == null) return raw;
+        final Object obj = evcacheValueTranscoder.decode(raw);
+        if (!(obj instanceof EVCacheValue)) return null;
+        final EVCacheValue val = (EVCacheValue) obj;
+        if (!val.getKey().equals(evcKey.getCanonicalKey(client.isDuetClient()))) {
+            incrementFailure(EVCacheMetricsFactory.KEY_HASH_COLLISION, Call.GET_ALL.name(), EVCacheMetricsFactory.READ);
+            return null;
+        }
+        return new CachedData(val.getFlags(), val.getValue(), CachedData.MAX_SIZE);
+    }
+
+    private void repair(EVCacheKey evcKey, QuorumRead read) {
+        try {
+            final List<EVCacheClient> divergent = new ArrayList<EVCacheClient>();
+            EVCacheClient source = null;
+            CachedData winner = null;
+            synchronized (read) {
+                if (read.winner == null) {
+                    // no value reached the quorum. If the replicas disagree we cannot tell which one is right so drop them all.
+                    int distinct = 0;
+                    CachedData first = null;
+                    for (int i = 0; i < read.clients.size(); i++) {
+                        final CachedData payload = read.payloads.get(i);
+                        if (payload == null) continue;
+                        if (first == null) {
+                            first = payload;
+                            distinct = 1;
+                        } else if (!QuorumRead.isSame(first, payload)) {
+                            distinct++;
+                        }
+                    }
+                    if (distinct <= 1) return;
+                    for (int i = 0; i < read.clients.size(); i++) {
+                        if (read.payloads.get(i) != null) divergent.add(read.clients.get(i));
+                    }
+                } else {
+                    winner = read.winner;
+                    for (int i = 0; i < read.clients.size(); i++) {
+                        final CachedData payload = read.payloads.get(i);
+                        if (payload == null) {
+                            if (read.misses.get(i).booleanValue()) divergent.add(read.clients.get(i));
+                            continue;
+                        }
+                        if (QuorumRead.isSame(read.winner, payload)) {
+                            if (source == null) source = read.clients.get(i);
+                        } else {
+                            divergent.add(read.clients.get(i));
+                        }
+                    }
+                }
+            }
+            if (divergent.isEmpty()) return;
+
+            if (source == null) {
+                for (EVCacheClient client : divergent) {
+                    if (log.isDebugEnabled() && shouldLog()) log.debug("GET : CONSISTENT : Delete in-consistent value from : " + client);
+                    client.delete(evcKey.getDerivedKey(client.isDuetClient()));
+                }
+                return;
+            }
+
+            final EVCacheItem<CachedData> item = source.metaGet(evcKey.getDerivedKey(source.isDuetClient()), source.getChunkingTranscoder(), false, false);
+            if (item == null) return;
+            final long ttlLeft = item.getItemMetaData().getSecondsLeftToExpire();
+            if (ttlLeft == 0) return; // about to expire, nothing to repair
+            final int ttl = ttlLeft < 0 ? 0 : (int) ttlLeft;
+            for (EVCacheClient client : divergent) {
+                if (log.isDebugEnabled() && shouldLog()) log.debug("GET : CONSISTENT : Repair in-consistent value on : " + client + " with ttl : " + ttl);
+                // the winner is unwrapped, wrap it again for the key of the client being repaired
+                final CachedData cd;
+                if (evcKey.getHashKey(client.isDuetClient()) != null) {
+                    final EVCacheValue val = new EVCacheValue(evcKey.getCanonicalKey(client.isDuetClient()), winner.getData(), winner.getFlags(), ttl, System.currentTimeMillis());
+                    cd = evcacheValueTranscoder.encode(val);
+                } else {
+                    cd = winner;
+                }
+                client.set(evcKey.getDerivedKey(client.isDuetClient()), cd, ttl, null);
+                increment(EVCacheMetricsFactory.INTERNAL_READ_REPAIR, Call.GET_ALL, null, EVCacheMetricsFactory.READ_REPAIRED);
+            }
+        } catch (Exception e) {
+            if (log.isDebugEnabled() && shouldLog()) log.debug("GET : CONSISTENT : Exception repairing key : " + evcKey, e);
+        }
+    }
+
+    /**
+     * The replies of a consistent get. {@link #result} completes with the first value that the expected number of
+     * replicas agree on or with null once every replica has replied without reaching it. {@link #done} completes once
+     * every replica has replied.
+     */
+    private static final class QuorumRead {
+        private final int expected;
+        private final int total;
+        private final List<EVCacheClient> clients;
+        private final List<CachedData> payloads;
+        private final List<Boolean> misses;
+        private CachedData winner;
+        private final CompletableFuture<CachedData> result = new CompletableFuture<CachedData>();
+        private final CompletableFuture<Void> done = new CompletableFuture<Void>();
+
+        QuorumRead(int expected, int total) {
+            this.expected = expected;
+            this.total = total;
+            this.clients = new ArrayList<EVCacheClient>(total);
+            this.payloads = new ArrayList<CachedData>(total);
+            this.misses = new ArrayList<Boolean>(total);
+        }
+
+        void reply(EVCacheClient client, CachedData payload, boolean miss) {
+            final boolean complete;
+            final CachedData won;
+            synchronized (this) {
+                clients.add(client);
+                payloads.add(payload);
+                misses.add(Boolean.valueOf(miss));
+                if (winner == null && payload != null) {
+                    int count = 0;
+                    for (CachedData p : payloads) {
+                        if (p != null && isSame(p, payload)) count++;
+                    }
+                    if (count >= expected) winner = payload;
+                }
+                complete = clients.size() >= total;
+                won = winner;
+            }
+            if (won != null) result.complete(won);
+            if (complete) {
+                result.complete(null);
+                done.complete(null);
+            }
+        }
 
+        static boolean isSame(CachedData a, CachedData b) {
+            return a.getFlags() == b.getFlags() && Arrays.equals(a.getData(), b.getData());
+        }
     }
 
     public <T> Single<T> get(String key, Scheduler scheduler) {
@@ -833,13 +1524,13 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         if (null == key) return Single.error(new IllegalArgumentException("Key cannot be null"));
 
         final boolean throwExc = doThrowException();
-        final EVCacheClient client = _pool.getEVCacheClientForRead();
+        final EVCacheKey evcKey = getEVCacheKey(key);
+        final EVCacheClient client = _pool.getEVCacheClientForRead(evcKey);
         if (client == null) {
             incrementFastFail(EVCacheMetricsFactory.NULL_CLIENT, Call.GET);
             return Single.error(new EVCacheException("Could not find a client to get the data APP " + _appName));
         }
 
-        final EVCacheKey evcKey = getEVCacheKey(key);
         final EVCacheEvent event = createEVCacheEvent(Collections.singletonList(client), Call.GET);
         if (event != null) {
             event.setEVCacheKeys(Arrays.asList(evcKey));
@@ -903,51 +1594,664 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             }
         }).doAfterTerminate(() -> {
             final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
-            getTimer(Call.GET_AND_TOUCH.name(), EVCacheMetricsFactory.READ, null, EVCacheMetricsFactory.SUCCESS, 1, maxReadDuration.get().intValue(), client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.GET_AND_TOUCH, EVCacheMetricsFactory.READ, null, IpcResult.SUCCESS, 1, maxReadDuration.get().intValue(), client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("GET : APP " + _appName + ", Took " + duration + " milliSec.");
         });
     }
 
-    private <T> T getData(EVCacheClient client, EVCacheKey evcKey, Transcoder<T> tc, boolean throwException, boolean hasZF) throws Exception {
-        if (client == null) return null;
-        final Transcoder<T> transcoder = (tc == null) ? ((_transcoder == null) ? (Transcoder<T>) client.getTranscoder() : (Transcoder<T>) _transcoder) : tc;
+    /**
+     * Non blocking version of {@link #get(String, Transcoder)}. The get is issued with a completion listener and the
+     * returned future is completed from the memcached callback thread. On a miss or an error the next server group is
+     * tried from the callback of the previous one. Clients that need more than one get to read a key (chunking or
+     * hashing by server group) are read on the EVCacheExecutor.
+     */
+    <T> CompletableFuture<T> getAsync(String key, Transcoder<T> tc) {
+        final CompletableFuture<T> result = new CompletableFuture<T>();
+        final EVCacheKey evcKey;
         try {
-            String hashKey = evcKey.getHashKey(client.isDuetClient());
-            String canonicalKey = evcKey.getCanonicalKey(client.isDuetClient());
+            if (null == key) throw new IllegalArgumentException("Key cannot be null");
+            evcKey = getEVCacheKey(key);
+        } catch (RuntimeException ex) {
+            result.completeExceptionally(ex);
+            return result;
+        }
+        final boolean throwExc = doThrowException();
+        final EVCacheClient client = _pool.getEVCacheClientForRead(evcKey);
+        if (client == null) {
+            incrementFastFail(EVCacheMetricsFactory.NULL_CLIENT, Call.GET);
+            return completeFastFail(result, throwExc, null, new EVCacheException("Could not find a client to get the data APP " + _appName));
+        }
 
-            if(hashKey != null) {
-                final Object obj = client.get(hashKey, evcacheValueTranscoder, throwException, hasZF);
-                if(obj != null && obj instanceof EVCacheValue) {
-                    final EVCacheValue val = (EVCacheValue)obj;
-                    if(!val.getKey().equals(canonicalKey)) {
-                        incrementFailure(EVCacheMetricsFactory.KEY_HASH_COLLISION, Call.GET.name(), EVCacheMetricsFactory.READ);
-                        return null;
-                    }
-                    final CachedData cd = new CachedData(val.getFlags(), val.getValue(), CachedData.MAX_SIZE);
-                    return transcoder.decode(cd);
-                } else {
-                    return null;
+        final EVCacheInMemoryCache<T> inMemoryCache;
+        final RecordingTranscoder<T> recorder;
+        if (_useInMemoryCache.get()) {
+            final Transcoder<T> transcoder = (tc == null) ? ((_transcoder == null) ? (Transcoder<T>) client.getTranscoder() : (Transcoder<T>) _transcoder) : tc;
+            inMemoryCache = getInMemoryCache(transcoder);
+            final T value = inMemoryCache.getIfPresent(evcKey);
+            if (value != null) {
+                if (log.isDebugEnabled() && shouldLog()) log.debug("Value retrieved from inmemory cache for APP " + _appName + ", key : " + evcKey + (log.isTraceEnabled() ? "; value : " + value : ""));
+                result.complete(value);
+                return result;
+            }
+            // the data read is kept so that the value is weighed without being encoded again
+            recorder = new RecordingTranscoder<T>(transcoder, true);
+        } else {
+            inMemoryCache = null;
+            recorder = null;
+        }
+
+        final EVCacheEvent event = createEVCacheEvent(Collections.singletonList(client), Call.GET);
+        if (event != null) {
+            event.setEVCacheKeys(Arrays.asList(evcKey));
+            try {
+                if (shouldThrottle(event)) {
+                    incrementFastFail(EVCacheMetricsFactory.THROTTLED, Call.GET);
+                    return completeFastFail(result, throwExc, null, new EVCacheException("Request Throttled for app " + _appName + " & key " + evcKey));
                 }
-            } else {
-                return client.get(canonicalKey, transcoder, throwException, hasZF);
+            } catch(EVCacheException ex) {
+                incrementFastFail(EVCacheMetricsFactory.THROTTLED, Call.GET);
+                return completeFastFail(result, throwExc, null, ex);
             }
-        } catch (EVCacheConnectException ex) {
-            if (log.isDebugEnabled() && shouldLog()) log.debug("EVCacheConnectException while getting data for APP " + _appName + ", key : " + evcKey + "; hasZF : " + hasZF, ex);
-            if (!throwException || hasZF) return null;
-            throw ex;
-        } catch (EVCacheReadQueueException ex) {
-            if (log.isDebugEnabled() && shouldLog()) log.debug("EVCacheReadQueueException while getting data for APP " + _appName + ", key : " + evcKey + "; hasZF : " + hasZF, ex);
-            if (!throwException || hasZF) return null;
-            throw ex;
-        } catch (EVCacheException ex) {
-            if (log.isDebugEnabled() && shouldLog()) log.debug("EVCacheException while getting data for APP " + _appName + ", key : " + evcKey + "; hasZF : " + hasZF, ex);
-            if (!throwException || hasZF) return null;
-            throw ex;
-        } catch (Exception ex) {
-            if (log.isDebugEnabled() && shouldLog()) log.debug("Exception while getting data for APP " + _appName + ", key : " + evcKey, ex);
-            if (!throwException || hasZF) return null;
-            throw ex;
+            startEvent(event);
         }
+
+        final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
+        getAsync(client, client, null, 1, evcKey, (recorder == null) ? tc : recorder, hasZoneFallback(), throwExc, event, start, inMemoryCache, result);
+        return result;
+    }
+
+    private <T> void getAsync(final EVCacheClient primary, final EVCacheClient client, final List<EVCacheClient> fbClients, final int tries, final EVCacheKey evcKey, final Transcoder<T> tc,
+            final boolean hasZF, final boolean throwExc, final EVCacheEvent event, final long start, final EVCacheInMemoryCache<T> inMemoryCache, final CompletableFuture<T> result) {
+        getDataAsync(client, evcKey, tc).whenComplete((data, ex) -> {
+            if (ex != null && log.isDebugEnabled() && shouldLog()) log.debug("Exception while getting data for APP " + _appName + ", key : " + evcKey + "; ServerGroup : " + client.getServerGroup(), ex);
+            if (data == null && hasZF) {
+                final List<EVCacheClient> clients = (fbClients == null) ? _pool.getEVCacheClientsForReadExcluding(primary.getServerGroup()) : fbClients;
+                if (clients != null && tries <= clients.size()) {
+                    try {
+                        if (event != null && shouldThrottle(event)) {
+                            finishGetAsync(null, new EVCacheException("Request Throttled for app " + _appName + " & key " + evcKey), client, tries, evcKey, tc, throwExc, event, start, inMemoryCache, result);
+                            return;
+                        }
+                    } catch(EVCacheException e) {
+                        finishGetAsync(null, e, client, tries, evcKey, tc, throwExc, event, start, inMemoryCache, result);
+                        return;
+                    }
+                    getAsync(primary, clients.get(tries - 1), clients, tries + 1, evcKey, tc, hasZF, throwExc, event, start, inMemoryCache, result);
+                    return;
+                }
+            }
+            finishGetAsync(data, ex, client, tries, evcKey, tc, throwExc, event, start, inMemoryCache, result);
+        });
+    }
+
+    private <T> void finishGetAsync(T data, Throwable ex, EVCacheClient client, int tries, EVCacheKey evcKey, Transcoder<T> tc, boolean throwExc, EVCacheEvent event, long start,
+            EVCacheInMemoryCache<T> inMemoryCache, CompletableFuture<T> result) {
+        IpcResult status = IpcResult.SUCCESS;
+        final CacheHit cacheOperation = (data == null) ? CacheHit.NO : CacheHit.YES;
+        try {
+            if (ex != null) {
+                if (ex instanceof CompletionException && ex.getCause() != null) ex = ex.getCause();
+                status = (ex instanceof TimeoutException) ? IpcResult.TIMEOUT : IpcResult.ERROR;
+                if (event != null) {
+                    event.setStatus(status.value());
+                    eventError(event, ex);
+                }
+                if (!throwExc) {
+                    result.complete(null);
+                } else if (ex instanceof EVCacheException) {
+                    result.completeExceptionally(ex);
+                } else {
+                    result.completeExceptionally(new EVCacheException("Exception getting data for APP " + _appName + ", key = " + evcKey, ex));
+                }
+                return;
+            }
+            if (data != null) {
+                if (event != null) event.setAttribute("status", "GHIT");
+                if (inMemoryCache != null) inMemoryCache.put(evcKey, data, (tc instanceof RecordingTranscoder) ? ((RecordingTranscoder<T>) tc).getData(data) : null);
+            } else {
+                if (event != null) event.setAttribute("status", "GMISS");
+                if (log.isInfoEnabled() && shouldLog()) log.info("GET : APP " + _appName + " ; cache miss for key : " + evcKey);
+            }
+            if (log.isDebugEnabled() && shouldLog()) log.debug("GET : APP " + _appName + ", key [" + evcKey + (log.isTraceEnabled() ? "], Value [" + data : "") + "], ServerGroup : " + client.getServerGroup());
+            if (event != null) endEvent(event);
+            result.complete(data);
+        } finally {
+            final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
+            getTimer(Call.GET, EVCacheMetricsFactory.READ, cacheOperation, status, tries, maxReadDuration.get().intValue(), client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
+            if (log.isDebugEnabled() && shouldLog()) log.debug("GET : APP " + _appName + ", Took " + duration + " milliSec.");
+        }
+    }
+
+    private <T> CompletableFuture<T> getDataAsync(final EVCacheClient client, final EVCacheKey evcKey, final Transcoder<T> tc) {
+        final CompletableFuture<T> attempt = new CompletableFuture<T>();
+        if (!client.supportsNonBlockingRead()) {
+            _poolManager.getEVCacheExecutor().execute(() -> {
+                try {
+                    attempt.complete(getData(client, evcKey, tc, true, false));
+                } catch (Throwable t) {
+                    attempt.completeExceptionally(t);
+                }
+            });
+            return attempt;
+        }
+        try {
+            final Transcoder<T> transcoder = (tc == null) ? ((_transcoder == null) ? (Transcoder<T>) client.getTranscoder() : (Transcoder<T>) _transcoder) : tc;
+            final String hashKey = evcKey.getHashKey(client.isDuetClient());
+            final String canonicalKey = evcKey.getCanonicalKey(client.isDuetClient());
+            final EVCacheGetOperationListener<Object> listener = future -> {
+                try {
+                    final Object obj = future.get();
+                    attempt.complete((hashKey == null) ? (T) obj : decodeEVCacheValue(obj, canonicalKey, transcoder, Call.GET));
+                } catch (Throwable t) {
+                    attempt.completeExceptionally(t);
+                }
+            };
+            final EVCacheOperationFuture<Object> future = (hashKey == null) ? client.asyncGet(canonicalKey, (Transcoder<Object>) transcoder, listener)
+                    : client.asyncGet(hashKey, evcacheValueTranscoder, listener);
+            if (future == null) {
+                attempt.complete(null); // node not available
+            } else if (!future.isDone()) {
+                scheduleTimeout(attempt, client.getEffectiveReadTimeout(), () -> {
+                    if (attempt.completeExceptionally(new CheckedOperationTimeoutException("Timed out waiting for get of key " + evcKey, future.getOperation()))) future.cancel();
+                });
+            }
+        } catch (Throwable t) {
+            attempt.completeExceptionally(t);
+        }
+        return attempt;
+    }
+
+    /**
+     * Non blocking version of {@link #getBulk(Collection, Transcoder)}. Keys that are missing from the local server
+     * group are fetched from the next server group from the completion callback of the previous bulk get.
+     */
+    <T> CompletableFuture<Map<String, T>> getBulkAsync(Collection<String> keys, Transcoder<T> tc) {
+        final CompletableFuture<Map<String, T>> result = new CompletableFuture<Map<String, T>>();
+        if (null == keys) {
+            result.completeExceptionally(new IllegalArgumentException());
+            return result;
+        }
+        if (keys.isEmpty()) {
+            result.complete(Collections.<String, T> emptyMap());
+            return result;
+        }
+        final boolean throwExc = doThrowException();
+        final EVCacheClient client = _pool.getEVCacheClientForRead();
+        if (client == null) {
+            incrementFastFail(EVCacheMetricsFactory.NULL_CLIENT, Call.BULK);
+            return completeFastFail(result, throwExc, Collections.<String, T> emptyMap(), new EVCacheException("Could not find a client to get the data in bulk"));
+        }
+
+        final List<EVCacheKey> evcKeys = new ArrayList<EVCacheKey>(keys.size());
+        try {
+            for (String k : keys) {
+                evcKeys.add(getEVCacheKey(k));
+            }
+        } catch (RuntimeException ex) {
+            result.completeExceptionally(ex);
+            return result;
+        }
+
+        final EVCacheEvent event = createEVCacheEvent(Collections.singletonList(client), Call.BULK);
+        if (event != null) {
+            event.setEVCacheKeys(evcKeys);
+            try {
+                if (shouldThrottle(event)) {
+                    incrementFastFail(EVCacheMetricsFactory.THROTTLED, Call.BULK);
+                    return completeFastFail(result, throwExc, Collections.<String, T> emptyMap(), new EVCacheException("Request Throttled for app " + _appName + " & keys " + keys));
+                }
+            } catch(EVCacheException ex) {
+                incrementFastFail(EVCacheMetricsFactory.THROTTLED, Call.BULK);
+                return completeFastFail(result, throwExc, Collections.<String, T> emptyMap(), ex);
+            }
+            startEvent(event);
+        }
+
+        final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
+        getBulkAsync(client, client, null, 1, evcKeys, evcKeys, tc, new HashMap<EVCacheKey, T>((evcKeys.size() * 4) / 3 + 1), throwExc, event, start, result);
+        return result;
+    }
+
+    private <T> void getBulkAsync(final EVCacheClient primary, final EVCacheClient client, final List<EVCacheClient> fbClients, final int tries, final List<EVCacheKey> evcKeys,
+            final List<EVCacheKey> pendingKeys, final Transcoder<T> tc, final Map<EVCacheKey, T> retMap, final boolean throwExc, final EVCacheEvent event, final long start,
+            final CompletableFuture<Map<String, T>> result) {
+        getBulkDataAsync(client, pendingKeys, tc).whenComplete((data, ex) -> {
+            if (ex != null && log.isDebugEnabled() && shouldLog()) log.debug("Exception getting bulk data for APP " + _appName + ", keys = " + pendingKeys + "; ServerGroup : " + client.getServerGroup(), ex);
+            if (data != null) mergeFallbackData(data, pendingKeys, retMap);
+            if (retMap.size() < evcKeys.size() && hasZoneFallbackForBulk() && (retMap.isEmpty() || _bulkPartialZoneFallbackFP.get())) {
+                final List<EVCacheClient> clients = (fbClients == null) ? _pool.getEVCacheClientsForReadExcluding(primary.getServerGroup()) : fbClients;
+                if (clients != null && tries <= clients.size()) {
+                    try {
+                        if (event != null && shouldThrottle(event)) {
+                            finishGetBulkAsync(evcKeys, retMap, new EVCacheException("Request Throttled for app " + _appName + " & keys " + evcKeys), client, tries, throwExc, event, start, result);
+                            return;
+                        }
+                    } catch(EVCacheException e) {
+                        finishGetBulkAsync(evcKeys, retMap, e, client, tries, throwExc, event, start, result);
+                        return;
+                    }
+                    final List<EVCacheKey> retryKeys = new ArrayList<EVCacheKey>(evcKeys.size() - retMap.size());
+                    for (EVCacheKey evcKey : evcKeys) {
+                        if (!retMap.containsKey(evcKey)) retryKeys.add(evcKey);
+                    }
+                    getBulkAsync(primary, clients.get(tries - 1), clients, tries + 1, evcKeys, retryKeys, tc, retMap, throwExc, event, start, result);
+                    return;
+                }
+            }
+            finishGetBulkAsync(evcKeys, retMap, retMap.isEmpty() ? ex : null, client, tries, throwExc, event, start, result);
+        });
+    }
+
+    private <T> void finishGetBulkAsync(List<EVCacheKey> evcKeys, Map<EVCacheKey, T> retMap, Throwable ex, EVCacheClient client, int tries, boolean throwExc, EVCacheEvent event, long start,
+            CompletableFuture<Map<String, T>> result) {
+        IpcResult status = IpcResult.SUCCESS;
+        final CacheHit cacheOperation = retMap.isEmpty() ? CacheHit.NO : (retMap.size() < evcKeys.size() ? CacheHit.PARTIAL : CacheHit.YES);
+        try {
+            if (ex != null) {
+                if (ex instanceof CompletionException && ex.getCause() != null) ex = ex.getCause();
+                status = (ex instanceof TimeoutException) ? IpcResult.TIMEOUT : IpcResult.ERROR;
+                if (event != null) {
+                    event.setStatus(status.value());
+                    eventError(event, ex);
+                }
+                if (throwExc) {
+                    result.completeExceptionally((ex instanceof EVCacheException) ? ex : new EVCacheException("Exception getting bulk data for APP " + _appName + ", keys = " + evcKeys, ex));
+                    return;
+                }
+            }
+
+            final Map<String, T> decanonicalR = new HashMap<String, T>((evcKeys.size() * 4) / 3 + 1);
+            final List<String> decanonicalHitKeys = new ArrayList<String>(retMap.size());
+            for (EVCacheKey evcKey : evcKeys) {
+                final T value = retMap.get(evcKey);
+                decanonicalR.put(evcKey.getKey(), value);
+                if (value != null) decanonicalHitKeys.add(evcKey.getKey());
+            }
+            if (event != null) {
+                if (retMap.isEmpty()) {
+                    event.setAttribute("status", "BMISS_ALL");
+                } else if (retMap.size() < evcKeys.size()) {
+                    event.setAttribute("status", "BHIT_PARTIAL");
+                    event.setAttribute("BHIT_PARTIAL_KEYS", decanonicalHitKeys);
+                } else {
+                    event.setAttribute("status", "BHIT");
+                }
+                if (ex == null) endEvent(event);
+            }
+            if (log.isDebugEnabled() && shouldLog()) log.debug("APP " + _appName + ", BULK : Data [" + decanonicalR + "]");
+            result.complete(decanonicalR);
+        } finally {
+            final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
+            getTimer(Call.BULK, EVCacheMetricsFactory.READ, cacheOperation, status, tries, maxReadDuration.get().intValue(), client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
+            if (log.isDebugEnabled() && shouldLog()) log.debug("BULK : APP " + _appName + " Took " + duration + " milliSec to get the value for key " + evcKeys);
+        }
+    }
+
+    private <T> CompletableFuture<Map<EVCacheKey, T>> getBulkDataAsync(final EVCacheClient client, final List<EVCacheKey> evcKeys, final Transcoder<T> tc) {
+        final CompletableFuture<Map<EVCacheKey, T>> attempt = new CompletableFuture<Map<EVCacheKey, T>>();
+        if (!client.supportsNonBlockingRead()) {
+            _poolManager.getEVCacheExecutor().execute(() -> {
+                try {
+                    attempt.complete(getBulkData(client, evcKeys, tc, true, false));
+                } catch (Throwable t) {
+                    attempt.completeExceptionally(t);
+                }
+            });
+            return attempt;
+        }
+        try {
+            boolean hasHashedKey = false;
+            final Map<String, EVCacheKey> keyMap = new HashMap<String, EVCacheKey>(evcKeys.size() * 2);
+            for (EVCacheKey evcKey : evcKeys) {
+                final String hashKey = evcKey.getHashKey(client.isDuetClient());
+                if (hashKey != null) hasHashedKey = true;
+                keyMap.put(hashKey == null ? evcKey.getCanonicalKey(client.isDuetClient()) : hashKey, evcKey);
+            }
+            final Transcoder<Object> transcoder = (Transcoder<Object>) (hasHashedKey ? evcacheValueTranscoder : ((tc == null) ? ((_transcoder == null) ? client.getTranscoder() : _transcoder) : tc));
+            final boolean decode = hasHashedKey;
+            final EVCacheBulkGetFuture<Object> future = client.asyncGetBulk(keyMap.keySet(), transcoder);
+            future.addListener(f -> {
+                try {
+                    attempt.complete(toBulkData(client, keyMap, future.get(), tc, decode));
+                } catch (Throwable t) {
+                    attempt.completeExceptionally(t);
+                }
+            });
+            if (!future.isDone()) {
+                scheduleTimeout(attempt, client.getEffectiveBulkReadTimeout(), () -> {
+                    try {
+                        // returns what has been read so far and times out the rest
+                        attempt.complete(toBulkData(client, keyMap, future.getSome(0, TimeUnit.MILLISECONDS, false, true), tc, decode));
+                    } catch (Throwable t) {
+                        attempt.completeExceptionally(t);
+                    }
+                });
+            }
+        } catch (Throwable t) {
+            attempt.completeExceptionally(t);
+        }
+        return attempt;
+    }
+
+    private <T> Map<EVCacheKey, T> toBulkData(EVCacheClient client, Map<String, EVCacheKey> keyMap, Map<String, Object> objMap, Transcoder<T> tc, boolean decode) {
+        final Map<EVCacheKey, T> retMap = new HashMap<EVCacheKey, T>((int)(objMap.size()/0.75) + 1);
+        for (Map.Entry<String, Object> i : objMap.entrySet()) {
+            final EVCacheKey evcKey = keyMap.get(i.getKey());
+            if (evcKey == null || i.getValue() == null) continue;
+            if (decode && i.getValue() instanceof EVCacheValue) {
+                final Transcoder<T> transcoder = (tc == null) ? (Transcoder<T>) client.getTranscoder() : tc;
+                final T tVal = decodeEVCacheValue(i.getValue(), evcKey.getCanonicalKey(client.isDuetClient()), transcoder, Call.BULK);
+                if (tVal != null) retMap.put(evcKey, tVal);
+            } else {
+                retMap.put(evcKey, (T) i.getValue());
+            }
+        }
+        return retMap;
+    }
+
+    /**
+     * Non blocking version of {@link #incr(String, long, long, int)}. The increments are issued to all the server
+     * groups at the same time and the highest value is returned. Server groups that are behind are fixed up the same
+     * way as the blocking incr, without waiting for the fix up to complete.
+     */
+    CompletableFuture<Long> incrAsync(String key, long by, long defaultVal, int timeToLive) {
+        final CompletableFuture<Long> result = new CompletableFuture<Long>();
+        final EVCacheKey evcKey;
+        try {
+            if ((null == key) || by < 0 || defaultVal < 0 || timeToLive < 0) throw new IllegalArgumentException();
+            checkTTL(timeToLive, Call.INCR);
+            evcKey = getEVCacheKey(key);
+        } catch (RuntimeException ex) {
+            result.completeExceptionally(ex);
+            return result;
+        }
+
+        final boolean throwExc = doThrowException();
+        final EVCacheClient[] clients = _pool.getEVCacheClientForWrite();
+        if (clients.length == 0) {
+            incrementFastFail(EVCacheMetricsFactory.NULL_CLIENT, Call.INCR);
+            return completeFastFail(result, throwExc, Long.valueOf(-1), new EVCacheException("Could not find a client to incr the data"));
+        }
+
+        final EVCacheEvent event = createEVCacheEvent(Arrays.asList(clients), Call.INCR);
+        if (event != null) {
+            event.setEVCacheKeys(Arrays.asList(evcKey));
+            try {
+                if (shouldThrottle(event)) {
+                    incrementFastFail(EVCacheMetricsFactory.THROTTLED, Call.INCR);
+                    return completeFastFail(result, throwExc, Long.valueOf(-1), new EVCacheException("Request Throttled for app " + _appName + " & key " + key));
+                }
+            } catch(EVCacheException ex) {
+                incrementFastFail(EVCacheMetricsFactory.THROTTLED, Call.INCR);
+                return completeFastFail(result, throwExc, Long.valueOf(-1), ex);
+            }
+            startEvent(event);
+        }
+
+        final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
+        final long[] vals = new long[clients.length];
+        Arrays.fill(vals, -1);
+        final AtomicInteger pending = new AtomicInteger(clients.length);
+        final CompletableFuture<long[]> done = new CompletableFuture<long[]>();
+        for (int i = 0; i < clients.length; i++) {
+            final int index = i;
+            try {
+                final OperationFuture<Long> future = clients[i].asyncIncr(evcKey.getDerivedKey(clients[i].isDuetClient()), by, defaultVal, timeToLive);
+                future.addListener(f -> {
+                    try {
+                        final Long val = (Long) f.get();
+                        if (val != null) {
+                            synchronized (vals) {
+                                vals[index] = val.longValue();
+                            }
+                        }
+                    } catch (Exception e) {
+                        if (log.isDebugEnabled() && shouldLog()) log.debug("Exception incrementing the value for APP " + _appName + ", key : " + key + " from client : " + clients[index], e);
+                    }
+                    if (pending.decrementAndGet() == 0) done.complete(vals);
+                });
+            } catch (Exception ex) {
+                if (log.isDebugEnabled() && shouldLog()) log.debug("Exception incrementing the value for APP " + _appName + ", key : " + key + " from client : " + clients[index], ex);
+                if (pending.decrementAndGet() == 0) done.complete(vals);
+            }
+        }
+        if (!done.isDone()) scheduleTimeout(done, _pool.getOperationTimeout().get().longValue(), () -> done.complete(vals));
+
+        done.whenComplete((v, t) -> {
+            IpcResult status = IpcResult.SUCCESS;
+            long currentValue = -1;
+            try {
+                final long[] values;
+                synchronized (vals) {
+                    values = vals.clone();
+                }
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] != -1 && currentValue < values[i]) currentValue = values[i];
+                }
+                if (currentValue != -1) {
+                    CachedData cd = null;
+                    for (int i = 0; i < values.length; i++) {
+                        if (values[i] == -1) {
+                            if (log.isDebugEnabled()) log.debug("INCR : APP " + _appName + "; Zone " + clients[i].getZone()
+                                    + " had a value = -1 so setting it to current value = " + currentValue + " for key : " + key);
+                            clients[i].asyncIncr(evcKey.getDerivedKey(clients[i].isDuetClient()), 0, currentValue, timeToLive);
+                        } else if (values[i] != currentValue) {
+                            if(cd == null) cd = clients[i].getTranscoder().encode(String.valueOf(currentValue));
+                            if (log.isDebugEnabled()) log.debug("INCR : APP " + _appName + "; Zone " + clients[i].getZone()
+                                    + " had a value of " + values[i] + " so setting it to current value = " + currentValue + " for key : " + key);
+                            clients[i].set(evcKey.getDerivedKey(clients[i].isDuetClient()), cd, timeToLive);
+                        }
+                    }
+                }
+                invalidateInMemory(evcKey);
+                if (event != null) endEvent(event);
+                if (log.isDebugEnabled()) log.debug("INCR : APP " + _appName + " returning value = " + currentValue + " for key : " + key);
+                result.complete(Long.valueOf(currentValue));
+            } catch (Exception ex) {
+                status = IpcResult.ERROR;
+                if (log.isDebugEnabled() && shouldLog()) log.debug("Exception incrementing the value for APP " + _appName + ", key : " + key, ex);
+                if (event != null) {
+                    event.setStatus(status.value());
+                    eventError(event, ex);
+                }
+                if (throwExc) {
+                    result.completeExceptionally(new EVCacheException("Exception incrementing value for APP " + _appName + ", key : " + key, ex));
+                } else {
+                    result.complete(Long.valueOf(-1));
+                }
+            } finally {
+                final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
+                getTimer(Call.INCR, EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
+                if (log.isDebugEnabled() && shouldLog()) log.debug("INCR : APP " + _appName + ", Took " + duration + " milliSec for key : " + key + " with value as " + currentValue);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Non blocking version of {@link #add(String, Object, Transcoder, int)}. The add is issued to one server group at
+     * a time from the completion callback of the previous one.
+     */
+    <T> CompletableFuture<Boolean> addAsync(String key, T value, Transcoder<T> tc, int timeToLive) {
+        final CompletableFuture<Boolean> result = new CompletableFuture<Boolean>();
+        final EVCacheKey evcKey;
+        try {
+            if ((null == key) || (null == value)) throw new IllegalArgumentException();
+            checkTTL(timeToLive, Call.ADD);
+            evcKey = getEVCacheKey(key);
+        } catch (RuntimeException ex) {
+            result.completeExceptionally(ex);
+            return result;
+        }
+
+        final boolean throwExc = doThrowException();
+        final EVCacheClient[] clients = _pool.getEVCacheClientForWrite();
+        if (clients.length == 0) {
+            incrementFastFail(EVCacheMetricsFactory.NULL_CLIENT, Call.ADD);
+            return completeFastFail(result, throwExc, Boolean.FALSE, new EVCacheException("Could not find a client to Add the data"));
+        }
+
+        final EVCacheEvent event = createEVCacheEvent(Arrays.asList(clients), Call.ADD);
+        if (event != null) {
+            event.setEVCacheKeys(Arrays.asList(evcKey));
+            try {
+                if (shouldThrottle(event)) {
+                    incrementFastFail(EVCacheMetricsFactory.THROTTLED, Call.ADD);
+                    return completeFastFail(result, throwExc, Boolean.FALSE, new EVCacheException("Request Throttled for app " + _appName + " & key " + key));
+                }
+            } catch(EVCacheException ex) {
+                incrementFastFail(EVCacheMetricsFactory.THROTTLED, Call.ADD);
+                return completeFastFail(result, throwExc, Boolean.FALSE, ex);
+            }
+            startEvent(event);
+        }
+
+        final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
+        try {
+            final CachedData cd;
+            if (tc != null) {
+                cd = tc.encode(value);
+            } else if ( _transcoder != null) {
+                cd = ((Transcoder<Object>)_transcoder).encode(value);
+            } else {
+                cd = clients[0].getTranscoder().encode(value);
+            }
+            if (event != null) {
+                event.setTTL(timeToLive);
+                event.setCachedData(cd);
+            }
+            if(clientUtil == null) clientUtil = new EVCacheClientUtil(_pool);
+            final CompletableFuture<Boolean> added = clientUtil.asyncAdd(evcKey, cd, hashKey.get(), evcacheValueTranscoder, timeToLive);
+            if (!added.isDone()) scheduleTimeout(added, _pool.getOperationTimeout().get().longValue(), () -> added.completeExceptionally(new TimeoutException("Timed out adding key " + evcKey + " for APP " + _appName)));
+            added.whenComplete((wasAdded, ex) -> {
+                final IpcResult status = (ex == null) ? IpcResult.SUCCESS : (ex instanceof TimeoutException ? IpcResult.TIMEOUT : IpcResult.ERROR);
+                invalidateInMemory(evcKey);
+                if (ex == null) {
+                    if (event != null) endEvent(event);
+                    result.complete(wasAdded);
+                } else {
+                    if (log.isDebugEnabled() && shouldLog()) log.debug("Exception adding the data for APP " + _appName + ", key : " + evcKey, ex);
+                    if (event != null) {
+                        event.setStatus(status.value());
+                        eventError(event, ex);
+                    }
+                    if (throwExc) {
+                        result.completeExceptionally(new EVCacheException("Exception adding data for APP " + _appName + ", key : " + evcKey, ex));
+                    } else {
+                        result.complete(Boolean.FALSE);
+                    }
+                }
+                final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
+                getTimer(Call.ADD, EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
+                if (log.isDebugEnabled() && shouldLog()) log.debug("ADD : APP " + _appName + ", Took " + duration + " milliSec for key : " + evcKey);
+            });
+        } catch (Exception ex) {
+            if (log.isDebugEnabled() && shouldLog()) log.debug("Exception adding the data for APP " + _appName + ", key : " + evcKey, ex);
+            if (event != null) {
+                event.setStatus(EVCacheMetricsFactory.ERROR);
+                eventError(event, ex);
+            }
+            return completeFastFail(result, throwExc, Boolean.FALSE, new EVCacheException("Exception adding data for APP " + _appName + ", key : " + evcKey, ex));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a future that is completed with the latch once it is released as per its Policy or once the operation
+     * timeout has elapsed, whichever happens first.
+     */
+    CompletableFuture<EVCacheLatch> whenReleased(EVCacheLatch latch, Policy policy) {
+        if (latch == null) return CompletableFuture.completedFuture(new EVCacheLatchImpl(policy, 0, _appName));
+        if (!(latch instanceof EVCacheLatchImpl) || latch.isDone()) return CompletableFuture.completedFuture(latch);
+        final CompletableFuture<EVCacheLatch> result = new CompletableFuture<EVCacheLatch>();
+        ((EVCacheLatchImpl) latch).whenReleased().thenAccept(l -> result.complete(latch));
+        if (!result.isDone()) scheduleTimeout(result, _pool.getOperationTimeout().get().longValue(), () -> result.complete(latch));
+        return result;
+    }
+
+    /**
+     * Runs onTimeout on the EVCacheScheduledExecutor if the future is not completed within the given time. The
+     * scheduled task is cancelled once the future completes.
+     */
+    private void scheduleTimeout(final CompletableFuture<?> future, long timeoutMillis, final Runnable onTimeout) {
+        final ScheduledFuture<?> timeout = _poolManager.getEVCacheScheduledExecutor().schedule(() -> {
+            if (!future.isDone()) onTimeout.run();
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+        future.whenComplete((v, t) -> timeout.cancel(false));
+    }
+
+    private <V> CompletableFuture<V> completeFastFail(CompletableFuture<V> result, boolean throwExc, V defaultValue, EVCacheException ex) {
+        if (throwExc) {
+            result.completeExceptionally(ex);
+        } else {
+            result.complete(defaultValue);
+        }
+        return result;
+    }
+
+    /**
+     * Reads like {@link #getData(EVCacheClient, EVCacheKey, Transcoder, boolean, boolean)} but has the client throw
+     * the errors that it would otherwise swallow, i.e. timeouts, inactive nodes and full read queues, and records them
+     * in readFailed so that the caller can tell a miss from a failed read. The errors are then swallowed or thrown as
+     * getData would.
+     */
+    private <T> T getData(EVCacheClient client, EVCacheKey evcKey, Transcoder<T> tc, boolean throwException, boolean hasZF, boolean[] readFailed) throws Exception {
+        if (client == null) {
+            readFailed[0] = true;
+            return null;
+        }
+        try {
+            return getData(client, evcKey, tc, true, false);
+        } catch (Exception ex) {
+            readFailed[0] = true;
+            if (!throwException || hasZF) return null;
+            throw ex;
+        }
+    }
+
+    private <T> T getData(EVCacheClient client, EVCacheKey evcKey, Transcoder<T> tc, boolean throwException, boolean hasZF) throws Exception {
+        if (client == null) return null;
+        final Transcoder<T> transcoder = (tc == null) ? ((_transcoder == null) ? (Transcoder<T>) client.getTranscoder() : (Transcoder<T>) _transcoder) : tc;
+        try {
+            String hashKey = evcKey.getHashKey(client.isDuetClient());
+            String canonicalKey = evcKey.getCanonicalKey(client.isDuetClient());
+
+            if(hashKey != null) {
+                final Object obj = client.get(hashKey, evcacheValueTranscoder, throwException, hasZF);
+                return decodeEVCacheValue(obj, canonicalKey, transcoder, Call.GET);
+            } else {
+                return client.get(canonicalKey, transcoder, throwException, hasZF);
+            }
+        } catch (EVCacheConnectException ex) {
+            if (log.isDebugEnabled() && shouldLog()) log.debug("EVCacheConnectException while getting data for APP " + _appName + ", key : " + evcKey + "; hasZF : " + hasZF, ex);
+            if (!throwException || hasZF) return null;
+            throw ex;
+        } catch (EVCacheReadQueueException ex) {
+            if (log.isDebugEnabled() && shouldLog()) log.debug("EVCacheReadQueueException while getting data for APP " + _appName + ", key : " + evcKey + "; hasZF : " + hasZF, ex);
+            if (!throwException || hasZF) return null;
+            throw ex;
+        } catch (EVCacheException ex) {
+            if (log.isDebugEnabled() && shouldLog()) log.debug("EVCacheException while getting data for APP " + _appName + ", key : " + evcKey + "; hasZF : " + hasZF, ex);
+            if (!throwException || hasZF) return null;
+            throw ex;
+        } catch (Exception ex) {
+            if (log.isDebugEnabled() && shouldLog()) log.debug("Exception while getting data for APP " + _appName + ", key : " + evcKey, ex);
+            if (!throwException || hasZF) return null;
+            throw ex;
+        }
+    }
+
+    private <T> T decodeEVCacheValue(Object obj, String canonicalKey, Transcoder<T> transcoder, Call call) {
+        if(obj != null && obj instanceof EVCacheValue) {
+            final EVCacheValue val = (EVCacheValue)obj;
+            if(!val.getKey().equals(canonicalKey)) {
+                incrementFailure(EVCacheMetricsFactory.KEY_HASH_COLLISION, call.name(), EVCacheMetricsFactory.READ);
+                return null;
+            }
+            final CachedData cd = new CachedData(val.getFlags(), val.getValue(), CachedData.MAX_SIZE);
+            return transcoder.decode(cd);
+        }
+        return null;
     }
 
     private EVCacheItemMetaData getEVCacheItemMetaData(EVCacheClient client, EVCacheKey evcKey, boolean throwException, boolean hasZF) throws Exception {
@@ -977,6 +2281,18 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         if (client == null) return null;
         final Transcoder<T> transcoder = (tc == null) ? ((_transcoder == null) ? (Transcoder<T>) client.getTranscoder() : (Transcoder<T>) _transcoder) : tc;
         try {
+            final String hashKey = evcKey.getHashKey(client.isDuetClient());
+            if (hashKey != null) {
+                // the meta data is that of the item under the hashed key, which is what expires in EVCache
+                final EVCacheItem<Object> item = client.metaGet(hashKey, evcacheValueTranscoder, throwException, hasZF);
+                if (item == null) return null;
+                final Object obj = item.getData();
+                final T value = decodeEVCacheValue(obj, evcKey.getCanonicalKey(client.isDuetClient()), transcoder, Call.META_GET);
+                if (value == null) return null;
+                item.setData(value);
+                item.setFlag(((EVCacheValue) obj).getFlags());
+                return (EVCacheItem<T>) item;
+            }
             return client.metaGet(evcKey.getDerivedKey(client.isDuetClient()), transcoder, throwException, hasZF);
         } catch (EVCacheConnectException ex) {
             if (log.isDebugEnabled() && shouldLog()) log.debug("EVCacheConnectException while getting with meta data for APP " + _appName + ", key : " + evcKey + "; hasZF : " + hasZF, ex);
@@ -1136,7 +2452,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             }
         }).doAfterTerminate(() -> {
             final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
-            getTimer(Call.GET_AND_TOUCH.name(), EVCacheMetricsFactory.READ, null, EVCacheMetricsFactory.SUCCESS, 1, maxReadDuration.get().intValue(),client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.GET_AND_TOUCH, EVCacheMetricsFactory.READ, null, IpcResult.SUCCESS, 1, maxReadDuration.get().intValue(),client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("GET_AND_TOUCH : APP " + _appName + ", Took " + duration+ " milliSec.");
         });
     }
@@ -1174,15 +2490,133 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             }
         }
         if(ignoreTouch.get()) {
+            if (_coalesceReadsFP.get()) return coalesce(inFlightGets, evcKey, tc, 0, Call.GET, transcoder -> doGet(evcKey, transcoder));
             return doGet(evcKey, tc);
         } else {
+            if (_coalesceReadsFP.get()) return coalesce(inFlightGetAndTouches, evcKey, tc, timeToLive, Call.GET_AND_TOUCH, transcoder -> doGetAndTouch(evcKey, timeToLive, transcoder));
             return doGetAndTouch(evcKey, timeToLive, tc);
         }
     }
 
+    private interface Read<T> {
+        T read(Transcoder<T> tc) throws EVCacheException;
+    }
+
+    private static final class InFlightRead {
+        private final Transcoder<?> tc;
+        private final int timeToLive;
+        private final CompletableFuture<CachedData> future = new CompletableFuture<CachedData>();
+
+        private InFlightRead(Transcoder<?> tc, int timeToLive) {
+            this.tc = tc;
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    /**
+     * Records the data it decodes so that the data read for one caller can be decoded again for the coalesced callers.
+     */
+    private static final class RecordingTranscoder<T> implements Transcoder<T> {
+        private final Transcoder<T> tc;
+        private final Map<Object, CachedData> decoded;
+        private volatile CachedData data;
+
+        private RecordingTranscoder(Transcoder<T> tc) {
+            this(tc, false);
+        }
+
+        /**
+         * @param recordAll whether the data of every value decoded is kept, i.e. for a bulk read, so that it can be
+         *            looked up with {@link #getData(Object)}
+         */
+        private RecordingTranscoder(Transcoder<T> tc, boolean recordAll) {
+            this.tc = tc;
+            this.decoded = recordAll ? Collections.synchronizedMap(new IdentityHashMap<Object, CachedData>()) : null;
+        }
+
+        /** Returns the data the given value was decoded from if it was recorded, null otherwise. */
+        private CachedData getData(Object value) {
+            return (value == null || decoded == null) ? null : decoded.get(value);
+        }
+
+        public boolean asyncDecode(CachedData d) {
+            return tc.asyncDecode(d);
+        }
+
+        public CachedData encode(T o) {
+            return tc.encode(o);
+        }
+
+        public T decode(CachedData d) {
+            data = d;
+            final T value = tc.decode(d);
+            if (decoded != null && value != null) decoded.put(value, d);
+            return value;
+        }
+
+        public int getMaxSize() {
+            return tc.getMaxSize();
+        }
+    }
+
+    /** Completes an in flight read whose value was not decoded from the data read, the waiting callers read again. */
+    private static final CachedData NOT_RECORDED = new CachedData(0, new byte[0], CachedData.MAX_SIZE);
+
+    /**
+     * Performs the read unless a read of the same key with the same transcoder and ttl is already in flight, in
+     * which case the data of that read is decoded for the caller so that every caller gets its own value instance.
+     * A caller waits for the in flight read for at most the read timeout.
+     */
+    private <T> T coalesce(Map<String, InFlightRead> inFlight, EVCacheKey evcKey, Transcoder<T> tc, int timeToLive, Call call, Read<T> read) throws EVCacheException {
+        final String key = evcKey.getCanonicalKey(false);
+        Transcoder<T> transcoder = (tc == null) ? (Transcoder<T>) _transcoder : tc;
+        if (transcoder == null) {
+            final EVCacheClient client = _pool.getEVCacheClientForRead();
+            // without a client the read fails fast and reports it
+            if (client == null) return read.read(tc);
+            transcoder = (Transcoder<T>) client.getTranscoder();
+        }
+        final InFlightRead mine = new InFlightRead(tc, timeToLive);
+        final InFlightRead existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            if (existing.tc != tc || existing.timeToLive != timeToLive) return read.read(transcoder);
+            increment(EVCacheMetricsFactory.INTERNAL_COALESCE, call, EVCacheMetricsFactory.READ, EVCacheMetricsFactory.COALESCED);
+            if (log.isDebugEnabled() && shouldLog()) log.debug(call.name() + " : APP " + _appName + ", key [" + evcKey + "], waiting on in flight read.");
+            final CachedData data;
+            try {
+                data = existing.future.get(_pool.getReadTimeout().get().longValue(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new EVCacheException("Interrupted waiting for in flight read of APP " + _appName + ", key = " + evcKey, e);
+            } catch (TimeoutException e) {
+                if (doThrowException()) throw new EVCacheException("Timed out waiting for in flight read of APP " + _appName + ", key = " + evcKey, e);
+                return null;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof EVCacheException) throw (EVCacheException) e.getCause();
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                throw new EVCacheException("Exception getting data for APP " + _appName + ", key = " + evcKey, e.getCause());
+            }
+            if (data == null) return null;
+            if (data == NOT_RECORDED) return read.read(transcoder);
+            return transcoder.decode(data);
+        }
+        final RecordingTranscoder<T> recorder = new RecordingTranscoder<T>(transcoder);
+        try {
+            final T value = read.read(recorder);
+            mine.future.complete(value == null ? null : (recorder.data == null ? NOT_RECORDED : recorder.data));
+            return value;
+        } catch (EVCacheException | RuntimeException e) {
+            mine.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+            if (!mine.future.isDone()) mine.future.complete(null);
+        }
+    }
+
     <T> T doGetAndTouch(EVCacheKey evcKey, int timeToLive, Transcoder<T> tc) throws EVCacheException {
         final boolean throwExc = doThrowException();
-        EVCacheClient client = _pool.getEVCacheClientForRead();
+        EVCacheClient client = _pool.getEVCacheClientForRead(evcKey);
         if (client == null) {
             incrementFastFail(EVCacheMetricsFactory.NULL_CLIENT, Call.GET_AND_TOUCH);
             if (throwExc) throw new EVCacheException("Could not find a client to get and touch the data for App " + _appName);
@@ -1208,9 +2642,9 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         }
 
         final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
-        String cacheOperation = EVCacheMetricsFactory.YES;
+        CacheHit cacheOperation = CacheHit.YES;
         int tries = 1;
-        String status = EVCacheMetricsFactory.SUCCESS;
+        IpcResult status = IpcResult.SUCCESS;
         try {
             final boolean hasZF = hasZoneFallback();
             boolean throwEx = hasZF ? false : throwExc;
@@ -1223,13 +2657,13 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                     if (event != null) {
                         try {
                             if (shouldThrottle(event)) {
-                                status = EVCacheMetricsFactory.THROTTLED;
+                                status = IpcResult.THROTTLED;
                                 if (throwExc) throw new EVCacheException("Request Throttled for app " + _appName + " & key " + evcKey);
                                 return null;
                             }
                         } catch(EVCacheException ex) {
                             if(throwExc) throw ex;
-                            status = EVCacheMetricsFactory.THROTTLED;
+                            status = IpcResult.THROTTLED;
                             return null;
                         }
                     }
@@ -1250,16 +2684,16 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                 touchData(evcKey, timeToLive);
                 if (log.isDebugEnabled() && shouldLog()) log.debug("GET_AND_TOUCH : APP " + _appName + ", key [" + evcKey + (log.isTraceEnabled() ? "], Value [" + data : "") + "], ServerGroup : " + client.getServerGroup());
             } else {
-                cacheOperation = EVCacheMetricsFactory.NO;
+                cacheOperation = CacheHit.NO;
                 if (log.isInfoEnabled() && shouldLog()) log.info("GET_AND_TOUCH : APP " + _appName + " ; cache miss for key : " + evcKey);
                 if (event != null) event.setAttribute("status", "TMISS");
             }
             if (event != null) endEvent(event);
             return data;
         } catch (net.spy.memcached.internal.CheckedOperationTimeoutException ex) {
-            status = EVCacheMetricsFactory.TIMEOUT;
+            status = IpcResult.TIMEOUT;
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (log.isDebugEnabled() && shouldLog()) log.debug("CheckedOperationTimeoutException executing getAndTouch APP " + _appName + ", key : " + evcKey, ex);
@@ -1267,17 +2701,17 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             throw new EVCacheException("CheckedOperationTimeoutException executing getAndTouch APP " + _appName + ", key  = " + evcKey
                     + ".\nYou can set the following property to increase the timeout " + _appName+ ".EVCacheClientPool.readTimeout=<timeout in milli-seconds>", ex);
         } catch (Exception ex) {
-            status = EVCacheMetricsFactory.ERROR;
+            status = IpcResult.ERROR;
             if (log.isDebugEnabled() && shouldLog()) log.debug("Exception executing getAndTouch APP " + _appName + ", key = " + evcKey, ex);
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return null;
             throw new EVCacheException("Exception executing getAndTouch APP " + _appName + ", key = " + evcKey, ex);
         } finally {
             final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
-            getTimer(Call.GET_AND_TOUCH.name(), EVCacheMetricsFactory.READ, cacheOperation, status, tries, maxReadDuration.get().intValue(), client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.GET_AND_TOUCH, EVCacheMetricsFactory.READ, cacheOperation, status, tries, maxReadDuration.get().intValue(), client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("Took " + duration + " milliSec to get&Touch the value for APP " + _appName + ", key " + evcKey);
         }
     }
@@ -1334,7 +2768,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             startEvent(event);
         }
 
-        String status = EVCacheMetricsFactory.SUCCESS;
+        IpcResult status = IpcResult.SUCCESS;
         final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
         try {
             final EVCacheLatchImpl latch = new EVCacheLatchImpl(policy == null ? Policy.ALL_MINUS_1 : policy, clients.length - _pool.getWriteOnlyEVCacheClients().length, _appName);
@@ -1351,10 +2785,10 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             }
             return latch;
         } catch (Exception ex) {
-            status = EVCacheMetricsFactory.ERROR;
+            status = IpcResult.ERROR;
             if (log.isDebugEnabled() && shouldLog()) log.debug("Exception touching the data for APP " + _appName + ", key : " + evcKey, ex);
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return new EVCacheLatchImpl(policy, 0, _appName);
@@ -1362,7 +2796,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         } finally {
             final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
             getTTLDistributionSummary(Call.TOUCH.name(), EVCacheMetricsFactory.WRITE, EVCacheMetricsFactory.TTL).record(timeToLive);
-            getTimer(Call.TOUCH.name(), EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.TOUCH, EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("TOUCH : APP " + _appName + " for key : " + evcKey + " with timeToLive : " + timeToLive);
         }
     }
@@ -1421,7 +2855,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             }
             startEvent(event);
         }
-        String status = EVCacheMetricsFactory.SUCCESS;
+        IpcResult status = IpcResult.SUCCESS;
         final Future<T> r;
         final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
         try {
@@ -1478,17 +2912,17 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             }
             if (event != null) endEvent(event);
         } catch (Exception ex) {
-            status = EVCacheMetricsFactory.ERROR;
+            status = IpcResult.ERROR;
             if (log.isDebugEnabled() && shouldLog()) log.debug( "Exception while getting data for keys Asynchronously APP " + _appName + ", key : " + key, ex);
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return null;
             throw new EVCacheException("Exception getting data for APP " + _appName + ", key : " + key, ex);
         } finally {
             final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
-            getTimer(Call.ASYNC_GET.name(), EVCacheMetricsFactory.READ, null, status, 1, maxReadDuration.get().intValue(), client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.ASYNC_GET, EVCacheMetricsFactory.READ, null, status, 1, maxReadDuration.get().intValue(), client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("Took " + duration + " milliSec to execute AsyncGet the value for APP " + _appName + ", key " + key);
         }
 
@@ -1559,6 +2993,63 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         }
     }
 
+    /**
+     * Fetches the keys from all the fallback clients at the same time instead of one after the other. The first value
+     * found for a key wins. Once every key is found, or the bulk read timeout has elapsed, the outstanding requests are
+     * cancelled. The calling thread reads from the first fallback client while the others are read on the worker
+     * executor. The clients that the worker executor has no room for are read by the calling thread after the first one.
+     */
+    private <T> void getBulkDataInParallel(List<EVCacheClient> fbClients, final List<EVCacheKey> evcKeys, final Transcoder<T> tc, final boolean hasZF, Map<EVCacheKey, T> retMap) throws Exception {
+        final long start = System.currentTimeMillis();
+        final CompletionService<Map<EVCacheKey, T>> completionService = new ExecutorCompletionService<Map<EVCacheKey, T>>(_poolManager.getEVCacheWorkerExecutor());
+        final List<Future<Map<EVCacheKey, T>>> futures = new ArrayList<Future<Map<EVCacheKey, T>>>(fbClients.size() - 1);
+        final List<EVCacheClient> rejected = new ArrayList<EVCacheClient>(0);
+        for (int i = 1; i < fbClients.size(); i++) {
+            final EVCacheClient fbClient = fbClients.get(i);
+            try {
+                futures.add(completionService.submit(() -> getBulkData(fbClient, evcKeys, tc, false, hasZF)));
+            } catch (RejectedExecutionException e) {
+                rejected.add(fbClient);
+            }
+        }
+
+        try {
+            int found = mergeFallbackData(getBulkData(fbClients.get(0), evcKeys, tc, false, hasZF), evcKeys, retMap);
+            for (int i = 0; i < rejected.size() && found < evcKeys.size(); i++) {
+                found += mergeFallbackData(getBulkData(rejected.get(i), evcKeys, tc, false, hasZF), evcKeys, retMap);
+            }
+            final long timeout = fbClients.get(0).getEffectiveBulkReadTimeout();
+            for (int pending = futures.size(); pending > 0 && found < evcKeys.size(); pending--) {
+                final long wait = timeout - (System.currentTimeMillis() - start);
+                final Future<Map<EVCacheKey, T>> future = (wait > 0) ? completionService.poll(wait, TimeUnit.MILLISECONDS) : completionService.poll();
+                if (future == null) break;
+                try {
+                    found += mergeFallbackData(future.get(), evcKeys, retMap);
+                } catch (ExecutionException e) {
+                    if (log.isDebugEnabled() && shouldLog()) log.debug("Exception in parallel bulk fallback for APP " + _appName, e);
+                }
+            }
+            if (log.isDebugEnabled() && shouldLog()) log.debug("Parallel Fallback for APP " + _appName + ", found " + found + " of " + evcKeys.size() + " keys in " + (System.currentTimeMillis() - start) + " msec.");
+        } finally {
+            for (Future<Map<EVCacheKey, T>> future : futures) {
+                if (!future.isDone()) future.cancel(true);
+            }
+        }
+    }
+
+    private <T> int mergeFallbackData(Map<EVCacheKey, T> fbRetMap, List<EVCacheKey> evcKeys, Map<EVCacheKey, T> retMap) {
+        if (fbRetMap == null || fbRetMap.isEmpty()) return 0;
+        int added = 0;
+        for (EVCacheKey key : evcKeys) {
+            final T value = fbRetMap.get(key);
+            if (value != null && !retMap.containsKey(key)) {
+                retMap.put(key, value);
+                added++;
+            }
+        }
+        return added;
+    }
+
     public <T> Map<String, T> getBulk(Collection<String> keys, Transcoder<T> tc) throws EVCacheException {
         return getBulk(keys, tc, false, 0);
     }
@@ -1582,20 +3073,31 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
 
         final Map<String, T> decanonicalR = new HashMap<String, T>((keys.size() * 4) / 3 + 1);
         final Collection<EVCacheKey> evcKeys = new ArrayList<EVCacheKey>();
-        /* Canonicalize keys and perform fast failure checking */
+        final List<EVCacheKey> allKeys = new ArrayList<EVCacheKey>(keys.size());
         for (String k : keys) {
-            final EVCacheKey evcKey = getEVCacheKey(k);
-            T value = null;
-            if (_useInMemoryCache.get()) {
-                try {
-                    final Transcoder<T> transcoder = (tc == null) ? ((_transcoder == null) ? (Transcoder<T>) _pool.getEVCacheClientForRead().getTranscoder() : (Transcoder<T>) _transcoder) : tc;
-                    value = (T) getInMemoryCache(transcoder).get(evcKey);
-                    if(value == null)  if (log.isInfoEnabled() && shouldLog()) log.info("Value not_found in inmemory cache for APP " + _appName + ", key : " + evcKey + "; value : " + value );
-                } catch (ExecutionException e) {
-                    if (log.isDebugEnabled() && shouldLog()) log.debug("ExecutionException while getting data from InMemory Cache", e);
-                    throw new EVCacheException("ExecutionException", e);
-                }
-            }
+            allKeys.add(getEVCacheKey(k));
+        }
+
+        /* Look up the keys in the in memory cache without loading; the misses are fetched below in one bulk call */
+        final EVCacheInMemoryCache<T> inMemoryCache;
+        final Map<EVCacheKey, T> inMemoryValues;
+        final RecordingTranscoder<T> recorder;
+        if (_useInMemoryCache.get()) {
+            final Transcoder<T> transcoder = (tc == null) ? ((_transcoder == null) ? (Transcoder<T>) client.getTranscoder() : (Transcoder<T>) _transcoder) : tc;
+            inMemoryCache = getInMemoryCache(transcoder);
+            inMemoryValues = inMemoryCache.getAllPresent(allKeys);
+            // the data read is kept so that the values are weighed without being encoded again
+            recorder = new RecordingTranscoder<T>(transcoder, true);
+            tc = recorder;
+        } else {
+            inMemoryCache = null;
+            inMemoryValues = Collections.<EVCacheKey, T> emptyMap();
+            recorder = null;
+        }
+
+        /* Canonicalize keys and perform fast failure checking */
+        for (EVCacheKey evcKey : allKeys) {
+            final T value = inMemoryValues.get(evcKey);
             if(value == null) {
                 evcKeys.add(evcKey);
             } else {
@@ -1609,6 +3111,9 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         	return decanonicalR;
         }
 
+        // keys that are written while they are read are not added to the in memory cache
+        final Map<EVCacheKey, Long> generations = (inMemoryCache == null) ? null : inMemoryCache.getWriteGenerations(evcKeys);
+
         final EVCacheEvent event = createEVCacheEvent(Collections.singletonList(client), Call.BULK);
         if (event != null) {
             event.setEVCacheKeys(evcKeys);
@@ -1629,9 +3134,9 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
 
 
         final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
-        String cacheOperation = EVCacheMetricsFactory.YES;
+        CacheHit cacheOperation = CacheHit.YES;
         int tries = 1;
-        String status = EVCacheMetricsFactory.SUCCESS;
+        IpcResult status = IpcResult.SUCCESS;
         try {
             final boolean hasZF = hasZoneFallbackForBulk();
             boolean throwEx = hasZF ? false : throwExc;
@@ -1647,13 +3152,13 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                             if (event != null) {
                                 try {
                                     if (shouldThrottle(event)) {
-                                        status = EVCacheMetricsFactory.THROTTLED;
+                                        status = IpcResult.THROTTLED;
                                         if (throwExc) throw new EVCacheException("Request Throttled for app " + _appName + " & key " + evcKeys);
                                         return null;
                                     }
                                 } catch(EVCacheException ex) {
                                     if(throwExc) throw ex;
-                                    status = EVCacheMetricsFactory.THROTTLED;
+                                    status = IpcResult.THROTTLED;
                                     return null;
                                 }
                             }
@@ -1672,21 +3177,37 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                         if (!retMap.containsKey(key)) {
                             retryEVCacheKeys.add(key);
                         }
-                    }
-
-                    fbClients = _pool.getEVCacheClientsForReadExcluding(client.getServerGroup());
-                    if (fbClients != null && !fbClients.isEmpty()) {
+                    }
+
+                    fbClients = _pool.getEVCacheClientsForReadExcluding(client.getServerGroup());
+                    if (fbClients != null && fbClients.size() > 1 && _bulkPartialZoneFallbackParallelFP.get()) {
+                        if (event != null) {
+                            try {
+                                if (shouldThrottle(event)) {
+                                    status = IpcResult.THROTTLED;
+                                    if (throwExc) throw new EVCacheException("Request Throttled for app " + _appName + " & keys " + retryEVCacheKeys);
+                                    return null;
+                                }
+                            } catch(EVCacheException ex) {
+                                status = IpcResult.THROTTLED;
+                                if(throwExc) throw ex;
+                                return null;
+                            }
+                        }
+                        tries += fbClients.size();
+                        getBulkDataInParallel(fbClients, retryEVCacheKeys, tc, hasZF, retMap);
+                    } else if (fbClients != null && !fbClients.isEmpty()) {
                         for (int ind = 0; ind < fbClients.size(); ind++) {
                             final EVCacheClient fbClient = fbClients.get(ind);
                             if (event != null) {
                                 try {
                                     if (shouldThrottle(event)) {
-                                        status = EVCacheMetricsFactory.THROTTLED;
+                                        status = IpcResult.THROTTLED;
                                         if (throwExc) throw new EVCacheException("Request Throttled for app " + _appName + " & keys " + retryEVCacheKeys);
                                         return null;
                                     }
                                 } catch(EVCacheException ex) {
-                                    status = EVCacheMetricsFactory.THROTTLED;
+                                    status = IpcResult.THROTTLED;
                                     if(throwExc) throw ex;
                                     return null;
                                 }
@@ -1715,6 +3236,8 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                 }
             }
 
+            if (inMemoryCache != null && retMap != null && !retMap.isEmpty()) inMemoryCache.putAll(retMap, recorder::getData, generations);
+
             if(decanonicalR.isEmpty()) {
                 if (retMap == null || retMap.isEmpty()) {
                     if (log.isInfoEnabled() && shouldLog()) log.info("BULK : APP " + _appName + " ; Full cache miss for keys : " + keys);
@@ -1727,7 +3250,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                         }
                     }
                     //increment("BulkMissFull");
-                    cacheOperation = EVCacheMetricsFactory.NO;
+                    cacheOperation = CacheHit.NO;
                     /* If both Retry and first request fail Exit Immediately. */
                     if (event != null) endEvent(event);
                     return returnMap;
@@ -1760,7 +3283,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                         event.setAttribute("BHIT_PARTIAL_KEYS", decanonicalHitKeys);
                     }
                     //increment("BulkHitPartial");
-                    cacheOperation = EVCacheMetricsFactory.PARTIAL;
+                    cacheOperation = CacheHit.PARTIAL;
                     if (log.isInfoEnabled() && shouldLog()) log.info("BULK_HIT_PARTIAL for APP " + _appName + ", keys in cache [" + decanonicalR + "], all keys [" + keys + "]");
                 }
             }
@@ -1769,20 +3292,20 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             if (event != null) endEvent(event);
             return decanonicalR;
         } catch (net.spy.memcached.internal.CheckedOperationTimeoutException ex) {
-            status = EVCacheMetricsFactory.TIMEOUT;
+            status = IpcResult.TIMEOUT;
             if (log.isDebugEnabled() && shouldLog()) log.debug("CheckedOperationTimeoutException getting bulk data for APP " + _appName + ", keys : " + evcKeys, ex);
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return null;
             throw new EVCacheException("CheckedOperationTimeoutException getting bulk data for APP " + _appName + ", keys = " + evcKeys
                     + ".\nYou can set the following property to increase the timeout " + _appName + ".EVCacheClientPool.bulkReadTimeout=<timeout in milli-seconds>", ex);
         } catch (Exception ex) {
-            status = EVCacheMetricsFactory.ERROR;
+            status = IpcResult.ERROR;
             if (log.isDebugEnabled() && shouldLog()) log.debug("Exception getting bulk data for APP " + _appName + ", keys = " + evcKeys, ex);
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return null;
@@ -1800,7 +3323,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                 bulkKeysSize = EVCacheMetricsFactory.getInstance().getDistributionSummary(EVCacheMetricsFactory.OVERALL_KEYS_SIZE, tagList);
             }
             bulkKeysSize.record(keys.size());
-            getTimer(Call.BULK.name(), EVCacheMetricsFactory.READ, cacheOperation, status, tries, maxReadDuration.get().intValue(), client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.BULK, EVCacheMetricsFactory.READ, cacheOperation, status, tries, maxReadDuration.get().intValue(), client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("BULK : APP " + _appName + " Took " + duration + " milliSec to get the value for key " + evcKeys);
         }
     }
@@ -1880,7 +3403,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         }
 
         final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
-        String status = EVCacheMetricsFactory.SUCCESS;
+        IpcResult status = IpcResult.SUCCESS;
 
         final EVCacheLatchImpl latch = new EVCacheLatchImpl(policy == null ? Policy.ALL_MINUS_1 : policy, clients.length - _pool.getWriteOnlyEVCacheClients().length, _appName);
         try {
@@ -1904,6 +3427,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                 final Future<Boolean> future = client.set(hashKey == null ? canonicalKey : hashKey, cd, timeToLive, latch);
                 if (log.isDebugEnabled() && shouldLog()) log.debug("SET : APP " + _appName + ", Future " + future + " for key : " + evcKey);
             }
+            invalidateInMemory(Collections.singletonList(evcKey), latch);
             if (event != null) {
                 event.setTTL(timeToLive);
                 event.setCachedData(cd);
@@ -1918,17 +3442,271 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         } catch (Exception ex) {
             if (log.isDebugEnabled() && shouldLog()) log.debug("Exception setting the data for APP " + _appName + ", key : " + evcKey, ex);
             if (event != null) endEvent(event);
-            status = EVCacheMetricsFactory.ERROR;
+            status = IpcResult.ERROR;
             if (!throwExc) return new EVCacheLatchImpl(policy, 0, _appName);
             throw new EVCacheException("Exception setting data for APP " + _appName + ", key : " + evcKey, ex);
         } finally {
             final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
             getTTLDistributionSummary(Call.SET.name(), EVCacheMetricsFactory.WRITE, EVCacheMetricsFactory.TTL).record(timeToLive);
-            getTimer(Call.SET.name(), EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.SET, EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("SET : APP " + _appName + ", Took " + duration + " milliSec for key : " + evcKey);
         }
     }
 
+    @Override
+    public EVCacheLatch setStream(String key, InputStream in, long length, int timeToLive, Policy policy) throws EVCacheException {
+        if ((null == key) || (null == in) || length < 0) throw new IllegalArgumentException();
+        checkTTL(timeToLive, Call.SET);
+
+        final boolean throwExc = doThrowException();
+        final EVCacheClient[] clients = _pool.getEVCacheClientForWrite();
+        if (clients.length == 0) {
+            incrementFastFail(EVCacheMetricsFactory.NULL_CLIENT, Call.SET);
+            if (throwExc) throw new EVCacheException("Could not find a client to set the data");
+            return new EVCacheLatchImpl(policy, 0, _appName); // Fast failure
+        }
+
+        final EVCacheKey evcKey = getEVCacheKey(key);
+        final EVCacheEvent event = createEVCacheEvent(Arrays.asList(clients), Call.SET);
+        if (event != null) {
+            event.setEVCacheKeys(Arrays.asList(evcKey));
+            try {
+                if (shouldThrottle(event)) {
+                    incrementFastFail(EVCacheMetricsFactory.THROTTLED, Call.SET);
+                    if (throwExc) throw new EVCacheException("Request Throttled for app " + _appName + " & key " + key);
+                    return new EVCacheLatchImpl(policy, 0, _appName);
+                }
+            } catch(EVCacheException ex) {
+                if(throwExc) throw ex;
+                incrementFastFail(EVCacheMetricsFactory.THROTTLED, Call.SET);
+                return new EVCacheLatchImpl(policy, 0, _appName);
+            }
+            startEvent(event);
+        }
+
+        final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
+        IpcResult status = IpcResult.SUCCESS;
+
+        final EVCacheLatchImpl latch = new EVCacheLatchImpl(policy == null ? Policy.ALL_MINUS_1 : policy, clients.length - _pool.getWriteOnlyEVCacheClients().length, _appName);
+        final EVCacheClient.ChunkWriter[] writers = new EVCacheClient.ChunkWriter[clients.length];
+        boolean committed = false;
+        try {
+            // the chunks are sized to fit the longest of the keys so that each chunk read is written to every replica as is
+            int chunkDataSize = Integer.MAX_VALUE;
+            for (EVCacheClient client : clients) {
+                if (evcKey.getHashKey(client.isDuetClient()) != null) throw new EVCacheException("Streaming is not supported when keys are hashed");
+                chunkDataSize = Math.min(chunkDataSize, client.getChunkDataSize(evcKey.getCanonicalKey(client.isDuetClient())));
+            }
+            for (int i = 0; i < clients.length; i++) {
+                writers[i] = clients[i].newChunkWriter(evcKey.getCanonicalKey(clients[i].isDuetClient()), chunkDataSize, timeToLive);
+            }
+
+            final int maxPending = Math.max(1, streamMaxPendingChunks.get().intValue());
+            final Checksum checksum = new CRC32();
+            long remaining = length;
+            while (remaining > 0) {
+                // each chunk is read into its own array as the writes hold on to it until they complete
+                final int len = (int) Math.min(chunkDataSize, remaining);
+                final byte[] chunk = new byte[chunkDataSize];
+                readFully(in, chunk, len);
+                checksum.update(chunk, 0, len);
+                for (EVCacheClient.ChunkWriter writer : writers) {
+                    writer.write(chunk, len, maxPending);
+                }
+                remaining -= len;
+            }
+            committed = true;
+            for (EVCacheClient.ChunkWriter writer : writers) {
+                writer.commit(length, checksum.getValue(), latch);
+            }
+            if (log.isDebugEnabled() && shouldLog()) log.debug("SET_STREAM : APP " + _appName + ", stored " + length + " bytes for key : " + evcKey);
+            invalidateInMemory(Collections.singletonList(evcKey), latch);
+            if (event != null) {
+                event.setTTL(timeToLive);
+                if(_eventsUsingLatchFP.get()) {
+                    latch.setEVCacheEvent(event);
+                    latch.scheduledFutureValidation();
+                } else {
+                    endEvent(event);
+                }
+            }
+            return latch;
+        } catch (Exception ex) {
+            if (log.isDebugEnabled() && shouldLog()) log.debug("Exception streaming the data for APP " + _appName + ", key : " + evcKey, ex);
+            if (!committed) {
+                // no metadata is left pointing at the chunks written so far and the chunks are not left behind
+                for (EVCacheClient.ChunkWriter writer : writers) {
+                    if (writer != null) writer.abort();
+                }
+            }
+            if (event != null) endEvent(event);
+            status = IpcResult.ERROR;
+            if (!throwExc) return new EVCacheLatchImpl(policy, 0, _appName);
+            throw new EVCacheException("Exception streaming data for APP " + _appName + ", key : " + evcKey, ex);
+        } finally {
+            final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
+            getTTLDistributionSummary(Call.SET.name(), EVCacheMetricsFactory.WRITE, EVCacheMetricsFactory.TTL).record(timeToLive);
+            getTimer(Call.SET, EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
+            if (log.isDebugEnabled() && shouldLog()) log.debug("SET_STREAM : APP " + _appName + ", Took " + duration + " milliSec for key : " + evcKey);
+        }
+    }
+
+    private static void readFully(InputStream in, byte[] b, int len) throws IOException {
+        int n = 0;
+        while (n < len) {
+            final int read = in.read(b, n, len - n);
+            if (read < 0) throw new EOFException("The stream ended " + (len - n) + " bytes before the end of the chunk");
+            n += read;
+        }
+    }
+
+    @Override
+    public InputStream getStream(String key) throws EVCacheException {
+        if (null == key) throw new IllegalArgumentException("Key cannot be null");
+        final EVCacheKey evcKey = getEVCacheKey(key);
+        final boolean throwExc = doThrowException();
+        EVCacheClient client = _pool.getEVCacheClientForRead(evcKey);
+        if (client == null) {
+            incrementFastFail(EVCacheMetricsFactory.NULL_CLIENT, Call.GET);
+            if (throwExc) throw new EVCacheException("Could not find a client to get the data APP " + _appName);
+            return null; // Fast failure
+        }
+
+        final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
+        IpcResult status = IpcResult.SUCCESS;
+        CacheHit cacheOperation = CacheHit.YES;
+        int tries = 1;
+        try {
+            final boolean hasZF = hasZoneFallback();
+            InputStream data = client.getStream(evcKey.getCanonicalKey(client.isDuetClient()), hasZF ? false : throwExc);
+            if (data == null && hasZF) {
+                final List<EVCacheClient> fbClients = _pool.getEVCacheClientsForReadExcluding(client.getServerGroup());
+                if (fbClients != null) {
+                    for (int i = 0; i < fbClients.size() && data == null; i++) {
+                        final EVCacheClient fbClient = fbClients.get(i);
+                        tries++;
+                        data = fbClient.getStream(evcKey.getCanonicalKey(fbClient.isDuetClient()), (i == fbClients.size() - 1) ? throwExc : false);
+                        if (data != null) client = fbClient;
+                    }
+                }
+            }
+            if (data == null) {
+                cacheOperation = CacheHit.NO;
+                if (log.isInfoEnabled() && shouldLog()) log.info("GET_STREAM : APP " + _appName + " ; cache miss for key : " + evcKey);
+            }
+            if (log.isDebugEnabled() && shouldLog()) log.debug("GET_STREAM : APP " + _appName + ", key [" + evcKey + "], ServerGroup : " + client.getServerGroup());
+            return data;
+        } catch (Exception ex) {
+            status = IpcResult.ERROR;
+            if (!throwExc) return null;
+            throw new EVCacheException("Exception getting the stream for APP " + _appName + ", key = " + evcKey, ex);
+        } finally {
+            final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
+            getTimer(Call.GET, EVCacheMetricsFactory.READ, cacheOperation, status, tries, maxReadDuration.get().intValue(), client.getServerGroup()).record(duration, TimeUnit.MILLISECONDS);
+            if (log.isDebugEnabled() && shouldLog()) log.debug("GET_STREAM : APP " + _appName + ", Took " + duration + " milliSec.");
+        }
+    }
+
+    public <T> EVCacheLatch setBulk(Map<String, T> keyValues, int timeToLive, Policy policy) throws EVCacheException {
+        return setBulk(keyValues, (Transcoder<T>)_transcoder, timeToLive, policy);
+    }
+
+    public <T> EVCacheLatch setBulk(Map<String, T> keyValues, Transcoder<T> tc, int timeToLive, Policy policy) throws EVCacheException {
+        if (null == keyValues) throw new IllegalArgumentException();
+        checkTTL(timeToLive, Call.SET_BULK);
+
+        final boolean throwExc = doThrowException();
+        final EVCacheClient[] clients = _pool.getEVCacheClientForWrite();
+        if (clients.length == 0) {
+            incrementFastFail(EVCacheMetricsFactory.NULL_CLIENT, Call.SET_BULK);
+            if (throwExc) throw new EVCacheException("Could not find a client to set the data");
+            return new EVCacheLatchImpl(policy, 0, _appName); // Fast failure
+        }
+        if (keyValues.isEmpty()) return new EVCacheLatchImpl(policy, 0, _appName);
+
+        final List<EVCacheKey> evcKeys = new ArrayList<EVCacheKey>(keyValues.size());
+        final List<T> values = new ArrayList<T>(keyValues.size());
+        for (Map.Entry<String, T> entry : keyValues.entrySet()) {
+            if ((null == entry.getKey()) || (null == entry.getValue())) throw new IllegalArgumentException();
+            evcKeys.add(getEVCacheKey(entry.getKey()));
+            values.add(entry.getValue());
+        }
+
+        final EVCacheEvent event = createEVCacheEvent(Arrays.asList(clients), Call.SET_BULK);
+        if (event != null) {
+            event.setEVCacheKeys(evcKeys);
+            try {
+                if (shouldThrottle(event)) {
+                    incrementFastFail(EVCacheMetricsFactory.THROTTLED, Call.SET_BULK);
+                    if (throwExc) throw new EVCacheException("Request Throttled for app " + _appName + " & keys " + keyValues.keySet());
+                    return new EVCacheLatchImpl(policy, 0, _appName);
+                }
+            } catch(EVCacheException ex) {
+                if(throwExc) throw ex;
+                incrementFastFail(EVCacheMetricsFactory.THROTTLED, Call.SET_BULK);
+                return new EVCacheLatchImpl(policy, 0, _appName);
+            }
+            startEvent(event);
+        }
+
+        final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
+        IpcResult status = IpcResult.SUCCESS;
+
+        final int replicas = clients.length - _pool.getWriteOnlyEVCacheClients().length;
+        final EVCacheLatchImpl latch = new EVCacheLatchImpl(policy == null ? Policy.ALL_MINUS_1 : policy, evcKeys.size(), replicas, _appName);
+        try {
+            final CachedData[] encoded = new CachedData[evcKeys.size()];
+            for (EVCacheClient client : clients) {
+                final Map<String, CachedData> clientValues = new HashMap<String, CachedData>((int) (evcKeys.size() / 0.75f) + 1);
+                for (int i = 0; i < evcKeys.size(); i++) {
+                    final EVCacheKey evcKey = evcKeys.get(i);
+                    final String canonicalKey = evcKey.getCanonicalKey(client.isDuetClient());
+                    final String hashKey = evcKey.getHashKey(client.isDuetClient());
+                    CachedData cd = encoded[i];
+                    if (cd == null) {
+                        if (tc != null) {
+                            cd = tc.encode(values.get(i));
+                        } else if ( _transcoder != null) {
+                            cd = ((Transcoder<Object>)_transcoder).encode(values.get(i));
+                        } else {
+                            cd = client.getTranscoder().encode(values.get(i));
+                        }
+                        if(hashKey != null) {
+                            final EVCacheValue val = new EVCacheValue(canonicalKey, cd.getData(), cd.getFlags(), timeToLive, System.currentTimeMillis());
+                            cd = evcacheValueTranscoder.encode(val);
+                        }
+                        encoded[i] = cd;
+                    }
+                    clientValues.put(hashKey == null ? canonicalKey : hashKey, cd);
+                }
+                final Map<String, Future<Boolean>> futures = client.setBulk(clientValues, timeToLive, latch);
+                if (log.isDebugEnabled() && shouldLog()) log.debug("SET_BULK : APP " + _appName + ", " + futures.size() + " futures for client : " + client);
+            }
+            invalidateInMemory(evcKeys, latch);
+            if (event != null) {
+                event.setTTL(timeToLive);
+                if(_eventsUsingLatchFP.get()) {
+                    latch.setEVCacheEvent(event);
+                    latch.scheduledFutureValidation();
+                } else {
+                    endEvent(event);
+                }
+            }
+            return latch;
+        } catch (Exception ex) {
+            if (log.isDebugEnabled() && shouldLog()) log.debug("Exception setting the data for APP " + _appName + ", keys : " + evcKeys, ex);
+            if (event != null) endEvent(event);
+            status = IpcResult.ERROR;
+            if (!throwExc) return new EVCacheLatchImpl(policy, 0, _appName);
+            throw new EVCacheException("Exception setting data for APP " + _appName + ", keys : " + evcKeys, ex);
+        } finally {
+            final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
+            getTTLDistributionSummary(Call.SET_BULK.name(), EVCacheMetricsFactory.WRITE, EVCacheMetricsFactory.TTL).record(timeToLive);
+            getTimer(Call.SET_BULK, EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
+            if (log.isDebugEnabled() && shouldLog()) log.debug("SET_BULK : APP " + _appName + ", Took " + duration + " milliSec for " + evcKeys.size() + " keys");
+        }
+    }
+
     public <T> EVCacheFuture[] append(String key, T value, int timeToLive) throws EVCacheException {
         return this.append(key, value, null, timeToLive);
     }
@@ -1964,9 +3742,10 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         }
 
         final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
-        String status = EVCacheMetricsFactory.SUCCESS;
+        IpcResult status = IpcResult.SUCCESS;
         try {
             final EVCacheFuture[] futures = new EVCacheFuture[clients.length];
+            final List<Future<Boolean>> appendFutures = new ArrayList<Future<Boolean>>(clients.length);
             CachedData cd = null;
             int index = 0;
             for (EVCacheClient client : clients) {
@@ -1982,7 +3761,9 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                 }
                 final Future<Boolean> future = client.append(evcKey.getDerivedKey(client.isDuetClient()), cd);
                 futures[index++] = new EVCacheFuture(future, key, _appName, client.getServerGroup());
+                appendFutures.add(future);
             }
+            invalidateInMemory(Collections.singletonList(evcKey), appendFutures);
             if (event != null) {
                 event.setCachedData(cd);
                 event.setTTL(timeToLive);
@@ -1991,10 +3772,10 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             touchData(evcKey, timeToLive, clients);
             return futures;
         } catch (Exception ex) {
-            status = EVCacheMetricsFactory.ERROR;
+            status = IpcResult.ERROR;
             if (log.isDebugEnabled() && shouldLog()) log.debug("Exception setting the data for APP " + _appName + ", key : " + evcKey, ex);
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return new EVCacheFuture[0];
@@ -2002,7 +3783,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         } finally {
             final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
             //timer.record(duration, TimeUnit.MILLISECONDS);
-            getTimer(Call.APPEND.name(), EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.APPEND, EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("APPEND : APP " + _appName + ", Took " + duration + " milliSec for key : " + evcKey);
         }
     }
@@ -2071,7 +3852,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             startEvent(event);
         }
 
-        String status = EVCacheMetricsFactory.SUCCESS;
+        IpcResult status = IpcResult.SUCCESS;
         final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
         final EVCacheLatchImpl latch = new EVCacheLatchImpl(policy == null ? Policy.ALL_MINUS_1 : policy, clients.length - _pool.getWriteOnlyEVCacheClients().length, _appName);
         try {
@@ -2079,6 +3860,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                 Future<Boolean> future = clients[i].delete(evcKey.getDerivedKey(clients[i].isDuetClient()), latch);
                 if (log.isDebugEnabled() && shouldLog()) log.debug("DELETE : APP " + _appName + ", Future " + future + " for key : " + evcKey);
             }
+            invalidateInMemory(Collections.singletonList(evcKey), latch);
 
             if (event != null) {
                 if(_eventsUsingLatchFP.get()) {
@@ -2091,16 +3873,16 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             return latch;
         } catch (Exception ex) {
             if (log.isDebugEnabled() && shouldLog()) log.debug("Exception while deleting the data for APP " + _appName + ", key : " + key, ex);
-            status = EVCacheMetricsFactory.ERROR;
+            status = IpcResult.ERROR;
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return new EVCacheLatchImpl(policy, 0, _appName);
             throw new EVCacheException("Exception while deleting the data for APP " + _appName + ", key : " + key, ex);
         } finally {
             final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
-            getTimer(Call.DELETE.name(), EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.DELETE, EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
             //timer.record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("DELETE : APP " + _appName + " Took " + duration + " milliSec for key : " + key);
         }
@@ -2108,6 +3890,159 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
 
 
 
+    public <T> EVCacheLatch deleteBulk(Collection<String> keys, Policy policy) throws EVCacheException {
+        if (keys == null) throw new IllegalArgumentException("Keys cannot be null");
+
+        final boolean throwExc = doThrowException();
+        final EVCacheClient[] clients = _pool.getEVCacheClientForWrite();
+        if (clients.length == 0) {
+            incrementFastFail(EVCacheMetricsFactory.NULL_CLIENT, Call.DELETE_BULK);
+            if (throwExc) throw new EVCacheException("Could not find a client to delete the keys APP " + _appName
+                    + ", Keys " + keys);
+            return new EVCacheLatchImpl(policy, 0, _appName); // Fast failure
+        }
+        if (keys.isEmpty()) return new EVCacheLatchImpl(policy, 0, _appName);
+
+        final List<EVCacheKey> evcKeys = getEVCacheKeys(keys);
+        final EVCacheEvent event = createEVCacheEvent(Arrays.asList(clients), Call.DELETE_BULK);
+        if (event != null) {
+            event.setEVCacheKeys(evcKeys);
+            try {
+                if (shouldThrottle(event)) {
+                    incrementFastFail(EVCacheMetricsFactory.THROTTLED, Call.DELETE_BULK);
+                    if (throwExc) throw new EVCacheException("Request Throttled for app " + _appName + " & keys " + keys);
+                    return new EVCacheLatchImpl(policy, 0, _appName); // Fast failure
+                }
+            } catch(EVCacheException ex) {
+                if(throwExc) throw ex;
+                incrementFastFail(EVCacheMetricsFactory.THROTTLED, Call.DELETE_BULK);
+                return new EVCacheLatchImpl(policy, 0, _appName);
+            }
+            startEvent(event);
+        }
+
+        IpcResult status = IpcResult.SUCCESS;
+        final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
+        final int replicas = clients.length - _pool.getWriteOnlyEVCacheClients().length;
+        final EVCacheLatchImpl latch = new EVCacheLatchImpl(policy == null ? Policy.ALL_MINUS_1 : policy, evcKeys.size(), replicas, _appName);
+        try {
+            for (EVCacheClient client : clients) {
+                final Map<String, Future<Boolean>> futures = client.deleteBulk(getDerivedKeys(evcKeys, client), latch);
+                if (log.isDebugEnabled() && shouldLog()) log.debug("DELETE_BULK : APP " + _appName + ", " + futures.size() + " futures for client : " + client);
+            }
+            invalidateInMemory(evcKeys, latch);
+
+            if (event != null) {
+                if(_eventsUsingLatchFP.get()) {
+                    latch.setEVCacheEvent(event);
+                    latch.scheduledFutureValidation();
+                } else {
+                    endEvent(event);
+                }
+            }
+            return latch;
+        } catch (Exception ex) {
+            if (log.isDebugEnabled() && shouldLog()) log.debug("Exception while deleting the data for APP " + _appName + ", keys : " + keys, ex);
+            status = IpcResult.ERROR;
+            if (event != null) {
+                event.setStatus(status.value());
+                eventError(event, ex);
+            }
+            if (!throwExc) return new EVCacheLatchImpl(policy, 0, _appName);
+            throw new EVCacheException("Exception while deleting the data for APP " + _appName + ", keys : " + keys, ex);
+        } finally {
+            final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
+            getTimer(Call.DELETE_BULK, EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
+            if (log.isDebugEnabled() && shouldLog()) log.debug("DELETE_BULK : APP " + _appName + " Took " + duration + " milliSec for " + evcKeys.size() + " keys");
+        }
+    }
+
+    public <T> EVCacheLatch touchBulk(Collection<String> keys, int timeToLive, Policy policy) throws EVCacheException {
+        if (null == keys) throw new IllegalArgumentException();
+        checkTTL(timeToLive, Call.TOUCH_BULK);
+
+        final boolean throwExc = doThrowException();
+        final EVCacheClient[] clients = _pool.getEVCacheClientForWrite();
+        if (clients.length == 0) {
+            incrementFastFail(EVCacheMetricsFactory.NULL_CLIENT, Call.TOUCH_BULK);
+            if (throwExc) throw new EVCacheException("Could not find a client to touch the data");
+            return new EVCacheLatchImpl(policy, 0, _appName); // Fast failure
+        }
+        if (keys.isEmpty()) return new EVCacheLatchImpl(policy, 0, _appName);
+
+        final List<EVCacheKey> evcKeys = getEVCacheKeys(keys);
+        final EVCacheEvent event = createEVCacheEvent(Arrays.asList(clients), Call.TOUCH_BULK);
+        if (event != null) {
+            event.setEVCacheKeys(evcKeys);
+            try {
+                if (shouldThrottle(event)) {
+                    incrementFastFail(EVCacheMetricsFactory.THROTTLED, Call.TOUCH_BULK);
+                    if (throwExc) throw new EVCacheException("Request Throttled for app " + _appName + " & keys " + keys);
+                    return new EVCacheLatchImpl(policy, 0, _appName); // Fast failure
+                }
+            } catch(EVCacheException ex) {
+                if(throwExc) throw ex;
+                incrementFastFail(EVCacheMetricsFactory.THROTTLED, Call.TOUCH_BULK);
+                return new EVCacheLatchImpl(policy, 0, _appName);
+            }
+            startEvent(event);
+        }
+
+        IpcResult status = IpcResult.SUCCESS;
+        final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
+        try {
+            final int replicas = clients.length - _pool.getWriteOnlyEVCacheClients().length;
+            final EVCacheLatchImpl latch = new EVCacheLatchImpl(policy == null ? Policy.ALL_MINUS_1 : policy, evcKeys.size(), replicas, _appName);
+            for (EVCacheClient client : clients) {
+                final Map<String, Future<Boolean>> futures = client.touchBulk(getDerivedKeys(evcKeys, client), timeToLive, latch);
+                if (log.isDebugEnabled() && shouldLog()) log.debug("TOUCH_BULK : APP " + _appName + ", " + futures.size() + " futures for client : " + client);
+            }
+
+            if (event != null) {
+                event.setTTL(timeToLive);
+                if(_eventsUsingLatchFP.get()) {
+                    latch.setEVCacheEvent(event);
+                    latch.scheduledFutureValidation();
+                } else {
+                    endEvent(event);
+                }
+            }
+            return latch;
+        } catch (Exception ex) {
+            status = IpcResult.ERROR;
+            if (log.isDebugEnabled() && shouldLog()) log.debug("Exception touching the data for APP " + _appName + ", keys : " + keys, ex);
+            if (event != null) {
+                event.setStatus(status.value());
+                eventError(event, ex);
+            }
+            if (!throwExc) return new EVCacheLatchImpl(policy, 0, _appName);
+            throw new EVCacheException("Exception touching data for APP " + _appName + ", keys : " + keys, ex);
+        } finally {
+            final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
+            getTTLDistributionSummary(Call.TOUCH_BULK.name(), EVCacheMetricsFactory.WRITE, EVCacheMetricsFactory.TTL).record(timeToLive);
+            getTimer(Call.TOUCH_BULK, EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
+            if (log.isDebugEnabled() && shouldLog()) log.debug("TOUCH_BULK : APP " + _appName + " Took " + duration + " milliSec for " + evcKeys.size() + " keys with timeToLive : " + timeToLive);
+        }
+    }
+
+    private List<EVCacheKey> getEVCacheKeys(Collection<String> keys) {
+        final List<EVCacheKey> evcKeys = new ArrayList<EVCacheKey>(keys.size());
+        // duplicates are dropped as the latch expects one operation per key and replica
+        for (String key : new LinkedHashSet<String>(keys)) {
+            if (key == null) throw new IllegalArgumentException("Key cannot be null");
+            evcKeys.add(getEVCacheKey(key));
+        }
+        return evcKeys;
+    }
+
+    private List<String> getDerivedKeys(List<EVCacheKey> evcKeys, EVCacheClient client) {
+        final List<String> derivedKeys = new ArrayList<String>(evcKeys.size());
+        for (EVCacheKey evcKey : evcKeys) {
+            derivedKeys.add(evcKey.getDerivedKey(client.isDuetClient()));
+        }
+        return derivedKeys;
+    }
+
     public int getDefaultTTL() {
         return _timeToLive;
     }
@@ -2143,7 +4078,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             startEvent(event);
         }
 
-        String status = EVCacheMetricsFactory.SUCCESS;
+        IpcResult status = IpcResult.SUCCESS;
         final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
 
         long currentValue = -1;
@@ -2175,21 +4110,22 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                     }
                 }
             }
+            invalidateInMemory(evcKey);
             if (event != null) endEvent(event);
             if (log.isDebugEnabled()) log.debug("INCR : APP " + _appName + " returning value = " + currentValue + " for key : " + key);
             return currentValue;
         } catch (Exception ex) {
-            status = EVCacheMetricsFactory.ERROR;
+            status = IpcResult.ERROR;
             if (log.isDebugEnabled() && shouldLog()) log.debug("Exception incrementing the value for APP " + _appName + ", key : " + key, ex);
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return -1;
             throw new EVCacheException("Exception incrementing value for APP " + _appName + ", key : " + key, ex);
         } finally {
             final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
-            getTimer(Call.INCR.name(), EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.INCR, EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("INCR : APP " + _appName + ", Took " + duration
                     + " milliSec for key : " + key + " with value as " + currentValue);
         }
@@ -2227,7 +4163,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         }
 
         final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
-        String status = EVCacheMetricsFactory.SUCCESS;
+        IpcResult status = IpcResult.SUCCESS;
         long currentValue = -1;
         try {
             final long[] vals = new long[clients.length];
@@ -2261,21 +4197,22 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                 }
             }
 
+            invalidateInMemory(evcKey);
             if (event != null) endEvent(event);
             if (log.isDebugEnabled()) log.debug("DECR : APP " + _appName + " returning value = " + currentValue + " for key : " + key);
             return currentValue;
         } catch (Exception ex) {
-            status = EVCacheMetricsFactory.ERROR;
+            status = IpcResult.ERROR;
             if (log.isDebugEnabled() && shouldLog()) log.debug("Exception decrementing the value for APP " + _appName + ", key : " + key, ex);
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return -1;
             throw new EVCacheException("Exception decrementing value for APP " + _appName + ", key : " + key, ex);
         } finally {
             final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
-            getTimer(Call.DECR.name(), EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.DECR, EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("DECR : APP " + _appName + ", Took " + duration + " milliSec for key : " + key + " with value as " + currentValue);
         }
     }
@@ -2327,7 +4264,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         }
 
         final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
-        String status = EVCacheMetricsFactory.SUCCESS;
+        IpcResult status = IpcResult.SUCCESS;
         final EVCacheLatchImpl latch = new EVCacheLatchImpl(policy == null ? Policy.ALL_MINUS_1 : policy, clients.length - _pool.getWriteOnlyEVCacheClients().length, _appName);
         try {
             final EVCacheFuture[] futures = new EVCacheFuture[clients.length];
@@ -2351,6 +4288,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                 final Future<Boolean> future = client.replace(evcKey.getDerivedKey(client.isDuetClient()), cd, timeToLive, latch);
                 futures[index++] = new EVCacheFuture(future, key, _appName, client.getServerGroup());
             }
+            invalidateInMemory(Collections.singletonList(evcKey), latch);
             if (event != null) {
                 event.setTTL(timeToLive);
                 event.setCachedData(cd);
@@ -2363,17 +4301,17 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             }
             return latch;
         } catch (Exception ex) {
-            status = EVCacheMetricsFactory.ERROR;
+            status = IpcResult.ERROR;
             if (log.isDebugEnabled() && shouldLog()) log.debug("Exception setting the data for APP " + _appName + ", key : " + evcKey, ex);
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return new EVCacheLatchImpl(policy, 0, _appName);
             throw new EVCacheException("Exception setting data for APP " + _appName + ", key : " + evcKey, ex);
         } finally {
             final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
-            getTimer(Call.REPLACE.name(), EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.REPLACE, EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("REPLACE : APP " + _appName + ", Took " + duration + " milliSec for key : " + evcKey);
         }
     }
@@ -2383,6 +4321,18 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         return _cacheName;
     }
 
+    EVCacheClientPoolManager getPoolManager() {
+        return _poolManager;
+    }
+
+    /**
+     * Returns the key that was passed to EVCache for the given canonical key i.e. strips the cache name prefix.
+     */
+    String getKeyFromCanonicalKey(String canonicalKey) {
+        if (_cacheNamePrefix == null || !canonicalKey.startsWith(_cacheNamePrefix)) return canonicalKey;
+        return canonicalKey.substring(_cacheNamePrefix.length());
+    }
+
     public String getAppName() {
         return _appName;
     }
@@ -2391,6 +4341,11 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         return _cacheName;
     }
 
+    @Override
+    public EVCacheAsync async() {
+        return async;
+    }
+
     public <T> EVCacheLatch appendOrAdd(String key, T value, Transcoder<T> tc, int timeToLive, Policy policy) throws EVCacheException {
         if ((null == key) || (null == value)) throw new IllegalArgumentException();
         checkTTL(timeToLive, Call.APPEND_OR_ADD);
@@ -2422,7 +4377,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         }
         final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
         final EVCacheLatchImpl latch = new EVCacheLatchImpl(policy == null ? Policy.ALL_MINUS_1 : policy, clients.length - _pool.getWriteOnlyEVCacheClients().length, _appName);
-        String status = EVCacheMetricsFactory.SUCCESS;
+        IpcResult status = IpcResult.SUCCESS;
         try {
             CachedData cd = null;
             for (EVCacheClient client : clients) {
@@ -2438,6 +4393,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
                 final Future<Boolean> future = client.appendOrAdd(evcKey.getDerivedKey(client.isDuetClient()), cd, timeToLive, latch);
                 if (log.isDebugEnabled() && shouldLog()) log.debug("APPEND_OR_ADD : APP " + _appName + ", Future " + future + " for key : " + evcKey);
             }
+            invalidateInMemory(Collections.singletonList(evcKey), latch);
             if (event != null) {
                 event.setTTL(timeToLive);
                 event.setCachedData(cd);
@@ -2450,17 +4406,17 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             }
             return latch;
         } catch (Exception ex) {
-            status = EVCacheMetricsFactory.ERROR;
+            status = IpcResult.ERROR;
             if (log.isDebugEnabled() && shouldLog()) log.debug("Exception while appendOrAdd the data for APP " + _appName + ", key : " + evcKey, ex);
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return new EVCacheLatchImpl(policy, 0, _appName);
             throw new EVCacheException("Exception while appendOrAdd data for APP " + _appName + ", key : " + evcKey, ex);
         } finally {
             final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
-            getTimer(Call.APPEND_OR_ADD.name(), EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.APPEND_OR_ADD, EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("APPEND_OR_ADD : APP " + _appName + ", Took " + duration + " milliSec for key : " + evcKey);
         }
     }
@@ -2526,7 +4482,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         }
 
         final long start = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime();
-        String status = EVCacheMetricsFactory.SUCCESS;
+        IpcResult status = IpcResult.SUCCESS;
         EVCacheLatch latch = null;
         try {
             CachedData cd = null;
@@ -2541,6 +4497,7 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
             }
             if(clientUtil == null) clientUtil = new EVCacheClientUtil(_pool);
             latch = clientUtil.add(evcKey, cd, hashKey.get(), evcacheValueTranscoder, timeToLive, policy);
+            invalidateInMemory(Collections.singletonList(evcKey), latch);
             if (event != null) {
                 event.setTTL(timeToLive);
                 event.setCachedData(cd);
@@ -2555,17 +4512,17 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
 
             return latch;
         } catch (Exception ex) {
-            status = EVCacheMetricsFactory.ERROR;
+            status = IpcResult.ERROR;
             if (log.isDebugEnabled() && shouldLog()) log.debug("Exception adding the data for APP " + _appName + ", key : " + evcKey, ex);
             if (event != null) {
-                event.setStatus(status);
+                event.setStatus(status.value());
                 eventError(event, ex);
             }
             if (!throwExc) return new EVCacheLatchImpl(policy, 0, _appName);
             throw new EVCacheException("Exception adding data for APP " + _appName + ", key : " + evcKey, ex);
         } finally {
             final long duration = EVCacheMetricsFactory.getInstance().getRegistry().clock().wallTime()- start;
-            getTimer(Call.ADD.name(), EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
+            getTimer(Call.ADD, EVCacheMetricsFactory.WRITE, null, status, 1, maxWriteDuration.get().intValue(), null).record(duration, TimeUnit.MILLISECONDS);
             if (log.isDebugEnabled() && shouldLog()) log.debug("ADD : APP " + _appName + ", Took " + duration + " milliSec for key : " + evcKey);
         }
     }
@@ -2583,44 +4540,8 @@ final public class EVCacheImpl implements EVCache, EVCacheImplMBean {
         return distributionSummary;
     }
 
-    private Timer getTimer(String operation, String operationType, String hit, String status, int tries, long duration, ServerGroup serverGroup) {
-        String name = ((hit != null) ? operation + hit : operation);
-        if(status != null) name += status;
-        if(tries >= 0) name += tries;
-        if(serverGroup != null) name += serverGroup.getName();
-        //if(_cacheName != null) name += _cacheName;
-
-        Timer timer = timerMap.get(name);
-        if(timer != null) return timer;
-
-        final List<Tag> tagList = new ArrayList<Tag>(7);
-        tagList.addAll(tags);
-        if(operation != null) tagList.add(new BasicTag(EVCacheMetricsFactory.CALL_TAG, operation));
-        if(operationType != null) tagList.add(new BasicTag(EVCacheMetricsFactory.CALL_TYPE_TAG, operationType));
-        if(status != null) tagList.add(new BasicTag(EVCacheMetricsFactory.IPC_RESULT, status));
-        if(hit != null) tagList.add(new BasicTag(EVCacheMetricsFactory.CACHE_HIT, hit));
-        switch(tries) {
-            case 0 :
-            case 1 :
-                tagList.add(new BasicTag(EVCacheMetricsFactory.ATTEMPT, EVCacheMetricsFactory.INITIAL));
-                break;
-            case 2 :
-                tagList.add(new BasicTag(EVCacheMetricsFactory.ATTEMPT, EVCacheMetricsFactory.SECOND));
-                break;
-            default:
-                tagList.add(new BasicTag(EVCacheMetricsFactory.ATTEMPT, EVCacheMetricsFactory.THIRD_UP));
-                break;
-        }
-
-//        if(tries == 0) tagList.add(new BasicTag(EVCacheMetricsFactory.ATTEMPT, String.valueOf(tries)));
-        if(serverGroup != null) {
-            tagList.add(new BasicTag(EVCacheMetricsFactory.SERVERGROUP, serverGroup.getName()));
-            tagList.add(new BasicTag(EVCacheMetricsFactory.ZONE, serverGroup.getZone()));
-        }
-
-        timer = EVCacheMetricsFactory.getInstance().getPercentileTimer(EVCacheMetricsFactory.OVERALL_CALL, tagList, Duration.ofMillis(duration));
-        timerMap.put(name, timer);
-        return timer;
+    private Timer getTimer(Call call, String operationType, CacheHit hit, IpcResult status, int tries, long duration, ServerGroup serverGroup) {
+        return callTimers.getTimer(call, operationType, hit, status, tries, duration, serverGroup);
     }
 
     protected List<Tag> getTags() {
@@ -1,40 +1,49 @@
 package com.netflix.evcache;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
+import java.util.function.Function;
 
 import com.netflix.archaius.api.Property;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Optional;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.CacheStats;
-import com.google.common.cache.LoadingCache;
-import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListenableFutureTask;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.netflix.evcache.metrics.EVCacheMetricsFactory;
+import com.netflix.evcache.operation.EVCacheItem;
+import com.netflix.evcache.util.CacheSnapshot;
 import com.netflix.evcache.util.EVCacheConfig;
+import com.netflix.evcache.util.OffHeapCache;
+import com.netflix.evcache.util.TinyLfuCache;
+import com.netflix.evcache.util.WriteGenerations;
 import com.netflix.spectator.api.BasicTag;
 import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Gauge;
 import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Tag;
 
+import net.spy.memcached.CachedData;
 import net.spy.memcached.transcoders.Transcoder;
 
 /**
@@ -42,6 +51,24 @@ import net.spy.memcached.transcoders.Transcoder;
  * helpful when the same key is repeatedly requested from EVCache within a short
  * duration. This can be turned on dynamically and can relive pressure on
  * EVCache Server instances.
+ *
+ * If {@code <app>.inmemory.offheap.max.bytes} is set the encoded values are
+ * held in direct memory instead (see {@link OffHeapCache}) and decoded on every
+ * read. This allows for large local caches without adding to the old gen of
+ * the heap. The off heap cache evicts in FIFO order and only supports expire
+ * after write; an expire after access duration is applied as expire after write.
+ *
+ * If {@code <app>.inmemory.snapshot.path} is set the encoded entries are
+ * written to that file on shutdown and every
+ * {@code <app>.inmemory.snapshot.interval.ms}, and a new instance restores them
+ * in the background on start so that it does not begin with an empty cache.
+ *
+ * If {@code <app>.inmemory.server.ttl.enabled} is set an entry expires when
+ * the item expires in EVCache, as returned by a meta get or held in the
+ * {@link com.netflix.evcache.pool.EVCacheValue} of a hashed key, but is held
+ * for at most {@code <app>.inmemory.max.ttl.ms} (by default the expire after
+ * write duration). Entries whose time to live in EVCache is not known, i.e.
+ * those added by a bulk get, expire after the expire after write duration.
  */
 public class EVCacheInMemoryCache<T> {
 
@@ -49,18 +76,97 @@ public class EVCacheInMemoryCache<T> {
     private final Property<Integer> _cacheDuration; // The key will be cached for this long
     private final Property<Integer> _refreshDuration, _exireAfterAccessDuration;
     private final Property<Integer> _cacheSize; // This many items will be cached
+    private final Property<Long> _cacheMaxBytes; // If set the cache is bounded by the size of the serialized values instead of the number of items
+    private final Property<Long> _offHeapMaxBytes; // If set the encoded values are cached in direct memory instead of on the heap
     private final Property<Integer> _poolSize; // This many threads will be initialized to fetch data from evcache async
+    private final Property<String> _snapshotPath; // If set the cache is written to this file and restored from it on start
+    private final Property<Integer> _snapshotInterval, _snapshotMaxAge;
+    private final Property<Boolean> _serverTtl; // If set the entries expire when the items expire in EVCache
+    private final Property<Integer> _maxTtl; // The longest an entry is held when its expiry follows EVCache
     private final String appName;
     private final Map<String, Counter> counterMap = new ConcurrentHashMap<String, Counter>();
     private final Map<String, Gauge> gaugeMap = new ConcurrentHashMap<String, Gauge>();
 
-    private LoadingCache<EVCacheKey, Optional<T>> cache;
+    private final TinyLfuCache<EVCacheKey, CacheValue<T>> cache;
     private ExecutorService pool = null;
+    private final ScheduledExecutorService snapshotExecutor; // snapshots are written and restored on a thread of their own so they do not hold up other scheduled tasks
+    private volatile boolean weighByBytes;
+    private boolean serverTtlEnabled;
+
+    private volatile OffHeapCache offHeapCache;
+    private long offHeapCacheBytes = 0;
+    private final WriteGenerations writeGenerations = new WriteGenerations(1024); // keys written while a bulk get was in flight are not cached
+    private final Map<EVCacheKey, CompletableFuture<T>> offHeapLoads = new ConcurrentHashMap<EVCacheKey, CompletableFuture<T>>();
+    private final AtomicLong offHeapLoadSuccess = new AtomicLong(), offHeapLoadFailure = new AtomicLong(), offHeapLoadTime = new AtomicLong();
+    // stats of the off heap caches that were replaced when the size was changed
+    private long retiredHits, retiredMisses, retiredEvictions, retiredEvictedBytes;
 
     private final Transcoder<T> tc;
     private final EVCacheImpl impl;
     private final Id sizeId;
 
+    // cumulative stats as of the last time the metrics were published
+    private long lastHits, lastMisses, lastEvictions, lastEvictionWeight, lastLoadSuccess, lastLoadFailure, lastLoadTime;
+
+    // the item does not expire in EVCache
+    private static final long NEVER = Long.MAX_VALUE;
+
+    /**
+     * A cached value along with the size of its serialized form and when it expires, 0 if only the expiration policy
+     * of the cache applies.
+     */
+    private static final class CacheValue<T> {
+        private final T value;
+        private final int size;
+        private final long expiresAt;
+
+        CacheValue(T value, int size, long expiresAt) {
+            this.value = value;
+            this.size = size;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Records the data it decodes so that the value loaded from EVCache can be weighed by its serialized size or
+     * stored off heap without encoding it again. The fetch records when the item expires in EVCache, 0 if that is not
+     * known.
+     */
+    private static final class WeighingTranscoder<T> implements Transcoder<T> {
+        private final Transcoder<T> tc;
+        private volatile int size = 0;
+        private volatile CachedData data = null;
+        private volatile long serverExpiresAt = 0;
+
+        WeighingTranscoder(Transcoder<T> tc) {
+            this.tc = tc;
+        }
+
+        @Override
+        public boolean asyncDecode(CachedData d) {
+            return tc.asyncDecode(d);
+        }
+
+        @Override
+        public CachedData encode(T o) {
+            return tc.encode(o);
+        }
+
+        @Override
+        public T decode(CachedData d) {
+            if (d != null && d.getData() != null) {
+                size = d.getData().length;
+                data = d;
+            }
+            return tc.decode(d);
+        }
+
+        @Override
+        public int getMaxSize() {
+            return tc.getMaxSize();
+        }
+    }
+
     public EVCacheInMemoryCache(String appName, Transcoder<T> tc, EVCacheImpl impl) {
         this.appName = appName;
         this.tc = tc;
@@ -76,17 +182,67 @@ public class EVCacheInMemoryCache<T> {
 
         this._cacheSize = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".inmemory.cache.size", Integer.class).orElse(100);
         this._cacheSize.subscribe((i) -> setupCache());
+        this._cacheMaxBytes = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".inmemory.cache.max.bytes", Long.class).orElse(0l);
+        this._cacheMaxBytes.subscribe((i) -> setupCache());
+        this._offHeapMaxBytes = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".inmemory.offheap.max.bytes", Long.class).orElse(0l);
+        this._offHeapMaxBytes.subscribe((i) -> setupCache());
 
         this._poolSize = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".thread.pool.size", Integer.class).orElse(5);
         this._poolSize.subscribe((i) -> initRefreshPool());
 
+        this._snapshotPath = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".inmemory.snapshot.path", String.class).orElse("");
+        this._snapshotInterval = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".inmemory.snapshot.interval.ms", Integer.class).orElse(0);
+        this._snapshotMaxAge = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".inmemory.snapshot.max.age.ms", Integer.class).orElse(600000);
+
+        this._serverTtl = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".inmemory.server.ttl.enabled", Boolean.class).orElse(false);
+        this._serverTtl.subscribe((i) -> setupCache());
+        this._maxTtl = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".inmemory.max.ttl.ms", Integer.class).orElse(0);
+
         final List<Tag> tags = new ArrayList<Tag>(3);
         tags.addAll(impl.getTags());
         tags.add(new BasicTag(EVCacheMetricsFactory.METRIC, "size"));
 
         this.sizeId = EVCacheMetricsFactory.getInstance().getId(EVCacheMetricsFactory.IN_MEMORY, tags);
+        initRefreshPool();
+        this.cache = new TinyLfuCache<EVCacheKey, CacheValue<T>>(0, 0, v -> weighByBytes ? v.size : 1, new TinyLfuCache.Loader<EVCacheKey, CacheValue<T>>() {
+            @Override
+            public CacheValue<T> load(EVCacheKey key) throws EVCacheException {
+                final WeighingTranscoder<T> weighingTranscoder = new WeighingTranscoder<T>(tc);
+                try {
+                    final T value = fetch(key, weighingTranscoder);
+                    // a miss has no expiry in EVCache to follow, so it is not cached
+                    if (value == null && _serverTtl.get().booleanValue()) return null;
+                    return newValue(value, weighingTranscoder.size, System.currentTimeMillis(), weighingTranscoder.serverExpiresAt);
+                } catch (EVCacheException e) {
+                    log.error("EVCacheException while loading key -> "+ key, e);
+                    throw e;
+                } catch (Exception e) {
+                    log.error("EVCacheException while loading key -> "+ key, e);
+                    throw new EVCacheException("key : " + key + " could not be loaded", e);
+                }
+            }
+
+            @Override
+            public CacheValue<T> reload(EVCacheKey key, CacheValue<T> oldValue) {
+                try {
+                    final CacheValue<T> value = load(key);
+                    EVCacheMetricsFactory.getInstance().increment("EVCacheInMemoryCache" + "-" + appName + "-Reload-Success");
+                    return value;
+                } catch (EVCacheException e) {
+                    log.error("EVCacheException while reloading key -> "+ key, e);
+                    EVCacheMetricsFactory.getInstance().increment("EVCacheInMemoryCache" + "-" + appName + "-Reload-Fail");
+                    return oldValue;
+                }
+            }
+        }, r -> pool.execute(r));
+        this.cache.setVariableExpiry(v -> v.expiresAt == 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(Math.max(1, v.expiresAt - System.currentTimeMillis())));
         setupCache();
         setupMonitoring(appName);
+
+        this.snapshotExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true).setNameFormat(
+                "EVCacheInMemoryCache-Snapshot-" + appName + "-%d").build());
+        if (_snapshotPath.get().length() > 0) snapshotExecutor.execute(this::restoreSnapshot);
+        scheduleSnapshot();
     }
 
     private WriteLock writeLock = new ReentrantReadWriteLock().writeLock();
@@ -103,90 +259,100 @@ public class EVCacheInMemoryCache<T> {
         }
     }
 
-
-    private void setupCache() {
+    /**
+     * Applies the size and expiration properties to the cache in place.
+     */
+    private synchronized void setupCache() {
         try {
-            CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
-            if(_cacheSize.get() > 0) {
-                builder = builder.maximumSize(_cacheSize.get());
+            final long maxBytes = _cacheMaxBytes.get().longValue();
+            final boolean byBytes = maxBytes > 0;
+            if (byBytes) {
+                // the sketch is sized assuming an average value of 1KB
+                cache.setMaximumWeight(maxBytes, Math.max(1, maxBytes / 1024));
+            } else {
+                cache.setMaximumWeight(_cacheSize.get().longValue(), _cacheSize.get().longValue());
             }
-            if(_exireAfterAccessDuration.get() > 0) {
-                builder = builder.expireAfterAccess(_exireAfterAccessDuration.get(), TimeUnit.MILLISECONDS);
-            } else if(_cacheDuration.get().intValue() > 0) {
-                builder = builder.expireAfterWrite(_cacheDuration.get(), TimeUnit.MILLISECONDS);
+            if (byBytes != weighByBytes) {
+                weighByBytes = byBytes;
+                cache.reweigh();
             }
 
-            if(_refreshDuration.get() > 0) {
-                builder = builder.refreshAfterWrite(_refreshDuration.get(), TimeUnit.MILLISECONDS);
+            // with the server ttl every entry carries its own expiry instead of the expire after write duration
+            final boolean serverTtl = _serverTtl.get().booleanValue();
+            if(_exireAfterAccessDuration.get() > 0) {
+                cache.setExpiry(0, _exireAfterAccessDuration.get(), _refreshDuration.get(), TimeUnit.MILLISECONDS);
+            } else {
+                cache.setExpiry(serverTtl ? 0 : _cacheDuration.get(), 0, _refreshDuration.get(), TimeUnit.MILLISECONDS);
+            }
+            if (serverTtl != serverTtlEnabled) {
+                serverTtlEnabled = serverTtl;
+                // the entries that were added before do not have the right expiry
+                cache.invalidateAll();
+                final OffHeapCache offHeap = offHeapCache;
+                if (offHeap != null) offHeap.clear();
             }
-            initRefreshPool();
-            final LoadingCache<EVCacheKey, Optional<T>> newCache = builder.build(
-                    new CacheLoader<EVCacheKey, Optional<T>>() {
-                        public Optional<T> load(EVCacheKey key) throws  EVCacheException, DataNotFoundException {
-                            try {
-                                return  Optional.fromNullable(impl.doGet(key, tc));
-                            } catch (EVCacheException e) {
-                                log.error("EVCacheException while loading key -> "+ key, e);
-                                throw e;
-                            } catch (Exception e) {
-                                log.error("EVCacheException while loading key -> "+ key, e);
-                                throw new EVCacheException("key : " + key + " could not be loaded", e);
-                            }
-                        }
 
-                        @Override
-                        public ListenableFuture<Optional<T>> reload(EVCacheKey key, Optional<T> oldValue) {
-                            ListenableFutureTask<Optional<T>> task = ListenableFutureTask.create(new Callable<Optional<T>>() {
-                                public Optional<T> call() {
-                                    try {
-                                        final Optional<T> t = load(key);
-                                        if(t == null) {
-                                            EVCacheMetricsFactory.getInstance().increment("EVCacheInMemoryCache" + "-" + appName + "-Reload-NotFound");
-                                            return oldValue;
-                                        } else {
-                                            EVCacheMetricsFactory.getInstance().increment("EVCacheInMemoryCache" + "-" + appName + "-Reload-Success");
-                                        }
-                                        return t;
-                                    } catch (EVCacheException e) {
-                                        log.error("EVCacheException while reloading key -> "+ key, e);
-                                        EVCacheMetricsFactory.getInstance().increment("EVCacheInMemoryCache" + "-" + appName + "-Reload-Fail");
-                                        return oldValue;
-                                    }
-                                }
-                            });
-                            pool.execute(task);
-                            return task;
-                        }
-                    });
-            if(cache != null) newCache.putAll(cache.asMap());
-            final Cache<EVCacheKey, Optional<T>> currentCache = this.cache;
-            this.cache = newCache;
-            if(currentCache != null) {
-                currentCache.invalidateAll();
-                currentCache.cleanUp();
+            final long offHeapBytes = _offHeapMaxBytes.get().longValue();
+            if (offHeapBytes != offHeapCacheBytes) {
+                final OffHeapCache oldCache = offHeapCache;
+                offHeapCache = (offHeapBytes > 0) ? new OffHeapCache(offHeapBytes, 16) : null;
+                offHeapCacheBytes = offHeapBytes;
+                if (oldCache != null) {
+                    retiredHits += oldCache.hitCount();
+                    retiredMisses += oldCache.missCount();
+                    retiredEvictions += oldCache.evictionCount();
+                    retiredEvictedBytes += oldCache.evictedBytes();
+                    // the slabs would otherwise be held until a full gc
+                    oldCache.free();
+                }
+                // only one of the caches is in use at a time
+                if (offHeapCache != null) cache.invalidateAll();
             }
         } catch (Exception e) {
             log.error(e.getMessage(), e);
         }
     }
 
-    private long getSize() {
-        final long size = cache.size();
-        final CacheStats stats = cache.stats();
-
-        getCounter("hits").increment(stats.hitCount());
-        getCounter("miss").increment(stats.missCount());
-        getCounter("evictions").increment(stats.evictionCount());
-        getCounter("requests").increment(stats.requestCount());
-
-        getCounter("loadExceptionCount").increment(stats.loadExceptionCount());
-        getCounter("loadCount").increment(stats.loadCount());
-        getCounter("loadSuccessCount").increment(stats.loadSuccessCount());
-        getCounter("totalLoadTime-ms").increment(cache.stats().totalLoadTime()/1000000);
-
-        getGauge("hitrate").set(stats.hitRate());
-        getGauge("loadExceptionRate").set(stats.loadExceptionRate());
-        getGauge("averageLoadTime-ms").set(stats.averageLoadPenalty()/1000000);
+    private synchronized long getSize() {
+        final OffHeapCache offHeap = offHeapCache;
+        final long size = (offHeap == null) ? cache.size() : offHeap.size();
+
+        final long hits = cache.hitCount() + retiredHits + (offHeap == null ? 0 : offHeap.hitCount());
+        final long misses = cache.missCount() + retiredMisses + (offHeap == null ? 0 : offHeap.missCount());
+        final long evictions = cache.evictionCount() + retiredEvictions + (offHeap == null ? 0 : offHeap.evictionCount());
+        final long evictionWeight = cache.evictionWeight() + retiredEvictedBytes + (offHeap == null ? 0 : offHeap.evictedBytes());
+        final long loadSuccess = cache.loadSuccessCount() + offHeapLoadSuccess.get();
+        final long loadFailure = cache.loadFailureCount() + offHeapLoadFailure.get();
+        final long loadTime = cache.totalLoadTimeNanos() + offHeapLoadTime.get();
+
+        final long intervalHits = hits - lastHits;
+        final long intervalRequests = intervalHits + (misses - lastMisses);
+        final long intervalLoads = (loadSuccess - lastLoadSuccess) + (loadFailure - lastLoadFailure);
+
+        getCounter("hits").increment(intervalHits);
+        getCounter("miss").increment(misses - lastMisses);
+        getCounter("evictions").increment(evictions - lastEvictions);
+        getCounter("evictionWeight").increment(evictionWeight - lastEvictionWeight);
+        getCounter("requests").increment(intervalRequests);
+
+        getCounter("loadExceptionCount").increment(loadFailure - lastLoadFailure);
+        getCounter("loadCount").increment(intervalLoads);
+        getCounter("loadSuccessCount").increment(loadSuccess - lastLoadSuccess);
+        getCounter("totalLoadTime-ms").increment((loadTime - lastLoadTime)/1000000);
+
+        getGauge("hitrate").set(intervalRequests == 0 ? 1.0 : (double) intervalHits / intervalRequests);
+        getGauge("loadExceptionRate").set(intervalLoads == 0 ? 0.0 : (double) (loadFailure - lastLoadFailure) / intervalLoads);
+        getGauge("averageLoadTime-ms").set(intervalLoads == 0 ? 0.0 : (double) (loadTime - lastLoadTime) / intervalLoads / 1000000);
+        getGauge("weightedSize").set(cache.weightedSize());
+        getGauge("offHeapBytes").set(offHeap == null ? 0 : offHeap.allocatedBytes());
+
+        lastHits = hits;
+        lastMisses = misses;
+        lastEvictions = evictions;
+        lastEvictionWeight = evictionWeight;
+        lastLoadSuccess = loadSuccess;
+        lastLoadFailure = loadFailure;
+        lastLoadTime = loadTime;
         return size;
     }
 
@@ -222,28 +388,406 @@ public class EVCacheInMemoryCache<T> {
     }
 
     public T get(EVCacheKey key) throws ExecutionException {
-        if (cache == null) return null;
-        final Optional<T> val = cache.get(key);
-        if(!val.isPresent()) return null;
-        if (log.isDebugEnabled()) log.debug("GET : appName : " + appName + "; Key : " + key + "; val : " + val);
-        return val.get();
+        final OffHeapCache offHeap = offHeapCache;
+        if (offHeap != null) return getOffHeap(offHeap, key);
+
+        final CacheValue<T> val = cache.get(key);
+        if (val == null || val.value == null) return null;
+        if (log.isDebugEnabled()) log.debug("GET : appName : " + appName + "; Key : " + key + "; val : " + val.value);
+        return val.value;
+    }
+
+    /**
+     * Returns the value if it is present in the cache without loading it.
+     */
+    public T getIfPresent(EVCacheKey key) {
+        final OffHeapCache offHeap = offHeapCache;
+        if (offHeap != null) {
+            final OffHeapCache.Entry entry = offHeap.get(toBytes(key), System.currentTimeMillis());
+            return (entry == null) ? null : decode(entry);
+        }
+
+        final CacheValue<T> val = cache.getIfPresent(key);
+        if (val == null || val.value == null) return null;
+        if (log.isDebugEnabled()) log.debug("GET : appName : " + appName + "; Key : " + key + "; val : " + val.value);
+        return val.value;
     }
 
     public void put(EVCacheKey key, T value) {
-        if (cache == null) return;
-        cache.put(key, Optional.fromNullable(value));
+        put(key, value, null);
+    }
+
+    /**
+     * Adds the value that was read from EVCache. The data the value was decoded from is used to weigh the value and
+     * to store it off heap so that the value does not have to be encoded again.
+     *
+     * @param data - the data the value was decoded from or null if it is not known, in which case the value is encoded
+     */
+    public void put(EVCacheKey key, T value, CachedData data) {
+        final CachedData cd = (data != null || value == null || (!weighByBytes && offHeapCache == null)) ? data : tc.encode(value);
+        final OffHeapCache offHeap = offHeapCache;
+        if (offHeap != null) {
+            final long now = System.currentTimeMillis();
+            offHeap.put(toBytes(key), cd == null ? 0 : cd.getFlags(), cd == null ? null : cd.getData(), now, expiresAt(now, 0));
+            if (log.isDebugEnabled()) log.debug("PUT : appName : " + appName + "; Key : " + key + "; val : " + value);
+            return;
+        }
+
+        final int size = (weighByBytes && cd != null && cd.getData() != null) ? cd.getData().length : 0;
+        cache.put(key, newValue(value, size, System.currentTimeMillis(), 0));
         if (log.isDebugEnabled()) log.debug("PUT : appName : " + appName + "; Key : " + key + "; val : " + value);
     }
 
+    /**
+     * Returns the values of the given keys that are present in the cache. The missing keys are not loaded so that the
+     * caller can fetch all of them with a single bulk call and add them with
+     * {@link #putAll(Map, Function, Map)}, passing the {@link #getWriteGenerations(Collection) write generations}
+     * of the keys as they were before the call.
+     */
+    public Map<EVCacheKey, T> getAllPresent(Collection<EVCacheKey> keys) {
+        final Map<EVCacheKey, T> values = new HashMap<EVCacheKey, T>(keys.size() * 4 / 3 + 1);
+        for (EVCacheKey key : keys) {
+            final T value = getIfPresent(key);
+            if (value != null) values.put(key, value);
+        }
+        return values;
+    }
+
+    /**
+     * Adds the values that were loaded in bulk. Null values i.e. keys that were not found are skipped.
+     */
+    public void putAll(Map<EVCacheKey, T> values) {
+        putAll(values, value -> null, null);
+    }
+
+    /**
+     * Adds the values that were loaded in bulk along with the data they were decoded from, see {@link #put(EVCacheKey, Object, CachedData)}.
+     * A value is skipped if its key was invalidated, i.e. written, since the given write generation was taken, as
+     * the value may have been read before the write.
+     *
+     * @param generations - the write generations of the keys taken before they were read or null to not check them
+     */
+    public void putAll(Map<EVCacheKey, T> values, Function<T, CachedData> data, Map<EVCacheKey, Long> generations) {
+        for (Map.Entry<EVCacheKey, T> entry : values.entrySet()) {
+            final EVCacheKey key = entry.getKey();
+            if (entry.getValue() == null) continue;
+            final Long generation = (generations == null) ? null : generations.get(key);
+            if (generation != null && writeGenerations.get(key) != generation.longValue()) continue;
+            put(key, entry.getValue(), data.apply(entry.getValue()));
+            // the key was invalidated while the value was added
+            if (generation != null && writeGenerations.get(key) != generation.longValue()) remove(key);
+        }
+    }
+
+    /**
+     * Returns the current write generation of each key, which changes when the key is invalidated.
+     */
+    public Map<EVCacheKey, Long> getWriteGenerations(Collection<EVCacheKey> keys) {
+        final Map<EVCacheKey, Long> generations = new HashMap<EVCacheKey, Long>(keys.size() * 4 / 3 + 1);
+        for (EVCacheKey key : keys) {
+            generations.put(key, Long.valueOf(writeGenerations.get(key)));
+        }
+        return generations;
+    }
+
+    /**
+     * Drops the given key (as passed to EVCache) from the cache.
+     */
     public void delete(String key) {
-        if (cache == null) return;
-        cache.invalidate(key);
+        invalidate(impl.getEVCacheKey(key));
+    }
+
+    /**
+     * Drops the given key from the cache. A load of the key that is in flight is not cached.
+     */
+    public void invalidate(EVCacheKey key) {
+        writeGenerations.increment(key);
+        remove(key);
         if (log.isDebugEnabled()) log.debug("DEL : appName : " + appName + "; Key : " + key);
     }
 
+    private void remove(EVCacheKey key) {
+        cache.invalidate(key);
+        final OffHeapCache offHeap = offHeapCache;
+        if (offHeap != null) {
+            offHeapLoads.remove(key);
+            offHeap.remove(toBytes(key));
+        }
+    }
+
+    /**
+     * Returns the entries that have not expired. The values of the off heap cache are decoded.
+     */
     public Map<EVCacheKey, Optional<T>> getAll() {
-        if (cache == null) return Collections.<EVCacheKey, Optional<T>>emptyMap();
-        return cache.asMap();
+        final OffHeapCache offHeap = offHeapCache;
+        if (offHeap != null) {
+            final Map<EVCacheKey, Optional<T>> map = new HashMap<EVCacheKey, Optional<T>>((int) (offHeap.size() * 4 / 3 + 1));
+            offHeap.forEach((key, flags, data, writeTime, expiresAt) -> {
+                final String canonicalKey = new String(key, StandardCharsets.UTF_8);
+                try {
+                    final T value = (data == null) ? null : tc.decode(new CachedData(flags, data, tc.getMaxSize()));
+                    map.put(impl.getEVCacheKey(impl.getKeyFromCanonicalKey(canonicalKey)), Optional.fromNullable(value));
+                } catch (Exception e) {
+                    if (log.isDebugEnabled()) log.debug("Could not decode key " + canonicalKey + " of appName : " + appName, e);
+                }
+            }, System.currentTimeMillis());
+            return map;
+        }
+
+        final Map<EVCacheKey, CacheValue<T>> all = cache.asMap();
+        final Map<EVCacheKey, Optional<T>> map = new HashMap<EVCacheKey, Optional<T>>(all.size() * 4 / 3 + 1);
+        for (Map.Entry<EVCacheKey, CacheValue<T>> entry : all.entrySet()) {
+            map.put(entry.getKey(), Optional.fromNullable(entry.getValue().value));
+        }
+        return map;
+    }
+
+    private T getOffHeap(OffHeapCache offHeap, EVCacheKey key) throws ExecutionException {
+        final byte[] bytes = toBytes(key);
+        final long now = System.currentTimeMillis();
+        final OffHeapCache.Entry entry = offHeap.get(bytes, now);
+        if (entry != null) {
+            final int refreshDuration = _refreshDuration.get().intValue();
+            if (refreshDuration > 0 && now - entry.getWriteTime() >= refreshDuration) refreshOffHeap(offHeap, key, bytes);
+            final T value = decode(entry);
+            if (log.isDebugEnabled()) log.debug("GET : appName : " + appName + "; Key : " + key + "; val : " + value);
+            return value;
+        }
+
+        // collapse concurrent loads of the same key
+        final CompletableFuture<T> future = new CompletableFuture<T>();
+        final CompletableFuture<T> loading = offHeapLoads.putIfAbsent(key, future);
+        if (loading != null) {
+            try {
+                return loading.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ExecutionException(e);
+            }
+        }
+        try {
+            final T value = loadOffHeap(offHeap, key, bytes, future);
+            future.complete(value);
+            return value;
+        } catch (EVCacheException e) {
+            future.completeExceptionally(e);
+            throw new ExecutionException(e);
+        } finally {
+            offHeapLoads.remove(key, future);
+        }
+    }
+
+    private void refreshOffHeap(OffHeapCache offHeap, EVCacheKey key, byte[] bytes) {
+        final CompletableFuture<T> future = new CompletableFuture<T>();
+        if (offHeapLoads.putIfAbsent(key, future) != null) return;
+        try {
+            pool.execute(() -> {
+                try {
+                    future.complete(loadOffHeap(offHeap, key, bytes, future));
+                    EVCacheMetricsFactory.getInstance().increment("EVCacheInMemoryCache" + "-" + appName + "-Reload-Success");
+                } catch (EVCacheException e) {
+                    log.error("EVCacheException while reloading key -> "+ key, e);
+                    EVCacheMetricsFactory.getInstance().increment("EVCacheInMemoryCache" + "-" + appName + "-Reload-Fail");
+                    future.completeExceptionally(e);
+                } finally {
+                    offHeapLoads.remove(key, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            offHeapLoads.remove(key, future);
+            future.completeExceptionally(e);
+        }
+    }
+
+    private T loadOffHeap(OffHeapCache offHeap, EVCacheKey key, byte[] bytes, CompletableFuture<T> future) throws EVCacheException {
+        final WeighingTranscoder<T> weighingTranscoder = new WeighingTranscoder<T>(tc);
+        final long start = System.nanoTime();
+        final T value;
+        try {
+            value = fetch(key, weighingTranscoder);
+        } catch (EVCacheException e) {
+            offHeapLoadFailure.incrementAndGet();
+            offHeapLoadTime.addAndGet(System.nanoTime() - start);
+            log.error("EVCacheException while loading key -> "+ key, e);
+            throw e;
+        } catch (Exception e) {
+            offHeapLoadFailure.incrementAndGet();
+            offHeapLoadTime.addAndGet(System.nanoTime() - start);
+            log.error("EVCacheException while loading key -> "+ key, e);
+            throw new EVCacheException("key : " + key + " could not be loaded", e);
+        }
+        offHeapLoadSuccess.incrementAndGet();
+        offHeapLoadTime.addAndGet(System.nanoTime() - start);
+
+        CachedData cd = null;
+        if (value != null) {
+            cd = weighingTranscoder.data;
+            if (cd == null) cd = tc.encode(value);
+        }
+        // the key was invalidated while it was being loaded or is a miss that has no expiry in EVCache to follow
+        if (offHeapLoads.get(key) != future || (value == null && _serverTtl.get().booleanValue())) return value;
+        final long now = System.currentTimeMillis();
+        offHeap.put(bytes, cd == null ? 0 : cd.getFlags(), cd == null ? null : cd.getData(), now, expiresAt(now, weighingTranscoder.serverExpiresAt));
+        return value;
+    }
+
+    /**
+     * Loads the value from EVCache. If the expiry follows EVCache the value is fetched with a meta get, which also
+     * assembles chunked values and unwraps the {@link com.netflix.evcache.pool.EVCacheValue} of a hashed key, and the
+     * time the item has left to live is recorded.
+     */
+    private T fetch(EVCacheKey key, WeighingTranscoder<T> weighingTranscoder) throws Exception {
+        if (!_serverTtl.get().booleanValue()) return impl.doGet(key, weighingTranscoder);
+
+        final EVCacheItem<T> item = impl.metaGet(key.getKey(), weighingTranscoder);
+        if (item == null || item.getData() == null) return null;
+        final long ttlLeft = item.getItemMetaData().getSecondsLeftToExpire();
+        weighingTranscoder.serverExpiresAt = (ttlLeft < 0) ? NEVER : System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlLeft);
+        return item.getData();
+    }
+
+    private T decode(OffHeapCache.Entry entry) {
+        if (entry.getData() == null) return null;
+        return tc.decode(new CachedData(entry.getFlags(), entry.getData(), tc.getMaxSize()));
+    }
+
+    private CacheValue<T> newValue(T value, int size, long now, long serverExpiresAt) {
+        // without the server ttl the expiration policy of the cache applies as well
+        if (!_serverTtl.get().booleanValue()) return new CacheValue<T>(value, size, serverExpiresAt == NEVER ? 0 : serverExpiresAt);
+        return new CacheValue<T>(value, size, localExpiresAt(now, serverExpiresAt, _cacheDuration.get().intValue()));
+    }
+
+    /**
+     * Returns when an off heap entry written at now expires, 0 if it does not.
+     *
+     * @param serverExpiresAt - when the item expires in EVCache, 0 if that is not known
+     */
+    private long expiresAt(long now, long serverExpiresAt) {
+        final int duration = (_cacheDuration.get() > 0) ? _cacheDuration.get().intValue() : _exireAfterAccessDuration.get().intValue();
+        if (_serverTtl.get().booleanValue()) return localExpiresAt(now, serverExpiresAt, duration);
+
+        final long expiresAt = (duration > 0) ? now + duration : NEVER;
+        final long min = (serverExpiresAt == 0) ? expiresAt : Math.min(expiresAt, serverExpiresAt);
+        return (min == NEVER) ? 0 : min;
+    }
+
+    /**
+     * Returns when the entry expires if its expiry follows EVCache, 0 if it does not expire. Entries are held for at
+     * most the max ttl and those whose expiry in EVCache is not known for the given duration.
+     */
+    private long localExpiresAt(long now, long serverExpiresAt, int unknownDuration) {
+        long expiresAt = serverExpiresAt;
+        if (expiresAt == 0) expiresAt = (unknownDuration > 0) ? now + unknownDuration : NEVER;
+        final int maxTtl = (_maxTtl.get() > 0) ? _maxTtl.get().intValue() : _cacheDuration.get().intValue();
+        if (maxTtl > 0) expiresAt = Math.min(expiresAt, now + maxTtl);
+        return (expiresAt == NEVER) ? 0 : expiresAt;
+    }
+
+    private static byte[] toBytes(EVCacheKey key) {
+        return key.getCanonicalKey(false).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the entries that were found and have not expired to the snapshot file given by
+     * <code>&lt;app&gt;.inmemory.snapshot.path</code> along with the time they have left to live. Does nothing if the
+     * property is not set.
+     */
+    public synchronized void snapshot() {
+        final String path = _snapshotPath.get();
+        if (path.length() == 0) return;
+        final long start = System.currentTimeMillis();
+        try {
+            final OffHeapCache offHeap = offHeapCache;
+            final long count = CacheSnapshot.write(getSnapshotFile(path), tc.getClass().getName(), (sink) -> {
+                if (offHeap != null) {
+                    final long now = System.currentTimeMillis();
+                    offHeap.forEach((key, flags, data, writeTime, expiresAt) -> {
+                        if (data == null) return;
+                        try {
+                            sink.accept(key, flags, data, expiresAt == 0 ? -1 : expiresAt - now);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, now);
+                } else {
+                    cache.forEach((key, value, expiresInNanos) -> {
+                        if (value.value == null) return;
+                        final CachedData cd = tc.encode(value.value);
+                        try {
+                            sink.accept(toBytes(key), cd.getFlags(), cd.getData(), expiresInNanos == Long.MAX_VALUE ? -1 : TimeUnit.NANOSECONDS.toMillis(expiresInNanos));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            });
+            getCounter("snapshotEntries").increment(count);
+            if (log.isInfoEnabled()) log.info("Wrote " + count + " entries of appName : " + appName + " to " + path + " in " + (System.currentTimeMillis() - start) + " msec");
+        } catch (Exception e) {
+            log.error("Exception writing the in memory cache of appName : " + appName + " to " + path, e);
+        }
+    }
+
+    /**
+     * Writes a final snapshot and stops the refresh and snapshot threads.
+     */
+    public void shutdown() {
+        snapshot();
+        snapshotExecutor.shutdownNow();
+        final ExecutorService refreshPool = pool;
+        if (refreshPool != null) refreshPool.shutdown();
+    }
+
+    private void scheduleSnapshot() {
+        final int interval = _snapshotInterval.get().intValue();
+        // the interval is checked again every minute when snapshots are turned off
+        try {
+            snapshotExecutor.schedule(() -> {
+                if (interval > 0) snapshot();
+                scheduleSnapshot();
+            }, interval > 0 ? interval : 60000, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            if (log.isDebugEnabled()) log.debug("Snapshots of appName : " + appName + " are no longer scheduled", e);
+        }
+    }
+
+    /**
+     * Caches of the same app with different cache prefixes get their own file.
+     */
+    private Path getSnapshotFile(String path) {
+        return Paths.get(impl.getCachePrefix() == null ? path : path + "." + impl.getCachePrefix());
+    }
+
+    /**
+     * Adds the entries of the snapshot that have not expired unless their keys were cached in the meantime.
+     */
+    private void restoreSnapshot() {
+        final String path = _snapshotPath.get();
+        final long start = System.currentTimeMillis();
+        try {
+            final OffHeapCache offHeap = offHeapCache;
+            final long count = CacheSnapshot.read(getSnapshotFile(path), tc.getClass().getName(), _snapshotMaxAge.get().longValue(), (key, flags, data, expiresInMillis) -> {
+                if (offHeap != null) {
+                    final long now = System.currentTimeMillis();
+                    offHeap.putIfAbsent(key, flags, data, now, expiresAt(now, expiresInMillis > 0 ? now + expiresInMillis : 0));
+                } else {
+                    final String canonicalKey = new String(key, StandardCharsets.UTF_8);
+                    try {
+                        final T value = tc.decode(new CachedData(flags, data, tc.getMaxSize()));
+                        if (value != null) {
+                            final long now = System.currentTimeMillis();
+                            cache.putIfAbsent(impl.getEVCacheKey(impl.getKeyFromCanonicalKey(canonicalKey)), newValue(value, data.length, now, expiresInMillis > 0 ? now + expiresInMillis : 0));
+                        }
+                    } catch (Exception e) {
+                        if (log.isDebugEnabled()) log.debug("Could not restore key " + canonicalKey + " of appName : " + appName, e);
+                    }
+                }
+            });
+            getCounter("snapshotRestored").increment(count);
+            if (log.isInfoEnabled()) log.info("Restored " + count + " entries of appName : " + appName + " from " + path + " in " + (System.currentTimeMillis() - start) + " msec");
+        } catch (Exception e) {
+            log.error("Exception restoring the in memory cache of appName : " + appName + " from " + path, e);
+        }
     }
 
     public static final class DataNotFoundException extends EVCacheException {
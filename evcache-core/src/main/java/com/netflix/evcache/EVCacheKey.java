@@ -3,6 +3,11 @@ package com.netflix.evcache;
 import com.netflix.archaius.api.Property;
 import com.netflix.evcache.util.KeyHasher;
 
+/**
+ * The key of an item along with its canonical and hashed forms. The duet forms are derived lazily from the canonical
+ * key and do not take part in {@link #equals(Object)} and {@link #hashCode()}, so the hash code is computed once and
+ * never changes which makes this safe to use as a map key.
+ */
 public class EVCacheKey {
     private final String appName;
     private final Property<String> hashingAlgo;
@@ -11,6 +16,7 @@ public class EVCacheKey {
     private String canonicalKeyForDuet;
     private final String hashKey;
     private String hashKeyForDuet;
+    private final int hash;
 
     public EVCacheKey(String appName, String key, String canonicalKey, String hashKey, Property<String> hashingAlgo) {
         super();
@@ -19,6 +25,16 @@ public class EVCacheKey {
         this.canonicalKey = canonicalKey;
         this.hashKey = hashKey;
         this.hashingAlgo = hashingAlgo;
+        this.hash = computeHash(key, canonicalKey, hashKey);
+    }
+
+    private static int computeHash(String key, String canonicalKey, String hashKey) {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((canonicalKey == null) ? 0 : canonicalKey.hashCode());
+        result = prime * result + ((hashKey == null) ? 0 : hashKey.hashCode());
+        result = prime * result + ((key == null) ? 0 : key.hashCode());
+        return result;
     }
 
     public String getKey() {
@@ -70,14 +86,7 @@ public class EVCacheKey {
 
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((canonicalKey == null) ? 0 : canonicalKey.hashCode());
-        result = prime * result + ((canonicalKeyForDuet == null) ? 0 : canonicalKeyForDuet.hashCode());
-        result = prime * result + ((hashKey == null) ? 0 : hashKey.hashCode());
-        result = prime * result + ((hashKeyForDuet == null) ? 0 : hashKeyForDuet.hashCode());
-        result = prime * result + ((key == null) ? 0 : key.hashCode());
-        return result;
+        return hash;
     }
 
     @Override
@@ -89,26 +98,18 @@ public class EVCacheKey {
         if (getClass() != obj.getClass())
             return false;
         EVCacheKey other = (EVCacheKey) obj;
+        if (hash != other.hash)
+            return false;
         if (canonicalKey == null) {
             if (other.canonicalKey != null)
                 return false;
         } else if (!canonicalKey.equals(other.canonicalKey))
             return false;
-        if (canonicalKeyForDuet == null) {
-            if (other.canonicalKeyForDuet != null)
-                return false;
-        } else if (!canonicalKeyForDuet.equals(other.canonicalKeyForDuet))
-            return false;
         if (hashKey == null) {
             if (other.hashKey != null)
                 return false;
         } else if (!hashKey.equals(other.hashKey))
             return false;
-        if (hashKeyForDuet == null) {
-            if (other.hashKeyForDuet != null)
-                return false;
-        } else if (!hashKeyForDuet.equals(other.hashKeyForDuet))
-            return false;
         if (key == null) {
             if (other.key != null)
                 return false;
@@ -0,0 +1,181 @@
+package com.netflix.evcache.event.hotkey;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.netflix.archaius.api.Property;
+import com.netflix.evcache.metrics.EVCacheMetricsFactory;
+import com.netflix.evcache.util.EVCacheConfig;
+
+import net.spy.memcached.transcoders.Transcoder;
+
+/**
+ * A small cache of the values of hot keys of an app. Keys are promoted by the {@link HotKeyListener} when
+ * <code>EVCacheThrottler.&lt;app&gt;.hot.key.action=cache</code> and their values are then served locally for
+ * <code>&lt;app&gt;.hot.key.cache.duration.ms</code> (default 1000) instead of going to memcached.
+ *
+ * Every time the value of a hot key expires and is fetched again the key is demoted if it was read fewer than
+ * <code>&lt;app&gt;.hot.key.cool.threshold</code> (default 10) times since the previous fetch. Keys that are promoted
+ * but no longer read are dropped when room is needed for a new key.
+ *
+ * The cache is keyed by the canonical key and a value is only returned to a caller that uses the same transcoder
+ * instance that was used to fetch it. A fetch is stamped with {@link #stamp()} before it starts so that its value is
+ * not held if the key was written, and so invalidated, while it was in flight.
+ */
+public class HotKeyCache {
+
+    private static final Logger log = LoggerFactory.getLogger(HotKeyCache.class);
+
+    private final String appName;
+    private final Property<Integer> duration;
+    private final Property<Integer> maxKeys;
+    private final Property<Integer> coolThreshold;
+    private final Map<String, HotKey> hotKeys = new ConcurrentHashMap<String, HotKey>();
+    private final AtomicLong clock = new AtomicLong();
+
+    private static final class Value {
+        private final Object data;
+        private final Transcoder<?> tc;
+        private final long expiresAt;
+
+        Value(Object data, Transcoder<?> tc, long expiresAt) {
+            this.data = data;
+            this.tc = tc;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class HotKey {
+        private final AtomicInteger reads = new AtomicInteger();
+        private volatile long lastRead = System.currentTimeMillis();
+        private volatile Value value;
+        // fetches stamped before this are not held, guarded by this
+        private long validFrom;
+
+        HotKey(long validFrom) {
+            this.validFrom = validFrom;
+        }
+    }
+
+    public HotKeyCache(String appName) {
+        this.appName = appName;
+        this.duration = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".hot.key.cache.duration.ms", Integer.class).orElse(1000);
+        this.maxKeys = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".hot.key.cache.size", Integer.class).orElse(100);
+        this.coolThreshold = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".hot.key.cool.threshold", Integer.class).orElse(10);
+    }
+
+    /**
+     * Marks the key as hot so that its value is held once it is fetched.
+     */
+    public void promote(String canonicalKey) {
+        if (hotKeys.containsKey(canonicalKey)) return;
+        if (hotKeys.size() >= maxKeys.get().intValue()) {
+            removeCold();
+            if (hotKeys.size() >= maxKeys.get().intValue()) {
+                EVCacheMetricsFactory.getInstance().increment("EVCacheHotKeyCache" + "-" + appName + "-Promote-Rejected");
+                return;
+            }
+        }
+        if (hotKeys.putIfAbsent(canonicalKey, new HotKey(clock.incrementAndGet())) == null) {
+            EVCacheMetricsFactory.getInstance().increment("EVCacheHotKeyCache" + "-" + appName + "-Promote");
+            if (log.isDebugEnabled()) log.debug("Promoted hot key " + canonicalKey + " of app " + appName);
+        }
+    }
+
+    /**
+     * Returns the value of the key if it is hot, was fetched with the given transcoder and has not expired.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String canonicalKey, Transcoder<T> tc) {
+        if (hotKeys.isEmpty()) return null;
+        final HotKey hotKey = hotKeys.get(canonicalKey);
+        if (hotKey == null) return null;
+        hotKey.reads.incrementAndGet();
+        hotKey.lastRead = System.currentTimeMillis();
+        final Value value = hotKey.value;
+        if (value == null || value.tc != tc || hotKey.lastRead >= value.expiresAt) return null;
+        return (T) value.data;
+    }
+
+    /**
+     * Returns the stamp to pass to {@link #put(String, Object, Transcoder, long)} for a fetch that starts now.
+     */
+    public long stamp() {
+        return clock.get();
+    }
+
+    /**
+     * Holds the fetched value if the key is hot and was not invalidated since the fetch was stamped. The key is demoted
+     * instead if it cooled down.
+     */
+    public <T> void put(String canonicalKey, T data, Transcoder<T> tc, long stamp) {
+        if (data == null || hotKeys.isEmpty()) return;
+        final HotKey hotKey = hotKeys.get(canonicalKey);
+        if (hotKey == null) return;
+        synchronized (hotKey) {
+            if (stamp < hotKey.validFrom) {
+                EVCacheMetricsFactory.getInstance().increment("EVCacheHotKeyCache" + "-" + appName + "-Put-Stale");
+                return;
+            }
+            final int reads = hotKey.reads.getAndSet(0);
+            if (hotKey.value != null && reads < coolThreshold.get().intValue()) {
+                demote(canonicalKey, hotKey);
+                return;
+            }
+            hotKey.value = new Value(data, tc, System.currentTimeMillis() + duration.get().intValue());
+        }
+    }
+
+    /**
+     * Drops the value of the key; it stays hot and the next fetch is held again. A fetch that was in flight is not held.
+     */
+    public void invalidate(String canonicalKey) {
+        if (hotKeys.isEmpty()) return;
+        final HotKey hotKey = hotKeys.get(canonicalKey);
+        if (hotKey == null) return;
+        synchronized (hotKey) {
+            hotKey.validFrom = clock.incrementAndGet();
+            hotKey.value = null;
+        }
+    }
+
+    public boolean isHot(String canonicalKey) {
+        return hotKeys.containsKey(canonicalKey);
+    }
+
+    public boolean isEmpty() {
+        return hotKeys.isEmpty();
+    }
+
+    public int size() {
+        return hotKeys.size();
+    }
+
+    public void clear() {
+        hotKeys.clear();
+    }
+
+    private void demote(String canonicalKey, HotKey hotKey) {
+        if (hotKeys.remove(canonicalKey, hotKey)) {
+            EVCacheMetricsFactory.getInstance().increment("EVCacheHotKeyCache" + "-" + appName + "-Demote");
+            if (log.isDebugEnabled()) log.debug("Demoted hot key " + canonicalKey + " of app " + appName);
+        }
+    }
+
+    /**
+     * Drops the keys that were not read during the last cool down period.
+     */
+    private void removeCold() {
+        final long cutoff = System.currentTimeMillis() - duration.get().intValue();
+        for (Iterator<Map.Entry<String, HotKey>> itr = hotKeys.entrySet().iterator(); itr.hasNext();) {
+            final Map.Entry<String, HotKey> entry = itr.next();
+            if (entry.getValue().lastRead < cutoff) demote(entry.getKey(), entry.getValue());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.netflix.evcache.event.hotkey;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -15,6 +16,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.netflix.archaius.api.Property;
+import com.netflix.evcache.EVCache.Call;
 import com.netflix.evcache.EVCacheKey;
 import com.netflix.evcache.event.EVCacheEvent;
 import com.netflix.evcache.event.EVCacheEventListener;
@@ -40,6 +42,10 @@ import com.netflix.evcache.util.EVCacheConfig;
  *    If a key appears again within this duration we increment the value and release the key for <code>EVCacheThrottler.< evcache appName>.inmemory.expire.after.access.duration.ms</code> (default is 10 seconds).
  *    Once the key count crosses <code>EVCacheThrottler.< evcache appName>.throttle.value</code> (default is 3) then the key will be throttled. YMMV so tune this based on your evcache app and client requests.
  *    </li>
+ * </ol>
+ *
+ * Instead of throttling, reads of hot keys can be served locally by setting <code>EVCacheThrottler.< evcache appName>.hot.key.action=cache</code>.
+ * The keys that cross the throttle value are then promoted into the {@link HotKeyCache} of the app and demoted once they cool down.
  *
  * @author smadappa
  *
@@ -54,11 +60,15 @@ public class HotKeyListener implements EVCacheEventListener {
     private final Property<Boolean> enableThrottleHotKeys;
     private final EVCacheClientPoolManager poolManager;
     private final Map<String, Property<Set<String>>> throttleKeysMap;
+    private final Map<String, Property<String>> hotKeyActionMap;
+    private final Map<String, Property<Integer>> throttleValueMap;
 
     @Inject
     public HotKeyListener(EVCacheClientPoolManager poolManager) {
         this.poolManager = poolManager;
         this.throttleKeysMap = new ConcurrentHashMap<String, Property<Set<String>>>();
+        this.hotKeyActionMap = new ConcurrentHashMap<String, Property<String>>();
+        this.throttleValueMap = new ConcurrentHashMap<String, Property<Integer>>();
 
         this.throttleMap = new ConcurrentHashMap<String, Property<Boolean>>();
         cacheMap = new ConcurrentHashMap<String, Cache<String, Integer>>();
@@ -112,18 +122,45 @@ public class HotKeyListener implements EVCacheEventListener {
         return cache;
     }
 
+    private boolean cacheHotKeys(String appName) {
+        Property<String> action = hotKeyActionMap.get(appName);
+        if(action == null) {
+            action = EVCacheConfig.getInstance().getPropertyRepository().get("EVCacheThrottler." + appName + ".hot.key.action", String.class).orElse("throttle");
+            hotKeyActionMap.put(appName, action);
+        }
+        return "cache".equalsIgnoreCase(action.get());
+    }
+
+    private int getThrottleValue(String appName) {
+        Property<Integer> throttleValue = throttleValueMap.get(appName);
+        if(throttleValue == null) {
+            throttleValue = EVCacheConfig.getInstance().getPropertyRepository().get("EVCacheThrottler." + appName + ".throttle.value", Integer.class).orElse(3);
+            throttleValueMap.put(appName, throttleValue);
+        }
+        return throttleValue.get().intValue();
+    }
+
+    private static boolean isRead(Call call) {
+        return call == Call.GET || call == Call.GET_AND_TOUCH || call == Call.GETL || call == Call.BULK || call == Call.ASYNC_GET;
+    }
+
     public void onStart(final EVCacheEvent e) {
         if(!enableThrottleHotKeys.get()) return;
 
         final Cache<String, Integer> cache = getCache(e.getAppName());
         if(cache == null) return;
+        final boolean promote = cacheHotKeys(e.getAppName()) && isRead(e.getCall());
         for(EVCacheKey evcKey : e.getEVCacheKeys()) {
             final String key = evcKey.getKey();
             Integer val = cache.getIfPresent(key);
             if(val == null) {
-                cache.put(key, START_VAL);
+                val = START_VAL;
             } else {
-                cache.put(key, Integer.valueOf(val.intValue() + 1));
+                val = Integer.valueOf(val.intValue() + 1);
+            }
+            cache.put(key, val);
+            if(promote && val.intValue() > getThrottleValue(e.getAppName())) {
+                poolManager.getHotKeyCache(e.getAppName()).promote(evcKey.getCanonicalKey(false));
             }
         }
     }
@@ -133,7 +170,11 @@ public class HotKeyListener implements EVCacheEventListener {
         if(!enableThrottleHotKeys.get()) return false;
 
         final String appName = e.getAppName();
-        Property<Set<String>> throttleKeysSet = throttleKeysMap.get(appName).orElse(Collections.emptySet());
+        Property<Set<String>> throttleKeysSet = throttleKeysMap.get(appName);
+        if(throttleKeysSet == null) {
+            throttleKeysSet = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".throttle.keys", String.class).orElse("").map(HotKeyListener::toSet);
+            throttleKeysMap.put(appName, throttleKeysSet);
+        }
 
         if(throttleKeysSet.get().size() > 0) {
             if(log.isDebugEnabled()) log.debug("Throttle : " + throttleKeysSet);
@@ -148,19 +189,30 @@ public class HotKeyListener implements EVCacheEventListener {
 
         final Cache<String, Integer> cache = getCache(appName);
         if(cache == null) return false;
+        // hot keys are promoted to the HotKeyCache instead of being throttled
+        if(cacheHotKeys(appName)) return false;
 
-        final Property<Integer> _throttleVal = EVCacheConfig.getInstance().getPropertyRepository().get("EVCacheThrottler." + appName + ".throttle.value", Integer.class).orElse(3);
+        final int throttleValue = getThrottleValue(appName);
         for(EVCacheKey evcKey : e.getEVCacheKeys()) {
             final String key = evcKey.getKey();
             Integer val = cache.getIfPresent(key);
-            if(val.intValue() > _throttleVal.get()) {
-                if(log.isDebugEnabled()) log.debug("Key : " + key + " has exceeded " + _throttleVal.get() + ". Will throttle this request");
+            if(val != null && val.intValue() > throttleValue) {
+                if(log.isDebugEnabled()) log.debug("Key : " + key + " has exceeded " + throttleValue + ". Will throttle this request");
                 return true;
             }
         }
         return false;
     }
 
+    private static Set<String> toSet(String keys) {
+        if(keys == null || keys.trim().isEmpty()) return Collections.emptySet();
+        final Set<String> set = new HashSet<String>();
+        for(String key : keys.split(",")) {
+            if(!key.trim().isEmpty()) set.add(key.trim());
+        }
+        return set;
+    }
+
     public void onComplete(EVCacheEvent e) {
         if(!enableThrottleHotKeys.get()) return;
         final String appName = e.getAppName();
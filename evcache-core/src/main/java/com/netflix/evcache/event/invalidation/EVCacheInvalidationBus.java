@@ -0,0 +1,28 @@
+package com.netflix.evcache.event.invalidation;
+
+/**
+ * Broadcasts the keys that were written by a client instance so that the other instances can drop them from their
+ * in memory cache. Set it on the {@link com.netflix.evcache.pool.EVCacheClientPoolManager} to enable it.
+ */
+public interface EVCacheInvalidationBus {
+
+    /**
+     * Receives the invalidations published by the other client instances.
+     */
+    interface Listener {
+
+        /**
+         * @param cacheName - the name of the in memory cache i.e. the app name followed by the cache prefix if any
+         * @param key - the key as passed to EVCache (not canonicalized)
+         */
+        void onInvalidate(String cacheName, String key);
+    }
+
+    void publish(String cacheName, String key);
+
+    void addListener(Listener listener);
+
+    void removeListener(Listener listener);
+
+    void close();
+}
@@ -0,0 +1,44 @@
+package com.netflix.evcache.event.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers the invalidations synchronously to the listeners in the same JVM. Meant for tests and for processes that
+ * run more than one {@link com.netflix.evcache.pool.EVCacheClientPoolManager}. The publisher's own listener is also
+ * invoked, which is harmless as the key was already dropped locally.
+ */
+public class InProcessInvalidationBus implements EVCacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InProcessInvalidationBus.class);
+    private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+
+    @Override
+    public void publish(String cacheName, String key) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onInvalidate(cacheName, key);
+            } catch (Exception e) {
+                log.error("Exception invalidating key " + key + " of " + cacheName, e);
+            }
+        }
+    }
+
+    @Override
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void close() {
+        listeners.clear();
+    }
+}
@@ -0,0 +1,126 @@
+package com.netflix.evcache.event.invalidation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Broadcasts the invalidations over UDP multicast. Every message carries a random id of the sending bus so that a bus
+ * ignores its own messages. Delivery is best effort; a lost message means the entry lives until it expires, so the
+ * in memory cache should still have a TTL.
+ *
+ * A message is laid out as <code>| magic (4) | sender id (8) | cache name (UTF) | key (UTF) |</code>
+ */
+public class MulticastInvalidationBus implements EVCacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(MulticastInvalidationBus.class);
+    private static final int MAGIC = 0x45564349; // EVCI
+    private static final int MAX_PACKET_SIZE = 2048;
+
+    private final InetAddress group;
+    private final InetSocketAddress groupAddress;
+    private final int port;
+    private final long senderId = ThreadLocalRandom.current().nextLong();
+    private final MulticastSocket socket;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+    private final Thread receiver;
+    private volatile boolean running = true;
+
+    /**
+     * @param address - the multicast group to join
+     * @param port - the port to send to and listen on
+     * @param timeToLive - the multicast ttl of the packets i.e. the number of hops they may travel
+     */
+    public MulticastInvalidationBus(String address, int port, int timeToLive) throws IOException {
+        this.group = InetAddress.getByName(address);
+        this.port = port;
+        this.socket = new MulticastSocket(port);
+        socket.setTimeToLive(timeToLive);
+        this.groupAddress = new InetSocketAddress(group, port);
+        // null joins on the default interface of the socket
+        socket.joinGroup(groupAddress, null);
+
+        this.receiver = new Thread(this::receive, "EVCacheInvalidationReceiver-" + address + ":" + port);
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @Override
+    public void publish(String cacheName, String key) {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + key.length());
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeLong(senderId);
+            out.writeUTF(cacheName);
+            out.writeUTF(key);
+            out.flush();
+            final byte[] data = bytes.toByteArray();
+            if (data.length > MAX_PACKET_SIZE) {
+                if (log.isDebugEnabled()) log.debug("Key " + key + " of " + cacheName + " is too large to publish");
+                return;
+            }
+            socket.send(new DatagramPacket(data, data.length, group, port));
+        } catch (IOException e) {
+            if (log.isDebugEnabled()) log.debug("Exception publishing invalidation of key " + key + " of " + cacheName, e);
+        }
+    }
+
+    private void receive() {
+        final byte[] buffer = new byte[MAX_PACKET_SIZE];
+        while (running) {
+            try {
+                final DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                socket.receive(packet);
+                final DataInputStream in = new DataInputStream(new ByteArrayInputStream(packet.getData(), packet.getOffset(), packet.getLength()));
+                if (in.readInt() != MAGIC) continue;
+                if (in.readLong() == senderId) continue;
+                final String cacheName = in.readUTF();
+                final String key = in.readUTF();
+                for (Listener listener : listeners) {
+                    try {
+                        listener.onInvalidate(cacheName, key);
+                    } catch (Exception e) {
+                        log.error("Exception invalidating key " + key + " of " + cacheName, e);
+                    }
+                }
+            } catch (IOException e) {
+                if (running) log.error("Exception receiving invalidations on " + group + ":" + port, e);
+            }
+        }
+    }
+
+    @Override
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            socket.leaveGroup(groupAddress, null);
+        } catch (IOException e) {
+            if (log.isDebugEnabled()) log.debug("Exception leaving " + group, e);
+        }
+        socket.close();
+        listeners.clear();
+    }
+}
@@ -0,0 +1,97 @@
+package com.netflix.evcache.metrics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.netflix.evcache.EVCache.Call;
+import com.netflix.evcache.metrics.EVCacheMetricsFactory.CacheHit;
+import com.netflix.evcache.metrics.EVCacheMetricsFactory.IpcResult;
+import com.netflix.evcache.pool.ServerGroup;
+import com.netflix.spectator.api.BasicTag;
+import com.netflix.spectator.api.Tag;
+import com.netflix.spectator.api.Timer;
+
+/**
+ * The {@link EVCacheMetricsFactory#OVERALL_CALL} timers of an EVCache, tagged with the call, hit, status, attempt and
+ * server group. The timers are looked up in tables indexed by the ordinals of the call, hit and status.
+ */
+public class EVCacheCallTimers {
+
+    private static final int HIT_INDEXES = CacheHit.values().length + 1, STATUS_INDEXES = IpcResult.values().length, ATTEMPT_INDEXES = 3;
+    private static final int TIMER_TABLE_SIZE = Call.values().length * HIT_INDEXES * STATUS_INDEXES * ATTEMPT_INDEXES;
+
+    private final List<Tag> tags;
+    private final Map<String, Timer> timerMap = new ConcurrentHashMap<String, Timer>();
+    private final EVCacheMetricTable<Timer> timerTable = new EVCacheMetricTable<Timer>(TIMER_TABLE_SIZE);
+    private final Map<ServerGroup, EVCacheMetricTable<Timer>> serverGroupTimerTables = new ConcurrentHashMap<ServerGroup, EVCacheMetricTable<Timer>>();
+
+    /**
+     * @param tags the tags added to every timer, read when a timer is created
+     */
+    public EVCacheCallTimers(List<Tag> tags) {
+        this.tags = tags;
+    }
+
+    /**
+     * Returns the timer of the call.
+     *
+     * @param hit the hit of a read or null for a write
+     */
+    public Timer getTimer(Call call, String operationType, CacheHit hit, IpcResult status, int tries, long duration, ServerGroup serverGroup) {
+        final int hitIndex = (hit == null) ? 0 : hit.ordinal() + 1;
+        final int attemptIndex = (tries == 0 || tries == 1) ? 0 : (tries == 2 ? 1 : 2);
+        final int index = ((call.ordinal() * HIT_INDEXES + hitIndex) * STATUS_INDEXES + status.ordinal()) * ATTEMPT_INDEXES + attemptIndex;
+        EVCacheMetricTable<Timer> table = timerTable;
+        if (serverGroup != null) {
+            table = serverGroupTimerTables.get(serverGroup);
+            if (table == null) table = serverGroupTimerTables.computeIfAbsent(serverGroup, sg -> new EVCacheMetricTable<Timer>(TIMER_TABLE_SIZE));
+        }
+        final Timer timer = table.get(index);
+        if (timer != null) return timer;
+        return table.putIfAbsent(index, getTimer(call.name(), operationType, (hit == null) ? null : hit.value(), status.value(), tries, duration, serverGroup));
+    }
+
+    /**
+     * Returns the timer of the operation, keyed by the concatenation of the tag values.
+     */
+    public Timer getTimer(String operation, String operationType, String hit, String status, int tries, long duration, ServerGroup serverGroup) {
+        String name = ((hit != null) ? operation + hit : operation);
+        if(status != null) name += status;
+        if(tries >= 0) name += tries;
+        if(serverGroup != null) name += serverGroup.getName();
+
+        Timer timer = timerMap.get(name);
+        if(timer != null) return timer;
+
+        final List<Tag> tagList = new ArrayList<Tag>(7);
+        tagList.addAll(tags);
+        if(operation != null) tagList.add(new BasicTag(EVCacheMetricsFactory.CALL_TAG, operation));
+        if(operationType != null) tagList.add(new BasicTag(EVCacheMetricsFactory.CALL_TYPE_TAG, operationType));
+        if(status != null) tagList.add(new BasicTag(EVCacheMetricsFactory.IPC_RESULT, status));
+        if(hit != null) tagList.add(new BasicTag(EVCacheMetricsFactory.CACHE_HIT, hit));
+        switch(tries) {
+            case 0 :
+            case 1 :
+                tagList.add(new BasicTag(EVCacheMetricsFactory.ATTEMPT, EVCacheMetricsFactory.INITIAL));
+                break;
+            case 2 :
+                tagList.add(new BasicTag(EVCacheMetricsFactory.ATTEMPT, EVCacheMetricsFactory.SECOND));
+                break;
+            default:
+                tagList.add(new BasicTag(EVCacheMetricsFactory.ATTEMPT, EVCacheMetricsFactory.THIRD_UP));
+                break;
+        }
+
+        if(serverGroup != null) {
+            tagList.add(new BasicTag(EVCacheMetricsFactory.SERVERGROUP, serverGroup.getName()));
+            tagList.add(new BasicTag(EVCacheMetricsFactory.ZONE, serverGroup.getZone()));
+        }
+
+        timer = EVCacheMetricsFactory.getInstance().getPercentileTimer(EVCacheMetricsFactory.OVERALL_CALL, tagList, Duration.ofMillis(duration));
+        timerMap.put(name, timer);
+        return timer;
+    }
+}
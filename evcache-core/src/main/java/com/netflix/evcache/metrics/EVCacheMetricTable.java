@@ -0,0 +1,38 @@
+package com.netflix.evcache.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A dense table of metric handles indexed by a position computed from enum ordinals (call, status, hit, attempt, ...).
+ * Looking up a handle is a single array load; there is no String concatenation or map lookup on the hot path.
+ *
+ * Handles are resolved on first use rather than up front since registering every combination would create a lot of
+ * time series that are never updated.
+ */
+public class EVCacheMetricTable<T> {
+
+    private final AtomicReferenceArray<T> handles;
+
+    public EVCacheMetricTable(int size) {
+        this.handles = new AtomicReferenceArray<T>(size);
+    }
+
+    /**
+     * Returns the handle at the given index or null if it has not been resolved yet.
+     */
+    public T get(int index) {
+        return handles.get(index);
+    }
+
+    /**
+     * Stores the handle at the given index unless one is already present and returns the one in the table.
+     */
+    public T putIfAbsent(int index, T handle) {
+        if (handles.compareAndSet(index, null, handle)) return handle;
+        return handles.get(index);
+    }
+
+    public int size() {
+        return handles.length();
+    }
+}
@@ -131,8 +131,8 @@ public final class EVCacheMetricsFactory {
                 if (counterMap.containsKey(name)) {
                     counter = counterMap.get(name);
                 } else {
-                    List<Tag> tagList = new ArrayList<Tag>(tags.size() + 1);
-                    tagList.addAll(tags);
+                    List<Tag> tagList = new ArrayList<Tag>(tags == null ? 1 : tags.size() + 1);
+                    if (tags != null) tagList.addAll(tags);
                     final Id id = getId(cName, tagList);
                     counter = getRegistry().counter(id);
                     counterMap.put(name, counter);
@@ -275,6 +275,12 @@ public final class EVCacheMetricsFactory {
     public static final String INTERNAL_LATCH_VERIFY                = "internal.evc.client.latch.verify";
     public static final String INTERNAL_FAIL                        = "internal.evc.client.fail";
     public static final String INTERNAL_EVENT_FAIL                  = "internal.evc.client.event.fail";
+    public static final String INTERNAL_HEDGE                       = "internal.evc.client.hedge";
+    public static final String INTERNAL_COALESCE                    = "internal.evc.client.coalesce";
+    public static final String INTERNAL_LEASE                       = "internal.evc.client.lease";
+    public static final String INTERNAL_EARLY_REFRESH               = "internal.evc.client.earlyRefresh";
+    public static final String INTERNAL_READ_REPAIR                 = "internal.evc.client.readRepair";
+    public static final String INTERNAL_NEGATIVE_CACHE              = "internal.evc.client.negativeCache";
     public static final String INTERNAL_RECONNECT                   = "internal.evc.client.reconnect";
     public static final String INTERNAL_EXECUTOR                    = "internal.evc.client.executor";
     public static final String INTERNAL_EXECUTOR_SCHEDULED          = "internal.evc.client.scheduledExecutor";
@@ -384,6 +390,17 @@ public final class EVCacheMetricsFactory {
     public static final String INVALID_CHUNK_SIZE               = "invalidChunkSize";
     public static final String CHECK_SUM_ERROR                  = "checkSumError";
     public static final String KEY_HASH_COLLISION               = "KeyHashCollision";
+    public static final String HEDGE_FIRED                      = "hedgeFired";
+    public static final String HEDGE_WON                        = "hedgeWon";
+    public static final String HEDGE_BUDGET_EXHAUSTED           = "hedgeBudgetExhausted";
+    public static final String COALESCED                        = "coalesced";
+    public static final String LEASE_ACQUIRED                   = "leaseAcquired";
+    public static final String LEASE_WAIT_HIT                   = "leaseWaitHit";
+    public static final String LEASE_WAIT_EXPIRED               = "leaseWaitExpired";
+    public static final String EARLY_REFRESH                    = "earlyRefresh";
+    public static final String READ_REPAIRED                    = "readRepaired";
+    public static final String NEGATIVE_CACHE_HIT               = "negativeCacheHit";
+    public static final String NEGATIVE_CACHE_ADD               = "negativeCacheAdd";
     public static final String NUM_CHUNK_SIZE                   = "numOfChunks";
     public static final String CHUNK_DATA_SIZE                  = "dataSize";
     public static final String NOT_AVAILABLE                    = "notAvailable";
@@ -412,4 +429,38 @@ public final class EVCacheMetricsFactory {
     public static final String META_SET_OPERATION               = "M_SET";
     public static final String META_DEBUG_OPERATION             = "M_DEBUG";
 
+    /**
+     * Values of the {@link #CACHE_HIT} tag of the call timers.
+     */
+    public enum CacheHit {
+        YES(EVCacheMetricsFactory.YES), NO(EVCacheMetricsFactory.NO), PARTIAL(EVCacheMetricsFactory.PARTIAL);
+
+        private final String value;
+
+        CacheHit(String value) {
+            this.value = value;
+        }
+
+        public String value() {
+            return value;
+        }
+    }
+
+    /**
+     * Values of the {@link #IPC_RESULT} tag of the call timers.
+     */
+    public enum IpcResult {
+        SUCCESS(EVCacheMetricsFactory.SUCCESS), ERROR(EVCacheMetricsFactory.ERROR), TIMEOUT(EVCacheMetricsFactory.TIMEOUT), THROTTLED(EVCacheMetricsFactory.THROTTLED);
+
+        private final String value;
+
+        IpcResult(String value) {
+            this.value = value;
+        }
+
+        public String value() {
+            return value;
+        }
+    }
+
 }
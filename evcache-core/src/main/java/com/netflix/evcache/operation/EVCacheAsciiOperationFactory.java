@@ -1,6 +1,9 @@
 package com.netflix.evcache.operation;
 
+import net.spy.memcached.ops.StoreOperation;
+import net.spy.memcached.ops.StoreType;
 import net.spy.memcached.protocol.ascii.AsciiOperationFactory;
+import net.spy.memcached.protocol.ascii.ChunkStoreOperationImpl;
 import net.spy.memcached.protocol.ascii.ExecCmdOperation;
 import net.spy.memcached.protocol.ascii.ExecCmdOperationImpl;
 import net.spy.memcached.protocol.ascii.MetaDebugOperation;
@@ -23,5 +26,9 @@ public class EVCacheAsciiOperationFactory extends AsciiOperationFactory {
         return new ExecCmdOperationImpl(cmd, cb);
       }
 
+    public StoreOperation storeChunk(StoreType storeType, String key, int flags, int exp, byte[] source, int offset, int length, int paddedLength, StoreOperation.Callback cb) {
+        return new ChunkStoreOperationImpl(storeType, key, flags, exp, source, offset, length, paddedLength, cb);
+    }
+
 
 }
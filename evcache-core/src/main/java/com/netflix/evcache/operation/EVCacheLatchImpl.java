@@ -3,6 +3,7 @@ package com.netflix.evcache.operation;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledFuture;
@@ -46,14 +47,25 @@ public class EVCacheLatchImpl implements EVCacheLatch, Runnable {
     private int failureCount = 0;
     private String failReason = null;
     private ScheduledFuture<?> scheduledFuture;
+    private volatile CompletableFuture<EVCacheLatch> releaseFuture = null;
 
     public EVCacheLatchImpl(Policy policy, int _count, String appName) {
+        this(policy, 1, _count, appName);
+    }
+
+    /**
+     * Creates a latch for a bulk operation on the given number of keys each of which is written to the given
+     * number of replicas. The policy is applied to the replicas of a key, i.e. the latch is released once as many
+     * operations as the policy requires for one key times the number of keys have completed.
+     */
+    public EVCacheLatchImpl(Policy policy, int keys, int replicas, String appName) {
+        final int _count = keys * replicas;
         this.start = System.currentTimeMillis();
         this.policy = policy;
         this.futures = new ArrayList<Future<Boolean>>(_count);
         this.appName = appName;
         this.totalFutureCount = _count;
-        this.expectedCompleteCount = policyToCount(policy, _count);
+        this.expectedCompleteCount = keys * policyToCount(policy, replicas);
         this.latch = new CountDownLatch(expectedCompleteCount);
 
         if (log.isDebugEnabled()) log.debug("Number of Futures = " + _count + "; Number of Futures that need to completed for Latch to be released = " + this.expectedCompleteCount);
@@ -104,6 +116,27 @@ public class EVCacheLatchImpl implements EVCacheLatch, Runnable {
     public void countDown() {
         if (log.isDebugEnabled()) log.debug("Current Latch Count = " + latch.getCount() + "; Count Down.");
         latch.countDown();
+        final CompletableFuture<EVCacheLatch> f = releaseFuture;
+        if (f != null && latch.getCount() == 0) f.complete(this);
+    }
+
+    /**
+     * Returns a future that is completed with this latch once it is released i.e. once the number of operations
+     * required by the Policy have completed. Unlike {@link #await(long, TimeUnit)} this does not block the caller.
+     */
+    public CompletableFuture<EVCacheLatch> whenReleased() {
+        CompletableFuture<EVCacheLatch> f = releaseFuture;
+        if (f == null) {
+            synchronized (this) {
+                f = releaseFuture;
+                if (f == null) {
+                    f = new CompletableFuture<EVCacheLatch>();
+                    releaseFuture = f;
+                }
+            }
+        }
+        if (latch.getCount() == 0) f.complete(this);
+        return f;
     }
 
     /*
@@ -62,6 +62,8 @@ public class EVCacheOperationFuture<T> extends OperationFuture<T> {
     private final String key;
     private final long start;
     private final EVCacheClient client;
+    private volatile boolean sharedOperation = false;
+    private volatile boolean timedOut = false;
 
     public EVCacheOperationFuture(String k, CountDownLatch l, AtomicReference<T> oref, long opTimeout, ExecutorService service, EVCacheClient client) {
         super(k, l, oref, opTimeout, service);
@@ -81,6 +83,38 @@ public class EVCacheOperationFuture<T> extends OperationFuture<T> {
         super.setOperation(to);
     }
 
+    /**
+     * Marks the operation of this future as shared with the futures of other gets, i.e. a batched multi get. A
+     * timeout or cancel of this future then only applies to its caller and does not time out or cancel the operation.
+     */
+    public void setSharedOperation(boolean sharedOperation) {
+        this.sharedOperation = sharedOperation;
+    }
+
+    /**
+     * Returns true if the caller stopped waiting for this future because it timed out.
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    private void timeOut() {
+        timedOut = true;
+        // whenever timeout occurs, continuous timeout counter will increase by 1.
+        MemcachedConnection.opTimedOut(op);
+        if (op != null && !sharedOperation) op.timeOut();
+    }
+
+    @Override
+    public T get(long duration, TimeUnit units) throws InterruptedException, TimeoutException, ExecutionException {
+        if (!sharedOperation) return super.get(duration, units);
+        if (!latch.await(duration, units)) {
+            timeOut();
+            throw new CheckedOperationTimeoutException("Timed out waiting for operation", op);
+        }
+        return super.get(duration, units);
+    }
+
     public String getApp() {
         return client.getAppName();
     }
@@ -173,13 +207,11 @@ public class EVCacheOperationFuture<T> extends OperationFuture<T> {
             if (log.isDebugEnabled()) log.debug("re-await status : " + status);
             String statusString = EVCacheMetricsFactory.SUCCESS;
             final long pauseDuration = System.currentTimeMillis() - start;
-            if (op != null && !status) {
-                // whenever timeout occurs, continuous timeout counter will increase by 1.
-                MemcachedConnection.opTimedOut(op);
-                op.timeOut();
+            if (!status && (op != null || sharedOperation)) {
+                timeOut();
                 ExecutionException t = null;
                 if(throwException && !hasZF) {
-                    if (op.isTimedOut()) { t = new ExecutionException(new CheckedOperationTimeoutException("Checked Operation timed out.", op)); statusString = EVCacheMetricsFactory.CHECKED_OP_TIMEOUT; }
+                    if (sharedOperation || op.isTimedOut()) { t = new ExecutionException(new CheckedOperationTimeoutException("Checked Operation timed out.", op)); statusString = EVCacheMetricsFactory.CHECKED_OP_TIMEOUT; }
                     else if (op.isCancelled()  && throwException) { t = new ExecutionException(new CancellationException("Cancelled"));statusString = EVCacheMetricsFactory.CANCELLED; }
                     else if (op.hasErrored() ) { t = new ExecutionException(op.getException());statusString = EVCacheMetricsFactory.ERROR; }
                 }
@@ -197,6 +229,8 @@ public class EVCacheOperationFuture<T> extends OperationFuture<T> {
         }
 
         if (status)  MemcachedConnection.opSucceeded(op);// continuous timeout counter will be reset
+        // an error reply, e.g. SERVER_ERROR, completes the operation without a value
+        if (status && throwException && !hasZF && op != null && op.hasErrored()) throw new ExecutionException(op.getException());
 
         return objRef.get();
     }
@@ -215,9 +249,7 @@ public class EVCacheOperationFuture<T> extends OperationFuture<T> {
 
     public Single<T> get(long duration, TimeUnit units, boolean throwException, boolean hasZF, Scheduler scheduler) {
         return observe().timeout(duration, units, Single.create(subscriber -> {
-            // whenever timeout occurs, continuous timeout counter will increase by 1.
-            MemcachedConnection.opTimedOut(op);
-            if (op != null) op.timeOut();
+            timeOut();
             //if (!hasZF) EVCacheMetricsFactory.getCounter(appName, null, serverGroup.getName(), appName + "-get-CheckedOperationTimeout", DataSourceType.COUNTER).increment();
             if (throwException) {
                 subscriber.onError(new CheckedOperationTimeoutException("Timed out waiting for operation", op));
@@ -249,16 +281,18 @@ public class EVCacheOperationFuture<T> extends OperationFuture<T> {
      */
     public boolean cancel(boolean ign) {
         if(log.isDebugEnabled()) log.debug("Operation cancelled", new Exception());
+        if (sharedOperation) return false;
       return super.cancel(ign);
     }
 
     /**
      * Cancel this operation, if possible.
      *
-     * @return true if the operation has not yet been written to the network
+     * @return true if the operation has not yet been written to the network, false if the operation is shared
      */
     public boolean cancel() {
         if(log.isDebugEnabled()) log.debug("Operation cancelled", new Exception());
+        if (sharedOperation) return false;
         return super.cancel();
     }
 
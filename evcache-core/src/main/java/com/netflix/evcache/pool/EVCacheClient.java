@@ -1,17 +1,20 @@
 package com.netflix.evcache.pool;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketAddress;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
-import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +27,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.zip.CRC32;
 import java.util.zip.Checksum;
+import java.util.zip.GZIPInputStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,17 +37,23 @@ import com.netflix.evcache.EVCache;
 import com.netflix.evcache.EVCache.Call;
 import com.netflix.evcache.EVCacheConnectException;
 import com.netflix.evcache.EVCacheException;
+import com.netflix.evcache.EVCacheGetOperationListener;
+import com.netflix.evcache.EVCacheKey;
 import com.netflix.evcache.EVCacheLatch;
 import com.netflix.evcache.EVCacheReadQueueException;
 import com.netflix.evcache.EVCacheTranscoder;
+import com.netflix.evcache.metrics.EVCacheMetricTable;
 import com.netflix.evcache.metrics.EVCacheMetricsFactory;
+import com.netflix.evcache.operation.EVCacheBulkGetFuture;
 import com.netflix.evcache.operation.EVCacheFutures;
 import com.netflix.evcache.operation.EVCacheItem;
 import com.netflix.evcache.operation.EVCacheItemMetaData;
 import com.netflix.evcache.operation.EVCacheLatchImpl;
+import com.netflix.evcache.operation.EVCacheOperationFuture;
 import com.netflix.evcache.pool.observer.EVCacheConnectionObserver;
 import com.netflix.evcache.util.EVCacheConfig;
 import com.netflix.evcache.util.KeyHasher;
+import com.netflix.evcache.util.LatencyHistogram;
 import com.netflix.spectator.api.BasicTag;
 import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Tag;
@@ -59,6 +69,7 @@ import net.spy.memcached.NodeLocator;
 import net.spy.memcached.internal.ListenableFuture;
 import net.spy.memcached.internal.OperationCompletionListener;
 import net.spy.memcached.internal.OperationFuture;
+import net.spy.memcached.ops.StoreType;
 import net.spy.memcached.transcoders.SerializingTranscoder;
 import net.spy.memcached.transcoders.Transcoder;
 import rx.Scheduler;
@@ -70,6 +81,29 @@ import rx.Single;
 public class EVCacheClient {
 
     private static final Logger log = LoggerFactory.getLogger(EVCacheClient.class);
+
+    /**
+     * The reasons a call fails on this client. The ordinal indexes the failure counter table and the metric is the
+     * failure reason tag.
+     */
+    private enum FailureReason {
+        READ_QUEUE_FULL(EVCacheMetricsFactory.READ_QUEUE_FULL),
+        INACTIVE_NODE(EVCacheMetricsFactory.INACTIVE_NODE),
+        INCORRECT_CHUNKS(EVCacheMetricsFactory.INCORRECT_CHUNKS),
+        INVALID_CHUNK_SIZE(EVCacheMetricsFactory.INVALID_CHUNK_SIZE),
+        CHECK_SUM_ERROR(EVCacheMetricsFactory.CHECK_SUM_ERROR),
+        KEY_HASH_COLLISION(EVCacheMetricsFactory.KEY_HASH_COLLISION),
+        IGNORE_INACTIVE_NODES(EVCacheMetricsFactory.IGNORE_INACTIVE_NODES);
+
+        private final String metric;
+
+        FailureReason(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    // one slot per call and one for failures without a call
+    private static final int CALLS = EVCache.Call.values().length + 1;
     private final ConnectionFactory connectionFactory;
     private final EVCacheMemcachedClient evcacheMemcachedClient;
     private final List<InetSocketAddress> memcachedNodesInZone;
@@ -90,19 +124,26 @@ public class EVCacheClient {
     private final Property<Boolean> enableChunking;
     private final Property<Boolean> hashKeyByApp;
     private final Property<Boolean> hashKeyByServerGroup;
-    private final Property<Integer> chunkSize, writeBlock;
+    private final Property<Integer> chunkSize, writeBlock, chunkStreamWindow;
     private final ChunkTranscoder chunkingTranscoder;
     private final EVCacheTranscoder evcacheValueTranscoder;
     private final SerializingTranscoder decodingTranscoder;
     private static final int SPECIAL_BYTEARRAY = (8 << 8);
+    private static final int COMPRESSED = 2;
     private final EVCacheClientPool pool;
 //    private Counter addCounter = null;
     private final Property<Boolean> ignoreTouch;
     private final List<Tag> tags;
     private final Map<String, Counter> counterMap = new ConcurrentHashMap<String, Counter>();
+    private final EVCacheMetricTable<Counter> failureCounterTable = new EVCacheMetricTable<Counter>(FailureReason.values().length * CALLS);
     private final Property<String> hashingAlgo;
     protected final Counter operationsCounter;
     private final boolean isDuetClient;
+    private final ServerGroupLatency serverGroupLatency;
+    private final LatencyHistogram readLatency = new LatencyHistogram(30000);
+    private final LatencyHistogram bulkReadLatency = new LatencyHistogram(30000);
+    private volatile int adaptiveReadTimeout = -1;
+    private volatile int adaptiveBulkReadTimeout = -1;
 
     EVCacheClient(String appName, String zone, int id, EVCacheServerGroupConfig config,
             List<InetSocketAddress> memcachedNodesInZone, int maxQueueSize, Property<Integer> maxReadQueueSize,
@@ -133,11 +174,13 @@ public class EVCacheClient {
 
         this.enableChunking = EVCacheConfig.getInstance().getPropertyRepository().get(this.serverGroup.getName()+ ".chunk.data", Boolean.class).orElseGet(appName + ".chunk.data").orElse(false);
         this.chunkSize = EVCacheConfig.getInstance().getPropertyRepository().get(this.serverGroup.getName() + ".chunk.size", Integer.class).orElseGet(appName + ".chunk.size").orElse(1180);
+        this.chunkStreamWindow = EVCacheConfig.getInstance().getPropertyRepository().get(this.serverGroup.getName() + ".chunk.stream.window", Integer.class).orElseGet(appName + ".chunk.stream.window").orElse(32);
         this.writeBlock = EVCacheConfig.getInstance().getPropertyRepository().get(appName + "." + this.serverGroup.getName() + ".write.block.duration", Integer.class).orElseGet(appName + ".write.block.duration").orElse(25);
         this.chunkingTranscoder = new ChunkTranscoder();
         this.maxWriteQueueSize = maxQueueSize;
         this.ignoreTouch = EVCacheConfig.getInstance().getPropertyRepository().get(appName + "." + this.serverGroup.getName() + ".ignore.touch", Boolean.class).orElseGet(appName + ".ignore.touch").orElse(false);
 
+        this.serverGroupLatency = pool.getServerGroupLatency(serverGroup);
         this.connectionFactory = pool.getEVCacheClientPoolManager().getConnectionFactoryProvider().getConnectionFactory(this);
         this.connectionObserver = new EVCacheConnectionObserver(this);
         this.ignoreInactiveNodes = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".ignore.inactive.nodes", Boolean.class).orElse(true);
@@ -196,7 +239,7 @@ public class EVCacheClient {
                         hostName = evcNode.getSocketAddress().toString();
                     }
 
-                    incrementFailure(EVCacheMetricsFactory.READ_QUEUE_FULL, call, hostName);
+                    incrementFailure(FailureReason.READ_QUEUE_FULL, call, hostName);
                     if (log.isDebugEnabled()) log.debug("Read Queue Full on Bulk Operation for app : " + appName
                             + "; zone : " + zone + "; Current Size : " + size + "; Max Size : " + maxReadQueueSize.get() * 2);
                 } else {
@@ -207,39 +250,53 @@ public class EVCacheClient {
         return retKeys;
     }
 
-    private void incrementFailure(String metric, EVCache.Call call) {
-        incrementFailure(metric, call, null);
+    private void incrementFailure(FailureReason reason, EVCache.Call call) {
+        incrementFailure(reason, call, null);
     }
         
-    private void incrementFailure(String metric, EVCache.Call call, String host) {
-        Counter counter = counterMap.get(metric);
-        if(counter == null) {
-            final List<Tag> tagList = new ArrayList<Tag>(6);
-            tagList.addAll(tags);
-            if(call != null) {
-                tagList.add(new BasicTag(EVCacheMetricsFactory.CALL_TAG, call.name()));
-                switch(call) {
-                case GET:
-                case GETL:
-                case GET_AND_TOUCH:
-                case ASYNC_GET:
-                case  BULK:
-                case  GET_ALL:
-                    tagList.add(new BasicTag(EVCacheMetricsFactory.CALL_TYPE_TAG, EVCacheMetricsFactory.READ));
-                    break;
-                default :
-                    tagList.add(new BasicTag(EVCacheMetricsFactory.CALL_TYPE_TAG, EVCacheMetricsFactory.WRITE));
-                    break;
-                }
+    private void incrementFailure(FailureReason reason, EVCache.Call call, String host) {
+        final Counter counter;
+        if (host == null) {
+            final int index = reason.ordinal() * CALLS + ((call == null) ? 0 : call.ordinal() + 1);
+            final Counter c = failureCounterTable.get(index);
+            counter = (c != null) ? c : failureCounterTable.putIfAbsent(index, createFailureCounter(reason.metric, call, null));
+        } else {
+            final String name = reason.metric + (call == null ? "" : call.name()) + host;
+            final Counter c = counterMap.get(name);
+            if (c != null) {
+                counter = c;
+            } else {
+                counter = createFailureCounter(reason.metric, call, host);
+                counterMap.put(name, counter);
             }
-            tagList.add(new BasicTag(EVCacheMetricsFactory.FAILURE_REASON, metric));
-            if(host != null) tagList.add(new BasicTag(EVCacheMetricsFactory.FAILED_HOST, host));
-            counter = EVCacheMetricsFactory.getInstance().getCounter(EVCacheMetricsFactory.INTERNAL_FAIL, tagList);
-            counterMap.put(metric, counter);
         }
         counter.increment();
     }
 
+    private Counter createFailureCounter(String metric, EVCache.Call call, String host) {
+        final List<Tag> tagList = new ArrayList<Tag>(6);
+        tagList.addAll(tags);
+        if(call != null) {
+            tagList.add(new BasicTag(EVCacheMetricsFactory.CALL_TAG, call.name()));
+            switch(call) {
+            case GET:
+            case GETL:
+            case GET_AND_TOUCH:
+            case ASYNC_GET:
+            case  BULK:
+            case  GET_ALL:
+                tagList.add(new BasicTag(EVCacheMetricsFactory.CALL_TYPE_TAG, EVCacheMetricsFactory.READ));
+                break;
+            default :
+                tagList.add(new BasicTag(EVCacheMetricsFactory.CALL_TYPE_TAG, EVCacheMetricsFactory.WRITE));
+                break;
+            }
+        }
+        tagList.add(new BasicTag(EVCacheMetricsFactory.FAILURE_REASON, metric));
+        if(host != null) tagList.add(new BasicTag(EVCacheMetricsFactory.FAILED_HOST, host));
+        return EVCacheMetricsFactory.getInstance().getCounter(EVCacheMetricsFactory.INTERNAL_FAIL, tagList);
+    }
+
 
     private boolean ensureWriteQueueSize(MemcachedNode node, String key, EVCache.Call call) throws EVCacheException {
         if (node instanceof EVCacheNode) {
@@ -263,7 +320,7 @@ public class EVCacheClient {
                     } else {
                         hostName = evcNode.getSocketAddress().toString();
                     }
-                    incrementFailure(EVCacheMetricsFactory.INACTIVE_NODE, call, hostName);
+                    incrementFailure(FailureReason.INACTIVE_NODE, call, hostName);
                     if (log.isDebugEnabled()) log.debug("Node : " + evcNode + " for app : " + appName + "; zone : "
                             + zone + " is not active. Will Fail Fast and the write will be dropped for key : " + key);
                     evcNode.shutdown();
@@ -286,7 +343,7 @@ public class EVCacheClient {
                 hostName = evcNode.getSocketAddress().toString();
             }
             if (!evcNode.isAvailable(call)) {
-                incrementFailure(EVCacheMetricsFactory.INACTIVE_NODE, call, hostName);
+                incrementFailure(FailureReason.INACTIVE_NODE, call, hostName);
                 if (log.isDebugEnabled()) log.debug("Node : " + node + " for app : " + appName + "; zone : " + zone
                         + " is not active. Will Fail Fast so that we can fallback to Other Zone if available.");
                 if (_throwException) throw new EVCacheConnectException("Connection for Node : " + node + " for app : " + appName
@@ -299,7 +356,7 @@ public class EVCacheClient {
             if (log.isDebugEnabled()) log.debug("Current Read Queue Size - " + size + " for app " + appName + " & zone "
                     + zone + " and node : " + evcNode);
             if (!canAddToOpQueue) {
-                incrementFailure(EVCacheMetricsFactory.READ_QUEUE_FULL, call, hostName);
+                incrementFailure(FailureReason.READ_QUEUE_FULL, call, hostName);
                 if (log.isDebugEnabled()) log.debug("Read Queue Full for Node : " + node + "; app : " + appName
                         + "; zone : " + zone + "; Current Size : " + size + "; Max Size : " + maxReadQueueSize.get());
                 if (_throwException) throw new EVCacheReadQueueException("Read Queue Full for Node : " + node + "; app : "
@@ -318,7 +375,7 @@ public class EVCacheClient {
         firstKeys.add(firstKey);
         try {
             final Map<String, CachedData> metadataMap = evcacheMemcachedClient.asyncGetBulk(firstKeys, chunkingTranscoder, null)
-                    .getSome(readTimeout.get(), TimeUnit.MILLISECONDS, false, false);
+                    .getSome(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, false, false);
             if (metadataMap.containsKey(key)) {
                 return new ChunkDetails(null, null, false, metadataMap.get(key));
             } else if (metadataMap.containsKey(firstKey)) {
@@ -348,7 +405,7 @@ public class EVCacheClient {
         firstKeys.add(firstKey);
 
         return evcacheMemcachedClient.asyncGetBulk(firstKeys, chunkingTranscoder, null)
-            .getSome(readTimeout.get(), TimeUnit.MILLISECONDS, false, false, scheduler)
+            .getSome(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, false, false, scheduler)
             .map(metadataMap -> {
                 if (metadataMap.containsKey(key)) {
                     return new ChunkDetails(null, null, false, metadataMap.get(key));
@@ -383,58 +440,15 @@ public class EVCacheClient {
                 final ChunkInfo ci = cd.getChunkInfo();
 
                 final Map<String, CachedData> dataMap = evcacheMemcachedClient.asyncGetBulk(keys, chunkingTranscoder, null)
-                        .getSome(readTimeout.get(), TimeUnit.MILLISECONDS, false, false);
+                        .getSome(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, false, false);
 
                 if (dataMap.size() != ci.getChunks() - 1) {
-                    incrementFailure(EVCacheMetricsFactory.INCORRECT_CHUNKS, null);
+                    incrementFailure(FailureReason.INCORRECT_CHUNKS, null);
                     return null;
                 }
 
-                final byte[] data = new byte[(ci.getChunks() - 2) * ci.getChunkSize() + (ci.getLastChunk() == 0 ? ci
-                        .getChunkSize() : ci.getLastChunk())];
-                int index = 0;
-                for (int i = 0; i < keys.size(); i++) {
-                    final String _key = keys.get(i);
-                    final CachedData _cd = dataMap.get(_key);
-                    if (log.isDebugEnabled()) log.debug("Chunk Key " + _key + "; Value : " + _cd);
-                    if (_cd == null) continue;
-
-                    final byte[] val = _cd.getData();
-
-                    // If we expect a chunk to be present and it is null then return null immediately.
-                    if (val == null) return null;
-                    final int len = (i == keys.size() - 1) ? ((ci.getLastChunk() == 0 || ci.getLastChunk() > ci
-                            .getChunkSize()) ? ci.getChunkSize() : ci.getLastChunk())
-                            : val.length;
-                    if (len != ci.getChunkSize() && i != keys.size() - 1) {
-                        incrementFailure(EVCacheMetricsFactory.INVALID_CHUNK_SIZE, null);
-                        if (log.isWarnEnabled()) log.warn("CHUNK_SIZE_ERROR : Chunks : " + ci.getChunks() + " ; "
-                                + "length : " + len + "; expectedLength : " + ci.getChunkSize() + " for key : " + _key);
-                    }
-                    if (len > 0) {
-                        try {
-                            System.arraycopy(val, 0, data, index, len);
-                        } catch (Exception e) {
-                            StringBuilder sb = new StringBuilder();
-                            sb.append("ArrayCopyError - Key : " + _key + "; final data Size : " + data.length
-                                    + "; copy array size : " + len + "; val size : " + val.length
-                                    + "; key index : " + i + "; copy from : " + index + "; ChunkInfo : " + ci + "\n");
-                            for (int j = 0; j < keys.size(); j++) {
-                                final String skey = keys.get(j);
-                                final byte[] sval = (byte[]) dataMap.get(skey).getData();
-                                sb.append(skey + "=" + sval.length + "\n");
-                            }
-                            if (log.isWarnEnabled()) log.warn(sb.toString(), e);
-                            throw e;
-                        }
-
-                        index += val.length;
-                        if (touch) evcacheMemcachedClient.touch(_key, ttl);
-                    }
-                }
-
-                final boolean checksumPass = checkCRCChecksum(data, ci, hasZF);
-                if (!checksumPass) return null;
+                final byte[] data = assembleChunks(ci, keys, dataMap, touch, ttl, hasZF);
+                if (data == null) return null;
                 final Transcoder<T> transcoder = (tc == null ? (Transcoder<T>) evcacheMemcachedClient.getTranscoder()
                         : tc);
                 return transcoder.decode(new CachedData(ci.getFlags(), data, Integer.MAX_VALUE));
@@ -457,59 +471,15 @@ public class EVCacheClient {
                 final ChunkInfo ci = cd.getChunkInfo();
 
                 return evcacheMemcachedClient.asyncGetBulk(keys, chunkingTranscoder, null)
-                    .getSome(readTimeout.get(), TimeUnit.MILLISECONDS, false, false, scheduler)
+                    .getSome(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, false, false, scheduler)
                     .map(dataMap -> {
                         if (dataMap.size() != ci.getChunks() - 1) {
-                            incrementFailure(EVCacheMetricsFactory.INCORRECT_CHUNKS, null);
+                            incrementFailure(FailureReason.INCORRECT_CHUNKS, null);
                             return null;
                         }
 
-                        final byte[] data = new byte[(ci.getChunks() - 2) * ci.getChunkSize() + (ci.getLastChunk() == 0 ? ci
-                            .getChunkSize() : ci.getLastChunk())];
-                        int index = 0;
-                        for (int i = 0; i < keys.size(); i++) {
-                            final String _key = keys.get(i);
-                            final CachedData _cd = dataMap.get(_key);
-                            if (log.isDebugEnabled()) log.debug("Chunk Key " + _key + "; Value : " + _cd);
-                            if (_cd == null) continue;
-
-                            final byte[] val = _cd.getData();
-
-                            // If we expect a chunk to be present and it is null then return null immediately.
-                            if (val == null) return null;
-                            final int len = (i == keys.size() - 1) ? ((ci.getLastChunk() == 0 || ci.getLastChunk() > ci
-                                .getChunkSize()) ? ci.getChunkSize() : ci.getLastChunk())
-                                : val.length;
-                            if (len != ci.getChunkSize() && i != keys.size() - 1) {
-                                incrementFailure(EVCacheMetricsFactory.INVALID_CHUNK_SIZE, null);
-                                if (log.isWarnEnabled()) log.warn("CHUNK_SIZE_ERROR : Chunks : " + ci.getChunks() + " ; "
-                                    + "length : " + len + "; expectedLength : " + ci.getChunkSize() + " for key : " + _key);
-                            }
-                            if (len > 0) {
-                                try {
-                                    System.arraycopy(val, 0, data, index, len);
-                                } catch (Exception e) {
-                                    StringBuilder sb = new StringBuilder();
-                                    sb.append("ArrayCopyError - Key : " + _key + "; final data Size : " + data.length
-                                        + "; copy array size : " + len + "; val size : " + val.length
-                                        + "; key index : " + i + "; copy from : " + index + "; ChunkInfo : " + ci + "\n");
-                                    for (int j = 0; j < keys.size(); j++) {
-                                        final String skey = keys.get(j);
-                                        final byte[] sval = (byte[]) dataMap.get(skey).getData();
-                                        sb.append(skey + "=" + sval.length + "\n");
-                                    }
-                                    if (log.isWarnEnabled()) log.warn(sb.toString(), e);
-                                    throw e;
-                                }
-
-                                System.arraycopy(val, 0, data, index, len);
-                                index += val.length;
-                                if (touch) evcacheMemcachedClient.touch(_key, ttl);
-                            }
-                        }
-
-                        final boolean checksumPass = checkCRCChecksum(data, ci, hasZF);
-                        if (!checksumPass) return null;
+                        final byte[] data = assembleChunks(ci, keys, dataMap, touch, ttl, hasZF);
+                        if (data == null) return null;
                         final Transcoder<T> transcoder = (tc == null ? (Transcoder<T>) evcacheMemcachedClient.getTranscoder()
                             : tc);
                         return transcoder.decode(new CachedData(ci.getFlags(), data, Integer.MAX_VALUE));
@@ -518,12 +488,44 @@ public class EVCacheClient {
         });
     }
 
-    private boolean checkCRCChecksum(byte[] data, final ChunkInfo ci, boolean hasZF) {
-        if (data == null || data.length == 0) return false;
-
+    /**
+     * Copies the chunks into one array sized from the chunk info, updating the checksum as each chunk is copied.
+     * Returns null if a chunk is missing, does not fit or the checksum does not match.
+     */
+    private byte[] assembleChunks(ChunkInfo ci, List<String> keys, Map<String, CachedData> dataMap, boolean touch, int ttl, boolean hasZF) {
+        final int lastChunk = (ci.getLastChunk() == 0 || ci.getLastChunk() > ci.getChunkSize()) ? ci.getChunkSize() : ci.getLastChunk();
+        final byte[] data = new byte[(ci.getChunks() - 2) * ci.getChunkSize() + lastChunk];
         final Checksum checksum = new CRC32();
-        checksum.update(data, 0, data.length);
-        final long currentChecksum = checksum.getValue();
+        int index = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            final String _key = keys.get(i);
+            final CachedData _cd = dataMap.get(_key);
+            if (log.isDebugEnabled()) log.debug("Chunk Key " + _key + "; Value : " + _cd);
+
+            // If we expect a chunk to be present and it is null then return null immediately.
+            if (_cd == null || _cd.getData() == null) return null;
+            final byte[] val = _cd.getData();
+            final int len = (i == keys.size() - 1) ? lastChunk : val.length;
+            if (len != ci.getChunkSize() && i != keys.size() - 1) {
+                incrementFailure(FailureReason.INVALID_CHUNK_SIZE, null);
+                if (log.isWarnEnabled()) log.warn("CHUNK_SIZE_ERROR : Chunks : " + ci.getChunks() + " ; "
+                        + "length : " + len + "; expectedLength : " + ci.getChunkSize() + " for key : " + _key);
+            }
+            if (len > val.length || index + len > data.length) {
+                if (log.isWarnEnabled()) log.warn("ArrayCopyError - Key : " + _key + "; final data Size : " + data.length
+                        + "; copy array size : " + len + "; val size : " + val.length
+                        + "; key index : " + i + "; copy from : " + index + "; ChunkInfo : " + ci);
+                return null;
+            }
+            System.arraycopy(val, 0, data, index, len);
+            checksum.update(val, 0, len);
+            index += len;
+            if (touch) evcacheMemcachedClient.touch(_key, ttl);
+        }
+        return checkCRCChecksum(checksum.getValue(), ci, hasZF) ? data : null;
+    }
+
+    private boolean checkCRCChecksum(long currentChecksum, final ChunkInfo ci, boolean hasZF) {
         final long expectedChecksum = ci.getChecksum();
         if (log.isDebugEnabled()) log.debug("CurrentChecksum : " + currentChecksum + "; ExpectedChecksum : "
                 + expectedChecksum + " for key : " + ci.getKey());
@@ -532,7 +534,7 @@ public class EVCacheClient {
                 if (log.isWarnEnabled()) log.warn("CHECKSUM_ERROR : Chunks : " + ci.getChunks() + " ; "
                         + "currentChecksum : " + currentChecksum + "; expectedChecksum : " + expectedChecksum
                         + " for key : " + ci.getKey());
-                incrementFailure(EVCacheMetricsFactory.CHECK_SUM_ERROR, null);
+                incrementFailure(FailureReason.CHECK_SUM_ERROR, null);
             }
             return false;
         }
@@ -559,7 +561,7 @@ public class EVCacheClient {
         }
         try {
             final Map<String, CachedData> metadataMap = evcacheMemcachedClient.asyncGetBulk(firstKeys, chunkingTranscoder, null)
-                    .getSome(bulkReadTimeout.get(), TimeUnit.MILLISECONDS, false, false);
+                    .getSome(getEffectiveBulkReadTimeout(), TimeUnit.MILLISECONDS, false, false);
             if (metadataMap == null) return null;
 
             final Map<String, T> returnMap = new HashMap<>(keyList.size() * 2);
@@ -571,7 +573,7 @@ public class EVCacheClient {
             }
 
             final List<String> allKeys = new ArrayList<>();
-            final Map<ChunkInfo, SimpleEntry<List<String>, byte[]>> responseMap = new HashMap<>();
+            final Map<ChunkInfo, List<String>> responseMap = new HashMap<>();
             for (Entry<String, CachedData> entry : metadataMap.entrySet()) {
                 final String firstKey = entry.getKey();
                 final String metadata = (String) decodingTranscoder.decode(entry.getValue());
@@ -587,53 +589,17 @@ public class EVCacheClient {
                         ciKeys.add(_key);
                     }
 
-                    final byte[] data = new byte[(ci.getChunks() - 2) * ci.getChunkSize() + ci.getLastChunk()];
-                    responseMap.put(ci, new SimpleEntry<>(ciKeys, data));
+                    responseMap.put(ci, ciKeys);
                 }
             }
 
             final Map<String, CachedData> dataMap = evcacheMemcachedClient.asyncGetBulk(allKeys, chunkingTranscoder, null)
-                    .getSome(bulkReadTimeout.get(), TimeUnit.MILLISECONDS, false, false);
+                    .getSome(getEffectiveBulkReadTimeout(), TimeUnit.MILLISECONDS, false, false);
 
-            for (Entry<ChunkInfo, SimpleEntry<List<String>, byte[]>> entry : responseMap.entrySet()) {
+            for (Entry<ChunkInfo, List<String>> entry : responseMap.entrySet()) {
                 final ChunkInfo ci = entry.getKey();
-                final SimpleEntry<List<String>, byte[]> pair = entry.getValue();
-                final List<String> ciKeys = pair.getKey();
-                byte[] data = pair.getValue();
-                int index = 0;
-                for (int i = 0; i < ciKeys.size(); i++) {
-                    final String _key = ciKeys.get(i);
-                    final CachedData cd = dataMap.get(_key);
-                    if (log.isDebugEnabled()) log.debug("Chunk Key " + _key + "; Value : " + cd);
-                    if (cd == null) continue;
-                    final byte[] val = cd.getData();
-
-                    if (val == null) {
-                        data = null;
-                        break;
-                    }
-                    final int len = (i == ciKeys.size() - 1) ? ((ci.getLastChunk() == 0 || ci.getLastChunk() > ci
-                            .getChunkSize()) ? ci.getChunkSize() : ci.getLastChunk())
-                            : val.length;
-                    try {
-                        System.arraycopy(val, 0, data, index, len);
-                    } catch (Exception e) {
-                        StringBuilder sb = new StringBuilder();
-                        sb.append("ArrayCopyError - Key : " + _key + "; final data Size : " + data.length
-                                + "; copy array size : " + len + "; val size : " + val.length
-                                + "; key index : " + i + "; copy from : " + index + "; ChunkInfo : " + ci + "\n");
-                        for (int j = 0; j < ciKeys.size(); j++) {
-                            final String skey = ciKeys.get(j);
-                            final byte[] sval = dataMap.get(skey).getData();
-                            sb.append(skey + "=" + sval.length + "\n");
-                        }
-                        if (log.isWarnEnabled()) log.warn(sb.toString(), e);
-                        throw e;
-                    }
-                    index += val.length;
-                }
-                final boolean checksumPass = checkCRCChecksum(data, ci, hasZF);
-                if (data != null && checksumPass) {
+                final byte[] data = assembleChunks(ci, entry.getValue(), dataMap, false, 0, hasZF);
+                if (data != null) {
                     final CachedData cd = new CachedData(ci.getFlags(), data, Integer.MAX_VALUE);
                     returnMap.put(ci.getKey(), tc.decode(cd));
                 } else {
@@ -655,7 +621,7 @@ public class EVCacheClient {
         }
 
         return evcacheMemcachedClient.asyncGetBulk(firstKeys, chunkingTranscoder, null)
-            .getSome(bulkReadTimeout.get(), TimeUnit.MILLISECONDS, false, false, scheduler)
+            .getSome(getEffectiveBulkReadTimeout(), TimeUnit.MILLISECONDS, false, false, scheduler)
             .flatMap(metadataMap -> {
                 if (metadataMap == null) return null;
 
@@ -668,7 +634,7 @@ public class EVCacheClient {
                 }
 
                 final List<String> allKeys = new ArrayList<>();
-                final Map<ChunkInfo, SimpleEntry<List<String>, byte[]>> responseMap = new HashMap<>();
+                final Map<ChunkInfo, List<String>> responseMap = new HashMap<>();
                 for (Entry<String, CachedData> entry : metadataMap.entrySet()) {
                     final String firstKey = entry.getKey();
                     final String metadata = (String) decodingTranscoder.decode(entry.getValue());
@@ -684,53 +650,17 @@ public class EVCacheClient {
                             ciKeys.add(_key);
                         }
 
-                        final byte[] data = new byte[(ci.getChunks() - 2) * ci.getChunkSize() + ci.getLastChunk()];
-                        responseMap.put(ci, new SimpleEntry<>(ciKeys, data));
+                        responseMap.put(ci, ciKeys);
                     }
                 }
 
                 return evcacheMemcachedClient.asyncGetBulk(allKeys, chunkingTranscoder, null)
-                    .getSome(bulkReadTimeout.get(), TimeUnit.MILLISECONDS, false, false, scheduler)
+                    .getSome(getEffectiveBulkReadTimeout(), TimeUnit.MILLISECONDS, false, false, scheduler)
                     .map(dataMap -> {
-                        for (Entry<ChunkInfo, SimpleEntry<List<String>, byte[]>> entry : responseMap.entrySet()) {
+                        for (Entry<ChunkInfo, List<String>> entry : responseMap.entrySet()) {
                             final ChunkInfo ci = entry.getKey();
-                            final SimpleEntry<List<String>, byte[]> pair = entry.getValue();
-                            final List<String> ciKeys = pair.getKey();
-                            byte[] data = pair.getValue();
-                            int index = 0;
-                            for (int i = 0; i < ciKeys.size(); i++) {
-                                final String _key = ciKeys.get(i);
-                                final CachedData cd = dataMap.get(_key);
-                                if (log.isDebugEnabled()) log.debug("Chunk Key " + _key + "; Value : " + cd);
-                                if (cd == null) continue;
-                                final byte[] val = cd.getData();
-
-                                if (val == null) {
-                                    data = null;
-                                    break;
-                                }
-                                final int len = (i == ciKeys.size() - 1) ? ((ci.getLastChunk() == 0 || ci.getLastChunk() > ci
-                                    .getChunkSize()) ? ci.getChunkSize() : ci.getLastChunk())
-                                    : val.length;
-                                try {
-                                    System.arraycopy(val, 0, data, index, len);
-                                } catch (Exception e) {
-                                    StringBuilder sb = new StringBuilder();
-                                    sb.append("ArrayCopyError - Key : " + _key + "; final data Size : " + data.length
-                                        + "; copy array size : " + len + "; val size : " + val.length
-                                        + "; key index : " + i + "; copy from : " + index + "; ChunkInfo : " + ci + "\n");
-                                    for (int j = 0; j < ciKeys.size(); j++) {
-                                        final String skey = ciKeys.get(j);
-                                        final byte[] sval = dataMap.get(skey).getData();
-                                        sb.append(skey + "=" + sval.length + "\n");
-                                    }
-                                    if (log.isWarnEnabled()) log.warn(sb.toString(), e);
-                                    throw e;
-                                }
-                                index += val.length;
-                            }
-                            final boolean checksumPass = checkCRCChecksum(data, ci, hasZF);
-                            if (data != null && checksumPass) {
+                            final byte[] data = assembleChunks(ci, entry.getValue(), dataMap, false, 0, hasZF);
+                            if (data != null) {
                                 final CachedData cd = new CachedData(ci.getFlags(), data, Integer.MAX_VALUE);
                                 returnMap.put(ci.getKey(), tc.decode(cd));
                             } else {
@@ -743,12 +673,19 @@ public class EVCacheClient {
             });
     }
 
-    private CachedData[] createChunks(CachedData cd, String key) {
+    /**
+     * Stores the value as chunks under key_01, key_02, ... followed by the metadata, i.e. the number and size of the
+     * chunks, the flags and the CRC32 of the data, under key_00. Each chunk is written from a slice of the value's
+     * data and the checksum is updated as the chunks are enqueued so the data is read only once. The future of the
+     * metadata is the first in the returned array.
+     */
+    private OperationFuture<Boolean>[] storeChunks(StoreType storeType, CachedData cd, String key, int timeToLive) {
         final int cSize = chunkSize.get();
         if ((key.length() + 3) > cSize) throw new IllegalArgumentException("The chunksize " + cSize
                 + " is smaller than the key size. Will not be able to proceed. key size = "
                 + key.length());
-        final int len = cd.getData().length;
+        final byte[] data = cd.getData();
+        final int len = data.length;
 
         /* the format of headers in memcached */
         // Key size + 1 + Header( Flags (Characters Number) + Key (Characters Numbers) + 2 bytes ( \r\n ) + 4 bytes (2 spaces and 1 \r)) + Chunk Size + CAS Size
@@ -760,45 +697,111 @@ public class EVCacheClient {
         // + 4 // 2 spaces and 1 \r
         // + 48 // Header Size
         // + 8; // CAS
-        final int overheadSize = key.length() + 71 + 3;
-        // 3 because we will suffix _00, _01 ... _99; 68 is the size of the memcached header
-        final int actualChunkSize = cSize - overheadSize;
+        final int actualChunkSize = chunkDataSize(cSize, key);
         int lastChunkSize = len % actualChunkSize;
         final int numOfChunks = len / actualChunkSize + ((lastChunkSize > 0) ? 1 : 0) + 1;
-        final CachedData[] chunkData = new CachedData[numOfChunks];
         if (lastChunkSize == 0) lastChunkSize = actualChunkSize;
+        if (log.isDebugEnabled()) log.debug("Ths size of data is " + len + " ; we will create " + (numOfChunks - 1)
+                + " of " + actualChunkSize + " bytes.");
 
-        final long sTime = System.nanoTime();
+        final OperationFuture<Boolean>[] futures = new OperationFuture[numOfChunks];
         final Checksum checksum = new CRC32();
-        checksum.update(cd.getData(), 0, len);
-        final long checkSumValue = checksum.getValue();
-
         int srcPos = 0;
-        if (log.isDebugEnabled()) log.debug("Ths size of data is " + len + " ; we will create " + (numOfChunks - 1)
-                + " of " + actualChunkSize + " bytes. Checksum : "
-                + checkSumValue + "; Checksum Duration : " + (System.nanoTime() - sTime));
-        chunkData[0] = decodingTranscoder.encode(numOfChunks + ":" + actualChunkSize + ":" + lastChunkSize + ":" + cd
-                .getFlags() + ":" + checkSumValue);
         for (int i = 1; i < numOfChunks; i++) {
-            int lengthOfArray = actualChunkSize;
-            if (srcPos + actualChunkSize > len) {
-                lengthOfArray = len - srcPos;
-            }
-            byte[] dest = new byte[actualChunkSize];
-            System.arraycopy(cd.getData(), srcPos, dest, 0, lengthOfArray);
-            if (actualChunkSize > lengthOfArray) {
-                for (int j = lengthOfArray; j < actualChunkSize; j++) {
-                    dest[j] = Character.UNASSIGNED;// Adding filler data
-                }
-            }
+            final int lengthOfArray = Math.min(actualChunkSize, len - srcPos);
+            checksum.update(data, srcPos, lengthOfArray);
+            final String prefix = (i < 10) ? "0" : "";
+            // the last chunk is padded with filler data
+            futures[i] = evcacheMemcachedClient.storeChunk(storeType, key + "_" + prefix + i, timeToLive, SPECIAL_BYTEARRAY, data, srcPos, lengthOfArray, actualChunkSize, null);
             srcPos += lengthOfArray;
-            //chunkData[i] = decodingTranscoder.encode(dest);
-            chunkData[i] = new CachedData(SPECIAL_BYTEARRAY, dest, Integer.MAX_VALUE);
         }
+        final long checkSumValue = checksum.getValue();
+        final CachedData metadata = decodingTranscoder.encode(numOfChunks + ":" + actualChunkSize + ":" + lastChunkSize + ":" + cd
+                .getFlags() + ":" + checkSumValue);
+        futures[0] = (storeType == StoreType.replace) ? evcacheMemcachedClient.replace(key + "_00", timeToLive, metadata, null, null)
+                : evcacheMemcachedClient.set(key + "_00", timeToLive, metadata, null, null);
         EVCacheMetricsFactory.getInstance().getDistributionSummary(EVCacheMetricsFactory.INTERNAL_NUM_CHUNK_SIZE, getTagList()).record(numOfChunks);
         EVCacheMetricsFactory.getInstance().getDistributionSummary(EVCacheMetricsFactory.INTERNAL_CHUNK_DATA_SIZE, getTagList()).record(len);
 
-        return chunkData;
+        return futures;
+    }
+
+    private static int chunkDataSize(int cSize, String key) {
+        // 3 because we will suffix _00, _01 ... _99; 68 is the size of the memcached header
+        return cSize - (key.length() + 71 + 3);
+    }
+
+    /**
+     * Returns the number of bytes of a value that are stored in each chunk of the given key.
+     */
+    public int getChunkDataSize(String key) {
+        return chunkDataSize(chunkSize.get(), key);
+    }
+
+    /**
+     * Returns a writer that stores a value as chunks as it is streamed in, each chunk holding chunkDataSize bytes of
+     * the value. The value can be read once {@link ChunkWriter#commit} is called.
+     */
+    public ChunkWriter newChunkWriter(String key, int chunkDataSize, int timeToLive) throws EVCacheException {
+        if (!enableChunking.get()) throw new EVCacheException("This operation is supported only when chunking is enabled on this EVCacheClient.");
+        if (chunkDataSize <= 0 || chunkDataSize > getChunkDataSize(key)) throw new IllegalArgumentException("The chunk data size "
+                + chunkDataSize + " does not fit the chunksize " + chunkSize.get() + " for key : " + key);
+        return new ChunkWriter(key, chunkDataSize, timeToLive);
+    }
+
+    private Future<Boolean> setChunk(String key, int index, byte[] data, int length, int chunkDataSize, int timeToLive) throws Exception {
+        final String _key = chunkKey(key, index);
+        final MemcachedNode node = evcacheMemcachedClient.getEVCacheNode(_key);
+        if (!ensureWriteQueueSize(node, _key, Call.SET)) return getDefaultFuture();
+        return evcacheMemcachedClient.storeChunk(StoreType.set, _key, timeToLive, SPECIAL_BYTEARRAY, data, 0, length, chunkDataSize, null);
+    }
+
+    private static String chunkKey(String key, int index) {
+        final String prefix = (index < 10) ? "0" : "";
+        return key + "_" + prefix + index;
+    }
+
+    private Future<Boolean> setChunkMetadata(String key, long length, int chunkDataSize, long checksum, int timeToLive, EVCacheLatch evcacheLatch) throws Exception {
+        final MemcachedNode node = evcacheMemcachedClient.getEVCacheNode(key + "_00");
+        if (!ensureWriteQueueSize(node, key, Call.SET)) {
+            final ListenableFuture<Boolean, OperationCompletionListener> defaultFuture = (ListenableFuture<Boolean, OperationCompletionListener>) getDefaultFuture();
+            if (evcacheLatch != null && evcacheLatch instanceof EVCacheLatchImpl && !isInWriteOnly()) ((EVCacheLatchImpl) evcacheLatch).addFuture(defaultFuture);
+            return defaultFuture;
+        }
+
+        int lastChunkSize = (int) (length % chunkDataSize);
+        final int numOfChunks = (int) (length / chunkDataSize) + ((lastChunkSize > 0) ? 1 : 0) + 1;
+        if (lastChunkSize == 0) lastChunkSize = chunkDataSize;
+        final CachedData metadata = decodingTranscoder.encode(numOfChunks + ":" + chunkDataSize + ":" + lastChunkSize + ":"
+                + SPECIAL_BYTEARRAY + ":" + checksum);
+        // ensure we are deleting the unchunked key if it exists.
+        evcacheMemcachedClient.delete(key);
+        EVCacheMetricsFactory.getInstance().getDistributionSummary(EVCacheMetricsFactory.INTERNAL_NUM_CHUNK_SIZE, getTagList()).record(numOfChunks);
+        EVCacheMetricsFactory.getInstance().getDistributionSummary(EVCacheMetricsFactory.INTERNAL_CHUNK_DATA_SIZE, getTagList()).record(length);
+        return evcacheMemcachedClient.set(key + "_00", timeToLive, metadata, null, evcacheLatch);
+    }
+
+    /**
+     * Returns the data of the value as it is stored, uncompressed if it was compressed. A chunked value is read a
+     * window of chunks at a time as the stream is consumed, so it is never held in memory as a whole, and its checksum
+     * is verified when the end of the stream is reached. Returns null if the key is not found.
+     */
+    public InputStream getStream(String key, boolean _throwException) throws Exception {
+        if (!validateNode(key, _throwException, Call.GET)) return null;
+        final ChunkDetails<?> cd = getChunkDetails(key);
+        if (cd == null) return null;
+        final InputStream in;
+        final int flags;
+        if (cd.isChunked()) {
+            in = new ChunkInputStream(cd.getChunkInfo(), cd.getChunkKeys());
+            flags = cd.getChunkInfo().getFlags();
+        } else {
+            final CachedData data = (CachedData) cd.getData();
+            if (data == null) return null;
+            in = new ByteArrayInputStream(data.getData());
+            flags = data.getFlags();
+        }
+        return ((flags & COMPRESSED) != 0) ? new GZIPInputStream(in) : in;
     }
 
     /**
@@ -824,7 +827,7 @@ public class EVCacheClient {
                 final List<String> keys = cd.getChunkKeys();
                 if(log.isDebugEnabled()) log.debug("Keys - " + keys);
                 final Map<String, CachedData> dataMap = evcacheMemcachedClient.asyncGetBulk(keys, chunkingTranscoder, null)
-                        .getSome(readTimeout.get().intValue(), TimeUnit.MILLISECONDS, false, false);
+                        .getSome(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, false, false);
 
                 if(log.isDebugEnabled()) log.debug("Datamap " + dataMap);
                 return dataMap;
@@ -843,16 +846,20 @@ public class EVCacheClient {
         return evcacheMemcachedClient.decr(key, by, defaultVal, timeToLive);
     }
 
+    public OperationFuture<Long> asyncIncr(String key, long by, long defaultVal, int timeToLive) throws EVCacheException {
+        return evcacheMemcachedClient.asyncIncr(key, by, defaultVal, timeToLive);
+    }
+
     public <T> T get(String key, Transcoder<T> tc, boolean _throwException, boolean hasZF, boolean chunked) throws Exception {
         if (chunked) {
             return assembleChunks(key, false, 0, tc, hasZF);
         } else if(shouldHashKey()) {
             final String hKey = getHashedKey(key);
-            final Object obj = evcacheMemcachedClient.asyncGet(hKey, evcacheValueTranscoder, null).get(readTimeout.get(), TimeUnit.MILLISECONDS, _throwException, hasZF);
+            final Object obj = evcacheMemcachedClient.asyncGet(hKey, evcacheValueTranscoder, null).get(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF);
             if(obj instanceof EVCacheValue) {
                 final EVCacheValue val = (EVCacheValue)obj;
                 if(val == null || !(val.getKey().equals(key))) {
-                    incrementFailure(EVCacheMetricsFactory.KEY_HASH_COLLISION, Call.GET);
+                    incrementFailure(FailureReason.KEY_HASH_COLLISION, Call.GET);
                     return null;
                 }
                 final CachedData cd = new CachedData(val.getFlags(), val.getValue(), CachedData.MAX_SIZE);
@@ -865,7 +872,7 @@ public class EVCacheClient {
                 return null;
             }
         } else {
-            return evcacheMemcachedClient.asyncGet(key, tc, null).get(readTimeout.get(),
+            return evcacheMemcachedClient.asyncGet(key, tc, null).get(getEffectiveReadTimeout(),
                     TimeUnit.MILLISECONDS, _throwException, hasZF);
         }
     }
@@ -873,7 +880,7 @@ public class EVCacheClient {
     public <T> T get(String key, Transcoder<T> tc, boolean _throwException, boolean hasZF) throws Exception {
         if (!validateNode(key, _throwException, Call.GET)) {
             if(ignoreInactiveNodes.get()) {
-                incrementFailure(EVCacheMetricsFactory.IGNORE_INACTIVE_NODES, Call.GET);
+                incrementFailure(FailureReason.IGNORE_INACTIVE_NODES, Call.GET);
                 return pool.getEVCacheClientForReadExclude(serverGroup).get(key, tc, _throwException, hasZF, enableChunking.get());
             } else {
                 return null;
@@ -887,11 +894,11 @@ public class EVCacheClient {
             return assembleChunks(key, _throwException, 0, tc, hasZF, scheduler);
         }  else if(shouldHashKey()) {
             final String hKey = getHashedKey(key);
-            final Object obj = evcacheMemcachedClient.asyncGet(hKey, evcacheValueTranscoder, null).get(readTimeout.get(), TimeUnit.MILLISECONDS, _throwException, hasZF);
+            final Object obj = evcacheMemcachedClient.asyncGet(hKey, evcacheValueTranscoder, null).get(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF);
             if(obj instanceof EVCacheValue) {
                 final EVCacheValue val = (EVCacheValue)obj;
                 if(val == null || !(val.getKey().equals(key))) {
-                    incrementFailure(EVCacheMetricsFactory.KEY_HASH_COLLISION, Call.GET);
+                    incrementFailure(FailureReason.KEY_HASH_COLLISION, Call.GET);
                     return null;
                 }
                 final CachedData cd = new CachedData(val.getFlags(), val.getValue(), CachedData.MAX_SIZE);
@@ -905,7 +912,7 @@ public class EVCacheClient {
             }
         } else {
             return evcacheMemcachedClient.asyncGet(key, tc, null)
-                .get(readTimeout.get(), TimeUnit.MILLISECONDS, _throwException, hasZF, scheduler);
+                .get(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF, scheduler);
         }
     }
 
@@ -913,7 +920,7 @@ public class EVCacheClient {
         try {
             if (!validateNode(key, _throwException, Call.GET)) {
                 if(ignoreInactiveNodes.get()) {
-                    incrementFailure(EVCacheMetricsFactory.IGNORE_INACTIVE_NODES, Call.GET);
+                    incrementFailure(FailureReason.IGNORE_INACTIVE_NODES, Call.GET);
                     return pool.getEVCacheClientForReadExclude(serverGroup).get(key, tc, _throwException, hasZF, enableChunking.get(), scheduler);
                 } else {
                     return Single.just(null);
@@ -929,7 +936,7 @@ public class EVCacheClient {
         EVCacheMemcachedClient _client = evcacheMemcachedClient;
         if (!validateNode(key, _throwException, Call.GET_AND_TOUCH)) {
             if(ignoreInactiveNodes.get()) {
-                incrementFailure(EVCacheMetricsFactory.IGNORE_INACTIVE_NODES, Call.GET_AND_TOUCH);
+                incrementFailure(FailureReason.IGNORE_INACTIVE_NODES, Call.GET_AND_TOUCH);
                 _client = pool.getEVCacheClientForReadExclude(serverGroup).getEVCacheMemcachedClient();
             } else {
                 return null;
@@ -944,15 +951,15 @@ public class EVCacheClient {
             final String hKey = getHashedKey(key);
             final Object obj;
             if(ignoreTouch.get()) {
-                obj = _client.asyncGet(hKey, evcacheValueTranscoder, null).get(readTimeout.get(), TimeUnit.MILLISECONDS, _throwException, hasZF);
+                obj = _client.asyncGet(hKey, evcacheValueTranscoder, null).get(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF);
             } else {
-                final CASValue<Object> value = _client.asyncGetAndTouch(key, timeToLive, evcacheValueTranscoder).get(readTimeout.get(), TimeUnit.MILLISECONDS, _throwException, hasZF);
+                final CASValue<Object> value = _client.asyncGetAndTouch(key, timeToLive, evcacheValueTranscoder).get(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF);
                 obj = (value == null) ? null : value.getValue();
             }
             if(obj != null && obj instanceof EVCacheValue) {
                 final EVCacheValue val = (EVCacheValue)obj;
                 if(val == null || !(val.getKey().equals(key))) {
-                    incrementFailure(EVCacheMetricsFactory.KEY_HASH_COLLISION, Call.GET_AND_TOUCH);
+                    incrementFailure(FailureReason.KEY_HASH_COLLISION, Call.GET_AND_TOUCH);
                     return null;
                 }
                 final CachedData cd = new CachedData(val.getFlags(), val.getValue(), CachedData.MAX_SIZE);
@@ -966,9 +973,9 @@ public class EVCacheClient {
             }
         } else {
             if(ignoreTouch.get()) {
-                returnVal = _client.asyncGet(key, tc, null).get(readTimeout.get(), TimeUnit.MILLISECONDS, _throwException, hasZF);
+                returnVal = _client.asyncGet(key, tc, null).get(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF);
             } else {
-                final CASValue<T> value = _client.asyncGetAndTouch(key, timeToLive, tc).get(readTimeout.get(), TimeUnit.MILLISECONDS, _throwException, hasZF);
+                final CASValue<T> value = _client.asyncGetAndTouch(key, timeToLive, tc).get(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF);
                 returnVal = (value == null) ? null : value.getValue();
             }
         }
@@ -980,7 +987,7 @@ public class EVCacheClient {
             EVCacheMemcachedClient client = evcacheMemcachedClient;
             if (!validateNode(key, _throwException, Call.GET_AND_TOUCH)) {
                 if(ignoreInactiveNodes.get()) {
-                    incrementFailure(EVCacheMetricsFactory.IGNORE_INACTIVE_NODES, Call.GET_AND_TOUCH);
+                    incrementFailure(FailureReason.IGNORE_INACTIVE_NODES, Call.GET_AND_TOUCH);
                     client = pool.getEVCacheClientForReadExclude(serverGroup).getEVCacheMemcachedClient();
                 } else {
                     return null;
@@ -994,12 +1001,12 @@ public class EVCacheClient {
             } else if(shouldHashKey()) {
                 final String hKey = getHashedKey(key);
                 if(ignoreTouch.get()) {
-                    final Single<Object> value = _client.asyncGet(hKey, evcacheValueTranscoder, null).get(readTimeout.get(), TimeUnit.MILLISECONDS, _throwException, hasZF, scheduler);
+                    final Single<Object> value = _client.asyncGet(hKey, evcacheValueTranscoder, null).get(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF, scheduler);
                     return value.flatMap(r -> {
                         final CASValue<Object> rObj = (CASValue<Object>)r;
                         final EVCacheValue val = (EVCacheValue)rObj.getValue();
                         if(val == null || !(val.getKey().equals(key))) {
-                            incrementFailure(EVCacheMetricsFactory.KEY_HASH_COLLISION, Call.GET_AND_TOUCH);
+                            incrementFailure(FailureReason.KEY_HASH_COLLISION, Call.GET_AND_TOUCH);
                             return null;
                         }
                         final CachedData cd = new CachedData(val.getFlags(), val.getValue(), CachedData.MAX_SIZE);
@@ -1010,13 +1017,13 @@ public class EVCacheClient {
                         }
                     });
                 } else {
-                    final Single<CASValue<Object>> value = _client.asyncGetAndTouch(hKey, timeToLive, evcacheValueTranscoder).get(readTimeout.get(), TimeUnit.MILLISECONDS, _throwException, hasZF, scheduler);
+                    final Single<CASValue<Object>> value = _client.asyncGetAndTouch(hKey, timeToLive, evcacheValueTranscoder).get(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF, scheduler);
                     if(value != null ) {
                         return value.flatMap(r -> {
                             final CASValue<Object> rObj = (CASValue<Object>)r;
                             final EVCacheValue val = (EVCacheValue)rObj.getValue();
                             if(val == null || !(val.getKey().equals(key))) {
-                                incrementFailure(EVCacheMetricsFactory.KEY_HASH_COLLISION, Call.GET_AND_TOUCH);
+                                incrementFailure(FailureReason.KEY_HASH_COLLISION, Call.GET_AND_TOUCH);
                                 return null;
                             }
                             final CachedData cd = new CachedData(val.getFlags(), val.getValue(), CachedData.MAX_SIZE);
@@ -1032,7 +1039,7 @@ public class EVCacheClient {
                 }
             } else {
                 return _client.asyncGetAndTouch(key, timeToLive, tc)
-                    .get(readTimeout.get(), TimeUnit.MILLISECONDS, _throwException, hasZF, scheduler)
+                    .get(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF, scheduler)
                     .map(value -> (value == null) ? null : value.getValue());
             }
         } catch (Throwable e) {
@@ -1056,14 +1063,14 @@ public class EVCacheClient {
                     hashKeys.add(hKey);
                     returnVal.put(cKey, null);
                 }
-                final Map<String, Object> vals = evcacheMemcachedClient.asyncGetBulk(hashKeys, evcacheValueTranscoder, null).getSome(bulkReadTimeout.get(), TimeUnit.MILLISECONDS, _throwException, hasZF);
+                final Map<String, Object> vals = evcacheMemcachedClient.asyncGetBulk(hashKeys, evcacheValueTranscoder, null).getSome(getEffectiveBulkReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF);
                 if(vals != null && !vals.isEmpty()) {
                     for(Entry<String, Object> entry : vals.entrySet()) {
                         final Object obj = entry.getValue();
                         if(obj instanceof EVCacheValue) {
                             final EVCacheValue val = (EVCacheValue)obj;
                             if(val == null || !(returnVal.containsKey(val.getKey()))) {
-                                incrementFailure(EVCacheMetricsFactory.KEY_HASH_COLLISION, Call.BULK);
+                                incrementFailure(FailureReason.KEY_HASH_COLLISION, Call.BULK);
                             }                            
                             final CachedData cd = new CachedData(val.getFlags(), val.getValue(), CachedData.MAX_SIZE);
                             if(tc == null) {
@@ -1080,7 +1087,7 @@ public class EVCacheClient {
                 }
             } else {
                 returnVal = evcacheMemcachedClient.asyncGetBulk(canonicalKeys, tc, null)
-                        .getSome(bulkReadTimeout.get(), TimeUnit.MILLISECONDS, _throwException, hasZF);
+                        .getSome(getEffectiveBulkReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF);
             }
         } catch (Exception e) {
             if (_throwException) throw e;
@@ -1104,7 +1111,7 @@ public class EVCacheClient {
                     hashKeys.add(hKey);
                     returnVal.compute(cKey, null);
                 }
-                final Single<Map<String, Object>> vals = evcacheMemcachedClient.asyncGetBulk(hashKeys, evcacheValueTranscoder, null).getSome(bulkReadTimeout.get(), TimeUnit.MILLISECONDS, _throwException, hasZF, scheduler);
+                final Single<Map<String, Object>> vals = evcacheMemcachedClient.asyncGetBulk(hashKeys, evcacheValueTranscoder, null).getSome(getEffectiveBulkReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF, scheduler);
                 if(vals != null ) {
                     return vals.flatMap(r -> {
                         for(Entry<String, Object> entry : r.entrySet()) {
@@ -1112,7 +1119,7 @@ public class EVCacheClient {
                             if(obj instanceof EVCacheValue) {
                                 final EVCacheValue val = (EVCacheValue)obj;
                                 if(val == null || !(returnVal.containsKey(val.getKey()))) {
-                                    incrementFailure(EVCacheMetricsFactory.KEY_HASH_COLLISION, Call.BULK);
+                                    incrementFailure(FailureReason.KEY_HASH_COLLISION, Call.BULK);
                                 }
                                 final CachedData cd = new CachedData(val.getFlags(), val.getValue(), CachedData.MAX_SIZE);
                                 if(tc == null) {
@@ -1131,7 +1138,7 @@ public class EVCacheClient {
                 }
             } else {
                 return evcacheMemcachedClient.asyncGetBulk(canonicalKeys, tc, null)
-                    .getSome(bulkReadTimeout.get(), TimeUnit.MILLISECONDS, _throwException, hasZF, scheduler);
+                    .getSome(getEffectiveBulkReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF, scheduler);
             }
         } catch (Throwable e) {
             return Single.error(e);
@@ -1189,13 +1196,7 @@ public class EVCacheClient {
 
             if (enableChunking.get()) {
                 if (dataSize > chunkSize.get()) {
-                    final CachedData[] cd = createChunks(value, key);
-                    final int len = cd.length;
-                    final OperationFuture<Boolean>[] futures = new OperationFuture[len];
-                    for (int i = 0; i < cd.length; i++) {
-                        final String prefix = (i < 10) ? "0" : "";
-                        futures[i] = evcacheMemcachedClient.set(key + "_" + prefix + i, timeToLive, cd[i], null, null);
-                    }
+                    final OperationFuture<Boolean>[] futures = storeChunks(StoreType.set, value, key, timeToLive);
                     // ensure we are deleting the unchunked key if it exists.
                     // Ignore return value since it may not exist.
                     evcacheMemcachedClient.delete(key);
@@ -1219,6 +1220,117 @@ public class EVCacheClient {
         }
     }
 
+    /**
+     * Sets all the given values. Unless chunking is enabled the writes are grouped by
+     * node and each group is sent as one pipelined batch. The write queue of every
+     * node is checked once per batch; the writes for a node that cannot accept them
+     * are dropped and a default future is added to the latch in their place.
+     */
+    public Map<String, Future<Boolean>> setBulk(Map<String, CachedData> values, int timeToLive, EVCacheLatch evcacheLatch) throws Exception {
+        final Map<String, Future<Boolean>> futures = new HashMap<String, Future<Boolean>>((int) (values.size() / 0.75f) + 1);
+        if (enableChunking.get()) {
+            for (Map.Entry<String, CachedData> entry : values.entrySet()) {
+                futures.put(entry.getKey(), _set(entry.getKey(), entry.getValue(), timeToLive, evcacheLatch));
+            }
+            return futures;
+        }
+
+        final boolean hashKey = shouldHashKey();
+        final Map<String, String> keys = getWritableKeys(values.keySet(), Call.SET_BULK, evcacheLatch, futures);
+        if (keys.isEmpty()) return futures;
+        final Map<String, CachedData> batch = new HashMap<String, CachedData>((int) (keys.size() / 0.75f) + 1);
+        for (Map.Entry<String, String> entry : keys.entrySet()) {
+            final CachedData value = values.get(entry.getValue());
+            batch.put(entry.getKey(), hashKey ? getEVCacheValue(entry.getValue(), value, timeToLive) : value);
+        }
+        try {
+            putBulkFutures(evcacheMemcachedClient.setBulk(batch, timeToLive, evcacheLatch), keys, futures);
+            return futures;
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes all the given keys. See {@link #setBulk(Map, int, EVCacheLatch)}.
+     */
+    public Map<String, Future<Boolean>> deleteBulk(Collection<String> keys, EVCacheLatch evcacheLatch) throws Exception {
+        final Map<String, Future<Boolean>> futures = new HashMap<String, Future<Boolean>>((int) (keys.size() / 0.75f) + 1);
+        if (enableChunking.get()) {
+            for (String key : keys) {
+                futures.put(key, delete(key, evcacheLatch));
+            }
+            return futures;
+        }
+
+        final Map<String, String> writableKeys = getWritableKeys(keys, Call.DELETE_BULK, evcacheLatch, futures);
+        if (writableKeys.isEmpty()) return futures;
+        putBulkFutures(evcacheMemcachedClient.deleteBulk(writableKeys.keySet(), evcacheLatch), writableKeys, futures);
+        return futures;
+    }
+
+    /**
+     * Touches all the given keys. See {@link #setBulk(Map, int, EVCacheLatch)}.
+     */
+    public Map<String, Future<Boolean>> touchBulk(Collection<String> keys, int timeToLive, EVCacheLatch evcacheLatch) throws Exception {
+        final Map<String, Future<Boolean>> futures = new HashMap<String, Future<Boolean>>((int) (keys.size() / 0.75f) + 1);
+        if (ignoreTouch.get() || enableChunking.get()) {
+            for (String key : keys) {
+                futures.put(key, touch(key, timeToLive, evcacheLatch));
+            }
+            return futures;
+        }
+
+        final Map<String, String> writableKeys = getWritableKeys(keys, Call.TOUCH_BULK, evcacheLatch, futures);
+        if (writableKeys.isEmpty()) return futures;
+        putBulkFutures(evcacheMemcachedClient.touchBulk(writableKeys.keySet(), timeToLive, evcacheLatch), writableKeys, futures);
+        return futures;
+    }
+
+    /**
+     * Groups the keys by node and checks the write queue of each node once. Returns
+     * the keys (hashed if needed) mapped to the given keys for the nodes that can
+     * accept the writes. For the other nodes a default future is added to the latch
+     * and to the futures map.
+     */
+    private Map<String, String> getWritableKeys(Collection<String> keys, Call call, EVCacheLatch evcacheLatch, Map<String, Future<Boolean>> futures) throws EVCacheException {
+        final boolean hashKey = shouldHashKey();
+        final Map<MemcachedNode, Map<String, String>> keysByNode = new HashMap<MemcachedNode, Map<String, String>>();
+        for (String key : keys) {
+            final String cKey = hashKey ? getHashedKey(key) : key;
+            final MemcachedNode node = evcacheMemcachedClient.getEVCacheNode(cKey);
+            Map<String, String> nodeKeys = keysByNode.get(node);
+            if (nodeKeys == null) {
+                nodeKeys = new HashMap<String, String>();
+                keysByNode.put(node, nodeKeys);
+            }
+            nodeKeys.put(cKey, key);
+        }
+
+        final Map<String, String> writableKeys = new HashMap<String, String>((int) (keys.size() / 0.75f) + 1);
+        for (Map.Entry<MemcachedNode, Map<String, String>> entry : keysByNode.entrySet()) {
+            final Map<String, String> nodeKeys = entry.getValue();
+            if (ensureWriteQueueSize(entry.getKey(), nodeKeys.keySet().iterator().next(), call)) {
+                writableKeys.putAll(nodeKeys);
+                continue;
+            }
+            if (log.isInfoEnabled()) log.info("Node : " + entry.getKey() + " is not active. Failing fast and dropping " + nodeKeys.size() + " write events.");
+            for (String key : nodeKeys.values()) {
+                final ListenableFuture<Boolean, OperationCompletionListener> defaultFuture = (ListenableFuture<Boolean, OperationCompletionListener>) getDefaultFuture();
+                if (evcacheLatch != null && evcacheLatch instanceof EVCacheLatchImpl && !isInWriteOnly()) ((EVCacheLatchImpl) evcacheLatch).addFuture(defaultFuture);
+                futures.put(key, defaultFuture);
+            }
+        }
+        return writableKeys;
+    }
+
+    private void putBulkFutures(Map<String, OperationFuture<Boolean>> bulkFutures, Map<String, String> keys, Map<String, Future<Boolean>> futures) {
+        for (Map.Entry<String, OperationFuture<Boolean>> entry : bulkFutures.entrySet()) {
+            futures.put(keys.get(entry.getKey()), entry.getValue());
+        }
+    }
+
     protected CachedData getEVCacheValue(String key, CachedData cData, int timeToLive) {
         final EVCacheValue val = new EVCacheValue(key, cData.getData(), cData.getFlags(), timeToLive, System.currentTimeMillis());
         return evcacheValueTranscoder.encode(val);
@@ -1276,13 +1388,7 @@ public class EVCacheClient {
         try {
             final int dataSize = ((CachedData) value).getData().length;
             if (enableChunking.get() && dataSize > chunkSize.get()) {
-                final CachedData[] cd = createChunks(value, key);
-                final int len = cd.length;
-                final OperationFuture<Boolean>[] futures = new OperationFuture[len];
-                for (int i = 0; i < cd.length; i++) {
-                    final String prefix = (i < 10) ? "0" : "";
-                    futures[i] = evcacheMemcachedClient.replace(key + "_" + prefix + i, timeToLive, cd[i], null, null);
-                }
+                final OperationFuture<Boolean>[] futures = storeChunks(StoreType.replace, value, key, timeToLive);
                 return new EVCacheFutures(futures, key, appName, serverGroup, evcacheLatch);
             } else if(shouldHashKey()) {
                 final String hKey = getHashedKey(key);
@@ -1410,6 +1516,36 @@ public class EVCacheClient {
         }
     }
 
+    /**
+     * Issues a non blocking get and notifies the listener on completion. Returns null if the key cannot be fetched
+     * with a single get on this client (chunking or hashing is enabled) or if the node is not available.
+     */
+    public <T> EVCacheOperationFuture<T> asyncGet(String key, Transcoder<T> tc, EVCacheGetOperationListener<T> listener) throws Exception {
+        if (!supportsNonBlockingRead()) return null;
+        if (!validateNode(key, false, Call.ASYNC_GET)) return null;
+        if (tc == null) tc = (Transcoder<T>) getTranscoder();
+        return evcacheMemcachedClient.asyncGet(key, tc, listener);
+    }
+
+    /**
+     * Issues a non blocking bulk get for the given keys. Keys whose read queue is full are dropped. Returns null if
+     * the keys cannot be fetched with a single bulk get on this client (chunking or hashing is enabled).
+     */
+    public <T> EVCacheBulkGetFuture<T> asyncGetBulk(Collection<String> _canonicalKeys, Transcoder<T> tc) throws Exception {
+        if (!supportsNonBlockingRead()) return null;
+        final Collection<String> canonicalKeys = validateReadQueueSize(_canonicalKeys, Call.BULK);
+        if (tc == null) tc = (Transcoder<T>) getTranscoder();
+        return evcacheMemcachedClient.asyncGetBulk(canonicalKeys, tc, null);
+    }
+
+    /**
+     * Returns true if a key can be read with a single get on this client i.e. neither chunking nor hashing by server
+     * group is enabled.
+     */
+    public boolean supportsNonBlockingRead() {
+        return !enableChunking.get() && !shouldHashKey();
+    }
+
     public Future<Boolean> delete(String key) throws Exception {
         return delete(key, null);
     }
@@ -1551,6 +1687,14 @@ public class EVCacheClient {
         return this.evcacheMemcachedClient.getNodeLocator();
     }
 
+    /**
+     * Returns the number of reads queued on the node the key, as derived for this client, maps to or 0 if it is not known.
+     */
+    public int getReadQueueSize(EVCacheKey evcKey) {
+        final MemcachedNode node = evcacheMemcachedClient.getEVCacheNode(evcKey.getDerivedKey(isDuetClient()));
+        return (node instanceof EVCacheNode) ? ((EVCacheNode) node).getReadQueueSize() : 0;
+    }
+
     static class SuccessFuture implements ListenableFuture<Boolean, OperationCompletionListener> {
 
 		@Override
@@ -1657,6 +1801,34 @@ public class EVCacheClient {
         return bulkReadTimeout;
     }
 
+    /**
+     * Returns the timeout in milli seconds for single key reads. This is the configured read timeout unless adaptive
+     * read timeouts are enabled in which case it is derived from the recent read latencies of this client.
+     */
+    public int getEffectiveReadTimeout() {
+        final int timeout = adaptiveReadTimeout;
+        if (timeout <= 0 || !pool.isAdaptiveReadTimeout()) return readTimeout.get().intValue();
+        return timeout;
+    }
+
+    /**
+     * Returns the timeout in milli seconds for bulk reads. See {@link #getEffectiveReadTimeout()}.
+     */
+    public int getEffectiveBulkReadTimeout() {
+        final int timeout = adaptiveBulkReadTimeout;
+        if (timeout <= 0 || !pool.isAdaptiveReadTimeout()) return bulkReadTimeout.get().intValue();
+        return timeout;
+    }
+
+    /**
+     * Recomputes the adaptive read timeouts from the recent read latencies. Called periodically by the pool so that
+     * the reads do not have to walk the histograms.
+     */
+    void refreshAdaptiveReadTimeouts() {
+        adaptiveReadTimeout = pool.getAdaptiveReadTimeout(readLatency, readTimeout.get().intValue());
+        adaptiveBulkReadTimeout = pool.getAdaptiveReadTimeout(bulkReadLatency, bulkReadTimeout.get().intValue());
+    }
+
     public Property<Integer> getMaxReadQueueSize() {
         return maxReadQueueSize;
     }
@@ -1681,10 +1853,251 @@ public class EVCacheClient {
         return pool;
     }
 
+    /**
+     * Called when a single key read is sent to this client. Every call must be followed by {@link #readCompleted(long, boolean)}.
+     */
+    public void readStarted() {
+        serverGroupLatency.readStarted();
+    }
+
+    /**
+     * Records the latency of a single key read that was started with {@link #readStarted()}. Reads that timed out are
+     * not added to the latency histogram and the others are capped at the adaptive read timeout ceiling so that a
+     * stalled read does not inflate the adaptive read timeout.
+     *
+     * @param startNanos - the {@link System#nanoTime()} when the read was started
+     * @param timedOut - true if the read timed out
+     */
+    public void readCompleted(long startNanos, boolean timedOut) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        serverGroupLatency.readCompleted(micros, pool.getLatencyDecayMillis());
+        if (!timedOut) readLatency.recordMicros(Math.min(micros, TimeUnit.MILLISECONDS.toMicros(pool.getAdaptiveReadTimeoutCeiling(readTimeout.get().intValue()))));
+    }
+
+    /**
+     * Records the latency of a bulk read. See {@link #readCompleted(long, boolean)}.
+     *
+     * @param startNanos - the {@link System#nanoTime()} when the bulk read was started
+     * @param timedOut - true if the bulk read timed out
+     */
+    public void bulkReadCompleted(long startNanos, boolean timedOut) {
+        if (timedOut) return;
+        final long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        bulkReadLatency.recordMicros(Math.min(micros, TimeUnit.MILLISECONDS.toMicros(pool.getAdaptiveReadTimeoutCeiling(bulkReadTimeout.get().intValue()))));
+    }
+
     public EVCacheServerGroupConfig getEVCacheConfig() {
         return config;
     }
 
+    /**
+     * Stores the chunks of a value that is streamed in under key_01, key_02, ... and, once they are all stored, its
+     * metadata under key_00. The metadata of the previous value is deleted before the first chunk is written. A reader
+     * that fetched it before that can still read some of the new chunks with it, which fails the checksum. If the
+     * value cannot be stored its metadata and the chunks written so far are deleted.
+     */
+    public class ChunkWriter {
+
+        private final String key;
+        private final int chunkDataSize, timeToLive;
+        private final Deque<Future<Boolean>> pending = new ArrayDeque<>();
+        private int index;
+        private boolean failed;
+
+        private ChunkWriter(String key, int chunkDataSize, int timeToLive) {
+            this.key = key;
+            this.chunkDataSize = chunkDataSize;
+            this.timeToLive = timeToLive;
+        }
+
+        /**
+         * Stores the next chunk, padded up to the chunk data size. The data is written from the given array which
+         * must not be modified afterwards. If more than maxPending chunks are being written this waits for the
+         * oldest one. Once a chunk could not be stored the remaining chunks are dropped.
+         */
+        public void write(byte[] data, int length, int maxPending) throws Exception {
+            if (failed) return;
+            if (index == 0) {
+                // the metadata of the previous value must not point at the chunks being overwritten
+                failed = !awaitDelete(evcacheMemcachedClient.delete(chunkKey(key, 0)));
+                if (failed) return;
+            }
+            pending.add(setChunk(key, ++index, data, length, chunkDataSize, timeToLive));
+            while (pending.size() > maxPending && !failed) failed = !await(pending.poll());
+        }
+
+        /**
+         * Waits for the chunks to be stored and then stores the metadata of the value. If a chunk could not be
+         * stored the chunks are deleted instead and a failed future is added to the latch.
+         */
+        public Future<Boolean> commit(long length, long checksum, EVCacheLatch evcacheLatch) throws Exception {
+            while (!pending.isEmpty() && !failed) failed = !await(pending.poll());
+            if (failed) {
+                pending.clear();
+                if (log.isWarnEnabled()) log.warn("Could not store chunk " + index + " of key : " + key + " for app : " + appName
+                        + "; serverGroup : " + serverGroup + ". Deleting the chunks.");
+                deleteChunks();
+                final ListenableFuture<Boolean, OperationCompletionListener> defaultFuture = (ListenableFuture<Boolean, OperationCompletionListener>) getDefaultFuture();
+                if (evcacheLatch != null && evcacheLatch instanceof EVCacheLatchImpl && !isInWriteOnly()) ((EVCacheLatchImpl) evcacheLatch).addFuture(defaultFuture);
+                return defaultFuture;
+            }
+            return setChunkMetadata(key, length, chunkDataSize, checksum, timeToLive, evcacheLatch);
+        }
+
+        /**
+         * Deletes the metadata and the chunks written so far. Called instead of {@link #commit} when the value could
+         * not be read to its end. The deletes are not waited for; they follow the writes of the chunks on each node.
+         */
+        public void abort() {
+            if (log.isDebugEnabled()) log.debug("Aborting the write of key : " + key + " after " + index + " chunks for app : " + appName);
+            pending.clear();
+            failed = true;
+            deleteChunks();
+        }
+
+        private void deleteChunks() {
+            for (int i = 0; i <= index; i++) {
+                try {
+                    evcacheMemcachedClient.delete(chunkKey(key, i));
+                } catch (Exception e) {
+                    if (log.isDebugEnabled()) log.debug("Exception deleting chunk " + i + " of key : " + key, e);
+                }
+            }
+        }
+
+        private boolean awaitDelete(Future<Boolean> future) {
+            try {
+                // false if there was no metadata to delete
+                future.get(connectionFactory.getOperationTimeout(), TimeUnit.MILLISECONDS);
+                return true;
+            } catch (Exception e) {
+                if (log.isDebugEnabled()) log.debug("Exception deleting the metadata of key : " + key, e);
+                return false;
+            }
+        }
+
+        private boolean await(Future<Boolean> future) {
+            try {
+                return Boolean.TRUE.equals(future.get(connectionFactory.getOperationTimeout(), TimeUnit.MILLISECONDS));
+            } catch (Exception e) {
+                if (log.isDebugEnabled()) log.debug("Exception storing a chunk of key : " + key, e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Reads the chunks of a value a window at a time. The next window is requested as soon as one is received so that
+     * at most two windows are held in memory.
+     */
+    private class ChunkInputStream extends InputStream {
+
+        private final ChunkInfo ci;
+        private final List<String> keys;
+        private final int lastChunk;
+        private final int window;
+        private final Checksum checksum = new CRC32();
+        private EVCacheBulkGetFuture<CachedData> next;
+        private Map<String, CachedData> chunks = Collections.emptyMap();
+        private int index, windowEnd;
+        private byte[] buf;
+        private int pos, limit;
+        private boolean eof, closed;
+
+        ChunkInputStream(ChunkInfo ci, List<String> keys) {
+            this.ci = ci;
+            this.keys = keys;
+            this.lastChunk = (ci.getLastChunk() == 0 || ci.getLastChunk() > ci.getChunkSize()) ? ci.getChunkSize() : ci.getLastChunk();
+            this.window = Math.max(1, chunkStreamWindow.get());
+            this.next = request(0);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) return -1;
+            return buf[pos++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (off < 0 || len < 0 || len > b.length - off) throw new IndexOutOfBoundsException();
+            if (len == 0) return 0;
+            if (!fill()) return -1;
+            final int n = Math.min(len, limit - pos);
+            System.arraycopy(buf, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return limit - pos;
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            if (next != null) next.cancel(false);
+            next = null;
+            chunks = Collections.emptyMap();
+            buf = null;
+            pos = limit = 0;
+        }
+
+        /**
+         * Moves to the next chunk once the current one is read. Returns false at the end of the value, after the
+         * checksum is verified.
+         */
+        private boolean fill() throws IOException {
+            if (closed) throw new IOException("Stream closed");
+            while (pos == limit) {
+                if (eof) return false;
+                if (index == keys.size()) {
+                    eof = true;
+                    if (!checkCRCChecksum(checksum.getValue(), ci, false)) throw new IOException("Checksum mismatch for key : " + ci.getKey());
+                    return false;
+                }
+                if (index == windowEnd) receive();
+
+                final String _key = keys.get(index);
+                final CachedData _cd = chunks.remove(_key);
+                if (_cd == null || _cd.getData() == null) {
+                    incrementFailure(FailureReason.INCORRECT_CHUNKS, null);
+                    throw new IOException("Chunk " + _key + " not found");
+                }
+                final int len = (index == keys.size() - 1) ? lastChunk : ci.getChunkSize();
+                if (len > _cd.getData().length) {
+                    incrementFailure(FailureReason.INVALID_CHUNK_SIZE, null);
+                    throw new IOException("Chunk " + _key + " has " + _cd.getData().length + " bytes; expected : " + len);
+                }
+                buf = _cd.getData();
+                pos = 0;
+                limit = len;
+                checksum.update(buf, 0, len);
+                index++;
+            }
+            return true;
+        }
+
+        private void receive() throws IOException {
+            try {
+                chunks = next.getSome(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, false, false);
+            } catch (Exception e) {
+                throw new IOException("Could not read the chunks of key : " + ci.getKey(), e);
+            }
+            if (log.isDebugEnabled()) log.debug("Received chunks " + index + " to " + (index + chunks.size()) + " of key : " + ci.getKey());
+            windowEnd = Math.min(index + window, keys.size());
+            next = request(windowEnd);
+        }
+
+        private EVCacheBulkGetFuture<CachedData> request(int from) {
+            if (from >= keys.size()) return null;
+            final List<String> windowKeys = new ArrayList<>(keys.subList(from, Math.min(from + window, keys.size())));
+            return evcacheMemcachedClient.asyncGetBulk(windowKeys, chunkingTranscoder, null);
+        }
+    }
+
    static class ChunkDetails<T> {
 
         final List<String> chunkKeys;
@@ -1925,6 +2338,29 @@ public class EVCacheClient {
     }
 
 
+    /**
+     * A value that fits in one chunk is stored under the key and is returned with its meta data as is. The meta data
+     * of a chunked value is that of its first chunk, which also holds the chunk info, and the value is assembled
+     * from the chunks.
+     */
+    private <T> EVCacheItem<T> metaGetChunks(String key, Transcoder<T> tc, boolean _throwException, boolean hasZF) throws Exception {
+        final EVCacheItem<CachedData> item = evcacheMemcachedClient.asyncMetaGet(key, chunkingTranscoder, null).get(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF);
+        final Transcoder<T> transcoder = (tc == null ? (Transcoder<T>) evcacheMemcachedClient.getTranscoder() : tc);
+        final EVCacheItem<Object> obj = (EVCacheItem<Object>) (EVCacheItem<?>) item;
+        if (item != null && item.getData() != null) {
+            obj.setData(transcoder.decode(item.getData()));
+            return (EVCacheItem<T>) obj;
+        }
+
+        final EVCacheItem<CachedData> firstChunk = evcacheMemcachedClient.asyncMetaGet(key + "_00", chunkingTranscoder, null).get(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF);
+        if (firstChunk == null || firstChunk.getData() == null) return null;
+        final T data = assembleChunks(key, false, 0, transcoder, hasZF);
+        if (data == null) return null;
+        final EVCacheItem<Object> chunked = (EVCacheItem<Object>) (EVCacheItem<?>) firstChunk;
+        chunked.setData(data);
+        return (EVCacheItem<T>) chunked;
+    }
+
     public EVCacheItemMetaData metaDebug(String key) throws Exception {
         if(shouldHashKey()) {
             key = getHashedKey(key);
@@ -1935,14 +2371,16 @@ public class EVCacheClient {
     }
 
     public <T> EVCacheItem<T> metaGet(String key, Transcoder<T> tc, boolean _throwException, boolean hasZF) throws Exception {
-        if(shouldHashKey()) {
+        if (enableChunking.get()) {
+            return metaGetChunks(key, tc, _throwException, hasZF);
+        } else if(shouldHashKey()) {
             final String hKey = getHashedKey(key);
-            final EVCacheItem<Object> obj = evcacheMemcachedClient.asyncMetaGet(hKey, evcacheValueTranscoder, null).get(readTimeout.get(), TimeUnit.MILLISECONDS, _throwException, hasZF);
+            final EVCacheItem<Object> obj = evcacheMemcachedClient.asyncMetaGet(hKey, evcacheValueTranscoder, null).get(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF);
             if(obj == null) return null;
             if(obj.getData() instanceof EVCacheValue) {
                 final EVCacheValue val = (EVCacheValue)obj.getData();
                 if(val == null || !(val.getKey().equals(key))) {
-                    incrementFailure(EVCacheMetricsFactory.KEY_HASH_COLLISION, Call.GET);
+                    incrementFailure(FailureReason.KEY_HASH_COLLISION, Call.GET);
                     return null;
                 }
                 final CachedData cd = new CachedData(val.getFlags(), val.getValue(), CachedData.MAX_SIZE);
@@ -1958,7 +2396,7 @@ public class EVCacheClient {
             } else 
                 return null;
         } else {
-            final EVCacheItem<T> obj = evcacheMemcachedClient.asyncMetaGet(key, tc, null).get(readTimeout.get(), TimeUnit.MILLISECONDS, _throwException, hasZF);
+            final EVCacheItem<T> obj = evcacheMemcachedClient.asyncMetaGet(key, tc, null).get(getEffectiveReadTimeout(), TimeUnit.MILLISECONDS, _throwException, hasZF);
             if(log.isDebugEnabled()) log.debug("EVCacheItem : " + obj);
             return obj;
         }
@@ -18,6 +18,8 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -34,10 +36,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.netflix.archaius.api.Property;
+import com.netflix.evcache.EVCacheKey;
 import com.netflix.evcache.metrics.EVCacheMetricsFactory;
 import com.netflix.evcache.pool.observer.EVCacheConnectionObserver;
 import com.netflix.evcache.util.CircularIterator;
 import com.netflix.evcache.util.EVCacheConfig;
+import com.netflix.evcache.util.LatencyHistogram;
 import com.netflix.evcache.util.ServerGroupCircularIterator;
 import com.netflix.spectator.api.BasicTag;
 import com.netflix.spectator.api.Gauge;
@@ -46,6 +50,7 @@ import com.netflix.spectator.api.Tag;
 
 import net.spy.memcached.EVCacheNode;
 import net.spy.memcached.MemcachedNode;
+import net.spy.memcached.NodeLocator;
 
 @edu.umd.cs.findbugs.annotations.SuppressFBWarnings({ "PRMC_POSSIBLY_REDUNDANT_METHOD_CALLS", "REC_CATCH_EXCEPTION", "MDM_THREAD_YIELD" })
 public class EVCacheClientPool implements Runnable, EVCacheClientPoolMBean {
@@ -115,6 +120,23 @@ public class EVCacheClientPool implements Runnable, EVCacheClientPoolMBean {
 
     private final AtomicLong numberOfModOps = new AtomicLong(0);
 
+    private final Property<Boolean> _latencyAwareReads;
+    private final Property<Integer> _latencyDecay;
+    private final Property<Double> _latencyLocalBias;
+    private final Property<Double> _latencyProbeRatio;
+    private final Map<ServerGroup, ServerGroupLatency> serverGroupLatencyMap = new ConcurrentHashMap<ServerGroup, ServerGroupLatency>();
+    private volatile ServerGroup[] readServerGroups = new ServerGroup[0];
+
+    private final Property<Boolean> _keyAffinityReads;
+    private final Property<Integer> _keyAffinityQueuePercent;
+
+    private final Property<Boolean> _adaptiveReadTimeout;
+    private final Property<Double> _adaptiveReadTimeoutMultiplier;
+    private final Property<Integer> _adaptiveReadTimeoutFloor;
+    private final Property<Integer> _adaptiveReadTimeoutCeiling;
+    private final Property<Integer> _adaptiveReadTimeoutMinSamples;
+    private final ScheduledFuture<?> adaptiveReadTimeoutTask;
+
     private boolean _shutdown = false;
     private Map<ServerGroup, List<EVCacheClient>> memcachedInstancesByServerGroup = new ConcurrentHashMap<ServerGroup, List<EVCacheClient>>();
     private Map<ServerGroup, List<EVCacheClient>> memcachedReadInstancesByServerGroup = new ConcurrentHashMap<ServerGroup, List<EVCacheClient>>();
@@ -160,6 +182,28 @@ public class EVCacheClientPool implements Runnable, EVCacheClientPoolMBean {
         this._disableAsyncRefresh = config.getPropertyRepository().get(_appName + ".disable.async.refresh", Boolean.class).orElse(false);
         this._maxRetries = config.getPropertyRepository().get(_appName + ".max.retry.count", Integer.class).orElse(1);
 
+        // latency aware reads : pick the server group to read from using power of two choices on the latency & reads in flight.
+        // A remote server group is picked over the local one only if its score is better by the local bias factor.
+        this._latencyAwareReads = config.getPropertyRepository().get(_appName + ".latency.aware.reads", Boolean.class).orElseGet("evcache.latency.aware.reads").orElse(false);
+        this._latencyDecay = config.getPropertyRepository().get(_appName + ".latency.aware.decay.millis", Integer.class).orElseGet("evcache.latency.aware.decay.millis").orElse(10000);
+        this._latencyLocalBias = config.getPropertyRepository().get(_appName + ".latency.aware.local.bias", Double.class).orElseGet("evcache.latency.aware.local.bias").orElse(2.0);
+        this._latencyProbeRatio = config.getPropertyRepository().get(_appName + ".latency.aware.probe.ratio", Double.class).orElseGet("evcache.latency.aware.probe.ratio").orElse(0.01);
+
+        // key affinity reads : with more than one client per server group pick the client by the node the key maps to
+        // so that reads to a node share a connection. Another client is used if the node's read queue is above the given percent.
+        this._keyAffinityReads = config.getPropertyRepository().get(_appName + ".key.affinity.reads", Boolean.class).orElseGet("evcache.key.affinity.reads").orElse(false);
+        this._keyAffinityQueuePercent = config.getPropertyRepository().get(_appName + ".key.affinity.queue.percent", Integer.class).orElseGet("evcache.key.affinity.queue.percent").orElse(50);
+
+        // adaptive read timeout : size the read timeout of each client as a multiple of its observed p99.9 latency
+        // bounded by floor & ceiling. A ceiling of 0 means the configured (bulk) read timeout is used as the ceiling.
+        this._adaptiveReadTimeout = config.getPropertyRepository().get(_appName + ".adaptive.read.timeout", Boolean.class).orElseGet("evcache.adaptive.read.timeout").orElse(false);
+        this._adaptiveReadTimeoutMultiplier = config.getPropertyRepository().get(_appName + ".adaptive.read.timeout.multiplier", Double.class).orElseGet("evcache.adaptive.read.timeout.multiplier").orElse(3.0);
+        this._adaptiveReadTimeoutFloor = config.getPropertyRepository().get(_appName + ".adaptive.read.timeout.floor.millis", Integer.class).orElseGet("evcache.adaptive.read.timeout.floor.millis").orElse(5);
+        this._adaptiveReadTimeoutCeiling = config.getPropertyRepository().get(_appName + ".adaptive.read.timeout.ceiling.millis", Integer.class).orElseGet("evcache.adaptive.read.timeout.ceiling.millis").orElse(0);
+        this._adaptiveReadTimeoutMinSamples = config.getPropertyRepository().get(_appName + ".adaptive.read.timeout.min.samples", Integer.class).orElseGet("evcache.adaptive.read.timeout.min.samples").orElse(1000);
+        final long adaptiveReadTimeoutRefresh = config.getPropertyRepository().get(_appName + ".adaptive.read.timeout.refresh.millis", Integer.class).orElseGet("evcache.adaptive.read.timeout.refresh.millis").orElse(1000).get().longValue();
+        this.adaptiveReadTimeoutTask = manager.getEVCacheScheduledExecutor().scheduleWithFixedDelay(this::refreshAdaptiveReadTimeouts, adaptiveReadTimeoutRefresh, adaptiveReadTimeoutRefresh, TimeUnit.MILLISECONDS);
+
         Function<String, Set<String>> splitSet = t -> Arrays.stream(t.split(",")).collect(Collectors.toSet());
         this.logOperations = config.getPropertyRepository().get(appName + ".log.operation", Integer.class).orElse(0);
         this.logOperationCalls = config.getPropertyRepository().get(appName + ".log.operation.calls", String.class).orElse("SET,DELETE,GMISS,TMISS,BMISS_ALL,TOUCH,REPLACE").map(splitSet);
@@ -214,9 +258,10 @@ public class EVCacheClientPool implements Runnable, EVCacheClientPoolMBean {
         memcachedWriteInstancesByServerGroup.clear();
         readServerGroupByZone.clear();
         memcachedFallbackReadInstances = new ServerGroupCircularIterator(Collections.<ServerGroup> emptySet());
+        readServerGroups = new ServerGroup[0];
     }
 
-    private EVCacheClient getEVCacheClientForReadInternal() {
+    private EVCacheClient getEVCacheClientForReadInternal(EVCacheKey key) {
         if (memcachedReadInstancesByServerGroup == null || memcachedReadInstancesByServerGroup.isEmpty()) {
             if (log.isDebugEnabled()) log.debug("memcachedReadInstancesByServerGroup : " + memcachedReadInstancesByServerGroup);
             if(asyncRefreshExecutor.getQueue().isEmpty()) refreshPool(true, true);
@@ -225,7 +270,10 @@ public class EVCacheClientPool implements Runnable, EVCacheClientPoolMBean {
 
         try {
             List<EVCacheClient> clients = null;
-            if (localServerGroupIterator != null) {
+            if (_latencyAwareReads.get()) {
+                final ServerGroup serverGroup = selectServerGroupByLatency();
+                if (serverGroup != null) clients = memcachedReadInstancesByServerGroup.get(serverGroup);
+            } else if (localServerGroupIterator != null) {
                 clients = memcachedReadInstancesByServerGroup.get(localServerGroupIterator.next());
             }
 
@@ -237,7 +285,7 @@ public class EVCacheClientPool implements Runnable, EVCacheClientPoolMBean {
                 }
                 clients = memcachedReadInstancesByServerGroup.get(fallbackServerGroup);
             }
-            return selectClient(clients);
+            return selectClient(clients, key);
         } catch (Throwable t) {
             log.error("Exception trying to get an readable EVCache Instances for zone {}", _zone, t);
             return null;
@@ -249,13 +297,23 @@ public class EVCacheClientPool implements Runnable, EVCacheClientPoolMBean {
      * @return
      */
     public EVCacheClient getEVCacheClientForRead() {
-        EVCacheClient evCacheClient = getEVCacheClientForReadInternal();
+        return getEVCacheClientForRead(null);
+    }
+
+    /**
+     * Returns EVCacheClient of this pool to read the given key if available. Otherwise, will return EVCacheClient of the duet.
+     * If key affinity reads are enabled the client is picked by the node the key, as derived for the client, maps to.
+     *
+     * @param key - the key or null if there is no key affinity
+     */
+    public EVCacheClient getEVCacheClientForRead(EVCacheKey key) {
+        EVCacheClient evCacheClient = getEVCacheClientForReadInternal(key);
 
         if (evCacheClient != null) {
             return evCacheClient;
         }
 
-        return duetClientPool != null ? duetClientPool.getEVCacheClientForRead() : null;
+        return duetClientPool != null ? duetClientPool.getEVCacheClientForRead(key) : null;
     }
 
     private List<EVCacheClient> getAllEVCacheClientForReadInternal() {
@@ -301,6 +359,108 @@ public class EVCacheClientPool implements Runnable, EVCacheClientPoolMBean {
         return evCacheClients;
     }
 
+    /**
+     * Power of two choices with a bias towards the local zone : the local server group (or a random one if there is
+     * none) is compared with a random other server group and the other one is picked only if its score times the
+     * local bias is lower. A server group that has not been read from yet is scored at the average latency of the
+     * others and is probed for a fraction (<code>latency.aware.probe.ratio</code>) of the reads so that a slow local
+     * server group sheds its reads once the others are known to be faster.
+     */
+    private ServerGroup selectServerGroupByLatency() {
+        final ServerGroup local = (localServerGroupIterator == null) ? null : localServerGroupIterator.next();
+        final ServerGroup[] serverGroups = readServerGroups;
+        final int size = serverGroups.length;
+        if (size < 2) return local;
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final ServerGroup first = (local == null) ? serverGroups[random.nextInt(size)] : local;
+        int index = random.nextInt(size - 1);
+        if (serverGroups[index].equals(first)) index = size - 1;
+        final ServerGroup second = serverGroups[index];
+
+        final long decay = _latencyDecay.get().longValue();
+        final ServerGroupLatency firstLatency = getServerGroupLatency(first);
+        if (firstLatency.getLatencyMicros() < 0) return first;
+        final ServerGroupLatency secondLatency = getServerGroupLatency(second);
+        if (secondLatency.getLatencyMicros() < 0 && random.nextDouble() < _latencyProbeRatio.get().doubleValue()) return second;
+        final long prior = getAverageLatencyMicros(serverGroups);
+        final double bias = (local == null) ? 1.0 : _latencyLocalBias.get().doubleValue();
+        return secondLatency.getScore(decay, prior) * bias < firstLatency.getScore(decay, prior) ? second : first;
+    }
+
+    /**
+     * Returns the average of the moving average latencies of the given server groups or -1 if none was read from yet.
+     */
+    private long getAverageLatencyMicros(ServerGroup[] serverGroups) {
+        long total = 0;
+        int count = 0;
+        for (ServerGroup serverGroup : serverGroups) {
+            final long latency = getServerGroupLatency(serverGroup).getLatencyMicros();
+            if (latency < 0) continue;
+            total += latency;
+            count++;
+        }
+        return count == 0 ? -1 : total / count;
+    }
+
+    ServerGroupLatency getServerGroupLatency(ServerGroup serverGroup) {
+        ServerGroupLatency latency = serverGroupLatencyMap.get(serverGroup);
+        if (latency == null) {
+            latency = serverGroupLatencyMap.computeIfAbsent(serverGroup, sg -> new ServerGroupLatency(sg));
+        }
+        return latency;
+    }
+
+    public long getLatencyDecayMillis() {
+        return _latencyDecay.get().longValue();
+    }
+
+    boolean isAdaptiveReadTimeout() {
+        return _adaptiveReadTimeout.get().booleanValue();
+    }
+
+    /**
+     * Returns the largest read timeout in milli seconds the adaptive read timeout can grow to.
+     *
+     * @param timeout - the configured read timeout in milli seconds
+     */
+    int getAdaptiveReadTimeoutCeiling(int timeout) {
+        return _adaptiveReadTimeoutCeiling.get().intValue() > 0 ? _adaptiveReadTimeoutCeiling.get().intValue() : timeout;
+    }
+
+    /**
+     * Returns the read timeout in milli seconds to be used given the observed latencies. If adaptive read timeouts are
+     * disabled or there are not enough samples the configured timeout is returned. This walks the histogram and is
+     * only called periodically by {@link #refreshAdaptiveReadTimeouts()}, the clients cache the result.
+     *
+     * @param histogram - the recent read latencies of the client
+     * @param timeout - the configured read timeout in milli seconds
+     */
+    int getAdaptiveReadTimeout(LatencyHistogram histogram, int timeout) {
+        if (!isAdaptiveReadTimeout()) return timeout;
+        final long p999 = histogram.getPercentileMicros(99.9, _adaptiveReadTimeoutMinSamples.get().longValue());
+        if (p999 < 0) return timeout;
+        final int ceiling = getAdaptiveReadTimeoutCeiling(timeout);
+        final int floor = Math.min(_adaptiveReadTimeoutFloor.get().intValue(), ceiling);
+        final long adaptive = (long) Math.ceil(p999 * _adaptiveReadTimeoutMultiplier.get().doubleValue() / 1000.0);
+        if (adaptive < floor) return floor;
+        if (adaptive > ceiling) return ceiling;
+        return (int) adaptive;
+    }
+
+    void refreshAdaptiveReadTimeouts() {
+        if (!isAdaptiveReadTimeout()) return;
+        try {
+            for (List<EVCacheClient> clients : memcachedInstancesByServerGroup.values()) {
+                for (EVCacheClient client : clients) {
+                    client.refreshAdaptiveReadTimeouts();
+                }
+            }
+        } catch (Throwable t) {
+            log.warn("Error refreshing the adaptive read timeouts for " + _appName, t);
+        }
+    }
+
     private EVCacheClient selectClient(List<EVCacheClient> clients) {
         if (clients == null || clients.isEmpty()) {
             if (log.isDebugEnabled()) log.debug("clients is null returning null and forcing pool refresh!!!");
@@ -318,6 +478,25 @@ public class EVCacheClientPool implements Runnable, EVCacheClientPoolMBean {
         return clients.get(index);
     }
 
+    private EVCacheClient selectClient(List<EVCacheClient> clients, EVCacheKey evcKey) {
+        if (evcKey == null || clients == null || clients.size() <= 1 || !_keyAffinityReads.get().booleanValue()) return selectClient(clients);
+
+        // the clients of a server group share the duet flag and so the key that is sent to the server
+        final String key = evcKey.getDerivedKey(clients.get(0).isDuetClient());
+        final int size = clients.size();
+        final NodeLocator locator = clients.get(0).getNodeLocator();
+        final MemcachedNode node = (locator == null) ? null : locator.getPrimary(key);
+        final int hash = (node == null) ? key.hashCode() : node.getSocketAddress().hashCode();
+        final int start = Math.floorMod(hash * 0x9E3779B9, size);
+        final int threshold = _maxReadQueueSize.get().intValue() * _keyAffinityQueuePercent.get().intValue() / 100;
+        for (int i = 0; i < size; i++) {
+            final EVCacheClient client = clients.get((start + i) % size);
+            if (client.getReadQueueSize(evcKey) < threshold) return client;
+        }
+        // every client is saturated for this node
+        return selectClient(clients);
+    }
+
     private EVCacheClient getEVCacheClientForReadExcludeInternal(ServerGroup rsetUsed) {
         if (memcachedReadInstancesByServerGroup == null || memcachedReadInstancesByServerGroup.isEmpty()) {
             if (log.isDebugEnabled()) log.debug("memcachedReadInstancesByServerGroup : " + memcachedReadInstancesByServerGroup);
@@ -875,8 +1054,9 @@ public class EVCacheClientPool implements Runnable, EVCacheClientPoolMBean {
             }
         }
 
-        if (memcachedReadInstancesByServerGroup.size() != memcachedFallbackReadInstances.getSize()) {
+        if (!hasSameServerGroups(memcachedReadInstancesByServerGroup.keySet(), readServerGroups)) {
             memcachedFallbackReadInstances = new ServerGroupCircularIterator(memcachedReadInstancesByServerGroup.keySet());
+            readServerGroups = memcachedReadInstancesByServerGroup.keySet().toArray(new ServerGroup[0]);
 
             Map<String, Set<ServerGroup>> readServerGroupByZoneMap = new ConcurrentHashMap<String, Set<ServerGroup>>();
             for (ServerGroup serverGroup : memcachedReadInstancesByServerGroup.keySet()) {
@@ -897,6 +1077,18 @@ public class EVCacheClientPool implements Runnable, EVCacheClientPoolMBean {
         }
     }
 
+    /**
+     * Read server groups can be replaced without their count changing, so the derived state is refreshed whenever the
+     * members differ.
+     */
+    private static boolean hasSameServerGroups(Set<ServerGroup> serverGroups, ServerGroup[] current) {
+        if (serverGroups.size() != current.length) return false;
+        for (ServerGroup serverGroup : current) {
+            if (!serverGroups.contains(serverGroup)) return false;
+        }
+        return true;
+    }
+
     private void cleanupMemcachedInstances(boolean force) {
         pingServers();
         for (Iterator<Entry<ServerGroup, List<EVCacheClient>>> it = memcachedInstancesByServerGroup.entrySet().iterator(); it.hasNext();) {
@@ -1151,6 +1343,7 @@ public class EVCacheClientPool implements Runnable, EVCacheClientPoolMBean {
     void shutdown() {
         if (log.isDebugEnabled()) log.debug("EVCacheClientPool for App : " + _appName + " and Zone : " + _zone + " is being shutdown.");
         _shutdown = true;
+        adaptiveReadTimeoutTask.cancel(false);
         for (List<EVCacheClient> instancesInAZone : memcachedInstancesByServerGroup.values()) {
             for (EVCacheClient client : instancesInAZone) {
                 client.shutdown(30, TimeUnit.SECONDS);
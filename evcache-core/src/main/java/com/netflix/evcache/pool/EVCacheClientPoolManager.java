@@ -1,12 +1,14 @@
 package com.netflix.evcache.pool;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -23,9 +25,14 @@ import org.slf4j.LoggerFactory;
 import com.netflix.archaius.api.Property;
 import com.netflix.evcache.EVCacheImpl;
 import com.netflix.evcache.EVCacheInMemoryCache;
+import com.netflix.evcache.EVCacheKey;
 import com.netflix.evcache.connection.ConnectionFactoryBuilder;
 import com.netflix.evcache.connection.IConnectionBuilder;
 import com.netflix.evcache.event.EVCacheEventListener;
+import com.netflix.evcache.event.hotkey.HotKeyCache;
+import com.netflix.evcache.event.invalidation.EVCacheInvalidationBus;
+import com.netflix.evcache.event.invalidation.MulticastInvalidationBus;
+import com.netflix.evcache.metrics.EVCacheMetricsFactory;
 import com.netflix.evcache.util.EVCacheConfig;
 
 import net.spy.memcached.transcoders.Transcoder;
@@ -70,10 +77,13 @@ public class EVCacheClientPoolManager {
     private final Property<Integer> defaultReadTimeout;
     private final Property<String> logEnabledApps;
     private final Property<Integer> defaultRefreshInterval;
+    private final Property<Boolean> multicastInvalidation;
     private final Map<String, EVCacheClientPool> poolMap = new ConcurrentHashMap<String, EVCacheClientPool>();
     private final Map<EVCacheClientPool, ScheduledFuture<?>> scheduledTaskMap = new HashMap<EVCacheClientPool, ScheduledFuture<?>>();
     private final EVCacheScheduledExecutor asyncExecutor;
     private final EVCacheExecutor syncExecutor;
+    private final EVCacheExecutor workerExecutor;
+    private final EVCacheScheduledExecutor batchFlushExecutor;
     private final List<EVCacheEventListener> evcacheEventListenerList;
     private final IConnectionBuilder connectionFactoryProvider;
     private final EVCacheNodeList evcacheNodeList;
@@ -104,11 +114,16 @@ public class EVCacheClientPoolManager {
         }
         this.logEnabledApps = EVCacheConfig.getInstance().getPropertyRepository().get("EVCacheClientPoolManager.log.apps", String.class).orElse("*");
         this.defaultRefreshInterval = EVCacheConfig.getInstance().getPropertyRepository().get("EVCacheClientPoolManager.refresh.interval", Integer.class).orElse(60);
+        this.multicastInvalidation = EVCacheConfig.getInstance().getPropertyRepository().get("evcache.inmemory.invalidation.multicast.enabled", Boolean.class).orElse(false);
 
         this.asyncExecutor = new EVCacheScheduledExecutor(Runtime.getRuntime().availableProcessors(),Runtime.getRuntime().availableProcessors(), 30, TimeUnit.SECONDS, new ThreadPoolExecutor.CallerRunsPolicy(), "scheduled");
         asyncExecutor.prestartAllCoreThreads();
         this.syncExecutor = new EVCacheExecutor(Runtime.getRuntime().availableProcessors(),Runtime.getRuntime().availableProcessors(), 30, TimeUnit.SECONDS, new ThreadPoolExecutor.CallerRunsPolicy(), "pool");
         syncExecutor.prestartAllCoreThreads();
+        final int workerQueueSize = EVCacheConfig.getInstance().getPropertyRepository().get("EVCacheExecutor.worker.queue.size", Integer.class).orElse(1024).get();
+        this.workerExecutor = new EVCacheExecutor(Runtime.getRuntime().availableProcessors(), 2 * Runtime.getRuntime().availableProcessors(), 30, TimeUnit.SECONDS, workerQueueSize, new ThreadPoolExecutor.AbortPolicy(), "worker");
+        this.batchFlushExecutor = new EVCacheScheduledExecutor(1, 1, 30, TimeUnit.SECONDS, new ThreadPoolExecutor.AbortPolicy(), "batch");
+        batchFlushExecutor.prestartAllCoreThreads();
 
         initAtStartup();
     }
@@ -220,11 +235,21 @@ public class EVCacheClientPoolManager {
 
     @PreDestroy
     public void shutdown() {
+        for (EVCacheInMemoryCache<?> cache : inMemoryMap.values()) {
+            cache.shutdown();
+        }
         asyncExecutor.shutdown();
         syncExecutor.shutdown();
+        workerExecutor.shutdown();
+        batchFlushExecutor.shutdown();
         for (EVCacheClientPool pool : poolMap.values()) {
             pool.shutdown();
         }
+        final EVCacheInvalidationBus bus = invalidationBus;
+        if (bus != null) {
+            bus.removeListener(invalidationListener);
+            if (bus == multicastBus) bus.close();
+        }
     }
 
     public boolean shouldLog(String appName) {
@@ -249,6 +274,23 @@ public class EVCacheClientPoolManager {
         return syncExecutor;
     }
 
+    /**
+     * Returns the executor for blocking work that is done off the caller's thread, i.e. fallback reads, fix ups & loads.
+     * The EVCacheExecutor also runs the memcached completion listeners and must not be blocked. The queue of the worker
+     * executor is bounded so a task can be rejected with a RejectedExecutionException.
+     */
+    public EVCacheExecutor getEVCacheWorkerExecutor() {
+        return workerExecutor;
+    }
+
+    /**
+     * Returns the timer that sends the batched gets when their batching window expires. It only runs the short flush
+     * tasks so that the flushes are not delayed by the tasks on the scheduled executor.
+     */
+    public EVCacheScheduledExecutor getEVCacheBatchFlushExecutor() {
+        return batchFlushExecutor;
+    }
+
     private String getAppName(String _app) {
         _app = _app.toUpperCase();
         final String app = EVCacheConfig.getInstance().getPropertyRepository().get("EVCacheClientPoolManager." + _app + ".alias", String.class).orElse(_app).get().toUpperCase();
@@ -259,9 +301,21 @@ public class EVCacheClientPoolManager {
 
     private WriteLock writeLock = new ReentrantReadWriteLock().writeLock();
     private final Map<String, EVCacheInMemoryCache<?>> inMemoryMap = new ConcurrentHashMap<String, EVCacheInMemoryCache<?>>();
+    private final EVCacheInvalidationBus.Listener invalidationListener = (cacheName, key) -> {
+        final EVCacheInMemoryCache<?> cache = inMemoryMap.get(cacheName);
+        if (cache != null) cache.delete(key);
+    };
+    private volatile EVCacheInvalidationBus invalidationBus;
+    private EVCacheInvalidationBus multicastBus; // created from the properties and closed on shutdown
+    private boolean multicastBusFailed = false;
+
+    private static String getInMemoryCacheName(EVCacheImpl impl) {
+        return impl.getCachePrefix() == null ? impl.getAppName() : impl.getAppName() + impl.getCachePrefix();
+    }
+
     @SuppressWarnings("unchecked")
     public <T> EVCacheInMemoryCache<T> createInMemoryCache(Transcoder<T> tc, EVCacheImpl impl) {
-        final String name = impl.getCachePrefix() == null ? impl.getAppName() : impl.getAppName() + impl.getCachePrefix();
+        final String name = getInMemoryCacheName(impl);
         EVCacheInMemoryCache<T> cache = (EVCacheInMemoryCache<T>) inMemoryMap.get(name);
         if(cache == null) {
             writeLock.lock();
@@ -270,6 +324,8 @@ public class EVCacheClientPoolManager {
                 inMemoryMap.put(name, cache);
             }
             writeLock.unlock();
+            // join the multicast group now so that an instance that only reads still drops the keys written elsewhere
+            if (multicastInvalidation.get()) getInvalidationBus();
         }
         return cache;
     }
@@ -279,4 +335,74 @@ public class EVCacheClientPoolManager {
         return (EVCacheInMemoryCache<T>) inMemoryMap.get(appName);
     }
 
+    /**
+     * Sets the bus used to tell the other client instances about local writes so that they drop the keys from their
+     * in memory caches. Pass null to stop publishing and receiving invalidations.
+     */
+    public synchronized void setInvalidationBus(EVCacheInvalidationBus bus) {
+        final EVCacheInvalidationBus oldBus = this.invalidationBus;
+        if (oldBus == bus) return;
+        if (oldBus != null) oldBus.removeListener(invalidationListener);
+        if (bus != null) bus.addListener(invalidationListener);
+        this.invalidationBus = bus;
+    }
+
+    /**
+     * Returns the invalidation bus. If none was set and <code>evcache.inmemory.invalidation.multicast.enabled</code>
+     * is true a {@link MulticastInvalidationBus} is created, at the latest when the first in memory cache is created.
+     */
+    public EVCacheInvalidationBus getInvalidationBus() {
+        final EVCacheInvalidationBus bus = invalidationBus;
+        if (bus != null) return bus;
+        if (!multicastInvalidation.get()) return null;
+        synchronized (this) {
+            if (invalidationBus != null || multicastBusFailed) return invalidationBus;
+            final String address = EVCacheConfig.getInstance().getPropertyRepository().get("evcache.inmemory.invalidation.multicast.address", String.class).orElse("239.255.17.31").get();
+            final int port = EVCacheConfig.getInstance().getPropertyRepository().get("evcache.inmemory.invalidation.multicast.port", Integer.class).orElse(17931).get().intValue();
+            final int ttl = EVCacheConfig.getInstance().getPropertyRepository().get("evcache.inmemory.invalidation.multicast.ttl", Integer.class).orElse(1).get().intValue();
+            try {
+                multicastBus = new MulticastInvalidationBus(address, port, ttl);
+                setInvalidationBus(multicastBus);
+                if (log.isInfoEnabled()) log.info("Publishing in memory cache invalidations to " + address + ":" + port);
+            } catch (Exception e) {
+                multicastBusFailed = true;
+                log.error("Could not create the multicast invalidation bus for " + address + ":" + port, e);
+            }
+            return invalidationBus;
+        }
+    }
+
+    private final Map<String, HotKeyCache> hotKeyCacheMap = new ConcurrentHashMap<String, HotKeyCache>();
+
+    /**
+     * Returns the cache that holds the values of the keys of the given app that were found to be hot.
+     */
+    public HotKeyCache getHotKeyCache(String appName) {
+        HotKeyCache hotKeyCache = hotKeyCacheMap.get(appName);
+        if (hotKeyCache == null) hotKeyCache = hotKeyCacheMap.computeIfAbsent(appName, HotKeyCache::new);
+        return hotKeyCache;
+    }
+
+    /**
+     * Tells the other client instances to drop the keys from the in memory cache used by the given EVCacheImpl. The
+     * invalidations are sent on the worker executor so that neither the caller nor the completion listeners of the
+     * writes wait for them; they are dropped if the worker executor is full.
+     */
+    public void publishInvalidation(EVCacheImpl impl, Collection<EVCacheKey> evcKeys) {
+        if (invalidationBus == null && !multicastInvalidation.get()) return;
+        final String cacheName = getInMemoryCacheName(impl);
+        try {
+            workerExecutor.execute(() -> {
+                final EVCacheInvalidationBus bus = getInvalidationBus();
+                if (bus == null) return;
+                for (EVCacheKey evcKey : evcKeys) {
+                    bus.publish(cacheName, evcKey.getKey());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            EVCacheMetricsFactory.getInstance().increment("EVCacheInvalidationBus" + "-" + impl.getAppName() + "-Publish-Rejected");
+            if (log.isDebugEnabled()) log.debug("Could not publish the invalidation of keys " + evcKeys + " of " + cacheName + " as the worker executor is full", e);
+        }
+    }
+
 }
@@ -1,8 +1,12 @@
 package com.netflix.evcache.pool;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
+import com.netflix.evcache.EVCacheException;
 import com.netflix.evcache.EVCacheKey;
 import net.spy.memcached.transcoders.Transcoder;
 import org.slf4j.Logger;
@@ -13,6 +17,9 @@ import com.netflix.evcache.EVCacheLatch.Policy;
 import com.netflix.evcache.operation.EVCacheLatchImpl;
 
 import net.spy.memcached.CachedData;
+import net.spy.memcached.internal.OperationFuture;
+import net.spy.memcached.ops.OperationStatus;
+import net.spy.memcached.ops.StatusCode;
 
 public class EVCacheClientUtil {
     private static final Logger log = LoggerFactory.getLogger(EVCacheClientUtil.class);
@@ -28,7 +35,7 @@ public class EVCacheClientUtil {
     /**
      * TODO : once metaget is available we need to get the remaining ttl from an existing entry and use it 
      */
-    public EVCacheLatch add(EVCacheKey evcKey, final CachedData cd, boolean shouldHashKey, Transcoder evcacheValueTranscoder, int timeToLive, Policy policy) throws Exception {
+    public EVCacheLatch add(EVCacheKey evcKey, final CachedData cd, boolean shouldHashKey, Transcoder<Object> evcacheValueTranscoder, int timeToLive, Policy policy) throws Exception {
         if (cd == null) return null; 
         
         final EVCacheClient[] clients = _pool.getEVCacheClientForWrite();
@@ -64,6 +71,87 @@ public class EVCacheClientUtil {
         return latch;
     }
 
+    /**
+     * Non blocking version of add. The add is issued to the next server group from the completion callback of the
+     * previous one. The returned future is completed with true if the value was added to all the server groups and
+     * with false if the key already exists in any of them. If the key only exists in a later server group the existing
+     * value is copied to all the server groups on the worker executor, as is done by the blocking add, before the
+     * future is completed. If the add fails in a server group, i.e. with an error or because the node is not available,
+     * the future is completed exceptionally so that a failure is not mistaken for an existing key.
+     */
+    public CompletableFuture<Boolean> asyncAdd(EVCacheKey evcKey, final CachedData cd, boolean shouldHashKey, Transcoder<Object> evcacheValueTranscoder, int timeToLive) {
+        final CompletableFuture<Boolean> result = new CompletableFuture<Boolean>();
+        final EVCacheClient[] clients = _pool.getEVCacheClientForWrite();
+        if (cd == null || clients.length == 0) {
+            result.complete(Boolean.FALSE);
+            return result;
+        }
+        CachedData cd1 = cd;
+        if (shouldHashKey) {
+            final EVCacheValue val = new EVCacheValue(evcKey.getCanonicalKey(clients[0].isDuetClient()), cd.getData(), cd.getFlags(), timeToLive, System.currentTimeMillis());
+            cd1 = evcacheValueTranscoder.encode(val);
+        }
+        asyncAdd(clients, 0, evcKey, cd1, timeToLive, result);
+        return result;
+    }
+
+    private void asyncAdd(final EVCacheClient[] clients, final int index, final EVCacheKey evcKey, final CachedData cd, final int timeToLive, final CompletableFuture<Boolean> result) {
+        if (index >= clients.length) {
+            result.complete(Boolean.TRUE);
+            return;
+        }
+        final EVCacheClient client = clients[index];
+        try {
+            final String key = evcKey.getDerivedKey(client.isDuetClient());
+            final Future<Boolean> f = client.add(key, timeToLive, cd, (EVCacheLatch) null);
+            if (log.isDebugEnabled()) log.debug("ADD : Op Submitted : APP " + _appName + ", key " + key + "; future : " + f + "; client : " + client);
+            if (f instanceof OperationFuture) {
+                ((OperationFuture<Boolean>) f).addListener(future -> onAddComplete(f, clients, index, evcKey, cd, timeToLive, result));
+            } else {
+                // the node is not available or its write queue is full
+                onAddComplete(f, clients, index, evcKey, cd, timeToLive, result);
+            }
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void onAddComplete(Future<Boolean> future, final EVCacheClient[] clients, final int index, final EVCacheKey evcKey, final CachedData cd, final int timeToLive, final CompletableFuture<Boolean> result) {
+        final EVCacheClient client = clients[index];
+        final Boolean status;
+        try {
+            status = future.get();
+        } catch (Exception e) {
+            if (log.isDebugEnabled()) log.debug("ADD : APP " + _appName + ", key " + evcKey + "; client : " + client, e);
+            result.completeExceptionally((e instanceof ExecutionException && e.getCause() != null) ? e.getCause() : e);
+            return;
+        }
+        if (Boolean.TRUE.equals(status)) {
+            asyncAdd(clients, index + 1, evcKey, cd, timeToLive, result);
+        } else if (!keyExists(future)) {
+            result.completeExceptionally(new EVCacheException("ADD failed for APP " + _appName + ", key " + evcKey + " in ServerGroup " + client.getServerGroup()));
+        } else if (index == 0) { // most common case
+            result.complete(Boolean.FALSE);
+        } else {
+            try {
+                _pool.getEVCacheClientPoolManager().getEVCacheWorkerExecutor().execute(() -> {
+                    fixup(client, clients, evcKey, timeToLive, Policy.ALL);
+                    result.complete(Boolean.FALSE);
+                });
+            } catch (RejectedExecutionException e) {
+                log.warn("Could not fix up the server groups of APP " + _appName + " for key " + evcKey + " as the worker executor is full", e);
+                result.complete(Boolean.FALSE);
+            }
+        }
+    }
+
+    private static boolean keyExists(Future<Boolean> future) {
+        if (!(future instanceof OperationFuture)) return false;
+        final OperationStatus status = ((OperationFuture<Boolean>) future).getStatus();
+        if (status == null) return false;
+        return status.getStatusCode() == StatusCode.ERR_NOT_STORED || status.getStatusCode() == StatusCode.ERR_EXISTS;
+    }
+
     private EVCacheLatch fixup(EVCacheClient sourceClient, EVCacheClient[] destClients, EVCacheKey evcKey, int timeToLive, Policy policy) {
         final EVCacheLatchImpl latch = new EVCacheLatchImpl(policy, destClients.length, _appName);
         try {
@@ -1,6 +1,7 @@
 package com.netflix.evcache.pool;
 
 import java.lang.management.ManagementFactory;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -25,11 +26,21 @@ public class EVCacheExecutor extends ThreadPoolExecutor implements EVCacheExecut
     private final Property<Integer> coreAsyncPoolSize;
     private final String name;
     public EVCacheExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit, RejectedExecutionHandler handler, String name) {
-        super(corePoolSize, maximumPoolSize, keepAliveTime, unit,
-                new LinkedBlockingQueue<Runnable>(), 
-                new ThreadFactoryBuilder().setDaemon(true).setNameFormat( "EVCacheExecutor-" + name + "-%d").build());
-        this.name = name;
+        this(corePoolSize, maximumPoolSize, keepAliveTime, unit, new LinkedBlockingQueue<Runnable>(), new ThreadPoolExecutor.AbortPolicy(), name);
+    }
 
+    /**
+     * Creates an executor that queues at most queueSize tasks. Tasks that do not fit once all the threads are busy
+     * are passed to the handler.
+     */
+    public EVCacheExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit, int queueSize, RejectedExecutionHandler handler, String name) {
+        this(corePoolSize, maximumPoolSize, keepAliveTime, unit, new LinkedBlockingQueue<Runnable>(queueSize), handler, name);
+    }
+
+    private EVCacheExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit, BlockingQueue<Runnable> queue, RejectedExecutionHandler handler, String name) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, queue,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat( "EVCacheExecutor-" + name + "-%d").build(), handler);
+        this.name = name;
         maxAsyncPoolSize = EVCacheConfig.getInstance().getPropertyRepository().get("EVCacheExecutor." + name + ".max.size", Integer.class).orElse(maximumPoolSize);
         setMaximumPoolSize(maxAsyncPoolSize.get());
         coreAsyncPoolSize = EVCacheConfig.getInstance().getPropertyRepository().get("EVCacheExecutor." + name + ".core.size", Integer.class).orElse(corePoolSize);
@@ -0,0 +1,97 @@
+package com.netflix.evcache.pool;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the read latency of a server group as an exponentially weighted moving
+ * average along with the number of reads that are in flight. The load score
+ * derived from these is used for latency aware selection of the server group to
+ * read from.
+ *
+ * When no reads are made to the server group its average decays towards a prior,
+ * i.e. the average latency of all the server groups, so that a server group that
+ * was slow at some point gets probed again once it has not been used for a while
+ * without ever looking faster than the server groups in use.
+ */
+public class ServerGroupLatency {
+
+    private final ServerGroup serverGroup;
+    private final AtomicLong ewmaMicros = new AtomicLong(-1);
+    private final AtomicLong lastUpdate = new AtomicLong(0);
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    public ServerGroupLatency(ServerGroup serverGroup) {
+        this.serverGroup = serverGroup;
+    }
+
+    public ServerGroup getServerGroup() {
+        return serverGroup;
+    }
+
+    public void readStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * @param micros - the latency of the read in micro seconds
+     * @param decayMillis - the time constant of the moving average in milli seconds
+     */
+    public void readCompleted(long micros, long decayMillis) {
+        if (inFlight.decrementAndGet() < 0) inFlight.set(0);
+        if (micros < 0) micros = 0;
+        final long now = System.currentTimeMillis();
+        final long current = ewmaMicros.get();
+        final long updated;
+        if (current < 0) {
+            updated = micros;
+        } else {
+            final long elapsed = now - lastUpdate.get();
+            final double weight = Math.exp(-(double) (elapsed < 0 ? 0 : elapsed) / (decayMillis <= 0 ? 1 : decayMillis));
+            updated = (long) (current * weight + micros * (1 - weight));
+        }
+        ewmaMicros.set(updated);
+        lastUpdate.set(now);
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the moving average latency in micro seconds or -1 if no read has been recorded yet.
+     */
+    public long getLatencyMicros() {
+        return ewmaMicros.get();
+    }
+
+    /**
+     * Returns the moving average latency in micro seconds decayed towards the given prior by the time since the last
+     * read or -1 if no read has been recorded yet. Without a prior (-1) the average is returned as is.
+     */
+    public long getLatencyMicros(long decayMillis, long priorMicros) {
+        final long current = ewmaMicros.get();
+        if (current < 0) return -1;
+        if (priorMicros < 0) return current;
+        final long elapsed = System.currentTimeMillis() - lastUpdate.get();
+        if (elapsed <= 0) return current;
+        final double weight = Math.exp(-(double) elapsed / (decayMillis <= 0 ? 1 : decayMillis));
+        return (long) (current * weight + priorMicros * (1 - weight));
+    }
+
+    /**
+     * Returns the load score of this server group i.e. the latency weighted by the reads in flight. Lower is better.
+     * A server group without any recorded reads is scored at the prior, or {@link Double#MAX_VALUE} without a prior.
+     */
+    public double getScore(long decayMillis, long priorMicros) {
+        long latency = getLatencyMicros(decayMillis, priorMicros);
+        if (latency < 0) latency = priorMicros;
+        if (latency < 0) return Double.MAX_VALUE;
+        return (latency + 1.0) * (getInFlight() + 1);
+    }
+
+    @Override
+    public String toString() {
+        return "ServerGroupLatency [serverGroup=" + serverGroup + ", ewmaMicros=" + ewmaMicros.get() + ", inFlight=" + inFlight.get() + "]";
+    }
+}
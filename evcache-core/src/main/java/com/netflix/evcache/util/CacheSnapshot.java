@@ -0,0 +1,135 @@
+package com.netflix.evcache.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes the encoded entries of a local cache to a file and streams them back so that a new instance can start with a
+ * warm cache. The file is read sequentially through a buffer, so its size is not bounded by what can be mapped. The time to live left on every entry is stored relative to the time the
+ * snapshot was taken, so the entries that expire between the snapshot and the restore are skipped.
+ *
+ * The file is laid out as
+ * <pre>
+ * | magic (4) | version (4) | created millis (8) | transcoder length (4) | transcoder |
+ * | key length (4) | key | flags (4) | expires in millis (8, -1 if it does not expire) | data length (4) | data | ...
+ * | -1 (4) |
+ * </pre>
+ * The snapshot is written to a temporary file that is then moved over the previous snapshot.
+ */
+public final class CacheSnapshot {
+
+    private static final int MAGIC = 0x45564353; // EVCS
+    private static final int VERSION = 1;
+
+    private CacheSnapshot() {
+    }
+
+    /**
+     * Receives the entries to write or that were read.
+     */
+    public interface EntrySink {
+
+        /**
+         * @param expiresInMillis - the time to live left on the entry or -1 if it does not expire
+         */
+        void accept(byte[] key, int flags, byte[] data, long expiresInMillis) throws IOException;
+    }
+
+    /**
+     * Emits the entries of a cache to the sink.
+     */
+    public interface EntrySource {
+        void forEach(EntrySink sink) throws IOException;
+    }
+
+    /**
+     * @param transcoder - identifies the encoding of the data; a snapshot is only read back with the same transcoder
+     * @return the number of entries written
+     */
+    public static long write(Path path, String transcoder, EntrySource source) throws IOException {
+        final Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        final long[] count = new long[1];
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            final byte[] tc = transcoder.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(tc.length);
+            out.write(tc);
+            source.forEach((key, flags, data, expiresInMillis) -> {
+                out.writeInt(key.length);
+                out.write(key);
+                out.writeInt(flags);
+                out.writeLong(expiresInMillis);
+                out.writeInt(data.length);
+                out.write(data);
+                count[0]++;
+            });
+            out.writeInt(-1);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count[0];
+    }
+
+    /**
+     * Reads the entries that have not expired from the snapshot. Nothing is read if the snapshot does not exist, is
+     * older than maxAgeMillis or was written with a different transcoder.
+     *
+     * @return the number of entries passed to the sink
+     */
+    public static long read(Path path, String transcoder, long maxAgeMillis, EntrySink sink) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) < 20) return 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return 0;
+            final long age = System.currentTimeMillis() - in.readLong();
+            if (age < 0 || (maxAgeMillis > 0 && age > maxAgeMillis)) return 0;
+            if (!transcoder.equals(new String(readBytes(in, in.readInt()), StandardCharsets.UTF_8))) return 0;
+
+            long count = 0;
+            while (true) {
+                final int keyLength = in.readInt();
+                if (keyLength < 0) break;
+                final byte[] key = readBytes(in, keyLength);
+                final int flags = in.readInt();
+                long expiresIn = in.readLong();
+                final int dataLength = in.readInt();
+                if (expiresIn >= 0) {
+                    expiresIn -= age;
+                    if (expiresIn <= 0) {
+                        skipBytes(in, dataLength);
+                        continue;
+                    }
+                }
+                sink.accept(key, flags, readBytes(in, dataLength), expiresIn);
+                count++;
+            }
+            return count;
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in, int length) throws IOException {
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void skipBytes(DataInputStream in, int length) throws IOException {
+        int skipped = 0;
+        while (skipped < length) {
+            final int n = in.skipBytes(length - skipped);
+            if (n > 0) {
+                skipped += n;
+            } else {
+                in.readByte(); // throws an EOFException at the end of the file
+                skipped++;
+            }
+        }
+    }
+}
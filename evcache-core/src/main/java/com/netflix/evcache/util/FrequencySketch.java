@@ -0,0 +1,96 @@
+package com.netflix.evcache.util;
+
+/**
+ * A probabilistic estimate of how often keys were accessed recently, used by
+ * the TinyLFU admission policy of {@link TinyLfuCache}. This is a count-min
+ * sketch with 4 bit counters (max 15), 16 counters per long and 4 hash
+ * functions. Once the number of increments reaches 10 times the capacity all
+ * counters are halved so that the history ages out.
+ *
+ * This class is not thread safe; callers are expected to guard it with a lock.
+ */
+public class FrequencySketch {
+
+    private static final long[] SEED = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int MAX_TABLE_SIZE = 1 << 22;
+
+    private long[] table = new long[1];
+    private int tableMask = 0;
+    private int sampleSize = 10;
+    private int size = 0;
+
+    /**
+     * Sizes the sketch for the given number of entries. The sketch is cleared if it has to grow.
+     */
+    public void ensureCapacity(long maximumSize) {
+        final int maximum = (int) Math.min(Math.max(maximumSize, 1), MAX_TABLE_SIZE);
+        if (table.length >= maximum) return;
+
+        final int length = Integer.highestOneBit(maximum - 1) << 1;
+        table = new long[length <= 0 ? 1 : length];
+        tableMask = table.length - 1;
+        sampleSize = 10 * maximum;
+        size = 0;
+    }
+
+    /**
+     * Returns the estimated number of recent accesses of the item with the given hash code, between 0 and 15.
+     */
+    public int frequency(int hashCode) {
+        final int hash = spread(hashCode);
+        final int start = (hash & 3) << 2;
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            final int index = indexOf(hash, i);
+            final int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Records an access of the item with the given hash code.
+     */
+    public void increment(int hashCode) {
+        final int hash = spread(hashCode);
+        final int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size >= sampleSize) reset();
+    }
+
+    private boolean incrementAt(int i, int j) {
+        final int offset = j << 2;
+        final long mask = 0xfL << offset;
+        if ((table[i] & mask) != mask) {
+            table[i] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    private void reset() {
+        int count = 0;
+        for (int i = 0; i < table.length; i++) {
+            count += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size = (size >>> 1) - (count >>> 2);
+    }
+
+    private int indexOf(int item, int i) {
+        long hash = (item + SEED[i]) * SEED[i];
+        hash += (hash >>> 32);
+        return ((int) hash) & tableMask;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
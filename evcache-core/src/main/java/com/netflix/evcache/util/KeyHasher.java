@@ -3,6 +3,8 @@ package com.netflix.evcache.util;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Base64.Encoder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,49 +47,55 @@ And if CAS and client flags are present:
 //        }
 //    }
 
-    public static String getHashedKey(String key, String hashingAlgorithm) {
-        final long start = System.nanoTime();
-        HashFunction hf = null; 
+    private static final Map<String, HashFunction> hashFunctions = new ConcurrentHashMap<String, HashFunction>();
+
+    /**
+     * Returns the hash function for the given algorithm. Hash functions are stateless and are created once per
+     * algorithm name so that the hot path does not pay for the lookup.
+     */
+    public static HashFunction getHashFunction(String hashingAlgorithm) {
+        HashFunction hf = hashFunctions.get(hashingAlgorithm);
+        if (hf == null) {
+            hf = createHashFunction(hashingAlgorithm);
+            hashFunctions.put(hashingAlgorithm, hf);
+        }
+        return hf;
+    }
+
+    private static HashFunction createHashFunction(String hashingAlgorithm) {
         switch(hashingAlgorithm.toLowerCase()) {
             case "murmur3" :
-                hf = Hashing.murmur3_128();
-                break;
-    
+                return Hashing.murmur3_128();
+
             case "adler32" :
-                hf = Hashing.adler32();
-                break;
-    
+                return Hashing.adler32();
+
             case "crc32" :
-                hf = Hashing.crc32();
-                break;
-    
+                return Hashing.crc32();
+
             case "sha1" :
-                hf = Hashing.sha1();
-                break;
-    
+                return Hashing.sha1();
+
             case "sha256" :
-                hf = Hashing.sha256();
-                break;
-    
+                return Hashing.sha256();
+
             case "siphash24" :
-                hf = Hashing.sipHash24();
-                break;
+                return Hashing.sipHash24();
 
             case "goodfasthash" :
-                hf = Hashing.goodFastHash(128);
-                break;
-    
+                return Hashing.goodFastHash(128);
+
             case "md5" :
             default :
-                hf = Hashing.md5();
-                break;
+                return Hashing.md5();
         }
+    }
 
-        final HashCode hc = hf.newHasher().putString(key, Charsets.UTF_8).hash();
+    public static String getHashedKey(String key, String hashingAlgorithm) {
+        final HashCode hc = getHashFunction(hashingAlgorithm).hashString(key, Charsets.UTF_8);
         final byte[] digest = hc.asBytes();
-        if(log.isDebugEnabled()) log.debug("Key : " + key +"; digest length : " + digest.length + "; byte Array contents : " + Arrays.toString(digest) );
         final String hKey = encoder.encodeToString(digest);
-        if(log.isDebugEnabled()) log.debug("Key : " + key +"; Hashed & encoded key : " + hKey + "; Took " + (System.nanoTime() - start) + " nanos");
+        if(log.isDebugEnabled()) log.debug("Key : " + key +"; digest length : " + digest.length + "; byte Array contents : " + Arrays.toString(digest) + "; Hashed & encoded key : " + hKey);
         return hKey;
     }
 }
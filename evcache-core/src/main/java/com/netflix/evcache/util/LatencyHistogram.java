@@ -0,0 +1,118 @@
+package com.netflix.evcache.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock free, rolling latency histogram used to derive percentiles of recent
+ * operation latencies. Latencies are recorded in micro seconds into log-linear
+ * buckets (8 sub buckets per power of 2, i.e. ~12.5% precision). Two windows are
+ * kept; percentiles are computed over the current and the previous window so
+ * that the result does not drop to zero right after a rotation.
+ *
+ * The histogram is an approximation and is not strictly consistent under
+ * concurrent updates and rotation which is fine for the heuristics it is used for.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 8;
+    private static final int LINEAR_LIMIT = 16;
+    private static final int BUCKETS = LINEAR_LIMIT + (63 - 4) * SUB_BUCKETS;
+
+    private final long windowMillis;
+    private final AtomicLongArray[] windows = new AtomicLongArray[] { new AtomicLongArray(BUCKETS), new AtomicLongArray(BUCKETS) };
+    private final AtomicLong[] counts = new AtomicLong[] { new AtomicLong(), new AtomicLong() };
+    private final AtomicLong currentEpoch = new AtomicLong();
+
+    /**
+     * @param windowMillis - the duration of a single window in milli seconds.
+     */
+    public LatencyHistogram(long windowMillis) {
+        this.windowMillis = windowMillis <= 0 ? 1 : windowMillis;
+        this.currentEpoch.set(System.currentTimeMillis() / this.windowMillis);
+    }
+
+    public void record(long value, TimeUnit unit) {
+        recordMicros(unit.toMicros(value));
+    }
+
+    public void recordMicros(long micros) {
+        if (micros < 0) micros = 0;
+        final int slot = rotate();
+        windows[slot].incrementAndGet(bucketIndex(micros));
+        counts[slot].incrementAndGet();
+    }
+
+    /**
+     * Returns the number of samples in the current and the previous window.
+     */
+    public long getCount() {
+        rotate();
+        return counts[0].get() + counts[1].get();
+    }
+
+    /**
+     * Returns the upper bound in micro seconds of the bucket that holds the given
+     * percentile or -1 if there are fewer than minSamples recorded.
+     *
+     * @param percentile - a value between 0 and 100
+     * @param minSamples - minimum number of samples needed for the result to be meaningful
+     */
+    public long getPercentileMicros(double percentile, long minSamples) {
+        rotate();
+        final long total = counts[0].get() + counts[1].get();
+        if (total <= 0 || total < minSamples) return -1;
+        final double p = percentile < 0 ? 0 : (percentile > 100 ? 100 : percentile);
+        long target = (long) Math.ceil(total * p / 100.0);
+        if (target < 1) target = 1;
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += windows[0].get(i) + windows[1].get(i);
+            if (seen >= target) return bucketUpperBound(i);
+        }
+        return bucketUpperBound(BUCKETS - 1);
+    }
+
+    private int rotate() {
+        final long epoch = System.currentTimeMillis() / windowMillis;
+        final long current = currentEpoch.get();
+        if (epoch != current && currentEpoch.compareAndSet(current, epoch)) {
+            final int slot = (int) (epoch & 1);
+            if (epoch - current > 1) {
+                // both windows are stale
+                clear(1 - slot);
+            }
+            clear(slot);
+        }
+        return (int) (epoch & 1);
+    }
+
+    private void clear(int slot) {
+        final AtomicLongArray window = windows[slot];
+        for (int i = 0; i < BUCKETS; i++) {
+            window.set(i, 0);
+        }
+        counts[slot].set(0);
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < LINEAR_LIMIT) return (int) micros;
+        final int msb = 63 - Long.numberOfLeadingZeros(micros);
+        final int sub = (int) ((micros >>> (msb - 3)) & (SUB_BUCKETS - 1));
+        final int index = LINEAR_LIMIT + (msb - 4) * SUB_BUCKETS + sub;
+        return index < BUCKETS ? index : BUCKETS - 1;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < LINEAR_LIMIT) return index;
+        final int msb = ((index - LINEAR_LIMIT) / SUB_BUCKETS) + 4;
+        final int sub = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (msb - 3)) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram [windowMillis=" + windowMillis + ", count=" + getCount() + "]";
+    }
+}
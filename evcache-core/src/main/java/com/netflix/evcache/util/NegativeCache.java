@@ -0,0 +1,178 @@
+package com.netflix.evcache.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Remembers for a short time the keys that were not found so that repeated gets for them can be answered without a
+ * round trip. The keys are not held; this is a cuckoo filter that stores a 32 bit fingerprint of each key and when it
+ * expires, in 8 bytes per key. Each key can be in one of two buckets of 4 slots.
+ *
+ * A key that was never added is reported as present with a probability of about 2 in a billion, when a key with the
+ * same fingerprint was added to one of its buckets. When the buckets of a key are full an entry is moved to its
+ * other bucket; if no room is found after a few moves an entry is dropped, which only means that a miss is fetched
+ * again.
+ *
+ * The filter is split in segments that are each guarded by a lock.
+ */
+public class NegativeCache {
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+    private static final int SLOTS = 4; // per bucket
+    private static final int SEGMENTS = 16;
+    private static final int MAX_KICKS = 32;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    /**
+     * @param capacity - the number of keys that can be held
+     */
+    public NegativeCache(int capacity) {
+        final int perSegment = Math.max(1, capacity / SEGMENTS / SLOTS);
+        final int buckets = (perSegment == 1) ? 1 : Integer.highestOneBit(perSegment - 1) << 1;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(buckets);
+        }
+    }
+
+    /**
+     * Returns true if the key was added and has not expired or been removed.
+     */
+    public boolean contains(String key, long now) {
+        final long hash = hash(key);
+        return segmentFor(hash).contains(fingerprint(hash), (int) hash, (int) now);
+    }
+
+    /**
+     * Adds the key or extends its expiry.
+     *
+     * @param ttl - how long the key is held in millis; at most 24 days
+     */
+    public void add(String key, long now, long ttl) {
+        if (ttl <= 0) return;
+        final long hash = hash(key);
+        segmentFor(hash).add(fingerprint(hash), (int) hash, (int) now, (int) (now + ttl));
+    }
+
+    public void remove(String key) {
+        final long hash = hash(key);
+        segmentFor(hash).remove(fingerprint(hash), (int) hash);
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> 60)];
+    }
+
+    private static long hash(String key) {
+        return HASH.hashString(key, Charsets.UTF_8).asLong();
+    }
+
+    private static int fingerprint(long hash) {
+        final int fingerprint = (int) (hash >>> 28);
+        // 0 marks an empty slot
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    private static final class Segment {
+        // the fingerprint in the high and the expiry (the lower 32 bits of the millis) in the low 32 bits
+        private final long[] slots;
+        private final int mask;
+
+        Segment(int buckets) {
+            this.slots = new long[buckets * SLOTS];
+            this.mask = buckets - 1;
+        }
+
+        synchronized boolean contains(int fingerprint, int hash, int now) {
+            final int i1 = hash & mask;
+            return find(i1, fingerprint, now) >= 0 || find(alternate(i1, fingerprint), fingerprint, now) >= 0;
+        }
+
+        synchronized void add(int fingerprint, int hash, int now, int expiresAt) {
+            final long entry = ((long) fingerprint << 32) | (expiresAt & 0xffffffffL);
+            final int i1 = hash & mask;
+            final int i2 = alternate(i1, fingerprint);
+            int slot = indexOf(i1, fingerprint);
+            if (slot < 0) slot = indexOf(i2, fingerprint);
+            if (slot < 0) slot = free(i1, now);
+            if (slot < 0) slot = free(i2, now);
+            if (slot >= 0) {
+                slots[slot] = entry;
+                return;
+            }
+
+            // move entries to their other bucket until one lands in a free slot
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            int bucket = random.nextBoolean() ? i1 : i2;
+            long homeless = entry;
+            for (int kick = 0; kick < MAX_KICKS; kick++) {
+                slot = bucket * SLOTS + random.nextInt(SLOTS);
+                final long victim = slots[slot];
+                slots[slot] = homeless;
+                homeless = victim;
+                bucket = alternate(bucket, (int) (homeless >>> 32));
+                slot = free(bucket, now);
+                if (slot >= 0) {
+                    slots[slot] = homeless;
+                    return;
+                }
+            }
+            // the last entry that was moved is dropped
+        }
+
+        synchronized void remove(int fingerprint, int hash) {
+            final int i1 = hash & mask;
+            final int i2 = alternate(i1, fingerprint);
+            for (int i = 0; i < SLOTS; i++) {
+                if ((int) (slots[i1 * SLOTS + i] >>> 32) == fingerprint) slots[i1 * SLOTS + i] = 0;
+                if ((int) (slots[i2 * SLOTS + i] >>> 32) == fingerprint) slots[i2 * SLOTS + i] = 0;
+            }
+        }
+
+        synchronized void clear() {
+            Arrays.fill(slots, 0);
+        }
+
+        private int find(int bucket, int fingerprint, int now) {
+            final int slot = indexOf(bucket, fingerprint);
+            return (slot >= 0 && isLive(slots[slot], now)) ? slot : -1;
+        }
+
+        private int indexOf(int bucket, int fingerprint) {
+            for (int i = bucket * SLOTS, end = i + SLOTS; i < end; i++) {
+                if ((int) (slots[i] >>> 32) == fingerprint) return i;
+            }
+            return -1;
+        }
+
+        /**
+         * Returns an empty slot of the bucket or one that holds an expired entry.
+         */
+        private int free(int bucket, int now) {
+            for (int i = bucket * SLOTS, end = i + SLOTS; i < end; i++) {
+                if (!isLive(slots[i], now)) return i;
+            }
+            return -1;
+        }
+
+        private static boolean isLive(long entry, int now) {
+            return entry != 0 && (int) entry - now > 0;
+        }
+
+        private int alternate(int bucket, int fingerprint) {
+            int h = fingerprint * 0x5bd1e995;
+            h ^= h >>> 15;
+            return (bucket ^ h) & mask;
+        }
+    }
+}
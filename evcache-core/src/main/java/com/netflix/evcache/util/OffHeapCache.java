@@ -0,0 +1,616 @@
+package com.netflix.evcache.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache of encoded values (flags and bytes) that are held in direct memory so that they are not scanned or copied
+ * by the garbage collector. Values are decoded by the caller on every read.
+ *
+ * The cache is split into segments, each guarded by its own lock. A segment appends records to a ring of fixed size
+ * slabs that are allocated on first use. When the ring wraps around the oldest slab is evicted as a whole and reused,
+ * i.e. eviction is FIFO by slab. Keys are located through an open addressing (linear probing) index of record
+ * addresses; overwritten records stay in their slab until it is evicted.
+ *
+ * Each record is laid out as
+ * <pre>
+ * | hash (4) | key length (4) | flags (4) | data length (4, -1 if not found) | write time (8) | expires at (8) | key | data |
+ * </pre>
+ * Records larger than a slab are not cached.
+ *
+ * The direct memory is released by {@link #free()} when the cache is no longer used; otherwise it is only released
+ * once the slabs are garbage collected, which may be long after the cache was dropped as they live in the old gen.
+ */
+public class OffHeapCache {
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapCache.class);
+
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 4 + 8 + 8;
+    private static final int MAX_SLAB_SIZE = 16 * 1024 * 1024;
+    private static final int MIN_SLABS = 8;
+    private static final int COPY_BATCH_BYTES = 64 * 1024; // the most a segment copies while it is locked, unless a single record is larger
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final long capacity;
+    private final int slabSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * A record read from the cache.
+     */
+    public static final class Entry {
+        private final int flags;
+        private final byte[] data;
+        private final long writeTime;
+
+        Entry(int flags, byte[] data, long writeTime) {
+            this.flags = flags;
+            this.data = data;
+            this.writeTime = writeTime;
+        }
+
+        public int getFlags() {
+            return flags;
+        }
+
+        /**
+         * Returns the encoded value or null if the key was cached as not found.
+         */
+        public byte[] getData() {
+            return data;
+        }
+
+        public long getWriteTime() {
+            return writeTime;
+        }
+    }
+
+    /**
+     * Receives the records of the cache.
+     */
+    public interface RecordVisitor {
+
+        /**
+         * @param data - the encoded value or null if the key was cached as not found
+         * @param expiresAt - the time in millis after which the record expires or 0 if it does not expire
+         */
+        void visit(byte[] key, int flags, byte[] data, long writeTime, long expiresAt);
+    }
+
+    /**
+     * @param capacity - the number of bytes of direct memory the cache may use
+     * @param concurrency - the number of segments, rounded up to a power of 2
+     */
+    public OffHeapCache(long capacity, int concurrency) {
+        int numSegments = 1;
+        while (numSegments < concurrency) numSegments <<= 1;
+        final long segmentCapacity = Math.max(capacity / numSegments, MIN_SLABS * 1024);
+        this.slabSize = (int) Math.min(MAX_SLAB_SIZE, segmentCapacity / MIN_SLABS);
+        final int slabsPerSegment = (int) Math.max(MIN_SLABS, segmentCapacity / slabSize);
+
+        this.capacity = (long) slabSize * slabsPerSegment * numSegments;
+        this.segments = new Segment[numSegments];
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(numSegments);
+        for (int i = 0; i < numSegments; i++) {
+            segments[i] = new Segment(slabsPerSegment, slabSize);
+        }
+    }
+
+    /**
+     * Returns the record for the given key or null if it is not present or has expired.
+     */
+    public Entry get(byte[] key, long now) {
+        final int hash = hash(key);
+        final Entry entry = segmentFor(hash).get(hash, key, now);
+        if (entry == null) misses.incrementAndGet();
+        else hits.incrementAndGet();
+        return entry;
+    }
+
+    /**
+     * Stores the encoded value for the given key. A null data marks the key as not found.
+     *
+     * @param expiresAt - the time in millis after which the record is no longer returned or 0 if it does not expire
+     * @return false if the record is too large to be cached
+     */
+    public boolean put(byte[] key, int flags, byte[] data, long now, long expiresAt) {
+        final int length = HEADER_SIZE + key.length + (data == null ? 0 : data.length);
+        if (length > slabSize) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        final int hash = hash(key);
+        segmentFor(hash).put(hash, key, flags, data, now, expiresAt, length);
+        return true;
+    }
+
+    /**
+     * Stores the encoded value unless the key is present.
+     *
+     * @return true if the record was stored
+     */
+    public boolean putIfAbsent(byte[] key, int flags, byte[] data, long now, long expiresAt) {
+        final int length = HEADER_SIZE + key.length + (data == null ? 0 : data.length);
+        if (length > slabSize) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        final int hash = hash(key);
+        return segmentFor(hash).putIfAbsent(hash, key, flags, data, now, expiresAt, length);
+    }
+
+    /**
+     * Passes the records that have not expired to the visitor, slab by slab. A segment is only locked while a batch of
+     * about 64KB of records is copied, so that a put does not wait for a whole segment to be copied. Records that are
+     * written or evicted while the cache is visited may or may not be passed to the visitor.
+     */
+    public void forEach(RecordVisitor visitor, long now) {
+        final List<Record> records = new ArrayList<Record>();
+        for (Segment segment : segments) {
+            for (int slab = 0; slab < segment.slabs.length; slab++) {
+                final long generation = segment.generation(slab);
+                int offset = 0;
+                while (offset >= 0) {
+                    records.clear();
+                    offset = segment.copy(slab, offset, generation, now, records);
+                    for (Record record : records) {
+                        visitor.visit(record.key, record.flags, record.data, record.writeTime, record.expiresAt);
+                    }
+                }
+            }
+        }
+    }
+
+    public void remove(byte[] key) {
+        final int hash = hash(key);
+        segmentFor(hash).remove(hash, key);
+    }
+
+    public void clear() {
+        for (Segment segment : segments) segment.clear();
+    }
+
+    /**
+     * Releases the direct memory of the slabs. The cache is empty afterwards and does not store any more records, so
+     * that a reader that still holds on to it only sees misses.
+     */
+    public void free() {
+        for (Segment segment : segments) segment.free();
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) size += segment.count();
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes of direct memory allocated for slabs.
+     */
+    public long allocatedBytes() {
+        long allocated = 0;
+        for (Segment segment : segments) allocated += segment.allocatedBytes();
+        return allocated;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public long rejectedCount() {
+        return rejected.get();
+    }
+
+    public long evictionCount() {
+        long evictions = 0;
+        for (Segment segment : segments) evictions += segment.evictions();
+        return evictions;
+    }
+
+    public long evictedBytes() {
+        long evicted = 0;
+        for (Segment segment : segments) evicted += segment.evictedBytes();
+        return evicted;
+    }
+
+    /**
+     * Returns the average number of index slots probed to find a record, 1 if every record is in its home slot.
+     */
+    public double averageProbeLength() {
+        long probes = 0, count = 0;
+        for (Segment segment : segments) {
+            final long[] probesAndCount = segment.probes();
+            probes += probesAndCount[0];
+            count += probesAndCount[1];
+        }
+        return count == 0 ? 0 : (double) probes / count;
+    }
+
+    /*
+     * The segment is chosen by the top bits of the hash and the slot within the index of the segment by the low bits so
+     * that all the slots of even a large index are reachable as home slots.
+     */
+    private Segment segmentFor(int hash) {
+        return segments[(int) ((hash & 0xffffffffL) >>> segmentShift)];
+    }
+
+    private static int hash(byte[] key) {
+        int h = 1;
+        for (byte b : key) h = 31 * h + b;
+        h = ((h >>> 16) ^ h) * 0x45d9f3b;
+        return (h >>> 16) ^ h;
+    }
+
+    /*
+     * Frees a direct buffer without waiting for it to be garbage collected. This is Unsafe.invokeCleaner on java 9 and
+     * later and the buffer's Cleaner on java 8. Null if neither is accessible, in which case the memory is released
+     * when the buffer is collected.
+     */
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER, CLEANER, CLEAN;
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null, cleaner = null, clean = null;
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            unsafe = theUnsafe.get(null);
+        } catch (Exception e) {
+            invokeCleaner = null;
+            try {
+                cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            } catch (Exception e1) {
+                if (log.isDebugEnabled()) log.debug("Direct buffers are released when they are garbage collected", e1);
+                cleaner = null;
+                clean = null;
+            }
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+        CLEANER = cleaner;
+        CLEAN = clean;
+    }
+
+    private static void release(ByteBuffer buffer) {
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } else if (CLEANER != null) {
+                final Object cleaner = CLEANER.invoke(buffer);
+                if (cleaner != null) CLEAN.invoke(cleaner);
+            }
+        } catch (Exception e) {
+            if (log.isDebugEnabled()) log.debug("Could not free a direct buffer, it is released when it is garbage collected", e);
+        }
+    }
+
+    private static final class Record {
+        private final byte[] key;
+        private final int flags;
+        private final byte[] data;
+        private final long writeTime;
+        private final long expiresAt;
+
+        Record(byte[] key, int flags, byte[] data, long writeTime, long expiresAt) {
+            this.key = key;
+            this.flags = flags;
+            this.data = data;
+            this.writeTime = writeTime;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Segment {
+        private final ByteBuffer[] slabs;
+        private final int[] limits;
+        private final long[] generations; // changed whenever a slab is reused so that a copy does not resume in it
+        private final int slabSize;
+        private int current = 0;
+
+        private int[] hashes = new int[16];
+        private long[] addresses = new long[16];
+        private int mask = 15;
+        private int count = 0;
+
+        private long evictions = 0;
+        private long evictedBytes = 0;
+        private boolean freed = false;
+
+        Segment(int numSlabs, int slabSize) {
+            this.slabs = new ByteBuffer[numSlabs];
+            this.limits = new int[numSlabs];
+            this.generations = new long[numSlabs];
+            this.slabSize = slabSize;
+        }
+
+        synchronized Entry get(int hash, byte[] key, long now) {
+            final int slot = find(hash, key);
+            if (slot < 0) return null;
+            final long address = addresses[slot];
+            final ByteBuffer slab = slabs[slabOf(address)];
+            final int offset = offsetOf(address);
+            final long expiresAt = slab.getLong(offset + 24);
+            if (expiresAt > 0 && now >= expiresAt) {
+                removeSlot(slot);
+                return null;
+            }
+            final int flags = slab.getInt(offset + 8);
+            final int dataLength = slab.getInt(offset + 12);
+            final long writeTime = slab.getLong(offset + 16);
+            byte[] data = null;
+            if (dataLength >= 0) {
+                data = new byte[dataLength];
+                slab.position(offset + HEADER_SIZE + key.length);
+                slab.get(data);
+            }
+            return new Entry(flags, data, writeTime);
+        }
+
+        synchronized void put(int hash, byte[] key, int flags, byte[] data, long now, long expiresAt, int length) {
+            if (freed) return;
+            if (slabs[current] == null) slabs[current] = ByteBuffer.allocateDirect(slabSize);
+            if (limits[current] + length > slabSize) {
+                current = (current + 1) % slabs.length;
+                if (slabs[current] == null) slabs[current] = ByteBuffer.allocateDirect(slabSize);
+                else evict(current);
+            }
+
+            final ByteBuffer slab = slabs[current];
+            final int offset = limits[current];
+            slab.position(offset);
+            slab.putInt(hash);
+            slab.putInt(key.length);
+            slab.putInt(flags);
+            slab.putInt(data == null ? -1 : data.length);
+            slab.putLong(now);
+            slab.putLong(expiresAt);
+            slab.put(key);
+            if (data != null) slab.put(data);
+            limits[current] = offset + length;
+
+            final long address = addressOf(current, offset);
+            final int slot = find(hash, key);
+            if (slot >= 0) {
+                addresses[slot] = address;
+            } else {
+                insert(hash, address);
+            }
+        }
+
+        synchronized boolean putIfAbsent(int hash, byte[] key, int flags, byte[] data, long now, long expiresAt, int length) {
+            if (freed || find(hash, key) >= 0) return false;
+            put(hash, key, flags, data, now, expiresAt, length);
+            return true;
+        }
+
+        synchronized long generation(int slabIndex) {
+            return generations[slabIndex];
+        }
+
+        /**
+         * Copies the live records of the slab that start at the given offset until about {@link #COPY_BATCH_BYTES}
+         * were read.
+         *
+         * @return the offset to continue from or -1 if the end of the slab was reached or the slab was reused since
+         * the generation was read
+         */
+        synchronized int copy(int slabIndex, int offset, long generation, long now, List<Record> records) {
+            final ByteBuffer slab = slabs[slabIndex];
+            if (slab == null || generations[slabIndex] != generation) return -1;
+            final int limit = limits[slabIndex];
+            final int end = offset + COPY_BATCH_BYTES;
+            while (offset < limit && offset < end) {
+                final int hash = slab.getInt(offset);
+                final int keyLength = slab.getInt(offset + 4);
+                final int dataLength = slab.getInt(offset + 12);
+                final long expiresAt = slab.getLong(offset + 24);
+                if (isLive(hash, addressOf(slabIndex, offset)) && (expiresAt <= 0 || now < expiresAt)) {
+                    final byte[] key = new byte[keyLength];
+                    slab.position(offset + HEADER_SIZE);
+                    slab.get(key);
+                    byte[] data = null;
+                    if (dataLength >= 0) {
+                        data = new byte[dataLength];
+                        slab.get(data);
+                    }
+                    records.add(new Record(key, slab.getInt(offset + 8), data, slab.getLong(offset + 16), expiresAt));
+                }
+                offset += HEADER_SIZE + keyLength + Math.max(dataLength, 0);
+            }
+            return offset < limit ? offset : -1;
+        }
+
+        synchronized void remove(int hash, byte[] key) {
+            final int slot = find(hash, key);
+            if (slot >= 0) removeSlot(slot);
+        }
+
+        synchronized void clear() {
+            for (int i = 0; i < limits.length; i++) {
+                limits[i] = 0;
+                generations[i]++;
+            }
+            current = 0;
+            hashes = new int[16];
+            addresses = new long[16];
+            mask = 15;
+            count = 0;
+        }
+
+        synchronized void free() {
+            clear();
+            freed = true;
+            for (int i = 0; i < slabs.length; i++) {
+                if (slabs[i] != null) release(slabs[i]);
+                slabs[i] = null;
+            }
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized long allocatedBytes() {
+            long allocated = 0;
+            for (ByteBuffer slab : slabs) {
+                if (slab != null) allocated += slab.capacity();
+            }
+            return allocated;
+        }
+
+        /**
+         * Returns the number of slots probed to find each of the records in total and the number of records.
+         */
+        synchronized long[] probes() {
+            long probes = 0;
+            for (int slot = 0; slot < addresses.length; slot++) {
+                if (addresses[slot] != 0) probes += ((slot - hashes[slot]) & mask) + 1;
+            }
+            return new long[] { probes, count };
+        }
+
+        synchronized long evictions() {
+            return evictions;
+        }
+
+        synchronized long evictedBytes() {
+            return evictedBytes;
+        }
+
+        /**
+         * Drops the index entries of all the live records in the given slab so that it can be reused.
+         */
+        private void evict(int slabIndex) {
+            final ByteBuffer slab = slabs[slabIndex];
+            final int limit = limits[slabIndex];
+            int offset = 0;
+            while (offset < limit) {
+                final int hash = slab.getInt(offset);
+                final int keyLength = slab.getInt(offset + 4);
+                final int dataLength = slab.getInt(offset + 12);
+                final int length = HEADER_SIZE + keyLength + Math.max(dataLength, 0);
+                final long address = addressOf(slabIndex, offset);
+                for (int slot = hash & mask; addresses[slot] != 0; slot = (slot + 1) & mask) {
+                    if (addresses[slot] == address) {
+                        removeSlot(slot);
+                        evictions++;
+                        evictedBytes += length;
+                        break;
+                    }
+                }
+                offset += length;
+            }
+            limits[slabIndex] = 0;
+            generations[slabIndex]++;
+        }
+
+        /**
+         * Returns whether the index still points to the record at the given address, i.e. it was neither overwritten
+         * nor removed.
+         */
+        private boolean isLive(int hash, long address) {
+            for (int slot = hash & mask; addresses[slot] != 0; slot = (slot + 1) & mask) {
+                if (addresses[slot] == address) return true;
+            }
+            return false;
+        }
+
+        private int find(int hash, byte[] key) {
+            for (int slot = hash & mask; addresses[slot] != 0; slot = (slot + 1) & mask) {
+                if (hashes[slot] == hash && keyEquals(addresses[slot], key)) return slot;
+            }
+            return -1;
+        }
+
+        private boolean keyEquals(long address, byte[] key) {
+            final ByteBuffer slab = slabs[slabOf(address)];
+            final int offset = offsetOf(address);
+            if (slab.getInt(offset + 4) != key.length) return false;
+            final int keyOffset = offset + HEADER_SIZE;
+            for (int i = 0; i < key.length; i++) {
+                if (slab.get(keyOffset + i) != key[i]) return false;
+            }
+            return true;
+        }
+
+        private void insert(int hash, long address) {
+            if (count + 1 > (addresses.length >>> 1)) resize();
+            int slot = hash & mask;
+            while (addresses[slot] != 0) slot = (slot + 1) & mask;
+            hashes[slot] = hash;
+            addresses[slot] = address;
+            count++;
+        }
+
+        private void resize() {
+            final int[] oldHashes = hashes;
+            final long[] oldAddresses = addresses;
+            hashes = new int[oldHashes.length << 1];
+            addresses = new long[oldAddresses.length << 1];
+            mask = addresses.length - 1;
+            for (int i = 0; i < oldAddresses.length; i++) {
+                if (oldAddresses[i] == 0) continue;
+                int slot = oldHashes[i] & mask;
+                while (addresses[slot] != 0) slot = (slot + 1) & mask;
+                hashes[slot] = oldHashes[i];
+                addresses[slot] = oldAddresses[i];
+            }
+        }
+
+        /**
+         * Removes the entry at the given slot and shifts the entries that follow it back so that no tombstones are
+         * needed.
+         */
+        private void removeSlot(int slot) {
+            int i = slot;
+            int j = slot;
+            while (true) {
+                j = (j + 1) & mask;
+                if (addresses[j] == 0) break;
+                final int home = hashes[j] & mask;
+                final boolean stays = (i <= j) ? (i < home && home <= j) : (i < home || home <= j);
+                if (stays) continue;
+                hashes[i] = hashes[j];
+                addresses[i] = addresses[j];
+                i = j;
+            }
+            hashes[i] = 0;
+            addresses[i] = 0;
+            count--;
+        }
+
+        private static long addressOf(int slab, int offset) {
+            return ((long) (slab + 1) << 32) | (offset & 0xffffffffL);
+        }
+
+        private static int slabOf(long address) {
+            return (int) (address >>> 32) - 1;
+        }
+
+        private static int offsetOf(long address) {
+            return (int) address;
+        }
+    }
+}
@@ -0,0 +1,666 @@
+package com.netflix.evcache.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded, loading cache that uses the W-TinyLFU policy and evicts by weight.
+ *
+ * New entries go into a small LRU admission window (1% of the maximum weight). Entries leaving the window move to the
+ * main space, which is a segmented LRU with a probation and a protected (80%) segment. When the cache is over its
+ * maximum weight the entry that most recently entered probation competes with the least recently used probation entry
+ * and the one with the lower estimated access frequency, as recorded by a {@link FrequencySketch}, is evicted. This
+ * keeps one-hit wonders and scans from flushing the frequently used entries.
+ *
+ * Reads do not take the policy lock. A read records the access in a striped, lossy buffer and the buffered accesses
+ * are applied to the policy under the lock once a stripe fills up or the next time the cache is written to. A
+ * recording that loses a race or finds its stripe full is dropped, which only affects the precision of the policy.
+ * Writes and evictions are done under the lock. The maximum weight and the expiration settings can be changed in
+ * place.
+ */
+public class TinyLfuCache<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(TinyLfuCache.class);
+
+    public interface Loader<K, V> {
+        V load(K key) throws Exception;
+
+        /**
+         * Computes a new value for a key that is due for refresh. Returning null keeps the current value.
+         */
+        default V reload(K key, V oldValue) throws Exception {
+            return load(key);
+        }
+    }
+
+    /**
+     * Receives the entries of the cache.
+     */
+    public interface EntryVisitor<K, V> {
+
+        /**
+         * @param expiresInNanos - the time until the entry expires or {@link Long#MAX_VALUE} if it does not expire
+         */
+        void visit(K key, V value, long expiresInNanos);
+    }
+
+    private static final int WINDOW = 0, PROBATION = 1, PROTECTED = 2, DEAD = 3;
+
+    private static final class Node<K, V> {
+        private final K key;
+        private volatile V value;
+        private volatile long writeTime;
+        private volatile long accessTime;
+        private volatile long expiresAt; // 0 if the entry expires by the policy only
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+        // guarded by the policy lock
+        private int weight;
+        private int queue;
+        private Node<K, V> prev, next;
+
+        Node(K key, V value, int weight, long now) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = now;
+            this.accessTime = now;
+            this.queue = WINDOW;
+        }
+    }
+
+    private static final class AccessOrderQueue<K, V> {
+        private Node<K, V> head, tail;
+
+        void add(Node<K, V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) head = node;
+            else tail.next = node;
+            tail = node;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) head = node.next;
+            else node.prev.next = node.next;
+            if (node.next == null) tail = node.prev;
+            else node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToTail(Node<K, V> node) {
+            if (tail == node) return;
+            remove(node);
+            add(node);
+        }
+    }
+
+    /**
+     * Buffers the accesses of reads until they are applied to the policy. A reader picks a stripe by its thread so that
+     * readers rarely compete for the same one. An access is either the node that was read or, for a miss, the hash of
+     * the key to count in the sketch.
+     */
+    private static final class ReadBuffer {
+        private static final int STRIPE_SIZE = 16, STRIPE_MASK = STRIPE_SIZE - 1;
+
+        private final AtomicReferenceArray<Object>[] stripes;
+        private final AtomicLong[] writeCounts, readCounts;
+        private final int mask;
+
+        @SuppressWarnings("unchecked")
+        ReadBuffer() {
+            int size = 1;
+            while (size < 4 * Runtime.getRuntime().availableProcessors()) size <<= 1;
+            this.stripes = new AtomicReferenceArray[size];
+            this.writeCounts = new AtomicLong[size];
+            this.readCounts = new AtomicLong[size];
+            for (int i = 0; i < size; i++) {
+                stripes[i] = new AtomicReferenceArray<Object>(STRIPE_SIZE);
+                writeCounts[i] = new AtomicLong();
+                readCounts[i] = new AtomicLong();
+            }
+            this.mask = size - 1;
+        }
+
+        /**
+         * Records the access, dropping it if the stripe is full or another reader claimed the slot first. Returns true
+         * if the stripe should be drained.
+         */
+        boolean offer(Object access) {
+            long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+            final int index = (int) (h ^ (h >>> 32)) & mask;
+            final AtomicLong writeCount = writeCounts[index];
+            final long tail = writeCount.get();
+            final long size = tail - readCounts[index].get();
+            if (size >= STRIPE_SIZE) return true;
+            if (!writeCount.compareAndSet(tail, tail + 1)) return false;
+            stripes[index].lazySet((int) tail & STRIPE_MASK, access);
+            return size + 1 >= STRIPE_SIZE;
+        }
+
+        /**
+         * Passes the buffered accesses to the consumer. Called under the policy lock.
+         */
+        void drain(Consumer<Object> consumer) {
+            for (int i = 0; i < stripes.length; i++) {
+                final AtomicReferenceArray<Object> stripe = stripes[i];
+                final AtomicLong readCount = readCounts[i];
+                final long tail = writeCounts[i].get();
+                long head = readCount.get();
+                while (head < tail) {
+                    final int slot = (int) head & STRIPE_MASK;
+                    final Object access = stripe.get(slot);
+                    // the slot is claimed but the access is not stored yet
+                    if (access == null) break;
+                    stripe.lazySet(slot, null);
+                    readCount.lazySet(++head);
+                    consumer.accept(access);
+                }
+            }
+        }
+    }
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<K, Node<K, V>>();
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<K, CompletableFuture<V>>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final FrequencySketch sketch = new FrequencySketch();
+    private final ReadBuffer readBuffer = new ReadBuffer();
+    private final Consumer<Object> applyAccess = this::applyAccess;
+    private final AccessOrderQueue<K, V> window = new AccessOrderQueue<K, V>();
+    private final AccessOrderQueue<K, V> probation = new AccessOrderQueue<K, V>();
+    private final AccessOrderQueue<K, V> protectedQueue = new AccessOrderQueue<K, V>();
+
+    private final Loader<K, V> loader;
+    private final ToIntFunction<V> weigher;
+    private final Executor executor;
+
+    // guarded by the policy lock
+    private long maximum, windowMaximum, protectedMaximum;
+    private long windowWeightedSize, protectedWeightedSize;
+    private volatile long weightedSize;
+
+    private volatile long expireAfterWriteNanos, expireAfterAccessNanos, refreshAfterWriteNanos;
+    private volatile ToLongFunction<V> expiry;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder evictionWeight = new LongAdder();
+
+    /**
+     * @param maximumWeight - the maximum total weight of the entries, 0 or less for no bound
+     * @param expectedSize - the expected number of entries, used to size the frequency sketch
+     * @param weigher - returns the weight of a value; weights below 1 are rounded up to 1
+     * @param loader - loads the values on a miss and on refresh
+     * @param executor - runs the refreshes
+     */
+    public TinyLfuCache(long maximumWeight, long expectedSize, ToIntFunction<V> weigher, Loader<K, V> loader, Executor executor) {
+        this.weigher = weigher;
+        this.loader = loader;
+        this.executor = executor;
+        setMaximumWeight(maximumWeight, expectedSize);
+    }
+
+    /**
+     * Changes the maximum weight in place, evicting entries if needed.
+     */
+    public void setMaximumWeight(long maximumWeight, long expectedSize) {
+        lock.lock();
+        try {
+            maximum = (maximumWeight <= 0) ? Long.MAX_VALUE : maximumWeight;
+            windowMaximum = Math.max(1, maximum / 100);
+            final long mainMaximum = maximum - windowMaximum;
+            protectedMaximum = (mainMaximum > Long.MAX_VALUE / 8) ? mainMaximum / 10 * 8 : mainMaximum * 8 / 10;
+            sketch.ensureCapacity(expectedSize);
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Recomputes the weight of every entry, i.e. after the weigher's behavior changed, and evicts entries if needed.
+     */
+    public void reweigh() {
+        lock.lock();
+        try {
+            for (Node<K, V> node : data.values()) {
+                if (node.queue != DEAD) setWeight(node, weigh(node.value));
+            }
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the expiration and refresh durations. A duration of 0 or less disables it.
+     */
+    public void setExpiry(long expireAfterWrite, long expireAfterAccess, long refreshAfterWrite, TimeUnit unit) {
+        this.expireAfterWriteNanos = expireAfterWrite > 0 ? unit.toNanos(expireAfterWrite) : 0;
+        this.expireAfterAccessNanos = expireAfterAccess > 0 ? unit.toNanos(expireAfterAccess) : 0;
+        this.refreshAfterWriteNanos = refreshAfterWrite > 0 ? unit.toNanos(refreshAfterWrite) : 0;
+    }
+
+    /**
+     * Sets a function that returns how long, in nanoseconds, a value may be held when it is added. The entry expires
+     * then or earlier if the expiration policy says so. The function returns 0 or less for values that only expire by
+     * the policy. Only the entries that are added afterwards are affected.
+     */
+    public void setVariableExpiry(ToLongFunction<V> expiry) {
+        this.expiry = expiry;
+    }
+
+    /**
+     * Returns the value for the key, loading it if it is not present. Concurrent loads of the same key are collapsed
+     * into one. Failures of the loader are thrown as an {@link ExecutionException} with the loader's exception as the
+     * cause.
+     */
+    public V get(K key) throws ExecutionException {
+        final V value = getIfPresent(key);
+        if (value != null) return value;
+        return load(key);
+    }
+
+    /**
+     * Returns the value for the key or null if it is not present or has expired.
+     */
+    public V getIfPresent(K key) {
+        final Node<K, V> node = data.get(key);
+        final long now = System.nanoTime();
+        if (node == null) {
+            missCount.increment();
+            recordAccess(Integer.valueOf(key.hashCode()));
+            return null;
+        }
+        if (hasExpired(node, now)) {
+            missCount.increment();
+            lock.lock();
+            try {
+                if (data.get(key) == node) removeNode(node);
+            } finally {
+                lock.unlock();
+            }
+            return null;
+        }
+
+        hitCount.increment();
+        if (expireAfterAccessNanos > 0) node.accessTime = now;
+        recordAccess(node);
+        final long refreshNanos = refreshAfterWriteNanos;
+        if (refreshNanos > 0 && now - node.writeTime >= refreshNanos) refresh(node);
+        return node.value;
+    }
+
+    public void put(K key, V value) {
+        if (value == null) throw new NullPointerException("value cannot be null");
+        final int weight = weigh(value);
+        final long now = System.nanoTime();
+        lock.lock();
+        try {
+            putLocked(key, value, weight, now, expiresAt(value, now));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the entry unless the key is present or being loaded.
+     *
+     * @return true if the entry was added
+     */
+    public boolean putIfAbsent(K key, V value) {
+        if (value == null) throw new NullPointerException("value cannot be null");
+        final int weight = weigh(value);
+        final long now = System.nanoTime();
+        lock.lock();
+        try {
+            if (data.containsKey(key) || loading.containsKey(key)) return false;
+            putLocked(key, value, weight, now, expiresAt(value, now));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(Object key) {
+        loading.remove(key);
+        lock.lock();
+        try {
+            final Node<K, V> node = data.get(key);
+            if (node != null) removeNode(node);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        loading.clear();
+        lock.lock();
+        try {
+            for (Node<K, V> node : data.values()) {
+                removeNode(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the entries that have not expired.
+     */
+    public Map<K, V> asMap() {
+        final long now = System.nanoTime();
+        final Map<K, V> map = new LinkedHashMap<K, V>();
+        for (Node<K, V> node : data.values()) {
+            if (!hasExpired(node, now)) map.put(node.key, node.value);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Passes the entries that have not expired to the visitor. Entries that are added or removed while iterating may
+     * or may not be visited.
+     */
+    public void forEach(EntryVisitor<K, V> visitor) {
+        final long now = System.nanoTime();
+        for (Node<K, V> node : data.values()) {
+            if (hasExpired(node, now)) continue;
+            long expiresIn = Long.MAX_VALUE;
+            final long expireAfterWrite = expireAfterWriteNanos;
+            if (expireAfterWrite > 0) expiresIn = Math.min(expiresIn, node.writeTime + expireAfterWrite - now);
+            final long expireAfterAccess = expireAfterAccessNanos;
+            if (expireAfterAccess > 0) expiresIn = Math.min(expiresIn, node.accessTime + expireAfterAccess - now);
+            final long expiresAt = node.expiresAt;
+            if (expiresAt != 0) expiresIn = Math.min(expiresIn, expiresAt - now);
+            visitor.visit(node.key, node.value, expiresIn);
+        }
+    }
+
+    public long size() {
+        return data.size();
+    }
+
+    public long weightedSize() {
+        return weightedSize;
+    }
+
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    public long loadSuccessCount() {
+        return loadSuccessCount.sum();
+    }
+
+    public long loadFailureCount() {
+        return loadFailureCount.sum();
+    }
+
+    public long totalLoadTimeNanos() {
+        return totalLoadTime.sum();
+    }
+
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    public long evictionWeight() {
+        return evictionWeight.sum();
+    }
+
+    private V load(K key) throws ExecutionException {
+        final CompletableFuture<V> future = new CompletableFuture<V>();
+        final CompletableFuture<V> existing = loading.putIfAbsent(key, future);
+        if (existing != null) {
+            try {
+                return existing.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ExecutionException(e);
+            }
+        }
+
+        final long start = System.nanoTime();
+        try {
+            final V value = loader.load(key);
+            loadSuccessCount.increment();
+            if (value != null) {
+                final int weight = weigh(value);
+                lock.lock();
+                try {
+                    // the key was invalidated while it was being loaded; do not cache the stale value
+                    if (loading.get(key) == future) {
+                        final long now = System.nanoTime();
+                        putLocked(key, value, weight, now, expiresAt(value, now));
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            future.complete(value);
+            return value;
+        } catch (Throwable t) {
+            loadFailureCount.increment();
+            future.completeExceptionally(t);
+            throw new ExecutionException(t);
+        } finally {
+            totalLoadTime.add(System.nanoTime() - start);
+            loading.remove(key, future);
+        }
+    }
+
+    private void refresh(final Node<K, V> node) {
+        if (!node.refreshing.compareAndSet(false, true)) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    final V value = loader.reload(node.key, node.value);
+                    if (value == null) return;
+                    final int weight = weigh(value);
+                    lock.lock();
+                    try {
+                        if (node.queue != DEAD && data.get(node.key) == node) {
+                            final long now = System.nanoTime();
+                            putLocked(node.key, value, weight, now, expiresAt(value, now));
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                } catch (Throwable t) {
+                    if (log.isDebugEnabled()) log.debug("Exception refreshing key " + node.key, t);
+                } finally {
+                    node.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            node.refreshing.set(false);
+        }
+    }
+
+    private boolean hasExpired(Node<K, V> node, long now) {
+        final long expiresAt = node.expiresAt;
+        if (expiresAt != 0 && now - expiresAt >= 0) return true;
+        final long expireAfterWrite = expireAfterWriteNanos;
+        if (expireAfterWrite > 0 && now - node.writeTime >= expireAfterWrite) return true;
+        final long expireAfterAccess = expireAfterAccessNanos;
+        return expireAfterAccess > 0 && now - node.accessTime >= expireAfterAccess;
+    }
+
+    private long expiresAt(V value, long now) {
+        final ToLongFunction<V> expiry = this.expiry;
+        if (expiry == null) return 0;
+        final long duration = expiry.applyAsLong(value);
+        // 0 means no expiry of its own, so avoid landing on it
+        return (duration > 0) ? ((now + duration) | 1) : 0;
+    }
+
+    private int weigh(V value) {
+        final int weight = weigher.applyAsInt(value);
+        return weight < 1 ? 1 : weight;
+    }
+
+    private void recordAccess(Object access) {
+        if (readBuffer.offer(access) && lock.tryLock()) {
+            try {
+                readBuffer.drain(applyAccess);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void applyAccess(Object access) {
+        if (access instanceof Integer) {
+            sketch.increment(((Integer) access).intValue());
+        } else {
+            final Node<K, V> node = (Node<K, V>) access;
+            if (node.queue != DEAD) onAccess(node);
+        }
+    }
+
+    private void putLocked(K key, V value, int weight, long now, long expiresAt) {
+        readBuffer.drain(applyAccess);
+        Node<K, V> node = data.get(key);
+        if (node != null) {
+            node.value = value;
+            node.writeTime = now;
+            node.accessTime = now;
+            node.expiresAt = expiresAt;
+            setWeight(node, weight);
+            onAccess(node);
+        } else {
+            node = new Node<K, V>(key, value, weight, now);
+            node.expiresAt = expiresAt;
+            data.put(key, node);
+            window.add(node);
+            windowWeightedSize += weight;
+            weightedSize += weight;
+            sketch.increment(key.hashCode());
+        }
+        evict();
+    }
+
+    private void setWeight(Node<K, V> node, int weight) {
+        final int delta = weight - node.weight;
+        node.weight = weight;
+        weightedSize += delta;
+        if (node.queue == WINDOW) windowWeightedSize += delta;
+        else if (node.queue == PROTECTED) protectedWeightedSize += delta;
+    }
+
+    private void onAccess(Node<K, V> node) {
+        sketch.increment(node.key.hashCode());
+        switch (node.queue) {
+            case WINDOW:
+                window.moveToTail(node);
+                break;
+
+            case PROBATION:
+                probation.remove(node);
+                node.queue = PROTECTED;
+                protectedQueue.add(node);
+                protectedWeightedSize += node.weight;
+                while (protectedWeightedSize > protectedMaximum) {
+                    final Node<K, V> demoted = protectedQueue.head;
+                    if (demoted == null) break;
+                    protectedQueue.remove(demoted);
+                    protectedWeightedSize -= demoted.weight;
+                    demoted.queue = PROBATION;
+                    probation.add(demoted);
+                }
+                break;
+
+            case PROTECTED:
+                protectedQueue.moveToTail(node);
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    private void evict() {
+        while (windowWeightedSize > windowMaximum) {
+            final Node<K, V> node = window.head;
+            if (node == null) break;
+            window.remove(node);
+            windowWeightedSize -= node.weight;
+            node.queue = PROBATION;
+            probation.add(node);
+        }
+
+        while (weightedSize > maximum) {
+            Node<K, V> victim = probation.head;
+            if (victim == null) victim = protectedQueue.head;
+            if (victim == null) victim = window.head;
+            if (victim == null) break;
+
+            // the most recent arrival in probation is admitted only if it is used more often than the victim
+            final Node<K, V> candidate = probation.tail;
+            if (victim.queue == PROBATION && candidate != victim
+                    && sketch.frequency(candidate.key.hashCode()) <= sketch.frequency(victim.key.hashCode())) {
+                victim = candidate;
+            }
+            removeNode(victim);
+            evictionCount.increment();
+            evictionWeight.add(victim.weight);
+        }
+    }
+
+    private void removeNode(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.remove(node);
+                windowWeightedSize -= node.weight;
+                break;
+
+            case PROBATION:
+                probation.remove(node);
+                break;
+
+            case PROTECTED:
+                protectedQueue.remove(node);
+                protectedWeightedSize -= node.weight;
+                break;
+
+            default:
+                return;
+        }
+        weightedSize -= node.weight;
+        node.queue = DEAD;
+        data.remove(node.key, node);
+    }
+
+    @Override
+    public String toString() {
+        return "TinyLfuCache [size=" + data.size() + ", weightedSize=" + weightedSize + ", maximum=" + maximum + "]";
+    }
+}
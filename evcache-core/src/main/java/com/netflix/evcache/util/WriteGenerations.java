@@ -0,0 +1,43 @@
+package com.netflix.evcache.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the writes of keys so that a value that was read before a write is not cached after it. A reader takes the
+ * generation of the key before it reads and caches the value only if the generation is unchanged afterwards.
+ *
+ * The keys are not held; they are striped over a fixed number of counters by their hash code, so a write of another
+ * key of the same stripe also changes the generation, which only means that a value is not cached.
+ */
+public class WriteGenerations {
+
+    private final AtomicLongArray generations;
+    private final int mask;
+
+    /**
+     * @param stripes - the number of counters, rounded up to a power of 2
+     */
+    public WriteGenerations(int stripes) {
+        int size = 1;
+        while (size < stripes) size <<= 1;
+        this.generations = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    public long get(Object key) {
+        return generations.get(indexOf(key));
+    }
+
+    /**
+     * Records a write of the key.
+     */
+    public void increment(Object key) {
+        generations.incrementAndGet(indexOf(key));
+    }
+
+    private int indexOf(Object key) {
+        int h = key.hashCode();
+        h = ((h >>> 16) ^ h) * 0x45d9f3b;
+        return ((h >>> 16) ^ h) & mask;
+    }
+}
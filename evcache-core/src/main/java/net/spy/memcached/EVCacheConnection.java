@@ -4,8 +4,10 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.channels.CancelledKeyException;
 import java.nio.channels.ClosedSelectorException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
@@ -17,6 +19,8 @@ import net.spy.memcached.ops.Operation;
 
 public class EVCacheConnection extends MemcachedConnection {
     private static final Logger log = LoggerFactory.getLogger(EVCacheConnection.class);
+    // the name MemcachedConnection marks every operation it adds with
+    private static final String REQUEST_METRIC = "[MEM] Request Rate: All";
 
     public EVCacheConnection(String name, int bufSize, ConnectionFactory f,
             List<InetSocketAddress> a, Collection<ConnectionObserver> obs,
@@ -87,7 +91,55 @@ public class EVCacheConnection extends MemcachedConnection {
         checkState();
         addOperation(key, o);
       }
-    
+
+    /**
+     * Enqueues the given operations grouping them by the primary node of their
+     * keys. All the operations of a node are added to its input queue before the
+     * node is handed to the IO thread, and the selector is woken up once for the
+     * whole call. The IO thread therefore moves the batch to the write queue in
+     * one go and fills the write buffer with as many of its operations as fit, so
+     * they go out in as few socket writes as possible instead of one per
+     * operation. Operations whose primary node is not active go through
+     * {@link #addOperation(String, Operation)} so that the failure mode is honored.
+     */
+    public void enqueueOperations(final Map<String, Operation> ops) {
+        checkState();
+        final NodeLocator locator = getLocator();
+        final Map<MemcachedNode, List<Operation>> opsByNode = new HashMap<MemcachedNode, List<Operation>>();
+        for (Map.Entry<String, Operation> entry : ops.entrySet()) {
+            final MemcachedNode node = locator.getPrimary(entry.getKey());
+            if (node != null && node.isActive()) {
+                List<Operation> nodeOps = opsByNode.get(node);
+                if (nodeOps == null) {
+                    nodeOps = new ArrayList<Operation>();
+                    opsByNode.put(node, nodeOps);
+                }
+                nodeOps.add(entry.getValue());
+            } else {
+                addOperation(entry.getKey(), entry.getValue());
+            }
+        }
+        if (opsByNode.isEmpty()) return;
+
+        for (Map.Entry<MemcachedNode, List<Operation>> entry : opsByNode.entrySet()) {
+            final MemcachedNode node = entry.getKey();
+            if (!node.isAuthenticated()) {
+                for (Operation o : entry.getValue()) {
+                    retryOperation(o);
+                }
+                continue;
+            }
+            for (Operation o : entry.getValue()) {
+                o.setHandlingNode(node);
+                o.initialize();
+                node.addOp(o);
+                ((EVCacheNode) node).incrOps();
+                metrics.markMeter(REQUEST_METRIC);
+            }
+            addedQueue.offer(node);
+        }
+        selector.wakeup();
+    }
 
     @Override
     public CountDownLatch broadcastOperation(BroadcastOpFactory of, Collection<MemcachedNode> nodes) {
@@ -5,19 +5,23 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,6 +29,7 @@ import org.slf4j.LoggerFactory;
 import com.netflix.archaius.api.Property;
 import com.netflix.evcache.EVCacheGetOperationListener;
 import com.netflix.evcache.EVCacheLatch;
+import com.netflix.evcache.metrics.EVCacheMetricTable;
 import com.netflix.evcache.metrics.EVCacheMetricsFactory;
 import com.netflix.evcache.operation.EVCacheAsciiOperationFactory;
 import com.netflix.evcache.operation.EVCacheBulkGetFuture;
@@ -66,16 +71,49 @@ import net.spy.memcached.protocol.ascii.MetaGetOperation;
 public class EVCacheMemcachedClient extends MemcachedClient {
 
     private static final Logger log = LoggerFactory.getLogger(EVCacheMemcachedClient.class);
+
+    /**
+     * The operations timed by this client. The ordinal indexes the timer table and the name is the call tag.
+     */
+    private enum TimedOperation {
+        GET(EVCacheMetricsFactory.GET_OPERATION),
+        META_GET(EVCacheMetricsFactory.META_GET_OPERATION),
+        BULK(EVCacheMetricsFactory.BULK_OPERATION),
+        GET_AND_TOUCH(EVCacheMetricsFactory.GET_AND_TOUCH_OPERATION),
+        DELETE(EVCacheMetricsFactory.DELETE_OPERATION),
+        TOUCH(EVCacheMetricsFactory.TOUCH_OPERATION),
+        AOA_APPEND(EVCacheMetricsFactory.AOA_OPERATION_APPEND),
+        AOA_REAPPEND(EVCacheMetricsFactory.AOA_OPERATION_REAPPEND),
+        AOA_ADD(EVCacheMetricsFactory.AOA_OPERATION_ADD),
+        SET(EVCacheMetricsFactory.SET_OPERATION),
+        ADD(EVCacheMetricsFactory.ADD_OPERATION),
+        REPLACE(EVCacheMetricsFactory.REPLACE_OPERATION),
+        INCR(Mutator.incr.name()),
+        DECR(Mutator.decr.name());
+
+        private final String metric;
+
+        TimedOperation(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    private static final int STATUS_CODES = StatusCode.values().length;
+
     private final String appName;
     private final Property<Integer> readTimeout;
 
     private final EVCacheClient client;
     private final Map<String, Timer> timerMap = new ConcurrentHashMap<String, Timer>();
+    private final EVCacheMetricTable<Timer> timerTable = new EVCacheMetricTable<Timer>(TimedOperation.values().length * STATUS_CODES * 3);
     private final Map<String, DistributionSummary> distributionSummaryMap = new ConcurrentHashMap<String, DistributionSummary>();
 
     private Property<Long> mutateOperationTimeout;
     private final ConnectionFactory connectionFactory;
     private final Property<Integer> maxReadDuration, maxWriteDuration;
+    private final Property<Boolean> batchGets;
+    private final Property<Integer> batchWindowMicros, batchMaxKeys;
+    private final Map<MemcachedNode, GetBatch> getBatches = new ConcurrentHashMap<MemcachedNode, GetBatch>();
 
     public EVCacheMemcachedClient(ConnectionFactory cf, List<InetSocketAddress> addrs,
                                   Property<Integer> readTimeout, EVCacheClient client) throws IOException {
@@ -86,6 +124,11 @@ public class EVCacheMemcachedClient extends MemcachedClient {
         this.appName = client.getAppName();
         this.maxWriteDuration = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".max.write.duration.metric", Integer.class).orElseGet("evcache.max.write.duration.metric").orElse(50);
         this.maxReadDuration = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".max.read.duration.metric", Integer.class).orElseGet("evcache.max.read.duration.metric").orElse(20);
+
+        // micro batching : single key gets to the same node within the window are sent as one multi get
+        this.batchGets = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".get.batching", Boolean.class).orElseGet("evcache.get.batching").orElse(false);
+        this.batchWindowMicros = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".get.batching.window.micros", Integer.class).orElseGet("evcache.get.batching.window.micros").orElse(200);
+        this.batchMaxKeys = EVCacheConfig.getInstance().getPropertyRepository().get(appName + ".get.batching.max.keys", Integer.class).orElseGet("evcache.get.batching.max.keys").orElse(32);
     }
 
     public NodeLocator getNodeLocator() {
@@ -101,8 +144,10 @@ public class EVCacheMemcachedClient extends MemcachedClient {
     }
 
     public <T> EVCacheOperationFuture<T> asyncGet(final String key, final Transcoder<T> tc, EVCacheGetOperationListener<T> listener) {
+        if (batchGets.get().booleanValue()) return asyncBatchedGet(key, tc, listener);
         final CountDownLatch latch = new CountDownLatch(1);
-        final EVCacheOperationFuture<T> rv = new EVCacheOperationFuture<T>(key, latch, new AtomicReference<T>(null), readTimeout.get().intValue(), executorService, client);
+        final long startNanos = System.nanoTime();
+        final EVCacheOperationFuture<T> rv = new EVCacheOperationFuture<T>(key, latch, new AtomicReference<T>(null), client.getEffectiveReadTimeout(), executorService, client);
         final Operation op = opFact.get(key, new GetOperation.Callback() {
             private Future<T> val = null;
 
@@ -157,19 +202,196 @@ public class EVCacheMemcachedClient extends MemcachedClient {
 
             public void complete() {
                 latch.countDown();
+                client.readCompleted(startNanos, isTimedOut(rv));
                 final String host = ((rv.getStatus().getStatusCode().equals(StatusCode.TIMEDOUT) && rv.getOperation() != null) ? getHostName(rv.getOperation().getHandlingNode().getSocketAddress()) : null);
-                getTimer(EVCacheMetricsFactory.GET_OPERATION, EVCacheMetricsFactory.READ, rv.getStatus(), (val != null ? EVCacheMetricsFactory.YES : EVCacheMetricsFactory.NO), host, getReadMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
+                getTimer(TimedOperation.GET, EVCacheMetricsFactory.READ, rv.getStatus(), (val != null ? EVCacheMetricsFactory.YES : EVCacheMetricsFactory.NO), host, getReadMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
                 rv.signalComplete();
             }
         });
         rv.setOperation(op);
         if (listener != null) rv.addListener(listener);
+        client.readStarted();
         mconn.enqueueOperation(key, op);
         return rv;
     }
 
+    private <T> EVCacheOperationFuture<T> asyncBatchedGet(final String key, final Transcoder<T> tc, EVCacheGetOperationListener<T> listener) {
+        StringUtils.validateKey(key, opFact instanceof BinaryOperationFactory);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final EVCacheOperationFuture<T> rv = new EVCacheOperationFuture<T>(key, latch, new AtomicReference<T>(null), client.getEffectiveReadTimeout(), executorService, client);
+        rv.setSharedOperation(true);
+        if (listener != null) rv.addListener(listener);
+        final BatchedGet<T> get = new BatchedGet<T>(key, tc, rv, latch);
+        client.readStarted();
+
+        final MemcachedNode node = mconn.getLocator().getPrimary(key);
+        while (true) {
+            GetBatch batch = getBatches.get(node);
+            if (batch == null) {
+                final GetBatch newBatch = new GetBatch(node);
+                batch = getBatches.putIfAbsent(node, newBatch);
+                if (batch == null) {
+                    batch = newBatch;
+                    try {
+                        client.getPool().getEVCacheClientPoolManager().getEVCacheBatchFlushExecutor().schedule(newBatch::flush, batchWindowMicros.get().longValue(), TimeUnit.MICROSECONDS);
+                    } catch (RejectedExecutionException e) {
+                        if (log.isDebugEnabled()) log.debug("Could not schedule the batch flush for node " + node + ", sending the batch now", e);
+                        newBatch.add(get);
+                        newBatch.flush();
+                        return rv;
+                    }
+                }
+            }
+            if (batch.add(get)) return rv;
+        }
+    }
+
+    /**
+     * A single key get waiting in a {@link GetBatch}.
+     */
+    private static final class BatchedGet<T> {
+        private final String key;
+        private final Transcoder<T> tc;
+        private final EVCacheOperationFuture<T> rv;
+        private final CountDownLatch latch;
+        private final long startNanos = System.nanoTime();
+        private Future<T> val = null;
+
+        BatchedGet(String key, Transcoder<T> tc, EVCacheOperationFuture<T> rv, CountDownLatch latch) {
+            this.key = key;
+            this.tc = tc;
+            this.rv = rv;
+            this.latch = latch;
+        }
+    }
+
+    /**
+     * The single key gets to a node collected during the batching window. The batch is sent as one multi get when the
+     * window expires or when it reaches the max number of keys, whichever happens first. Each get keeps its own future.
+     */
+    private final class GetBatch {
+        private final MemcachedNode node;
+        private final List<BatchedGet<?>> gets = new ArrayList<BatchedGet<?>>();
+        private boolean closed = false;
+
+        GetBatch(MemcachedNode node) {
+            this.node = node;
+        }
+
+        /**
+         * Returns false if the batch has already been sent and the get has to be added to a new batch.
+         */
+        boolean add(BatchedGet<?> get) {
+            final boolean full;
+            synchronized (this) {
+                if (closed) return false;
+                gets.add(get);
+                full = gets.size() >= batchMaxKeys.get().intValue();
+                if (full) closed = true;
+            }
+            if (full) send();
+            return true;
+        }
+
+        void flush() {
+            synchronized (this) {
+                if (closed) return;
+                closed = true;
+            }
+            send();
+        }
+
+        private void send() {
+            getBatches.remove(node, this);
+            if (gets.isEmpty()) return;
+
+            final Map<String, List<BatchedGet<?>>> getsByKey = new LinkedHashMap<String, List<BatchedGet<?>>>();
+            for (BatchedGet<?> get : gets) {
+                List<BatchedGet<?>> list = getsByKey.get(get.key);
+                if (list == null) {
+                    list = new ArrayList<BatchedGet<?>>(1);
+                    getsByKey.put(get.key, list);
+                }
+                list.add(get);
+            }
+            final long startNanos = System.nanoTime();
+            final Operation op = opFact.get(getsByKey.keySet(), new GetOperation.Callback() {
+                private OperationStatus status = null;
+
+                @Override
+                public void receivedStatus(OperationStatus status) {
+                    if (log.isDebugEnabled()) log.debug("Batched Get Keys : " + getsByKey.keySet() + "; Status : " + status.getStatusCode().name() + "; Message : " + status.getMessage());
+                    this.status = status;
+                }
+
+                @Override
+                public void gotData(String k, int flags, byte[] data) {
+                    final List<BatchedGet<?>> list = getsByKey.get(k);
+                    if (list == null) {
+                        log.error("Wrong key returned. Keys - " + getsByKey.keySet() + "; Returned Key " + k);
+                        return;
+                    }
+                    if (data != null) getDataSizeDistributionSummary(EVCacheMetricsFactory.GET_OPERATION, EVCacheMetricsFactory.READ, EVCacheMetricsFactory.IPC_SIZE_INBOUND).record(data.length);
+                    for (BatchedGet<?> get : list) {
+                        decode(get, flags, data);
+                    }
+                }
+
+                @Override
+                public void complete() {
+                    for (BatchedGet<?> get : gets) {
+                        completeGet(get, status);
+                    }
+                    if (log.isDebugEnabled() && client.getPool().getEVCacheClientPoolManager().shouldLog(appName)) log.debug("Batched " + gets.size() + " gets into one multi get to node " + node + " in " + TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos) + " usec");
+                }
+            });
+            for (BatchedGet<?> get : gets) {
+                get.rv.setOperation(op);
+            }
+            mconn.enqueueOperation(gets.get(0).key, op);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> void decode(BatchedGet<T> get, int flags, byte[] data) {
+            if (data == null) return;
+            final Transcoder<T> t = (get.tc == null) ? (Transcoder<T>) getTranscoder() : get.tc;
+            get.val = tcService.decode(t, new CachedData(flags, data, t.getMaxSize()));
+        }
+
+        private <T> void completeGet(BatchedGet<T> get, OperationStatus status) {
+            final EVCacheOperationFuture<T> rv = get.rv;
+            try {
+                rv.set(get.val == null ? null : get.val.get(), status);
+            } catch (Exception e) {
+                log.error(e.getMessage(), e);
+                rv.set(null, status);
+            }
+            get.latch.countDown();
+            client.readCompleted(get.startNanos, isTimedOut(rv));
+            getTimer(TimedOperation.GET, EVCacheMetricsFactory.READ, rv.getStatus(), (get.val != null ? EVCacheMetricsFactory.YES : EVCacheMetricsFactory.NO), null, getReadMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
+            rv.signalComplete();
+        }
+    }
+
+    /**
+     * Returns true if the read timed out, either with a timed out status or because the caller stopped waiting and
+     * timed out the operation before the response arrived.
+     */
+    private static boolean isTimedOut(EVCacheOperationFuture<?> rv) {
+        return rv.isTimedOut() || isTimedOut(rv.getStatus(), rv.getOperation() == null ? Collections.<Operation> emptyList() : Collections.singletonList(rv.getOperation()));
+    }
+
+    private static boolean isTimedOut(OperationStatus status, Collection<Operation> ops) {
+        if (status != null && status.getStatusCode() == StatusCode.TIMEDOUT) return true;
+        for (Operation op : ops) {
+            if (op.isTimedOut()) return true;
+        }
+        return false;
+    }
+
     public <T> EVCacheBulkGetFuture<T> asyncGetBulk(Collection<String> keys, final Transcoder<T> tc, EVCacheGetOperationListener<T> listener) {
         final Map<String, Future<T>> m = new ConcurrentHashMap<String, Future<T>>();
+        final long startNanos = System.nanoTime();
 
         // Break the gets down into groups by key
         final Map<MemcachedNode, Collection<String>> chunks = new HashMap<MemcachedNode, Collection<String>>();
@@ -214,7 +436,8 @@ public class EVCacheMemcachedClient extends MemcachedClient {
             public void complete() {
                 if (pendingChunks.decrementAndGet() <= 0) {
                     latch.countDown();
-                    getTimer(EVCacheMetricsFactory.BULK_OPERATION, EVCacheMetricsFactory.READ, rv.getStatus(), (m.size() == keys.size() ? EVCacheMetricsFactory.YES : EVCacheMetricsFactory.NO), null, getReadMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
+                    getTimer(TimedOperation.BULK, EVCacheMetricsFactory.READ, rv.getStatus(), (m.size() == keys.size() ? EVCacheMetricsFactory.YES : EVCacheMetricsFactory.NO), null, getReadMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
+                    client.bulkReadCompleted(startNanos, isTimedOut(rv.getStatus(), ops));
                     rv.signalComplete();
                 }
             }
@@ -236,6 +459,7 @@ public class EVCacheMemcachedClient extends MemcachedClient {
 
     public <T> EVCacheOperationFuture<CASValue<T>> asyncGetAndTouch(final String key, final int exp, final Transcoder<T> tc) {
         final CountDownLatch latch = new CountDownLatch(1);
+        final long startNanos = System.nanoTime();
         final EVCacheOperationFuture<CASValue<T>> rv = new EVCacheOperationFuture<CASValue<T>>(key, latch, new AtomicReference<CASValue<T>>(null), operationTimeout, executorService, client);
         Operation op = opFact.getAndTouch(key, exp, new GetAndTouchOperation.Callback() {
             private CASValue<T> val = null;
@@ -249,8 +473,9 @@ public class EVCacheMemcachedClient extends MemcachedClient {
 
             public void complete() {
                 latch.countDown();
+                client.readCompleted(startNanos, isTimedOut(rv));
                 final String host = ((rv.getStatus().getStatusCode().equals(StatusCode.TIMEDOUT) && rv.getOperation() != null) ? getHostName(rv.getOperation().getHandlingNode().getSocketAddress()) : null);
-                getTimer(EVCacheMetricsFactory.GET_AND_TOUCH_OPERATION, EVCacheMetricsFactory.READ, rv.getStatus(), (val != null ? EVCacheMetricsFactory.YES : EVCacheMetricsFactory.NO), host, getReadMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
+                getTimer(TimedOperation.GET_AND_TOUCH, EVCacheMetricsFactory.READ, rv.getStatus(), (val != null ? EVCacheMetricsFactory.YES : EVCacheMetricsFactory.NO), host, getReadMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
                 rv.signalComplete();
             }
 
@@ -261,6 +486,7 @@ public class EVCacheMemcachedClient extends MemcachedClient {
             }
         });
         rv.setOperation(op);
+        client.readStarted();
         mconn.enqueueOperation(key, op);
         return rv;
     }
@@ -290,6 +516,27 @@ public class EVCacheMemcachedClient extends MemcachedClient {
     }
 
     public OperationFuture<Boolean> delete(String key, EVCacheLatch evcacheLatch) {
+        final EVCacheOperationFuture<Boolean> rv = createDeleteOperation(key, evcacheLatch);
+        mconn.enqueueOperation(key, rv.getOperation());
+        return rv;
+    }
+
+    /**
+     * Deletes all the given keys pipelining the operations per node. See {@link #setBulk(Map, int, EVCacheLatch)}.
+     */
+    public Map<String, OperationFuture<Boolean>> deleteBulk(Collection<String> keys, EVCacheLatch evcacheLatch) {
+        final Map<String, OperationFuture<Boolean>> futures = new HashMap<String, OperationFuture<Boolean>>((int) (keys.size() / 0.75f) + 1);
+        final Map<String, Operation> ops = new HashMap<String, Operation>((int) (keys.size() / 0.75f) + 1);
+        for (String key : keys) {
+            final EVCacheOperationFuture<Boolean> rv = createDeleteOperation(key, evcacheLatch);
+            futures.put(key, rv);
+            ops.put(key, rv.getOperation());
+        }
+        enqueueOperations(ops);
+        return futures;
+    }
+
+    private EVCacheOperationFuture<Boolean> createDeleteOperation(String key, EVCacheLatch evcacheLatch) {
         final CountDownLatch latch = new CountDownLatch(1);
         final EVCacheOperationFuture<Boolean> rv = new EVCacheOperationFuture<Boolean>(key, latch, new AtomicReference<Boolean>(null), operationTimeout, executorService, client);
         final DeleteOperation op = opFact.delete(key, new DeleteOperation.Callback() {
@@ -307,18 +554,38 @@ public class EVCacheMemcachedClient extends MemcachedClient {
             public void complete() {
                 latch.countDown();
                 final String host = ((rv.getStatus().getStatusCode().equals(StatusCode.TIMEDOUT) && rv.getOperation() != null) ? getHostName(rv.getOperation().getHandlingNode().getSocketAddress()) : null);
-                getTimer(EVCacheMetricsFactory.DELETE_OPERATION, EVCacheMetricsFactory.WRITE, rv.getStatus(), null, host, getWriteMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
+                getTimer(TimedOperation.DELETE, EVCacheMetricsFactory.WRITE, rv.getStatus(), null, host, getWriteMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
                 rv.signalComplete();
             }
         });
 
         rv.setOperation(op);
         if (evcacheLatch != null && evcacheLatch instanceof EVCacheLatchImpl && !client.isInWriteOnly()) ((EVCacheLatchImpl) evcacheLatch).addFuture(rv);
-        mconn.enqueueOperation(key, op);
         return rv;
     }
 
     public <T> OperationFuture<Boolean> touch(final String key, final int exp, EVCacheLatch evcacheLatch) {
+        final EVCacheOperationFuture<Boolean> rv = createTouchOperation(key, exp, evcacheLatch);
+        mconn.enqueueOperation(key, rv.getOperation());
+        return rv;
+    }
+
+    /**
+     * Touches all the given keys pipelining the operations per node. See {@link #setBulk(Map, int, EVCacheLatch)}.
+     */
+    public Map<String, OperationFuture<Boolean>> touchBulk(Collection<String> keys, final int exp, EVCacheLatch evcacheLatch) {
+        final Map<String, OperationFuture<Boolean>> futures = new HashMap<String, OperationFuture<Boolean>>((int) (keys.size() / 0.75f) + 1);
+        final Map<String, Operation> ops = new HashMap<String, Operation>((int) (keys.size() / 0.75f) + 1);
+        for (String key : keys) {
+            final EVCacheOperationFuture<Boolean> rv = createTouchOperation(key, exp, evcacheLatch);
+            futures.put(key, rv);
+            ops.put(key, rv.getOperation());
+        }
+        enqueueOperations(ops);
+        return futures;
+    }
+
+    private EVCacheOperationFuture<Boolean> createTouchOperation(final String key, final int exp, EVCacheLatch evcacheLatch) {
         final CountDownLatch latch = new CountDownLatch(1);
         final EVCacheOperationFuture<Boolean> rv = new EVCacheOperationFuture<Boolean>(key, latch, new AtomicReference<Boolean>(null), operationTimeout, executorService, client);
         final Operation op = opFact.touch(key, exp, new OperationCallback() {
@@ -331,13 +598,12 @@ public class EVCacheMemcachedClient extends MemcachedClient {
             public void complete() {
                 latch.countDown();
                 final String host = ((rv.getStatus().getStatusCode().equals(StatusCode.TIMEDOUT) && rv.getOperation() != null) ? getHostName(rv.getOperation().getHandlingNode().getSocketAddress()) : null);
-                getTimer(EVCacheMetricsFactory.TOUCH_OPERATION, EVCacheMetricsFactory.WRITE, rv.getStatus(), null, host, getWriteMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
+                getTimer(TimedOperation.TOUCH, EVCacheMetricsFactory.WRITE, rv.getStatus(), null, host, getWriteMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
                 rv.signalComplete();
             }
         });
         rv.setOperation(op);
         if (evcacheLatch != null && evcacheLatch instanceof EVCacheLatchImpl && !client.isInWriteOnly()) ((EVCacheLatchImpl) evcacheLatch).addFuture(rv);
-        mconn.enqueueOperation(key, op);
         return rv;
     }
 
@@ -363,7 +629,7 @@ public class EVCacheMemcachedClient extends MemcachedClient {
             public void complete() {
                 if(appendSuccess)  {
                     final String host = ((rv.getStatus().getStatusCode().equals(StatusCode.TIMEDOUT) && rv.getOperation() != null) ? getHostName(rv.getOperation().getHandlingNode().getSocketAddress()) : null);
-                    getTimer(EVCacheMetricsFactory.AOA_OPERATION_APPEND, EVCacheMetricsFactory.WRITE, rv.getStatus(), EVCacheMetricsFactory.YES, host, getWriteMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);;
+                    getTimer(TimedOperation.AOA_APPEND, EVCacheMetricsFactory.WRITE, rv.getStatus(), EVCacheMetricsFactory.YES, host, getWriteMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);;
                     latch.countDown();
                     rv.signalComplete();
                 } else {
@@ -388,7 +654,7 @@ public class EVCacheMemcachedClient extends MemcachedClient {
                                     }
                                     public void complete() {
                                         final String host = ((rv.getStatus().getStatusCode().equals(StatusCode.TIMEDOUT) && rv.getOperation() != null) ? getHostName(rv.getOperation().getHandlingNode().getSocketAddress()) : null);
-                                        getTimer(EVCacheMetricsFactory.AOA_OPERATION_REAPPEND, EVCacheMetricsFactory.WRITE, rv.getStatus(), EVCacheMetricsFactory.YES, host, getWriteMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
+                                        getTimer(TimedOperation.AOA_REAPPEND, EVCacheMetricsFactory.WRITE, rv.getStatus(), EVCacheMetricsFactory.YES, host, getWriteMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
                                         latch.countDown();
                                         rv.signalComplete();
                                     }
@@ -407,7 +673,7 @@ public class EVCacheMemcachedClient extends MemcachedClient {
                         public void complete() {
                             if(appendSuccess) {
                                 final String host = ((rv.getStatus().getStatusCode().equals(StatusCode.TIMEDOUT) && rv.getOperation() != null) ? getHostName(rv.getOperation().getHandlingNode().getSocketAddress()) : null);
-                                getTimer(EVCacheMetricsFactory.AOA_OPERATION_ADD, EVCacheMetricsFactory.WRITE, rv.getStatus(), EVCacheMetricsFactory.YES, host, getWriteMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
+                                getTimer(TimedOperation.AOA_ADD, EVCacheMetricsFactory.WRITE, rv.getStatus(), EVCacheMetricsFactory.YES, host, getWriteMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
                                 latch.countDown();
                                 rv.signalComplete();
                             }
@@ -424,13 +690,31 @@ public class EVCacheMemcachedClient extends MemcachedClient {
         return rv;
     }
 
-    private Timer getTimer(String operation, String operationType, OperationStatus status, String hit, String host, long maxDuration) {
+    private Timer getTimer(TimedOperation operation, String operationType, OperationStatus status, String hit, String host, long maxDuration) {
+        // timers with a host tag are created on failures only and are looked up by name
+        if (status == null || host != null) return getTimerByName(operation.metric, operationType, status, hit, host, maxDuration);
+        final int hitIndex = (hit == null) ? 0 : (EVCacheMetricsFactory.YES.equals(hit) ? 1 : (EVCacheMetricsFactory.NO.equals(hit) ? 2 : -1));
+        if (hitIndex < 0) return getTimerByName(operation.metric, operationType, status, hit, host, maxDuration);
+
+        final int index = (operation.ordinal() * STATUS_CODES + status.getStatusCode().ordinal()) * 3 + hitIndex;
+        final Timer timer = timerTable.get(index);
+        if (timer != null) return timer;
+        return timerTable.putIfAbsent(index, createTimer(operation.metric, operationType, status, hit, host, maxDuration));
+    }
+
+    private Timer getTimerByName(String operation, String operationType, OperationStatus status, String hit, String host, long maxDuration) {
         String name = ((status != null) ? operation + status.getMessage() : operation );
         if(hit != null) name = name + hit;
 
         Timer timer = timerMap.get(name);
         if(timer != null) return timer;
 
+        timer = createTimer(operation, operationType, status, hit, host, maxDuration);
+        timerMap.put(name, timer);
+        return timer;
+    }
+
+    private Timer createTimer(String operation, String operationType, OperationStatus status, String hit, String host, long maxDuration) {
         final List<Tag> tagList = new ArrayList<Tag>(client.getTagList().size() + 4 + (host == null ? 0 : 1));
         tagList.addAll(client.getTagList());
         if(operation != null) tagList.add(new BasicTag(EVCacheMetricsFactory.CALL_TAG, operation));
@@ -446,9 +730,7 @@ public class EVCacheMemcachedClient extends MemcachedClient {
         if(hit != null) tagList.add(new BasicTag(EVCacheMetricsFactory.CACHE_HIT, hit));
         if(host != null) tagList.add(new BasicTag(EVCacheMetricsFactory.FAILED_HOST, host));
 
-        timer = EVCacheMetricsFactory.getInstance().getPercentileTimer(EVCacheMetricsFactory.IPC_CALL, tagList, Duration.ofMillis(maxDuration));
-        timerMap.put(name, timer);
-        return timer;
+        return EVCacheMetricsFactory.getInstance().getPercentileTimer(EVCacheMetricsFactory.IPC_CALL, tagList, Duration.ofMillis(maxDuration));
     }
     
     private String getStatusCode(StatusCode sc) {
@@ -469,25 +751,82 @@ public class EVCacheMemcachedClient extends MemcachedClient {
     }
 
     private <T> OperationFuture<Boolean> asyncStore(final StoreType storeType, final String key, int exp, T value, Transcoder<T> tc, EVCacheLatch evcacheLatch) {
+        final EVCacheOperationFuture<Boolean> rv = createStoreOperation(storeType, key, exp, value, tc, evcacheLatch);
+        mconn.enqueueOperation(key, rv.getOperation());
+        return rv;
+    }
+
+    /**
+     * Stores all the given values. The operations are grouped by the node each
+     * key maps to and are added to that node back to back so that they get
+     * pipelined on the connection.
+     */
+    public Map<String, OperationFuture<Boolean>> setBulk(Map<String, CachedData> values, int exp, EVCacheLatch evcacheLatch) {
+        final Map<String, OperationFuture<Boolean>> futures = new HashMap<String, OperationFuture<Boolean>>((int) (values.size() / 0.75f) + 1);
+        final Map<String, Operation> ops = new HashMap<String, Operation>((int) (values.size() / 0.75f) + 1);
+        for (Map.Entry<String, CachedData> entry : values.entrySet()) {
+            final EVCacheOperationFuture<Boolean> rv = createStoreOperation(StoreType.set, entry.getKey(), exp, entry.getValue(), transcoder, evcacheLatch);
+            futures.put(entry.getKey(), rv);
+            ops.put(entry.getKey(), rv.getOperation());
+        }
+        enqueueOperations(ops);
+        return futures;
+    }
+
+    private void enqueueOperations(Map<String, Operation> ops) {
+        if (mconn instanceof EVCacheConnection) {
+            ((EVCacheConnection) mconn).enqueueOperations(ops);
+        } else {
+            for (Map.Entry<String, Operation> entry : ops.entrySet()) {
+                mconn.enqueueOperation(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Stores length bytes of the source array starting at offset, padded with filler bytes to paddedLength. With the
+     * ascii protocol the bytes are written to the connection straight from the source array; otherwise they are
+     * copied to an array of their own first.
+     */
+    public OperationFuture<Boolean> storeChunk(StoreType storeType, String key, int exp, int flags, byte[] source, int offset, int length, int paddedLength, EVCacheLatch evcacheLatch) {
+        final EVCacheOperationFuture<Boolean> rv;
+        if (opFact instanceof EVCacheAsciiOperationFactory) {
+            rv = createStoreOperation(storeType, key, Math.max(length, paddedLength),
+                    cb -> ((EVCacheAsciiOperationFactory) opFact).storeChunk(storeType, key, flags, exp, source, offset, length, paddedLength, cb), evcacheLatch);
+        } else {
+            final byte[] data = Arrays.copyOfRange(source, offset, offset + Math.max(length, paddedLength));
+            if (paddedLength > length) Arrays.fill(data, length, paddedLength, Character.UNASSIGNED);
+            rv = createStoreOperation(storeType, key, exp, new CachedData(flags, data, Integer.MAX_VALUE), transcoder, evcacheLatch);
+        }
+        mconn.enqueueOperation(key, rv.getOperation());
+        return rv;
+    }
+
+    private <T> EVCacheOperationFuture<Boolean> createStoreOperation(final StoreType storeType, final String key, int exp, T value, Transcoder<T> tc, EVCacheLatch evcacheLatch) {
         final CachedData co;
         if (value instanceof CachedData) {
             co = (CachedData) value;
         } else {
             co = tc.encode(value);
         }
+        return createStoreOperation(storeType, key, co.getData() == null ? -1 : co.getData().length,
+                cb -> opFact.store(storeType, key, co.getFlags(), exp, co.getData(), cb), evcacheLatch);
+    }
+
+    private EVCacheOperationFuture<Boolean> createStoreOperation(final StoreType storeType, final String key, int dataLength, Function<StoreOperation.Callback, Operation> opCreator, EVCacheLatch evcacheLatch) {
         final CountDownLatch latch = new CountDownLatch(1);
-        final String operationStr;
+        final TimedOperation operation;
         if (storeType == StoreType.set) {
-            operationStr = EVCacheMetricsFactory.SET_OPERATION;
+            operation = TimedOperation.SET;
         } else if (storeType == StoreType.add) {
-            operationStr = EVCacheMetricsFactory.ADD_OPERATION;
+            operation = TimedOperation.ADD;
         } else {
-            operationStr = EVCacheMetricsFactory.REPLACE_OPERATION;
+            operation = TimedOperation.REPLACE;
         }
-        if(co != null && co.getData() != null) getDataSizeDistributionSummary(operationStr, EVCacheMetricsFactory.WRITE, EVCacheMetricsFactory.IPC_SIZE_OUTBOUND).record(co.getData().length);
+        if(dataLength >= 0) getDataSizeDistributionSummary(operation.metric, EVCacheMetricsFactory.WRITE, EVCacheMetricsFactory.IPC_SIZE_OUTBOUND).record(dataLength);
 
         final EVCacheOperationFuture<Boolean> rv = new EVCacheOperationFuture<Boolean>(key, latch, new AtomicReference<Boolean>(null), operationTimeout, executorService, client);
-        final Operation op = opFact.store(storeType, key, co.getFlags(), exp, co.getData(), new StoreOperation.Callback() {
+        final Operation op = opCreator.apply(new StoreOperation.Callback() {
             @Override
             public void receivedStatus(OperationStatus val) {
                 if (log.isDebugEnabled()) log.debug("Storing Key : " + key + "; Status : " + val.getStatusCode().name() + (log.isTraceEnabled() ?  " Node : " + getEVCacheNode(key) : "") + "; Message : " + val.getMessage()
@@ -505,13 +844,12 @@ public class EVCacheMemcachedClient extends MemcachedClient {
             public void complete() {
                 latch.countDown();
                 final String host = (((rv.getStatus().getStatusCode().equals(StatusCode.TIMEDOUT) || rv.getStatus().getStatusCode().equals(StatusCode.ERR_NO_MEM)) && rv.getOperation() != null) ? getHostName(rv.getOperation().getHandlingNode().getSocketAddress()) : null);
-                getTimer(operationStr, EVCacheMetricsFactory.WRITE, rv.getStatus(), null, host, getWriteMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
+                getTimer(operation, EVCacheMetricsFactory.WRITE, rv.getStatus(), null, host, getWriteMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
                 rv.signalComplete();
             }
         });
         rv.setOperation(op);
         if (evcacheLatch != null && evcacheLatch instanceof EVCacheLatchImpl && !client.isInWriteOnly()) ((EVCacheLatchImpl) evcacheLatch).addFuture(rv);
-        mconn.enqueueOperation(key, op);
         return rv;
     }
 
@@ -574,7 +912,7 @@ public class EVCacheMemcachedClient extends MemcachedClient {
         }
         final OperationStatus status = statusList.size() > 0 ? statusList.get(0) : null;
         final String host = ((status != null && status.getStatusCode().equals(StatusCode.TIMEDOUT) && op != null) ? getHostName(op.getHandlingNode().getSocketAddress()) : null);
-        getTimer(operationStr, EVCacheMetricsFactory.WRITE, status, null, host, getWriteMetricMaxValue()).record((System.currentTimeMillis() - start), TimeUnit.MILLISECONDS);
+        getTimer(m == Mutator.incr ? TimedOperation.INCR : TimedOperation.DECR, EVCacheMetricsFactory.WRITE, status, null, host, getWriteMetricMaxValue()).record((System.currentTimeMillis() - start), TimeUnit.MILLISECONDS);
         if (log.isDebugEnabled() && client.getPool().getEVCacheClientPoolManager().shouldLog(appName)) log.debug(operationStr + " Key : " + key + "; by : " + by + "; default : " + def + "; exp : " + exp
                 + "; val : " + retVal + "; Elapsed Time - " + (System.currentTimeMillis() - start));
         return retVal;
@@ -696,7 +1034,8 @@ public class EVCacheMemcachedClient extends MemcachedClient {
     public <T> EVCacheOperationFuture<EVCacheItem<T>> asyncMetaGet(final String key, final Transcoder<T> tc, EVCacheGetOperationListener<T> listener) {
         final CountDownLatch latch = new CountDownLatch(1);
 
-        final EVCacheOperationFuture<EVCacheItem<T>> rv = new EVCacheOperationFuture<EVCacheItem<T>>(key, latch, new AtomicReference<EVCacheItem<T>>(null), readTimeout.get().intValue(), executorService, client);
+        final long startNanos = System.nanoTime();
+        final EVCacheOperationFuture<EVCacheItem<T>> rv = new EVCacheOperationFuture<EVCacheItem<T>>(key, latch, new AtomicReference<EVCacheItem<T>>(null), client.getEffectiveReadTimeout(), executorService, client);
         if(opFact instanceof EVCacheAsciiOperationFactory) {
         final Operation op = ((EVCacheAsciiOperationFactory)opFact).metaGet(key, new MetaGetOperation.Callback() {
 
@@ -797,13 +1136,15 @@ public class EVCacheMemcachedClient extends MemcachedClient {
 
             public void complete() {
                 latch.countDown();
+                client.readCompleted(startNanos, isTimedOut(rv));
                 final String host = ((rv.getStatus().getStatusCode().equals(StatusCode.TIMEDOUT) && rv.getOperation() != null) ? getHostName(rv.getOperation().getHandlingNode().getSocketAddress()) : null);
-                getTimer(EVCacheMetricsFactory.META_GET_OPERATION, EVCacheMetricsFactory.READ, rv.getStatus(), (evItem.getData() != null ? EVCacheMetricsFactory.YES : EVCacheMetricsFactory.NO), host, getReadMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
+                getTimer(TimedOperation.META_GET, EVCacheMetricsFactory.READ, rv.getStatus(), (evItem.getData() != null ? EVCacheMetricsFactory.YES : EVCacheMetricsFactory.NO), host, getReadMetricMaxValue()).record((System.currentTimeMillis() - rv.getStartTime()), TimeUnit.MILLISECONDS);
                 rv.signalComplete();
             }
 
             });
             rv.setOperation(op);
+            client.readStarted();
             mconn.enqueueOperation(key, op);
             if (log.isDebugEnabled()) log.debug("Meta_Get Data : " + rv);
         }
@@ -0,0 +1,68 @@
+package net.spy.memcached.protocol.ascii;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import net.spy.memcached.KeyUtil;
+import net.spy.memcached.ops.OperationCallback;
+import net.spy.memcached.ops.StoreOperation;
+import net.spy.memcached.ops.StoreType;
+
+/**
+ * Stores a slice of a larger value, i.e. one chunk of a chunked value. The slice is written to the operation's buffer
+ * straight from the source array, padded with filler bytes up to the given length, so that no array has to be
+ * allocated per chunk.
+ *
+ * The source array must not be modified until the operation completes.
+ */
+public class ChunkStoreOperationImpl extends BaseStoreOperationImpl implements StoreOperation {
+
+    private static final int OVERHEAD = 32;
+    private static final byte FILLER = Character.UNASSIGNED;
+
+    private final StoreType storeType;
+    private final byte[] source;
+    private final int offset, length, paddedLength;
+
+    public ChunkStoreOperationImpl(StoreType storeType, String key, int flags, int exp, byte[] source, int offset, int length, int paddedLength, OperationCallback cb) {
+        super(storeType.name(), key, flags, exp, source, cb);
+        this.storeType = storeType;
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+        this.paddedLength = Math.max(length, paddedLength);
+    }
+
+    @Override
+    public void initialize() {
+        final ByteBuffer b = ByteBuffer.allocate(paddedLength + KeyUtil.getKeyBytes(key).length + OVERHEAD);
+        setArguments(b, type, key, flags, exp, paddedLength);
+        b.put(source, offset, length);
+        for (int i = length; i < paddedLength; i++) {
+            b.put(FILLER);
+        }
+        b.put(CRLF);
+        b.flip();
+        setBuffer(b);
+    }
+
+    /**
+     * Returns a copy of the chunk, i.e. when the operation is cloned to be sent to another node.
+     */
+    @Override
+    public byte[] getData() {
+        final byte[] data = Arrays.copyOfRange(source, offset, offset + paddedLength);
+        if (paddedLength > length) Arrays.fill(data, length, paddedLength, FILLER);
+        return data;
+    }
+
+    @Override
+    public StoreType getStoreType() {
+        return storeType;
+    }
+
+    @Override
+    public String toString() {
+        return "Cmd: " + type + " Key: " + key + " Flags: " + flags + " Exp: " + exp + " Data Length: " + paddedLength;
+    }
+}
@@ -0,0 +1,68 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.Future;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache;
+import com.netflix.evcache.pool.EVCacheClient;
+
+public class AdaptiveReadTimeoutTest extends FakeServerBase {
+
+    private EVCache createAdaptiveCache(String appName) throws Exception {
+        setProperty(appName + ".adaptive.read.timeout", true);
+        setProperty(appName + ".adaptive.read.timeout.min.samples", 50);
+        setProperty(appName + ".adaptive.read.timeout.floor.millis", 20);
+        setProperty(appName + ".adaptive.read.timeout.refresh.millis", 50);
+        final EVCache cache = createCache(appName, 1);
+        for (Future<Boolean> f : cache.set("key", "value", 600)) {
+            assertTrue(f.get());
+        }
+        return cache;
+    }
+
+    private EVCacheClient getClient(String appName) {
+        return getPoolManager().getEVCacheClientPool(appName).getEVCacheClientForRead();
+    }
+
+    @Test
+    public void testTimeoutIsRefreshedFromTheReadLatencies() throws Exception {
+        final EVCache cache = createAdaptiveCache("ADAPTIVE_REFRESH");
+        final EVCacheClient client = getClient("ADAPTIVE_REFRESH");
+        assertEquals(client.getEffectiveReadTimeout(), 500);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(cache.<String> get("key"), "value");
+        }
+        assertTrue(waitFor(() -> client.getEffectiveReadTimeout() < 500, 2000), "the adaptive timeout should have been refreshed");
+        assertTrue(client.getEffectiveReadTimeout() >= 20);
+    }
+
+    @Test
+    public void testTimedOutReadsAreNotRecorded() throws Exception {
+        final EVCache cache = createAdaptiveCache("ADAPTIVE_TIMEOUT");
+        final EVCacheClient client = getClient("ADAPTIVE_TIMEOUT");
+        for (int i = 0; i < 200; i++) {
+            assertEquals(cache.<String> get("key"), "value");
+        }
+        assertTrue(waitFor(() -> client.getEffectiveReadTimeout() < 500, 2000));
+        final int timeout = client.getEffectiveReadTimeout();
+
+        final FakeMemcachedServer server = getServer("ADAPTIVE_TIMEOUT", 0);
+        server.setReadDelayMillis(timeout + 200);
+        try {
+            for (int i = 0; i < 3; i++) {
+                assertNull(cache.<String> get("key"));
+            }
+        } finally {
+            server.setReadDelayMillis(0);
+        }
+        // let the late responses arrive and the timeout be refreshed
+        assertTrue(waitFor(() -> server.getCommandCount("get") >= 203, 5000));
+        Thread.sleep(1500);
+        assertTrue(client.getEffectiveReadTimeout() < 500, "the timed out reads should not have raised the adaptive timeout to the ceiling");
+    }
+}
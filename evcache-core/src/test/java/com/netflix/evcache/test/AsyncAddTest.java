@@ -0,0 +1,75 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache;
+import com.netflix.evcache.EVCacheException;
+
+import net.spy.memcached.transcoders.Transcoder;
+
+public class AsyncAddTest extends FakeServerBase {
+
+    private static final Transcoder<String> DEFAULT_TRANSCODER = null;
+
+    private String valueOf(String appName, int serverGroup, String key) {
+        final FakeMemcachedServer.Item item = getServer(appName, serverGroup).getItem(key);
+        return item == null ? null : new String(item.data, StandardCharsets.UTF_8);
+    }
+
+    private Boolean add(EVCache cache, String key, String value) throws Exception {
+        return cache.async().add(key, value, DEFAULT_TRANSCODER, 600).toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testAddToAllServerGroups() throws Exception {
+        final EVCache cache = createCache("ASYNC_ADD", 2);
+        assertTrue(add(cache, "new", "value"));
+        assertEquals(valueOf("ASYNC_ADD", 0, "new"), "value");
+        assertEquals(valueOf("ASYNC_ADD", 1, "new"), "value");
+    }
+
+    @Test
+    public void testKeyExistsInLocalServerGroup() throws Exception {
+        final EVCache cache = createCache("ASYNC_ADD_LOCAL", 2);
+        getServer("ASYNC_ADD_LOCAL", 0).putItem("key", "old".getBytes(StandardCharsets.UTF_8), 0, 600);
+        assertFalse(add(cache, "key", "new"));
+        assertEquals(valueOf("ASYNC_ADD_LOCAL", 0, "key"), "old");
+        assertNull(valueOf("ASYNC_ADD_LOCAL", 1, "key"));
+    }
+
+    @Test
+    public void testKeyExistsInOtherServerGroupIsFixedUp() throws Exception {
+        final EVCache cache = createCache("ASYNC_ADD_FIXUP", 2);
+        getServer("ASYNC_ADD_FIXUP", 1).putItem("key", "old".getBytes(StandardCharsets.UTF_8), 0, 600);
+        assertFalse(add(cache, "key", "new"));
+        // the existing value is copied to all the server groups before the add completes
+        assertEquals(valueOf("ASYNC_ADD_FIXUP", 0, "key"), "old");
+        assertEquals(valueOf("ASYNC_ADD_FIXUP", 1, "key"), "old");
+    }
+
+    @Test
+    public void testErrorIsNotReportedAsExists() throws Exception {
+        setProperty("ASYNC_ADD_ERROR.throw.exception", true);
+        final EVCache cache = createCache("ASYNC_ADD_ERROR", 2);
+        getServer("ASYNC_ADD_ERROR", 0).setFailWrites(true);
+        try {
+            add(cache, "key", "value");
+            fail("the failed add should not be reported as an existing key");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof EVCacheException, "unexpected cause " + e.getCause());
+        } finally {
+            getServer("ASYNC_ADD_ERROR", 0).setFailWrites(false);
+        }
+        assertNull(valueOf("ASYNC_ADD_ERROR", 1, "key"));
+    }
+}
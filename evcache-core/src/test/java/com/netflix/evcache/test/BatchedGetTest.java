@@ -0,0 +1,78 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.operation.EVCacheOperationFuture;
+import com.netflix.evcache.pool.EVCacheClient;
+
+import net.spy.memcached.internal.CheckedOperationTimeoutException;
+import net.spy.memcached.transcoders.Transcoder;
+
+public class BatchedGetTest extends FakeServerBase {
+
+    private EVCacheClient createBatchingClient(String appName) throws Exception {
+        setProperty(appName + ".get.batching", true);
+        setProperty(appName + ".get.batching.window.micros", 50000);
+        createCache(appName, 1);
+        for (int i = 0; i < 4; i++) {
+            getServer(appName, 0).putItem("k" + i, ("v" + i).getBytes(StandardCharsets.UTF_8), 0, 600);
+        }
+        return getPoolManager().getEVCacheClientPool(appName).getEVCacheClientForRead();
+    }
+
+    private EVCacheOperationFuture<String> get(EVCacheClient client, String key) throws Exception {
+        return client.<String> asyncGet(key, (Transcoder<String>) null, null);
+    }
+
+    @Test
+    public void testGetsInTheWindowAreSentAsOneMultiGet() throws Exception {
+        final EVCacheClient client = createBatchingClient("BATCH_WINDOW");
+        final List<EVCacheOperationFuture<String>> futures = new ArrayList<EVCacheOperationFuture<String>>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(get(client, "k" + i));
+        }
+        for (int i = 0; i < 4; i++) {
+            assertEquals(futures.get(i).get(2000, TimeUnit.MILLISECONDS), "v" + i);
+        }
+        assertEquals(getServer("BATCH_WINDOW", 0).getCommandCount("get"), 1);
+    }
+
+    @Test
+    public void testCallerTimeoutDoesNotTimeOutTheBatch() throws Exception {
+        final EVCacheClient client = createBatchingClient("BATCH_TIMEOUT");
+        getServer("BATCH_TIMEOUT", 0).setReadDelayMillis(200);
+        try {
+            final EVCacheOperationFuture<String> impatient = get(client, "k0");
+            final EVCacheOperationFuture<String> patient = get(client, "k1");
+            try {
+                impatient.get(20, TimeUnit.MILLISECONDS);
+                fail("the get should have timed out");
+            } catch (CheckedOperationTimeoutException e) {
+                assertTrue(impatient.isTimedOut());
+            }
+            assertEquals(patient.get(2000, TimeUnit.MILLISECONDS), "v1");
+            assertFalse(patient.isTimedOut());
+        } finally {
+            getServer("BATCH_TIMEOUT", 0).setReadDelayMillis(0);
+        }
+    }
+
+    @Test
+    public void testCallerCancelDoesNotCancelTheBatch() throws Exception {
+        final EVCacheClient client = createBatchingClient("BATCH_CANCEL");
+        final EVCacheOperationFuture<String> cancelled = get(client, "k0");
+        final EVCacheOperationFuture<String> other = get(client, "k1");
+        assertFalse(cancelled.cancel());
+        assertEquals(other.get(2000, TimeUnit.MILLISECONDS), "v1");
+    }
+}
@@ -0,0 +1,56 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache;
+import com.netflix.evcache.pool.EVCacheExecutor;
+
+public class BulkFallbackTest extends FakeServerBase {
+
+    private void put(String appName, int serverGroup, String key, String value) {
+        getServer(appName, serverGroup).putItem(key, value.getBytes(StandardCharsets.UTF_8), 0, 600);
+    }
+
+    @Test
+    public void testPartialFallbackIsSequentialByDefault() throws Exception {
+        setProperty("BULK_SEQUENTIAL.max.retry.count", 2);
+        final EVCache cache = createCache("BULK_SEQUENTIAL", 3);
+        put("BULK_SEQUENTIAL", 0, "k1", "v1");
+        put("BULK_SEQUENTIAL", 1, "k2", "v2");
+        put("BULK_SEQUENTIAL", 2, "k3", "v3");
+
+        final long tasks = getPoolManager().getEVCacheWorkerExecutor().getTaskCount();
+        final Map<String, String> values = cache.<String> getBulk(Arrays.asList("k1", "k2", "k3"));
+        assertEquals(values.get("k1"), "v1");
+        assertEquals(values.get("k2"), "v2");
+        assertEquals(values.get("k3"), "v3");
+        assertEquals(getPoolManager().getEVCacheWorkerExecutor().getTaskCount(), tasks);
+    }
+
+    @Test
+    public void testParallelPartialFallbackRunsOnWorkerExecutor() throws Exception {
+        setProperty("BULK_PARALLEL.max.retry.count", 2);
+        setProperty("BULK_PARALLEL.bulk.partial.fallback.zone.parallel", true);
+        final EVCache cache = createCache("BULK_PARALLEL", 3);
+        put("BULK_PARALLEL", 0, "k1", "v1");
+        put("BULK_PARALLEL", 1, "k2", "v2");
+        put("BULK_PARALLEL", 2, "k3", "v3");
+
+        final EVCacheExecutor worker = getPoolManager().getEVCacheWorkerExecutor();
+        final long tasks = worker.getTaskCount();
+        final Map<String, String> values = cache.<String> getBulk(Arrays.asList("k1", "k2", "k3"));
+        assertEquals(values.get("k1"), "v1");
+        assertEquals(values.get("k2"), "v2");
+        assertEquals(values.get("k3"), "v3");
+        assertTrue(worker.getTaskCount() > tasks, "the second fallback server group should be read on the worker executor");
+        assertEquals(getServer("BULK_PARALLEL", 1).getCommandCount("get"), 1);
+        assertEquals(getServer("BULK_PARALLEL", 2).getCommandCount("get"), 1);
+    }
+}
@@ -0,0 +1,69 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache;
+import com.netflix.evcache.EVCacheLatch;
+import com.netflix.evcache.EVCacheLatch.Policy;
+
+public class BulkWriteTest extends FakeServerBase {
+
+    private static final int KEYS = 50;
+
+    private Map<String, String> values() {
+        final Map<String, String> values = new HashMap<String, String>();
+        for (int i = 0; i < KEYS; i++) {
+            values.put("key_" + i, "value_" + i);
+        }
+        return values;
+    }
+
+    @Test
+    public void testSetDeleteAndTouchBulk() throws Exception {
+        final EVCache cache = createCache("BULK_WRITE", 2);
+        final Map<String, String> values = values();
+
+        final EVCacheLatch set = cache.setBulk(values, 600, Policy.ALL);
+        assertTrue(set.await(2, TimeUnit.SECONDS));
+        assertEquals(set.getSuccessCount(), 2 * KEYS);
+        for (int serverGroup = 0; serverGroup < 2; serverGroup++) {
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                final FakeMemcachedServer.Item item = getServer("BULK_WRITE", serverGroup).getItem(entry.getKey());
+                assertEquals(new String(item.data, StandardCharsets.UTF_8), entry.getValue());
+            }
+        }
+
+        final List<String> keys = new ArrayList<String>(values.keySet());
+        final EVCacheLatch touch = cache.touchBulk(keys.subList(0, 10), 1200, Policy.ALL);
+        assertTrue(touch.await(2, TimeUnit.SECONDS));
+        assertTrue(getServer("BULK_WRITE", 1).getItem(keys.get(0)).getTTL() > 600);
+
+        final EVCacheLatch delete = cache.deleteBulk(keys, Policy.ALL);
+        assertTrue(delete.await(2, TimeUnit.SECONDS));
+        for (String key : keys) {
+            assertNull(getServer("BULK_WRITE", 0).getItem(key));
+            assertNull(getServer("BULK_WRITE", 1).getItem(key));
+        }
+    }
+
+    @Test
+    public void testPolicyAppliesToTheReplicasOfEachKey() throws Exception {
+        final EVCache cache = createCache("BULK_POLICY", 3);
+        final EVCacheLatch one = cache.setBulk(values(), 600, Policy.ONE);
+        assertEquals(one.getExpectedCompleteCount(), KEYS);
+        final EVCacheLatch allMinusOne = cache.setBulk(values(), 600, Policy.ALL_MINUS_1);
+        assertEquals(allMinusOne.getExpectedCompleteCount(), 2 * KEYS);
+        assertTrue(allMinusOne.await(2, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,92 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.util.CacheSnapshot;
+
+public class CacheSnapshotTest {
+
+    private static byte[] data(int i, int length) {
+        final byte[] data = new byte[length];
+        for (int j = 0; j < length; j++) {
+            data[j] = (byte) (i + j);
+        }
+        return data;
+    }
+
+    @Test
+    public void testEntriesAreReadBackAndExpiredOnesSkipped() throws IOException {
+        final Path dir = Files.createTempDirectory("snapshot");
+        final Path path = dir.resolve("cache");
+        try {
+            // more than the read buffer so that the entries span several reads
+            final long written = CacheSnapshot.write(path, "tc", (sink) -> {
+                for (int i = 0; i < 2000; i++) {
+                    final byte[] key = ("key_" + i).getBytes(StandardCharsets.UTF_8);
+                    if (i % 10 == 0) {
+                        sink.accept(key, i, data(i, 1000), 1); // expires before it is read back
+                    } else {
+                        sink.accept(key, i, data(i, 1000), i % 2 == 0 ? -1 : 600000);
+                    }
+                }
+            });
+            assertEquals(written, 2000);
+            assertTrue(Files.size(path) > 2000 * 1000);
+            sleep(5);
+
+            final Map<String, byte[]> read = new HashMap<String, byte[]>();
+            final long count = CacheSnapshot.read(path, "tc", 60000, (key, flags, data, expiresInMillis) -> {
+                final String k = new String(key, StandardCharsets.UTF_8);
+                assertEquals(k, "key_" + flags);
+                assertTrue(flags % 2 == 0 ? expiresInMillis == -1 : expiresInMillis > 0 && expiresInMillis <= 600000);
+                read.put(k, data);
+            });
+            assertEquals(count, 1800);
+            assertEquals(read.size(), 1800);
+            assertEquals(read.get("key_1999"), data(1999, 1000));
+            assertTrue(!read.containsKey("key_10"));
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    public void testSnapshotOfAnotherTranscoderOrTooOldIsNotRead() throws IOException {
+        final Path dir = Files.createTempDirectory("snapshot");
+        final Path path = dir.resolve("cache");
+        try {
+            CacheSnapshot.write(path, "tc", (sink) -> sink.accept("key".getBytes(StandardCharsets.UTF_8), 0, data(0, 10), -1));
+            assertEquals(CacheSnapshot.read(path, "other", 60000, (key, flags, data, expiresInMillis) -> {
+            }), 0);
+            sleep(5);
+            assertEquals(CacheSnapshot.read(path, "tc", 1, (key, flags, data, expiresInMillis) -> {
+            }), 0);
+            assertEquals(CacheSnapshot.read(path, "tc", 60000, (key, flags, data, expiresInMillis) -> {
+            }), 1);
+            assertEquals(CacheSnapshot.read(dir.resolve("missing"), "tc", 60000, (key, flags, data, expiresInMillis) -> {
+            }), 0);
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Future;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache;
+
+public class ChunkReassemblyTest extends FakeServerBase {
+
+    // random so that it stays larger than a chunk once compressed
+    private static String largeValue(long seed) {
+        final Random random = new Random(seed);
+        final char[] chars = new char[20000];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    private static void set(EVCache cache, String key, String value) throws Exception {
+        for (Future<Boolean> f : cache.set(key, value, 600)) {
+            assertTrue(f.get());
+        }
+    }
+
+    private static void restore(FakeMemcachedServer server, String key, FakeMemcachedServer.Item item) {
+        server.putItem(key, item.data, item.flags, 600);
+    }
+
+    @Test
+    public void testMetadataIsWrittenAfterTheChunks() throws Exception {
+        setProperty("CHUNK_ORDER.chunk.data", true);
+        final EVCache cache = createCache("CHUNK_ORDER", 1);
+        set(cache, "large", largeValue(1));
+
+        final List<String> log = getServer("CHUNK_ORDER", 0).getCommandLog();
+        int metadata = -1, lastChunk = -1;
+        for (int i = 0; i < log.size(); i++) {
+            final String[] parts = log.get(i).split(" ");
+            if (!parts[0].equals("set") || !parts[1].startsWith("large_")) continue;
+            if (parts[1].equals("large_00")) metadata = i;
+            else lastChunk = i;
+        }
+        assertTrue(lastChunk >= 0, "the value should have been chunked");
+        assertTrue(metadata > lastChunk, "the metadata should have been written after the chunks");
+    }
+
+    @Test
+    public void testChunksWithoutTheirMetadataAreNotReturned() throws Exception {
+        setProperty("CHUNK_REASSEMBLY.chunk.data", true);
+        final EVCache cache = createCache("CHUNK_REASSEMBLY", 1);
+        final FakeMemcachedServer server = getServer("CHUNK_REASSEMBLY", 0);
+        final String oldValue = largeValue(1);
+        final String newValue = largeValue(2);
+
+        set(cache, "large", oldValue);
+        final FakeMemcachedServer.Item oldMetadata = server.getItem("large_00");
+        assertNotNull(oldMetadata, "the value should have been chunked");
+        set(cache, "large", newValue);
+        final FakeMemcachedServer.Item newMetadata = server.getItem("large_00");
+
+        // the chunks of the new value have landed but its metadata has not, so the old metadata is read
+        restore(server, "large_00", oldMetadata);
+        assertNull(cache.<String> get("large"), "the chunks of the new value should not be assembled with the old metadata");
+
+        // the metadata lands after the chunks
+        restore(server, "large_00", newMetadata);
+        assertEquals(cache.<String> get("large"), newValue);
+
+        // a first write whose metadata has not landed yet is a miss
+        for (Map.Entry<String, FakeMemcachedServer.Item> entry : server.getItems().entrySet()) {
+            if (entry.getKey().startsWith("large_") && !entry.getKey().equals("large_00")) {
+                restore(server, "fresh" + entry.getKey().substring("large".length()), entry.getValue());
+            }
+        }
+        assertNull(cache.<String> get("fresh"));
+        restore(server, "fresh_00", server.getItem("large_00"));
+        assertEquals(cache.<String> get("fresh"), newValue);
+    }
+}
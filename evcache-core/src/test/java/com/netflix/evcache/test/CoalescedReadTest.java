@@ -0,0 +1,63 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache;
+import com.netflix.evcache.pool.EVCacheClientPool;
+
+public class CoalescedReadTest extends FakeServerBase {
+
+    @Test
+    public void testConcurrentGetsShareOneRead() throws Exception {
+        setProperty("COALESCE.coalesce.reads", true);
+        final EVCache cache = createCache("COALESCE", 1);
+        for (Future<Boolean> f : cache.set("key", "value", 600)) {
+            assertTrue(f.get());
+        }
+        final FakeMemcachedServer server = getServer("COALESCE", 0);
+        final int gets = server.getCommandCount("get");
+        server.setReadDelayMillis(200);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Callable<String> get = () -> cache.<String> get("key");
+            final Future<String> first = executor.submit(get);
+            Thread.sleep(50);
+            final Future<String> second = executor.submit(get);
+            final String v1 = first.get(2, TimeUnit.SECONDS);
+            final String v2 = second.get(2, TimeUnit.SECONDS);
+            assertEquals(v1, "value");
+            assertEquals(v2, "value");
+            assertNotSame(v1, v2, "every caller should get its own decoded value");
+            assertEquals(server.getCommandCount("get"), gets + 1);
+        } finally {
+            server.setReadDelayMillis(0);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testGetWithoutAReadClientFailsFast() throws Exception {
+        setProperty("COALESCE_NO_CLIENT.coalesce.reads", true);
+        final EVCache cache = createCache("COALESCE_NO_CLIENT", 1);
+        final EVCacheClientPool pool = getPoolManager().getEVCacheClientPool("COALESCE_NO_CLIENT");
+        setProperty("COALESCE_NO_CLIENT.A.EVCacheClientPool.writeOnly", true);
+        try {
+            pool.refreshPool(false, true);
+            assertTrue(waitFor(() -> pool.getEVCacheClientForRead() == null, 2000), "the only server group should be write only");
+            assertNull(cache.<String> get("key"));
+        } finally {
+            setProperty("COALESCE_NO_CLIENT.A.EVCacheClientPool.writeOnly", false);
+        }
+    }
+}
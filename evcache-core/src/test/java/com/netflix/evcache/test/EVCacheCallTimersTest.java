@@ -0,0 +1,78 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache.Call;
+import com.netflix.evcache.metrics.EVCacheCallTimers;
+import com.netflix.evcache.metrics.EVCacheMetricsFactory;
+import com.netflix.evcache.metrics.EVCacheMetricsFactory.CacheHit;
+import com.netflix.evcache.metrics.EVCacheMetricsFactory.IpcResult;
+import com.netflix.evcache.pool.ServerGroup;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Tag;
+import com.netflix.spectator.api.Timer;
+
+public class EVCacheCallTimersTest {
+
+    private static List<Tag> tags(String appName) {
+        final List<Tag> tags = new ArrayList<Tag>();
+        EVCacheMetricsFactory.getInstance().addAppNameTags(tags, appName);
+        return tags;
+    }
+
+    @Test
+    public void testEveryCombinationHasItsOwnTimerTaggedAsBefore() {
+        final EVCacheCallTimers timers = new EVCacheCallTimers(tags("CALL_TIMERS"));
+        final EVCacheCallTimers stringKeyedTimers = new EVCacheCallTimers(tags("CALL_TIMERS"));
+        final CacheHit[] hits = { null, CacheHit.YES, CacheHit.NO, CacheHit.PARTIAL };
+        final ServerGroup[] serverGroups = { null, new ServerGroup("A", "CALL_TIMERS-A") };
+        final Set<Id> ids = new HashSet<Id>();
+        int combinations = 0;
+        for (Call call : Call.values()) {
+            for (CacheHit hit : hits) {
+                for (IpcResult status : IpcResult.values()) {
+                    for (int tries = 1; tries <= 3; tries++) {
+                        for (ServerGroup serverGroup : serverGroups) {
+                            final Timer timer = timers.getTimer(call, EVCacheMetricsFactory.READ, hit, status, tries, 20, serverGroup);
+                            assertSame(timers.getTimer(call, EVCacheMetricsFactory.READ, hit, status, tries, 20, serverGroup), timer);
+                            final Timer expected = stringKeyedTimers.getTimer(call.name(), EVCacheMetricsFactory.READ,
+                                    (hit == null) ? null : hit.value(), status.value(), tries, 20, serverGroup);
+                            assertEquals(timer.id(), expected.id());
+                            ids.add(timer.id());
+                            combinations++;
+                        }
+                    }
+                }
+            }
+        }
+        assertEquals(ids.size(), combinations, "every combination should map to its own timer");
+    }
+
+    @Test
+    public void testTimerIsTaggedWithTheStringValues() {
+        final EVCacheCallTimers timers = new EVCacheCallTimers(tags("CALL_TIMERS_TAGS"));
+        final Id id = timers.getTimer(Call.BULK, EVCacheMetricsFactory.READ, CacheHit.PARTIAL, IpcResult.THROTTLED, 2, 20,
+                new ServerGroup("B", "CALL_TIMERS_TAGS-B")).id();
+        final Set<String> tags = new HashSet<String>();
+        for (Tag tag : id.tags()) {
+            tags.add(tag.key() + "=" + tag.value());
+        }
+        assertEquals(id.name(), EVCacheMetricsFactory.OVERALL_CALL);
+        assertTrue(tags.contains(EVCacheMetricsFactory.CALL_TAG + "=BULK"), tags.toString());
+        assertTrue(tags.contains(EVCacheMetricsFactory.CALL_TYPE_TAG + "=" + EVCacheMetricsFactory.READ), tags.toString());
+        assertTrue(tags.contains(EVCacheMetricsFactory.CACHE_HIT + "=" + EVCacheMetricsFactory.PARTIAL), tags.toString());
+        assertTrue(tags.contains(EVCacheMetricsFactory.IPC_RESULT + "=" + EVCacheMetricsFactory.THROTTLED), tags.toString());
+        assertTrue(tags.contains(EVCacheMetricsFactory.ATTEMPT + "=" + EVCacheMetricsFactory.SECOND), tags.toString());
+        assertTrue(tags.contains(EVCacheMetricsFactory.SERVERGROUP + "=CALL_TIMERS_TAGS-B"), tags.toString());
+        assertTrue(tags.contains(EVCacheMetricsFactory.ZONE + "=B"), tags.toString());
+    }
+}
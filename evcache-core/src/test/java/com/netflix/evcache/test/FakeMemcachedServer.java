@@ -0,0 +1,392 @@
+package com.netflix.evcache.test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A small in process memcached server speaking the ascii protocol. It supports the commands used by the EVCache
+ * client (get, gets, gat, set, add, replace, append, prepend, cas, delete, touch, incr, decr, mg & me) and lets the
+ * tests slow down or fail reads and writes to exercise timeouts, fallbacks & errors.
+ */
+public class FakeMemcachedServer {
+    private static final Logger log = LoggerFactory.getLogger(FakeMemcachedServer.class);
+    private static final byte[] CRLF = { '\r', '\n' };
+
+    public static final class Item {
+        public final byte[] data;
+        public final int flags;
+        public final long expiresAt;
+        public final long cas;
+
+        Item(byte[] data, int flags, long expiresAt, long cas) {
+            this.data = data;
+            this.flags = flags;
+            this.expiresAt = expiresAt;
+            this.cas = cas;
+        }
+
+        boolean isExpired() {
+            return expiresAt > 0 && expiresAt <= System.currentTimeMillis();
+        }
+
+        /**
+         * Returns the remaining ttl in seconds or -1 if the item does not expire.
+         */
+        public int getTTL() {
+            if (expiresAt == 0) return -1;
+            return (int) Math.max(0, (expiresAt - System.currentTimeMillis()) / 1000);
+        }
+    }
+
+    private final ServerSocket serverSocket;
+    private final Map<String, Item> items = new ConcurrentHashMap<String, Item>();
+    private final Map<String, AtomicInteger> commandCounts = new ConcurrentHashMap<String, AtomicInteger>();
+    private final List<String> commandLog = Collections.synchronizedList(new ArrayList<String>());
+    private final List<Socket> sockets = Collections.synchronizedList(new ArrayList<Socket>());
+    private final AtomicLong casCounter = new AtomicLong();
+    private volatile long readDelayMillis = 0;
+    private volatile long writeDelayMillis = 0;
+    private volatile boolean failReads = false;
+    private volatile boolean failWrites = false;
+    private volatile boolean running = true;
+
+    public FakeMemcachedServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        final Thread acceptor = new Thread(this::accept, "FakeMemcachedServer-" + getPort());
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public String getAddress() {
+        return "localhost:" + getPort();
+    }
+
+    public void setReadDelayMillis(long readDelayMillis) {
+        this.readDelayMillis = readDelayMillis;
+    }
+
+    public void setWriteDelayMillis(long writeDelayMillis) {
+        this.writeDelayMillis = writeDelayMillis;
+    }
+
+    public void setFailReads(boolean failReads) {
+        this.failReads = failReads;
+    }
+
+    public void setFailWrites(boolean failWrites) {
+        this.failWrites = failWrites;
+    }
+
+    public Item getItem(String key) {
+        final Item item = items.get(key);
+        if (item == null || item.isExpired()) return null;
+        return item;
+    }
+
+    public void putItem(String key, byte[] data, int flags, int ttl) {
+        items.put(key, new Item(data, flags, toExpiry(ttl), casCounter.incrementAndGet()));
+    }
+
+    public void removeItem(String key) {
+        items.remove(key);
+    }
+
+    public Map<String, Item> getItems() {
+        return items;
+    }
+
+    public int getCommandCount(String command) {
+        final AtomicInteger count = commandCounts.get(command);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Returns the command lines (without data blocks) received so far, in the order they were received.
+     */
+    public List<String> getCommandLog() {
+        synchronized (commandLog) {
+            return new ArrayList<String>(commandLog);
+        }
+    }
+
+    public void reset() {
+        items.clear();
+        commandCounts.clear();
+        commandLog.clear();
+        readDelayMillis = 0;
+        writeDelayMillis = 0;
+        failReads = false;
+        failWrites = false;
+    }
+
+    public void shutdown() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            log.debug("Exception closing the server socket", e);
+        }
+        synchronized (sockets) {
+            for (Socket socket : sockets) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    log.debug("Exception closing the socket", e);
+                }
+            }
+        }
+    }
+
+    private void accept() {
+        while (running) {
+            try {
+                final Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                sockets.add(socket);
+                final Thread handler = new Thread(() -> handle(socket), "FakeMemcachedServer-" + getPort() + "-" + socket.getPort());
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                if (running) log.debug("Exception accepting a connection", e);
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (InputStream in = new BufferedInputStream(socket.getInputStream()); OutputStream out = socket.getOutputStream()) {
+            String line;
+            while (running && (line = readLine(in)) != null) {
+                if (line.isEmpty()) continue;
+                final String[] parts = line.split(" ");
+                final String command = parts[0];
+                commandCounts.computeIfAbsent(command, c -> new AtomicInteger()).incrementAndGet();
+                commandLog.add(line);
+                final ByteArrayOutputStream response = new ByteArrayOutputStream();
+                process(command, parts, in, response);
+                out.write(response.toByteArray());
+                out.flush();
+            }
+        } catch (SocketException e) {
+            if (log.isDebugEnabled()) log.debug("Connection closed : " + e.getMessage());
+        } catch (IOException e) {
+            log.debug("Exception handling the connection", e);
+        } finally {
+            sockets.remove(socket);
+        }
+    }
+
+    private void process(String command, String[] parts, InputStream in, ByteArrayOutputStream out) throws IOException {
+        switch (command) {
+        case "get":
+        case "gets":
+            read();
+            if (failReads) {
+                writeLine(out, "SERVER_ERROR injected read failure");
+                return;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                writeValue(out, parts[i], getItem(parts[i]), command.equals("gets"));
+            }
+            writeLine(out, "END");
+            return;
+        case "gat":
+        case "gats":
+            read();
+            if (failReads) {
+                writeLine(out, "SERVER_ERROR injected read failure");
+                return;
+            }
+            final int gatTTL = Integer.parseInt(parts[1]);
+            for (int i = 2; i < parts.length; i++) {
+                writeValue(out, parts[i], touch(parts[i], gatTTL), command.equals("gats"));
+            }
+            writeLine(out, "END");
+            return;
+        case "mg":
+            read();
+            if (failReads) {
+                writeLine(out, "SERVER_ERROR injected read failure");
+                return;
+            }
+            final Item item = getItem(parts[1]);
+            if (item == null) {
+                writeLine(out, "EN");
+            } else {
+                writeLine(out, "VA " + item.data.length + " s" + item.data.length + " f" + item.flags + " t" + item.getTTL() + " c" + item.cas);
+                out.write(item.data);
+                out.write(CRLF);
+            }
+            return;
+        case "me":
+            read();
+            writeLine(out, "EN");
+            return;
+        case "set":
+        case "add":
+        case "replace":
+        case "append":
+        case "prepend":
+        case "cas":
+            final byte[] data = readData(in, Integer.parseInt(parts[4]));
+            write();
+            if (failWrites) {
+                writeLine(out, "SERVER_ERROR injected write failure");
+                return;
+            }
+            writeLine(out, store(command, parts[1], Integer.parseInt(parts[2]), Integer.parseInt(parts[3]), data, command.equals("cas") ? Long.parseLong(parts[5]) : 0));
+            return;
+        case "delete":
+            write();
+            if (failWrites) {
+                writeLine(out, "SERVER_ERROR injected write failure");
+                return;
+            }
+            writeLine(out, (items.remove(parts[1]) == null) ? "NOT_FOUND" : "DELETED");
+            return;
+        case "touch":
+            write();
+            writeLine(out, (touch(parts[1], Integer.parseInt(parts[2])) == null) ? "NOT_FOUND" : "TOUCHED");
+            return;
+        case "incr":
+        case "decr":
+            write();
+            writeLine(out, incr(parts[1], Long.parseLong(parts[2]), command.equals("incr")));
+            return;
+        case "version":
+            writeLine(out, "VERSION 1.6.0-fake");
+            return;
+        default:
+            writeLine(out, "ERROR");
+        }
+    }
+
+    private synchronized String store(String command, String key, int flags, int ttl, byte[] data, long cas) {
+        final Item current = getItem(key);
+        switch (command) {
+        case "add":
+            if (current != null) return "NOT_STORED";
+            break;
+        case "replace":
+            if (current == null) return "NOT_STORED";
+            break;
+        case "append":
+        case "prepend":
+            if (current == null) return "NOT_STORED";
+            final byte[] joined = new byte[current.data.length + data.length];
+            final byte[] first = command.equals("append") ? current.data : data;
+            final byte[] second = command.equals("append") ? data : current.data;
+            System.arraycopy(first, 0, joined, 0, first.length);
+            System.arraycopy(second, 0, joined, first.length, second.length);
+            items.put(key, new Item(joined, current.flags, current.expiresAt, casCounter.incrementAndGet()));
+            return "STORED";
+        case "cas":
+            if (current == null) return "NOT_FOUND";
+            if (current.cas != cas) return "EXISTS";
+            break;
+        default:
+            break;
+        }
+        items.put(key, new Item(data, flags, toExpiry(ttl), casCounter.incrementAndGet()));
+        return "STORED";
+    }
+
+    private synchronized Item touch(String key, int ttl) {
+        final Item current = getItem(key);
+        if (current == null) return null;
+        final Item touched = new Item(current.data, current.flags, toExpiry(ttl), current.cas);
+        items.put(key, touched);
+        return touched;
+    }
+
+    private synchronized String incr(String key, long by, boolean incr) {
+        final Item current = getItem(key);
+        if (current == null) return "NOT_FOUND";
+        long value = Long.parseLong(new String(current.data, StandardCharsets.US_ASCII).trim());
+        value = incr ? value + by : Math.max(0, value - by);
+        items.put(key, new Item(String.valueOf(value).getBytes(StandardCharsets.US_ASCII), current.flags, current.expiresAt, casCounter.incrementAndGet()));
+        return String.valueOf(value);
+    }
+
+    private static long toExpiry(int ttl) {
+        if (ttl == 0) return 0;
+        if (ttl < 0) return System.currentTimeMillis();
+        if (ttl > 60 * 60 * 24 * 30) return ttl * 1000L;
+        return System.currentTimeMillis() + ttl * 1000L;
+    }
+
+    private void read() {
+        sleep(readDelayMillis);
+    }
+
+    private void write() {
+        sleep(writeDelayMillis);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void writeValue(ByteArrayOutputStream out, String key, Item item, boolean withCas) throws IOException {
+        if (item == null) return;
+        writeLine(out, "VALUE " + key + " " + item.flags + " " + item.data.length + (withCas ? " " + item.cas : ""));
+        out.write(item.data);
+        out.write(CRLF);
+    }
+
+    private static void writeLine(ByteArrayOutputStream out, String line) throws IOException {
+        out.write(line.getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+    }
+
+    private static byte[] readData(InputStream in, int length) throws IOException {
+        final byte[] data = new byte[length];
+        int read = 0;
+        while (read < length) {
+            final int n = in.read(data, read, length - read);
+            if (n < 0) throw new IOException("Connection closed while reading data");
+            read += n;
+        }
+        if (in.read() != '\r' || in.read() != '\n') throw new IOException("Data block not terminated by CRLF");
+        return data;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        final ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\r') {
+                if (in.read() != '\n') throw new IOException("Command line not terminated by CRLF");
+                return new String(line.toByteArray(), StandardCharsets.US_ASCII);
+            }
+            line.write(b);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,123 @@
+package com.netflix.evcache.test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.apache.log4j.BasicConfigurator;
+import org.apache.log4j.ConsoleAppender;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.testng.annotations.AfterClass;
+
+import com.netflix.archaius.DefaultPropertyFactory;
+import com.netflix.archaius.config.DefaultCompositeConfig;
+import com.netflix.archaius.config.DefaultSettableConfig;
+import com.netflix.archaius.config.SystemConfig;
+import com.netflix.evcache.EVCache;
+import com.netflix.evcache.connection.ConnectionFactoryBuilder;
+import com.netflix.evcache.pool.EVCacheClientPool;
+import com.netflix.evcache.pool.EVCacheClientPoolManager;
+import com.netflix.evcache.pool.SimpleNodeListProvider;
+import com.netflix.evcache.util.EVCacheConfig;
+
+/**
+ * Base for the tests that run EVCache against {@link FakeMemcachedServer}s. Every server is a server group of its own,
+ * named A, B, C... and A is the local server group. The servers speak the ascii protocol. The properties can be changed at runtime through {@link #setProperty}.
+ */
+public abstract class FakeServerBase {
+
+    private static DefaultSettableConfig settableConfig;
+    private static EVCacheClientPoolManager poolManager;
+
+    static {
+        BasicConfigurator.resetConfiguration();
+        BasicConfigurator.configure(new ConsoleAppender(new PatternLayout("%d{HH:mm:ss,SSS} [%t] %p %c %x - %m%n")));
+        Logger.getRootLogger().setLevel(Level.WARN);
+    }
+
+    private final Map<String, List<FakeMemcachedServer>> servers = new ConcurrentHashMap<String, List<FakeMemcachedServer>>();
+
+    protected static synchronized EVCacheClientPoolManager getPoolManager() {
+        if (poolManager == null) {
+            System.setProperty("EC2_AVAILABILITY_ZONE", "A");
+            settableConfig = new DefaultSettableConfig();
+            settableConfig.setProperty("evcache.use.binary.protocol", false);
+            final DefaultCompositeConfig config = new DefaultCompositeConfig(true);
+            try {
+                config.addConfig("RUNTIME", settableConfig);
+                config.addConfig("SYSTEM", SystemConfig.INSTANCE);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            final EVCacheConfig evcConfig = new EVCacheConfig(new DefaultPropertyFactory(config));
+            poolManager = new EVCacheClientPoolManager(new ConnectionFactoryBuilder(), new SimpleNodeListProvider(), evcConfig);
+        }
+        return poolManager;
+    }
+
+    protected static void setProperty(String name, Object value) {
+        getPoolManager();
+        settableConfig.setProperty(name, value);
+    }
+
+    /**
+     * Starts the given number of servers, each as a server group of the app, and returns a client for the app. The
+     * app properties have to be set before this is called.
+     */
+    protected EVCache createCache(String appName, int numServerGroups) throws IOException {
+        final EVCacheClientPoolManager manager = getPoolManager();
+        final StringBuilder nodes = new StringBuilder();
+        final List<FakeMemcachedServer> appServers = new ArrayList<FakeMemcachedServer>(numServerGroups);
+        servers.put(appName, appServers);
+        for (int i = 0; i < numServerGroups; i++) {
+            final FakeMemcachedServer server = new FakeMemcachedServer();
+            appServers.add(server);
+            if (i > 0) nodes.append(';');
+            nodes.append((char) ('A' + i)).append('=').append(server.getAddress());
+        }
+        setProperty(appName + "-NODES", nodes.toString());
+        setProperty(appName + ".EVCacheClientPool.readTimeout", 500);
+        setProperty(appName + ".EVCacheClientPool.bulkReadTimeout", 500);
+        setProperty(appName + ".operation.timeout", 2000);
+        manager.initEVCache(appName);
+        final EVCacheClientPool pool = manager.getEVCacheClientPool(appName);
+        waitFor(() -> pool.getEVCacheClientForWrite().length == numServerGroups && pool.getEVCacheClientForRead() != null, 5000);
+        return new EVCache.Builder().setAppName(appName).build();
+    }
+
+    /**
+     * Returns the server of the server group at the given index, i.e. 0 for A, of the app.
+     */
+    protected FakeMemcachedServer getServer(String appName, int index) {
+        return servers.get(appName).get(index);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServers() {
+        for (List<FakeMemcachedServer> appServers : servers.values()) {
+            for (FakeMemcachedServer server : appServers) {
+                server.shutdown();
+            }
+        }
+    }
+
+    protected static boolean waitFor(BooleanSupplier condition, long timeoutMillis) {
+        final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > end) return false;
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,49 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.util.FrequencySketch;
+
+public class FrequencySketchTest {
+
+    @Test
+    public void testIncrementIsCappedAt15() {
+        final FrequencySketch sketch = new FrequencySketch();
+        sketch.ensureCapacity(1024);
+        assertEquals(sketch.frequency(42), 0);
+        for (int i = 1; i <= 20; i++) {
+            sketch.increment(42);
+            assertEquals(sketch.frequency(42), Math.min(i, 15));
+        }
+    }
+
+    @Test
+    public void testCountersAreHalvedOnceTheSampleIsFull() {
+        final FrequencySketch sketch = new FrequencySketch();
+        // the sample size is 10 times the capacity
+        sketch.ensureCapacity(16);
+        for (int i = 0; i < 15; i++) {
+            sketch.increment(42);
+        }
+        assertEquals(sketch.frequency(42), 15);
+        for (int i = 0; i < 160; i++) {
+            sketch.increment(1000 + i);
+        }
+        assertTrue(sketch.frequency(42) <= 8, "the frequency should have aged out, was " + sketch.frequency(42));
+        assertTrue(sketch.frequency(42) > 0, "the frequency should only have been halved");
+    }
+
+    @Test
+    public void testGrowingClearsTheSketch() {
+        final FrequencySketch sketch = new FrequencySketch();
+        sketch.ensureCapacity(16);
+        sketch.increment(42);
+        sketch.ensureCapacity(8);
+        assertEquals(sketch.frequency(42), 1);
+        sketch.ensureCapacity(1024);
+        assertEquals(sketch.frequency(42), 0);
+    }
+}
@@ -0,0 +1,76 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.concurrent.Future;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache;
+import com.netflix.evcache.EVCacheException;
+
+public class HedgedReadTest extends FakeServerBase {
+
+    private EVCache createHedgingCache(String appName, boolean throwException) throws Exception {
+        setProperty(appName + ".hedge.reads", true);
+        setProperty(appName + ".hedge.min.delay.micros", 20000);
+        setProperty(appName + ".throw.exception", throwException);
+        final EVCache cache = createCache(appName, 2);
+        for (Future<Boolean> f : cache.set("warmup", "value", 600)) {
+            assertTrue(f.get());
+        }
+        // the hedge delay is derived from the latencies of at least 100 gets
+        for (int i = 0; i < 150; i++) {
+            assertEquals(cache.<String> get("warmup"), "value");
+        }
+        return cache;
+    }
+
+    @Test
+    public void testHedgeWinsOverSlowServerGroup() throws Exception {
+        final EVCache cache = createHedgingCache("HEDGE_WIN", false);
+        for (Future<Boolean> f : cache.set("key", "value", 600)) {
+            assertTrue(f.get());
+        }
+        final int hedgeGets = getServer("HEDGE_WIN", 1).getCommandCount("get");
+        getServer("HEDGE_WIN", 0).setReadDelayMillis(300);
+
+        final long start = System.currentTimeMillis();
+        assertEquals(cache.<String> get("key"), "value");
+        assertTrue(System.currentTimeMillis() - start < 250, "the hedge should have returned before the slow server group");
+        assertEquals(getServer("HEDGE_WIN", 1).getCommandCount("get"), hedgeGets + 1);
+        getServer("HEDGE_WIN", 0).setReadDelayMillis(0);
+    }
+
+    @Test
+    public void testHedgeErrorIsThrown() throws Exception {
+        final EVCache cache = createHedgingCache("HEDGE_ERROR", true);
+        getServer("HEDGE_ERROR", 0).setReadDelayMillis(200);
+        getServer("HEDGE_ERROR", 1).setFailReads(true);
+        try {
+            cache.<String> get("missing");
+            fail("the error of the hedge should be thrown as there is no other server group to fall back to");
+        } catch (EVCacheException e) {
+            assertTrue(e.getCause() != null, "expected the cause of the failed hedge");
+        } finally {
+            getServer("HEDGE_ERROR", 0).setReadDelayMillis(0);
+            getServer("HEDGE_ERROR", 1).setFailReads(false);
+        }
+    }
+
+    @Test
+    public void testHedgeErrorIsNotThrownWithoutThrowException() throws Exception {
+        final EVCache cache = createHedgingCache("HEDGE_NO_THROW", false);
+        getServer("HEDGE_NO_THROW", 0).setReadDelayMillis(200);
+        getServer("HEDGE_NO_THROW", 1).setFailReads(true);
+        try {
+            assertNull(cache.<String> get("missing"));
+        } finally {
+            getServer("HEDGE_NO_THROW", 0).setReadDelayMillis(0);
+            getServer("HEDGE_NO_THROW", 1).setFailReads(false);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.Future;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache;
+import com.netflix.evcache.EVCache.Call;
+import com.netflix.evcache.EVCacheKey;
+import com.netflix.evcache.event.EVCacheEvent;
+import com.netflix.evcache.event.hotkey.HotKeyCache;
+import com.netflix.evcache.event.hotkey.HotKeyListener;
+
+import net.spy.memcached.transcoders.SerializingTranscoder;
+import net.spy.memcached.transcoders.Transcoder;
+
+public class HotKeyCacheTest extends FakeServerBase {
+
+    private static final Transcoder<Object> TC = new SerializingTranscoder();
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private EVCacheEvent readEvent(String appName, String key) {
+        final EVCacheEvent event = new EVCacheEvent(Call.GET, appName, null, getPoolManager().getEVCacheClientPool(appName));
+        event.setEVCacheKeys(Collections.singletonList(new EVCacheKey(appName, key, key, null, null)));
+        return event;
+    }
+
+    private static String get(EVCache cache, String key) {
+        try {
+            return cache.<String> get(key);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    public void testHotKeyIsPromotedServedLocallyAndDemoted() throws Exception {
+        setProperty("EVCacheThrottler.HOTKEY_PROMOTE.throttle.hot.keys", true);
+        setProperty("EVCacheThrottler.HOTKEY_PROMOTE.hot.key.action", "cache");
+        setProperty("EVCacheThrottler.HOTKEY_PROMOTE.throttle.value", 2);
+        setProperty("HOTKEY_PROMOTE.hot.key.cache.duration.ms", 300);
+        setProperty("HOTKEY_PROMOTE.hot.key.cool.threshold", 10);
+        final EVCache cache = createCache("HOTKEY_PROMOTE", 1);
+        final FakeMemcachedServer server = getServer("HOTKEY_PROMOTE", 0);
+        server.putItem("key", "old".getBytes(StandardCharsets.UTF_8), 0, 600);
+        final HotKeyCache hotKeyCache = getPoolManager().getHotKeyCache("HOTKEY_PROMOTE");
+
+        setProperty("EVCacheThrottler.throttle.hot.keys", true);
+        final HotKeyListener listener = new HotKeyListener(getPoolManager());
+        try {
+            // the key is promoted once it is read by more than throttle.value callers at the same time
+            listener.onStart(readEvent("HOTKEY_PROMOTE", "key"));
+            listener.onStart(readEvent("HOTKEY_PROMOTE", "key"));
+            assertFalse(hotKeyCache.isHot("key"));
+            listener.onStart(readEvent("HOTKEY_PROMOTE", "key"));
+            assertTrue(hotKeyCache.isHot("key"), "the key should have been promoted past the throttle value");
+
+            // the first read fetches the value, the next ones are served locally instead of being throttled
+            assertEquals(get(cache, "key"), "old");
+            final int gets = server.getCommandCount("get");
+            for (int i = 0; i < 5; i++) {
+                assertEquals(get(cache, "key"), "old");
+            }
+            assertEquals(server.getCommandCount("get"), gets, "the hot key should have been served locally");
+
+            // a write drops the value once it completed
+            for (Future<Boolean> f : cache.set("key", "new", 600)) {
+                assertTrue(f.get());
+            }
+            assertTrue(waitFor(() -> "new".equals(get(cache, "key")), 2000), "the write should have invalidated the hot key");
+            assertTrue(hotKeyCache.isHot("key"), "the key should stay hot after a write");
+
+            // read fewer than cool.threshold times before the value expired
+            sleep(400);
+            assertEquals(get(cache, "key"), "new");
+            assertFalse(hotKeyCache.isHot("key"), "the key should have been demoted once it cooled down");
+            final int fetches = server.getCommandCount("get");
+            assertEquals(get(cache, "key"), "new");
+            assertEquals(server.getCommandCount("get"), fetches + 1, "a demoted key should be read from the server");
+        } finally {
+            setProperty("EVCacheThrottler.throttle.hot.keys", false);
+            getPoolManager().removeEVCacheEventListener(listener);
+            hotKeyCache.clear();
+        }
+    }
+
+    @Test
+    public void testColdKeysAreEvictedForNewOnes() {
+        setProperty("HOTKEY_EVICT.hot.key.cache.size", 2);
+        setProperty("HOTKEY_EVICT.hot.key.cache.duration.ms", 200);
+        final HotKeyCache hotKeyCache = new HotKeyCache("HOTKEY_EVICT");
+        hotKeyCache.promote("a");
+        hotKeyCache.promote("b");
+        sleep(300);
+        hotKeyCache.get("a", TC);
+
+        // b was not read during the last period
+        hotKeyCache.promote("c");
+        assertTrue(hotKeyCache.isHot("a"));
+        assertFalse(hotKeyCache.isHot("b"), "the cold key should have been evicted");
+        assertTrue(hotKeyCache.isHot("c"));
+
+        // no key is cold so the new one is not promoted
+        hotKeyCache.promote("d");
+        assertFalse(hotKeyCache.isHot("d"));
+        assertEquals(hotKeyCache.size(), 2);
+    }
+
+    @Test
+    public void testFetchInFlightDuringAWriteIsNotHeld() {
+        final HotKeyCache hotKeyCache = new HotKeyCache("HOTKEY_RACE");
+        hotKeyCache.promote("key");
+        hotKeyCache.put("key", "v1", TC, hotKeyCache.stamp());
+        assertEquals(hotKeyCache.get("key", TC), "v1");
+
+        // the fetch starts before the write and completes after its invalidation
+        final long stamp = hotKeyCache.stamp();
+        hotKeyCache.invalidate("key");
+        hotKeyCache.put("key", "v1", TC, stamp);
+        assertNull(hotKeyCache.get("key", TC), "the value fetched before the write should not have been held");
+
+        // a fetch that starts after the write is held
+        hotKeyCache.put("key", "v2", TC, hotKeyCache.stamp());
+        assertEquals(hotKeyCache.get("key", TC), "v2");
+
+        // a fetch that started before the key was promoted again is not held either
+        final long beforePromote = hotKeyCache.stamp();
+        hotKeyCache.clear();
+        hotKeyCache.promote("key");
+        hotKeyCache.put("key", "v1", TC, beforePromote);
+        assertNull(hotKeyCache.get("key", TC));
+    }
+}
@@ -0,0 +1,50 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache;
+
+import net.spy.memcached.CachedData;
+import net.spy.memcached.transcoders.SerializingTranscoder;
+
+public class InMemoryCacheWeightTest extends FakeServerBase {
+
+    private static final class CountingTranscoder extends SerializingTranscoder {
+        private final AtomicInteger encodes = new AtomicInteger();
+
+        @Override
+        public CachedData encode(Object o) {
+            encodes.incrementAndGet();
+            return super.encode(o);
+        }
+    }
+
+    @Test
+    public void testBulkValuesAreWeighedByTheDataRead() throws Exception {
+        setProperty("INMEMORY_WEIGHT.use.inmemory.cache", true);
+        setProperty("INMEMORY_WEIGHT.inmemory.cache.max.bytes", 100000L);
+        final EVCache cache = createCache("INMEMORY_WEIGHT", 1);
+        getServer("INMEMORY_WEIGHT", 0).putItem("k1", "v1".getBytes(StandardCharsets.UTF_8), 0, 600);
+        getServer("INMEMORY_WEIGHT", 0).putItem("k2", "value2".getBytes(StandardCharsets.UTF_8), 0, 600);
+
+        final CountingTranscoder tc = new CountingTranscoder();
+        final Map<String, Object> values = cache.getBulk(Arrays.asList("k1", "k2"), tc);
+        assertEquals(values.get("k1"), "v1");
+        assertEquals(values.get("k2"), "value2");
+        assertEquals(tc.encodes.get(), 0, "the values read should not be encoded again to be weighed");
+
+        final int gets = getServer("INMEMORY_WEIGHT", 0).getCommandCount("get");
+        final Map<String, Object> cached = cache.getBulk(Arrays.asList("k1", "k2"), tc);
+        assertEquals(cached.get("k1"), "v1");
+        assertEquals(cached.get("k2"), "value2");
+        assertEquals(getServer("INMEMORY_WEIGHT", 0).getCommandCount("get"), gets);
+        assertEquals(tc.encodes.get(), 0);
+    }
+}
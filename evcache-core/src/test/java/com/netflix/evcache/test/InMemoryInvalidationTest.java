@@ -0,0 +1,148 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache;
+import com.netflix.evcache.EVCacheLatch;
+import com.netflix.evcache.EVCacheLatch.Policy;
+import com.netflix.evcache.event.invalidation.EVCacheInvalidationBus;
+import com.netflix.evcache.event.invalidation.InProcessInvalidationBus;
+import com.netflix.evcache.event.invalidation.MulticastInvalidationBus;
+
+public class InMemoryInvalidationTest extends FakeServerBase {
+
+    @Test
+    public void testBulkValueReadBeforeAWriteIsNotCached() throws Exception {
+        setProperty("INMEMORY_BULK_WRITE.use.inmemory.cache", true);
+        final EVCache cache = createCache("INMEMORY_BULK_WRITE", 1);
+        final FakeMemcachedServer server = getServer("INMEMORY_BULK_WRITE", 0);
+        server.putItem("key", "old".getBytes(StandardCharsets.UTF_8), 0, 600);
+
+        // the set is issued while the bulk get is in flight and is processed by the server after it
+        server.setReadDelayMillis(300);
+        final CompletableFuture<Map<String, String>> bulk = CompletableFuture.supplyAsync(() -> {
+            try {
+                return cache.<String> getBulk(Collections.singletonList("key"));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        final Future<Boolean>[] writes = cache.set("key", "new", 600);
+        assertEquals(bulk.get(2, TimeUnit.SECONDS).get("key"), "old");
+        for (Future<Boolean> f : writes) {
+            assertTrue(f.get());
+        }
+        server.setReadDelayMillis(0);
+
+        // the key is dropped from the in memory cache once the write completed
+        assertTrue(waitFor(() -> {
+            try {
+                return "new".equals(cache.<String> getBulk(Collections.singletonList("key")).get("key"));
+            } catch (Exception e) {
+                return false;
+            }
+        }, 1000), "the value read before the write should not have been cached");
+    }
+
+    @Test
+    public void testWriteInvalidatesOnceItCompleted() throws Exception {
+        setProperty("INMEMORY_WRITE.use.inmemory.cache", true);
+        final EVCache cache = createCache("INMEMORY_WRITE", 1);
+        final FakeMemcachedServer server = getServer("INMEMORY_WRITE", 0);
+        server.putItem("key", "old".getBytes(StandardCharsets.UTF_8), 0, 600);
+        assertEquals(cache.<String> get("key"), "old");
+
+        server.setWriteDelayMillis(300);
+        try {
+            final EVCacheLatch latch = cache.set("key", "new", null, 600, Policy.ALL);
+            // the value is kept while the write is in flight, a read of the server would be queued behind the write
+            assertEquals(cache.<String> get("key"), "old");
+            assertTrue(latch.await(2, TimeUnit.SECONDS));
+        } finally {
+            server.setWriteDelayMillis(0);
+        }
+        assertTrue(waitFor(() -> {
+            try {
+                return "new".equals(cache.<String> get("key"));
+            } catch (Exception e) {
+                return false;
+            }
+        }, 1000), "the in memory cache should have been invalidated once the write completed");
+    }
+
+    private static final class RecordingBus extends InProcessInvalidationBus {
+        private final List<String> published = new CopyOnWriteArrayList<String>();
+        private final List<Thread> threads = new CopyOnWriteArrayList<Thread>();
+
+        @Override
+        public void publish(String cacheName, String key) {
+            published.add(cacheName + ":" + key);
+            threads.add(Thread.currentThread());
+            super.publish(cacheName, key);
+        }
+    }
+
+    @Test
+    public void testInvalidationIsPublishedOffTheCallerThreadWhenTheNearCacheIsEnabled() throws Exception {
+        setProperty("INVALIDATION_NEAR.use.inmemory.cache", true);
+        final EVCache nearCache = createCache("INVALIDATION_NEAR", 1);
+        final EVCache cache = createCache("INVALIDATION_NO_NEAR", 1);
+        final RecordingBus bus = new RecordingBus();
+        getPoolManager().setInvalidationBus(bus);
+        try {
+            assertTrue(cache.set("key", "value", null, 600, Policy.ALL).await(2, TimeUnit.SECONDS));
+            assertTrue(nearCache.set("key", "value", null, 600, Policy.ALL).await(2, TimeUnit.SECONDS));
+            assertTrue(waitFor(() -> bus.published.contains("INVALIDATION_NEAR:key"), 2000), "the write should have been published");
+            assertEquals(bus.published, Collections.singletonList("INVALIDATION_NEAR:key"), "only the writes of an app with the near cache enabled are published");
+            assertTrue(bus.threads.get(0) != Thread.currentThread(), "the invalidation should not be sent on the caller's thread");
+        } finally {
+            getPoolManager().setInvalidationBus(null);
+        }
+    }
+
+    @Test
+    public void testReadOnlyInstanceJoinsTheMulticastGroup() throws Exception {
+        setProperty("evcache.inmemory.invalidation.multicast.enabled", true);
+        setProperty("evcache.inmemory.invalidation.multicast.port", 17932);
+        setProperty("evcache.inmemory.invalidation.multicast.ttl", 0);
+        MulticastInvalidationBus writer = null;
+        try {
+            setProperty("INVALIDATION_MULTICAST.use.inmemory.cache", true);
+            final EVCache cache = createCache("INVALIDATION_MULTICAST", 1);
+            final FakeMemcachedServer server = getServer("INVALIDATION_MULTICAST", 0);
+            server.putItem("key", "old".getBytes(StandardCharsets.UTF_8), 0, 600);
+            // this instance only reads, the write is made by another one
+            assertEquals(cache.<String> get("key"), "old");
+            server.putItem("key", "new".getBytes(StandardCharsets.UTF_8), 0, 600);
+            writer = new MulticastInvalidationBus("239.255.17.31", 17932, 0);
+            final MulticastInvalidationBus bus = writer;
+            assertTrue(waitFor(() -> {
+                bus.publish("INVALIDATION_MULTICAST", "key");
+                try {
+                    return "new".equals(cache.<String> get("key"));
+                } catch (Exception e) {
+                    return false;
+                }
+            }, 2000), "the invalidation published by the other instance should have been received");
+        } finally {
+            if (writer != null) writer.close();
+            setProperty("evcache.inmemory.invalidation.multicast.enabled", false);
+            final EVCacheInvalidationBus bus = getPoolManager().getInvalidationBus();
+            getPoolManager().setInvalidationBus(null);
+            if (bus != null) bus.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.Future;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache;
+
+public class InMemoryServerTtlTest extends FakeServerBase {
+
+    // random so that it stays larger than a chunk once compressed
+    private static String largeValue() {
+        final Random random = new Random(42);
+        final char[] chars = new char[20000];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    private EVCache createServerTtlCache(String appName) throws Exception {
+        setProperty(appName + ".use.inmemory.cache", true);
+        setProperty(appName + ".inmemory.server.ttl.enabled", true);
+        setProperty(appName + ".inmemory.expire.after.write.duration.ms", 60000);
+        return createCache(appName, 1);
+    }
+
+    @Test
+    public void testChunkedValueIsLoadedWithAMetaGet() throws Exception {
+        setProperty("INMEMORY_TTL_CHUNKED.chunk.data", true);
+        final EVCache cache = createServerTtlCache("INMEMORY_TTL_CHUNKED");
+        final String value = largeValue();
+        for (Future<Boolean> f : cache.set("large", value, 600)) {
+            assertTrue(f.get());
+        }
+        assertTrue(getServer("INMEMORY_TTL_CHUNKED", 0).getItem("large_00") != null, "the value should have been chunked");
+
+        assertEquals(cache.<String> get("large"), value);
+        final int metaGets = getServer("INMEMORY_TTL_CHUNKED", 0).getCommandCount("mg");
+        assertTrue(metaGets > 0, "the value should have been loaded with a meta get");
+        assertEquals(cache.<String> get("large"), value);
+        assertEquals(getServer("INMEMORY_TTL_CHUNKED", 0).getCommandCount("mg"), metaGets, "the assembled value should have been cached");
+    }
+
+    @Test
+    public void testHashedValueExpiresWithTheItem() throws Exception {
+        setProperty("INMEMORY_TTL_HASHED.hash.key", true);
+        final EVCache cache = createServerTtlCache("INMEMORY_TTL_HASHED");
+        for (Future<Boolean> f : cache.set("key", "value", 2)) {
+            assertTrue(f.get());
+        }
+
+        assertEquals(cache.<String> get("key"), "value");
+        final int metaGets = getServer("INMEMORY_TTL_HASHED", 0).getCommandCount("mg");
+        assertEquals(cache.<String> get("key"), "value");
+        assertEquals(getServer("INMEMORY_TTL_HASHED", 0).getCommandCount("mg"), metaGets);
+        // the entry expires with the item under the hashed key instead of after the expire after write duration
+        assertTrue(waitFor(() -> {
+            try {
+                cache.<String> get("key");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return getServer("INMEMORY_TTL_HASHED", 0).getCommandCount("mg") > metaGets;
+        }, 3000), "the entry should have expired with the item");
+    }
+
+    @Test
+    public void testMissIsNotCached() throws Exception {
+        final EVCache cache = createServerTtlCache("INMEMORY_TTL_MISS");
+        assertNull(cache.<String> get("key"));
+        final int metaGets = getServer("INMEMORY_TTL_MISS", 0).getCommandCount("mg");
+
+        getServer("INMEMORY_TTL_MISS", 0).putItem("key", "value".getBytes(StandardCharsets.UTF_8), 0, 600);
+        assertEquals(cache.<String> get("key"), "value");
+        assertEquals(getServer("INMEMORY_TTL_MISS", 0).getCommandCount("mg"), metaGets + 1, "the miss should not have been cached");
+    }
+}
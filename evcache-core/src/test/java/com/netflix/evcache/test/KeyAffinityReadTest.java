@@ -0,0 +1,44 @@
+package com.netflix.evcache.test;
+
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.Future;
+
+import org.testng.annotations.Test;
+
+import com.netflix.archaius.api.Property;
+import com.netflix.evcache.EVCache;
+import com.netflix.evcache.EVCacheKey;
+import com.netflix.evcache.pool.EVCacheClient;
+import com.netflix.evcache.pool.EVCacheClientPool;
+import com.netflix.evcache.util.EVCacheConfig;
+
+public class KeyAffinityReadTest extends FakeServerBase {
+
+    @Test
+    public void testClientIsPickedByTheDerivedKey() throws Exception {
+        setProperty("KEY_AFFINITY.EVCacheClientPool.poolSize", 4);
+        setProperty("KEY_AFFINITY.key.affinity.reads", true);
+        final EVCache cache = createCache("KEY_AFFINITY", 1);
+        final EVCacheClientPool pool = getPoolManager().getEVCacheClientPool("KEY_AFFINITY");
+        assertTrue(waitFor(() -> pool.getAllInstancesByServerGroup().values().iterator().next().size() == 4, 5000));
+
+        final Property<String> algo = EVCacheConfig.getInstance().getPropertyRepository().get("KEY_AFFINITY.hash.algo", String.class).orElse("siphash24");
+        final EVCacheKey evcKey = spy(new EVCacheKey("KEY_AFFINITY", "key", "KEY_AFFINITY:key", "hashed", algo));
+        final EVCacheClient client = pool.getEVCacheClientForRead(evcKey);
+        for (int i = 0; i < 10; i++) {
+            assertSame(pool.getEVCacheClientForRead(evcKey), client, "the reads of a key should share a client");
+        }
+        verify(evcKey, atLeastOnce()).getDerivedKey(false);
+
+        for (Future<Boolean> f : cache.set("key", "value", 600)) {
+            assertTrue(f.get());
+        }
+        assertEquals(cache.<String> get("key"), "value");
+    }
+}
@@ -0,0 +1,66 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache;
+
+public class LeaseTest extends FakeServerBase {
+
+    private static final String LEASE_SUFFIX = ":evc.lease";
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterClass(alwaysRun = true)
+    public void stopScheduler() {
+        scheduler.shutdownNow();
+    }
+
+    private void put(String appName, int serverGroup, String key, String value) {
+        getServer(appName, serverGroup).putItem(key, value.getBytes(StandardCharsets.UTF_8), 0, 600);
+    }
+
+    @Test
+    public void testLoadsOnceAndReleasesTheLease() throws Exception {
+        final EVCache cache = createCache("LEASE_LOAD", 2);
+        final AtomicInteger loads = new AtomicInteger();
+        assertEquals(cache.<String> get("key", null, k -> "loaded_" + loads.incrementAndGet()), "loaded_1");
+        assertEquals(loads.get(), 1);
+        assertTrue(waitFor(() -> getServer("LEASE_LOAD", 1).getItem("key") != null, 1000));
+        // the lease is released without waiting for the delete
+        assertTrue(waitFor(() -> getServer("LEASE_LOAD", 0).getItem("key" + LEASE_SUFFIX) == null, 1000));
+        assertTrue(waitFor(() -> getServer("LEASE_LOAD", 1).getItem("key" + LEASE_SUFFIX) == null, 1000));
+    }
+
+    @Test
+    public void testLeaseHeldInOtherServerGroupIsNotAcquired() throws Exception {
+        setProperty("LEASE_HELD.lease.wait.max.millis", 2000);
+        final EVCache cache = createCache("LEASE_HELD", 2);
+        put("LEASE_HELD", 1, "key" + LEASE_SUFFIX, "1");
+        // the holder of the lease writes the value while we wait
+        scheduler.schedule(() -> put("LEASE_HELD", 0, "key", "from_holder"), 200, TimeUnit.MILLISECONDS);
+        final AtomicInteger loads = new AtomicInteger();
+        assertEquals(cache.<String> get("key", null, k -> "loaded_" + loads.incrementAndGet()), "from_holder");
+        assertEquals(loads.get(), 0);
+    }
+
+    @Test
+    public void testLongKeyUsesHashedLeaseKey() throws Exception {
+        setProperty("LEASE_LONG.max.key.length", 40);
+        final EVCache cache = createCache("LEASE_LONG", 1);
+        final StringBuilder key = new StringBuilder();
+        while (key.length() < 35) key.append("long_key_");
+        final AtomicInteger loads = new AtomicInteger();
+        assertEquals(cache.<String> get(key.toString(), null, k -> "loaded_" + loads.incrementAndGet()), "loaded_1");
+        assertEquals(getServer("LEASE_LONG", 0).getCommandCount("add"), 1);
+    }
+}
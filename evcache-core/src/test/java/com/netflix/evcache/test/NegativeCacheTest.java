@@ -0,0 +1,125 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache;
+import com.netflix.evcache.EVCache.Call;
+import com.netflix.evcache.event.EVCacheEvent;
+import com.netflix.evcache.event.EVCacheEventListener;
+
+public class NegativeCacheTest extends FakeServerBase {
+
+    private EVCache createNegativeCache(String appName, int numServerGroups) throws Exception {
+        setProperty(appName + ".negative.cache", true);
+        setProperty(appName + ".negative.cache.ttl.millis", 60000);
+        return createCache(appName, numServerGroups);
+    }
+
+    private void put(String appName, String key, String value) {
+        getServer(appName, 0).putItem(key, value.getBytes(StandardCharsets.UTF_8), 0, 600);
+    }
+
+    @Test
+    public void testMissIsAnsweredFromTheNegativeCache() throws Exception {
+        final EVCache cache = createNegativeCache("NEGATIVE_MISS", 1);
+        assertNull(cache.<String> get("key"));
+        final int gets = getServer("NEGATIVE_MISS", 0).getCommandCount("get");
+
+        // not written through the client, so the miss is still cached
+        put("NEGATIVE_MISS", "key", "value");
+        assertNull(cache.<String> get("key"));
+        assertEquals(getServer("NEGATIVE_MISS", 0).getCommandCount("get"), gets);
+
+        for (Future<Boolean> f : cache.set("key", "value", 600)) {
+            f.get();
+        }
+        waitFor(() -> "value".equals(get(cache, "key")), 2000);
+        assertEquals(cache.<String> get("key"), "value");
+    }
+
+    @Test
+    public void testFailedReadIsNotCached() throws Exception {
+        final EVCache cache = createNegativeCache("NEGATIVE_FAILED", 1);
+        getServer("NEGATIVE_FAILED", 0).setFailReads(true);
+        assertNull(cache.<String> get("key"));
+        getServer("NEGATIVE_FAILED", 0).setFailReads(false);
+        put("NEGATIVE_FAILED", "key", "value");
+        // the client may reconnect after the error, which fails the reads until it is done
+        assertTrue(waitFor(() -> "value".equals(get(cache, "key")), 5000), "the failed read should not have been cached");
+    }
+
+    @Test
+    public void testTimedOutReadIsNotCached() throws Exception {
+        final EVCache cache = createNegativeCache("NEGATIVE_TIMEOUT", 1);
+        getServer("NEGATIVE_TIMEOUT", 0).setReadDelayMillis(2500);
+        assertNull(cache.<String> get("key"));
+        getServer("NEGATIVE_TIMEOUT", 0).setReadDelayMillis(0);
+        put("NEGATIVE_TIMEOUT", "key", "value");
+        // the timed out get is still ahead of the next one on the connection
+        Thread.sleep(2000);
+        assertEquals(cache.<String> get("key"), "value");
+    }
+
+    @Test
+    public void testMissReadBeforeAWriteCompletedIsNotCached() throws Exception {
+        final EVCache cache = createNegativeCache("NEGATIVE_RACE", 2);
+        // the write only lands in the local server group, so the fallback read still misses after it
+        getServer("NEGATIVE_RACE", 1).setFailWrites(true);
+        final AtomicInteger throttleChecks = new AtomicInteger();
+        final EVCacheEventListener listener = new EVCacheEventListener() {
+            @Override
+            public void onStart(EVCacheEvent e) {
+            }
+
+            @Override
+            public void onComplete(EVCacheEvent e) {
+            }
+
+            @Override
+            public void onError(EVCacheEvent e, Throwable t) {
+            }
+
+            @Override
+            public boolean onThrottle(EVCacheEvent e) {
+                if (!"NEGATIVE_RACE".equals(e.getAppName()) || e.getCall() != Call.GET) return false;
+                // the check before the fallback read, i.e. after the local server group missed
+                if (throttleChecks.incrementAndGet() == 2) {
+                    try {
+                        for (Future<Boolean> f : cache.set("key", "value", 600)) {
+                            f.get();
+                        }
+                        Thread.sleep(200);
+                    } catch (Exception ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+                return false;
+            }
+        };
+        getPoolManager().addEVCacheEventListener(listener);
+        try {
+            assertNull(cache.<String> get("key"));
+        } finally {
+            getPoolManager().removeEVCacheEventListener(listener);
+        }
+        assertFalse(throttleChecks.get() < 2, "the read should have fallen back");
+        assertEquals(cache.<String> get("key"), "value");
+    }
+
+    private static String get(EVCache cache, String key) {
+        try {
+            return cache.<String> get(key);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.util.OffHeapCache;
+
+public class OffHeapCacheTest {
+
+    private static byte[] key(int i) {
+        return ("key_" + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] data(int i, int length) {
+        final byte[] data = new byte[length];
+        for (int j = 0; j < length; j++) {
+            data[j] = (byte) (i + j);
+        }
+        return data;
+    }
+
+    @Test
+    public void testWrapAroundEvictsTheOldestSlab() {
+        // a single segment of 8 slabs of 1KB
+        final OffHeapCache cache = new OffHeapCache(8 * 1024, 1);
+        assertEquals(cache.capacity(), 8 * 1024);
+        for (int i = 0; i < 500; i++) {
+            assertTrue(cache.put(key(i), i, data(i, 100), 1000, 0));
+        }
+        assertEquals(cache.allocatedBytes(), cache.capacity());
+        assertTrue(cache.evictionCount() > 0, "the ring should have wrapped around");
+        assertEquals(cache.size() + cache.evictionCount(), 500);
+
+        // the records of the oldest slabs were evicted, those of the newest are still readable
+        assertNull(cache.get(key(0), 1000));
+        for (int i = 490; i < 500; i++) {
+            final OffHeapCache.Entry entry = cache.get(key(i), 1000);
+            assertNotNull(entry, "key " + i + " should be present");
+            assertEquals(entry.getFlags(), i);
+            assertEquals(entry.getData(), data(i, 100));
+        }
+    }
+
+    @Test
+    public void testOverwrittenKeyIsNotEvictedWithItsOldRecord() {
+        final OffHeapCache cache = new OffHeapCache(8 * 1024, 1);
+        cache.put(key(0), 0, data(0, 100), 1000, 0);
+        // enough records to evict the slab the first record of key 0 is in, but not the one it was rewritten to
+        for (int i = 1; i < 60; i++) {
+            cache.put(key(i), i, data(i, 100), 1000, 0);
+            if (i % 5 == 0) cache.put(key(0), 100 + i, data(0, 100), 1000, 0);
+        }
+        final OffHeapCache.Entry entry = cache.get(key(0), 1000);
+        assertNotNull(entry);
+        assertEquals(entry.getFlags(), 155);
+    }
+
+    @Test
+    public void testRemoveKeepsTheOtherKeysReachable() {
+        final OffHeapCache cache = new OffHeapCache(1024 * 1024, 1);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(key(i), i, data(i, 10), 1000, 0);
+        }
+        // removing keys shifts the probe chains of the index back
+        for (int i = 0; i < 1000; i += 2) {
+            cache.remove(key(i));
+        }
+        assertEquals(cache.size(), 500);
+        for (int i = 0; i < 1000; i++) {
+            final OffHeapCache.Entry entry = cache.get(key(i), 1000);
+            if (i % 2 == 0) {
+                assertNull(entry, "key " + i + " should have been removed");
+            } else {
+                assertNotNull(entry, "key " + i + " should be present");
+                assertEquals(entry.getFlags(), i);
+            }
+        }
+        cache.remove(key(0));
+        assertEquals(cache.size(), 500);
+    }
+
+    @Test
+    public void testExpiredRecordIsNotReturned() {
+        final OffHeapCache cache = new OffHeapCache(8 * 1024, 1);
+        cache.put(key(1), 1, data(1, 10), 1000, 2000);
+        cache.put(key(2), 2, null, 1000, 0);
+        assertNotNull(cache.get(key(1), 1999));
+        assertNull(cache.get(key(1), 2000));
+        // a key that was cached as not found
+        assertNull(cache.get(key(2), 3000).getData());
+
+        final List<Integer> visited = new ArrayList<Integer>();
+        cache.forEach((key, flags, data, writeTime, expiresAt) -> visited.add(flags), 3000);
+        assertEquals(visited.size(), 1);
+        assertEquals(visited.get(0).intValue(), 2);
+    }
+
+    @Test
+    public void testFreeReleasesTheSlabs() {
+        final OffHeapCache cache = new OffHeapCache(8 * 1024, 1);
+        for (int i = 0; i < 20; i++) {
+            cache.put(key(i), i, data(i, 100), 1000, 0);
+        }
+        assertTrue(cache.allocatedBytes() > 0);
+        cache.free();
+        assertEquals(cache.allocatedBytes(), 0);
+        assertEquals(cache.size(), 0);
+        assertNull(cache.get(key(1), 1000));
+        // a reader that still holds on to the cache does not store anything
+        cache.put(key(1), 1, data(1, 100), 1000, 0);
+        assertFalse(cache.putIfAbsent(key(2), 2, data(2, 100), 1000, 0));
+        assertNull(cache.get(key(1), 1000));
+        assertEquals(cache.allocatedBytes(), 0);
+    }
+
+    @Test
+    public void testForEachVisitsEachLiveRecordOnce() {
+        // a single segment of 8 slabs of 1MB, so a slab is copied in several batches
+        final OffHeapCache cache = new OffHeapCache(8 * 1024 * 1024, 1);
+        for (int i = 0; i < 3000; i++) {
+            cache.put(key(i), i, data(i, 1000), 1000, 0);
+        }
+        for (int i = 0; i < 100; i++) {
+            cache.put(key(i), 10000 + i, data(i, 1000), 1000, 0);
+        }
+        for (int i = 100; i < 200; i++) {
+            cache.remove(key(i));
+        }
+
+        final Map<String, Integer> visited = new HashMap<String, Integer>();
+        cache.forEach((key, flags, data, writeTime, expiresAt) -> {
+            assertNull(visited.put(new String(key, StandardCharsets.UTF_8), flags), "a record was visited twice");
+        }, 1000);
+        assertEquals(visited.size(), 2900);
+        assertEquals(visited.get("key_0").intValue(), 10000);
+        assertEquals(visited.get("key_99").intValue(), 10099);
+        assertNull(visited.get("key_150"));
+        assertEquals(visited.get("key_2999").intValue(), 2999);
+    }
+
+    @Test
+    public void testForEachWhileTheSlabsAreReused() {
+        // a single segment of 8 slabs of 128KB
+        final OffHeapCache cache = new OffHeapCache(1024 * 1024, 1);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(key(i), i, data(i, 500), 1000, 0);
+        }
+        final int[] next = { 1000 };
+        final int[] visited = { 0 };
+        cache.forEach((key, flags, data, writeTime, expiresAt) -> {
+            // a reused slab is skipped instead of being read from the middle of a record
+            assertEquals(new String(key, StandardCharsets.UTF_8), "key_" + flags);
+            assertEquals(data, data(flags, flags < 1000 ? 500 : 333));
+            visited[0]++;
+            // records of another size so that the reused slabs do not line up with the records that were in them
+            for (int j = 0; j < 2; j++, next[0]++) {
+                cache.put(key(next[0]), next[0], data(next[0], 333), 1000, 0);
+            }
+        }, 1000);
+        assertTrue(visited[0] > 0);
+        assertTrue(cache.evictionCount() > 0, "the ring should have wrapped around while the cache was visited");
+    }
+
+    @Test
+    public void testLargeSegmentIndexKeepsProbesShort() {
+        // 2 segments of 50000 records, so each index has 2^17 slots
+        final OffHeapCache cache = new OffHeapCache(32 * 1024 * 1024, 2);
+        try {
+            for (int i = 0; i < 100000; i++) {
+                assertTrue(cache.put(key(i), i, data(i, 8), 1000, 0));
+            }
+            assertEquals(cache.size(), 100000);
+            assertEquals(cache.evictionCount(), 0);
+            // a load factor of about 0.4 needs well under 2 probes on average when every slot can be a home slot
+            final double probes = cache.averageProbeLength();
+            assertTrue(probes < 2, "the records should be spread over the whole index; average probe length " + probes);
+            assertNotNull(cache.get(key(99999), 1000));
+        } finally {
+            cache.free();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Future;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache;
+import com.netflix.evcache.EVCacheLatch.Policy;
+
+import net.spy.memcached.transcoders.Transcoder;
+
+public class ReadRepairTest extends FakeServerBase {
+
+    private static final Transcoder<String> DEFAULT_TRANSCODER = null;
+
+    private void put(String appName, int serverGroup, String key, String value) {
+        getServer(appName, serverGroup).putItem(key, value.getBytes(StandardCharsets.UTF_8), 0, 600);
+    }
+
+    private String valueOf(String appName, int serverGroup, String key) {
+        final FakeMemcachedServer.Item item = getServer(appName, serverGroup).getItem(key);
+        return item == null ? null : new String(item.data, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testMissingAndStaleReplicasAreRepaired() throws Exception {
+        final EVCache cache = createCache("READ_REPAIR", 5);
+        put("READ_REPAIR", 0, "key", "value");
+        put("READ_REPAIR", 1, "key", "value");
+        put("READ_REPAIR", 2, "key", "value");
+        put("READ_REPAIR", 3, "key", "stale");
+
+        assertEquals(cache.get("key", DEFAULT_TRANSCODER, Policy.QUORUM), "value");
+        assertTrue(waitFor(() -> "value".equals(valueOf("READ_REPAIR", 3, "key")), 2000), "the stale replica should be repaired");
+        assertTrue(waitFor(() -> "value".equals(valueOf("READ_REPAIR", 4, "key")), 2000), "the missing replica should be repaired");
+        assertTrue(getServer("READ_REPAIR", 4).getItem("key").getTTL() > 500, "the repair should keep the remaining ttl");
+    }
+
+    @Test
+    public void testFailedReplicaIsNotRepaired() throws Exception {
+        final EVCache cache = createCache("READ_REPAIR_ERROR", 3);
+        put("READ_REPAIR_ERROR", 0, "key", "value");
+        put("READ_REPAIR_ERROR", 1, "key", "value");
+        getServer("READ_REPAIR_ERROR", 2).setFailReads(true);
+        try {
+            assertEquals(cache.get("key", DEFAULT_TRANSCODER, Policy.ALL_MINUS_1), "value");
+            Thread.sleep(300);
+            assertEquals(getServer("READ_REPAIR_ERROR", 2).getCommandCount("set"), 0);
+        } finally {
+            getServer("READ_REPAIR_ERROR", 2).setFailReads(false);
+        }
+    }
+
+    @Test
+    public void testHashedValueIsWrappedForTheRepairedReplica() throws Exception {
+        setProperty("READ_REPAIR_HASHED.hash.key", true);
+        final EVCache cache = createCache("READ_REPAIR_HASHED", 3);
+        for (Future<Boolean> f : cache.set("key", "value", 600)) {
+            assertTrue(f.get());
+        }
+        final FakeMemcachedServer missing = getServer("READ_REPAIR_HASHED", 2);
+        final String hashedKey = missing.getItems().keySet().iterator().next();
+        missing.removeItem(hashedKey);
+
+        assertEquals(cache.get("key", DEFAULT_TRANSCODER, Policy.QUORUM), "value");
+        assertTrue(waitFor(() -> missing.getItem(hashedKey) != null, 2000), "the missing replica should be repaired");
+        // all the replicas agree only if the repaired value was wrapped like the others
+        assertEquals(cache.get("key", DEFAULT_TRANSCODER, Policy.ALL), "value");
+    }
+}
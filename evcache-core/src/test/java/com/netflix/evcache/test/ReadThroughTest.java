@@ -0,0 +1,74 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache;
+
+public class ReadThroughTest extends FakeServerBase {
+
+    // random so that it stays larger than a chunk once compressed
+    private static String largeValue() {
+        final Random random = new Random(42);
+        final char[] chars = new char[20000];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    @Test
+    public void testChunkedValueIsNotLoaded() throws Exception {
+        setProperty("READ_THROUGH_CHUNKED.chunk.data", true);
+        setProperty("READ_THROUGH_CHUNKED.early.refresh", true);
+        final EVCache cache = createCache("READ_THROUGH_CHUNKED", 1);
+        final String value = largeValue();
+        for (Future<Boolean> f : cache.set("large", value, 600)) {
+            assertTrue(f.get());
+        }
+        assertTrue(getServer("READ_THROUGH_CHUNKED", 0).getItem("large_00") != null, "the value should have been chunked");
+        for (Future<Boolean> f : cache.set("small", "small_value", 600)) {
+            assertTrue(f.get());
+        }
+
+        final AtomicInteger loads = new AtomicInteger();
+        assertEquals(cache.<String> get("large", null, k -> "loaded_" + loads.incrementAndGet()), value);
+        assertEquals(cache.<String> get("small", null, k -> "loaded_" + loads.incrementAndGet()), "small_value");
+        assertEquals(loads.get(), 0);
+    }
+
+    @Test
+    public void testEarlyRefreshRunsOnWorkerExecutor() throws Exception {
+        setProperty("EARLY_REFRESH.early.refresh", true);
+        // a high load cost makes every read refresh the value
+        setProperty("EARLY_REFRESH.early.refresh.default.cost.millis", 100000000);
+        final EVCache cache = createCache("EARLY_REFRESH", 1);
+        for (Future<Boolean> f : cache.set("key", "old", 600)) {
+            assertTrue(f.get());
+        }
+
+        final AtomicReference<String> loaderThread = new AtomicReference<String>();
+        assertEquals(cache.<String> get("key", null, k -> {
+            loaderThread.set(Thread.currentThread().getName());
+            return "new";
+        }), "old");
+        assertTrue(waitFor(() -> loaderThread.get() != null, 2000));
+        assertTrue(loaderThread.get().startsWith("EVCacheExecutor-worker"), "loaded on " + loaderThread.get());
+        assertTrue(waitFor(() -> "new".equals(getValue(cache)), 2000));
+    }
+
+    private static String getValue(EVCache cache) {
+        try {
+            return cache.<String> get("key");
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
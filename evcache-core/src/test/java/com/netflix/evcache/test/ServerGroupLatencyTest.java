@@ -0,0 +1,76 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache;
+import com.netflix.evcache.pool.ServerGroup;
+import com.netflix.evcache.pool.ServerGroupLatency;
+
+public class ServerGroupLatencyTest extends FakeServerBase {
+
+    @Test
+    public void testIdleLatencyDecaysTowardsThePrior() throws Exception {
+        final ServerGroupLatency latency = new ServerGroupLatency(new ServerGroup("A", "A"));
+        assertEquals(latency.getLatencyMicros(10, 100), -1);
+        latency.readStarted();
+        latency.readCompleted(10000, 10);
+        Thread.sleep(100);
+        final long decayed = latency.getLatencyMicros(10, 100);
+        assertTrue(decayed >= 100 && decayed < 200, "expected the latency to have decayed to the prior but was " + decayed);
+        assertEquals(latency.getLatencyMicros(10, -1), 10000);
+        assertEquals(latency.getLatencyMicros(), 10000);
+    }
+
+    @Test
+    public void testScoreIsWeightedByReadsInFlight() {
+        final ServerGroupLatency latency = new ServerGroupLatency(new ServerGroup("A", "A"));
+        assertEquals(latency.getScore(10000, -1), Double.MAX_VALUE);
+        latency.readStarted();
+        latency.readCompleted(999, 10000);
+        final double idle = latency.getScore(10000, -1);
+        latency.readStarted();
+        assertEquals(latency.getScore(10000, -1), 2 * idle);
+    }
+
+    @Test
+    public void testUnmeasuredServerGroupIsScoredAtThePrior() {
+        final ServerGroupLatency latency = new ServerGroupLatency(new ServerGroup("A", "A"));
+        assertEquals(latency.getScore(10000, 999), 1000.0);
+        latency.readStarted();
+        assertEquals(latency.getScore(10000, 999), 2000.0);
+    }
+
+    @Test
+    public void testSlowLocalServerGroupShedsReadsToAFasterOne() throws Exception {
+        setProperty("LATENCY_SHED.latency.aware.reads", true);
+        setProperty("LATENCY_SHED.latency.aware.probe.ratio", 0.2);
+        final EVCache cache = createCache("LATENCY_SHED", 2);
+        final FakeMemcachedServer local = getServer("LATENCY_SHED", 0);
+        final FakeMemcachedServer remote = getServer("LATENCY_SHED", 1);
+        local.putItem("key", "value".getBytes(StandardCharsets.UTF_8), 0, 600);
+        remote.putItem("key", "value".getBytes(StandardCharsets.UTF_8), 0, 600);
+        // slow but well within the read timeout so that the local server group never fails
+        local.setReadDelayMillis(30);
+        try {
+            for (int i = 0; i < 50; i++) {
+                assertEquals(cache.<String> get("key"), "value");
+            }
+            final int localGets = local.getCommandCount("get");
+            final int remoteGets = remote.getCommandCount("get");
+            assertTrue(remoteGets > 0, "the remote server group should have been probed");
+            for (int i = 0; i < 50; i++) {
+                assertEquals(cache.<String> get("key"), "value");
+            }
+            final int shed = remote.getCommandCount("get") - remoteGets;
+            assertTrue(shed >= 40, "the reads should have moved to the faster server group; local : "
+                    + (local.getCommandCount("get") - localGets) + ", remote : " + shed);
+        } finally {
+            local.setReadDelayMillis(0);
+        }
+    }
+}
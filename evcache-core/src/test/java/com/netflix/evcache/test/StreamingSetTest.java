@@ -0,0 +1,186 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.EVCache;
+import com.netflix.evcache.EVCacheLatch;
+import com.netflix.evcache.EVCacheLatch.Policy;
+
+public class StreamingSetTest extends FakeServerBase {
+
+    private static byte[] data(long seed, int length) {
+        final byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private EVCache createStreamingCache(String appName) throws Exception {
+        setProperty(appName + ".chunk.data", true);
+        return createCache(appName, 1);
+    }
+
+    private static void setStream(EVCache cache, String key, byte[] data) throws Exception {
+        final EVCacheLatch latch = cache.setStream(key, new ByteArrayInputStream(data), data.length, 600, Policy.ALL);
+        assertTrue(latch.await(5000, TimeUnit.MILLISECONDS));
+        assertEquals(latch.getSuccessCount(), 1);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buf = new byte[1000];
+            int n;
+            while ((n = in.read(buf)) >= 0) out.write(buf, 0, n);
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    private static int chunkDataSize(FakeMemcachedServer server, String key) {
+        final FakeMemcachedServer.Item metadata = server.getItem(key + "_00");
+        assertNotNull(metadata, "the value should have been chunked");
+        return Integer.parseInt(new String(metadata.data, StandardCharsets.UTF_8).split(":")[1]);
+    }
+
+    private static int countChunks(FakeMemcachedServer server, String key) {
+        int count = 0;
+        for (String k : server.getItems().keySet()) {
+            if (k.startsWith(key + "_") && !k.equals(key + "_00")) count++;
+        }
+        return count;
+    }
+
+    @Test
+    public void testValueIsReadBackAWindowAtATime() throws Exception {
+        setProperty("STREAM_WINDOW.chunk.stream.window", 2);
+        final EVCache cache = createStreamingCache("STREAM_WINDOW");
+        final FakeMemcachedServer server = getServer("STREAM_WINDOW", 0);
+        final byte[] data = data(1, 20000);
+        setStream(cache, "large", data);
+        final int chunks = countChunks(server, "large");
+        assertTrue(chunks > 4, "the value should span several windows");
+
+        final int gets = server.getCommandCount("get");
+        assertEquals(readAll(cache.getStream("large")), data);
+        final List<String> log = server.getCommandLog();
+        final List<String> chunkGets = new ArrayList<String>();
+        for (String line : log.subList(log.size() - (server.getCommandCount("get") - gets), log.size())) {
+            if (line.startsWith("get ") && line.contains("large_") && !line.contains("large_00")) chunkGets.add(line);
+        }
+        assertTrue(chunkGets.size() >= (chunks + 1) / 2, "the chunks should have been fetched a window at a time : " + chunkGets);
+    }
+
+    @Test
+    public void testWriterWaitsForThePendingChunks() throws Exception {
+        setProperty("STREAM_PENDING.stream.max.pending.chunks", 2);
+        final EVCache cache = createStreamingCache("STREAM_PENDING");
+        final FakeMemcachedServer server = getServer("STREAM_PENDING", 0);
+        final byte[] data = data(2, 20000);
+        setStream(cache, "large", data);
+        final int chunkDataSize = chunkDataSize(server, "large");
+
+        server.setWriteDelayMillis(20);
+        final List<int[]> progress = new ArrayList<int[]>();
+        final InputStream in = new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                progress.add(new int[] { data.length - available(), server.getCommandCount("set") });
+                return super.read(b, off, len);
+            }
+        };
+        final int sets = server.getCommandCount("set");
+        final EVCacheLatch latch = cache.setStream("large", in, data.length, 600, Policy.ALL);
+        assertTrue(latch.await(5000, TimeUnit.MILLISECONDS));
+        server.setWriteDelayMillis(0);
+        for (int[] p : progress) {
+            final int chunksWritten = p[0] / chunkDataSize;
+            // a set is only complete once the server has seen it
+            assertTrue(p[1] - sets >= chunksWritten - 2, "at most 2 chunks should be pending : " + chunksWritten + " chunks written, "
+                    + (p[1] - sets) + " sets received");
+        }
+        assertEquals(readAll(cache.getStream("large")), data);
+    }
+
+    @Test
+    public void testChecksumMismatchFailsTheRead() throws Exception {
+        final EVCache cache = createStreamingCache("STREAM_CRC");
+        final FakeMemcachedServer server = getServer("STREAM_CRC", 0);
+        setStream(cache, "large", data(3, 20000));
+
+        final FakeMemcachedServer.Item chunk = server.getItem("large_02");
+        final byte[] corrupt = chunk.data.clone();
+        corrupt[0] ^= 1;
+        server.putItem("large_02", corrupt, chunk.flags, 600);
+        try {
+            readAll(cache.getStream("large"));
+            fail("the corrupt chunk should have failed the checksum");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("Checksum"), e.getMessage());
+        }
+    }
+
+    @Test
+    public void testStreamEndingEarlyLeavesNoChunks() throws Exception {
+        final EVCache cache = createStreamingCache("STREAM_EOF");
+        final FakeMemcachedServer server = getServer("STREAM_EOF", 0);
+        final byte[] data = data(4, 20000);
+        setStream(cache, "large", data);
+        final int chunkDataSize = chunkDataSize(server, "large");
+
+        // only half of the declared length is there
+        final int written = (data.length / 2) / chunkDataSize;
+        final EVCacheLatch latch = cache.setStream("large", new ByteArrayInputStream(data, 0, data.length / 2), data.length, 600, Policy.ALL);
+        assertEquals(latch.getSuccessCount(), 0);
+        assertDeleted(server, "large", written);
+
+        // the old metadata is gone before the first chunk is overwritten
+        final List<String> log = server.getCommandLog();
+        int deleteMetadata = -1, firstChunk = -1;
+        for (int i = log.size() - 1; i >= 0; i--) {
+            final String line = log.get(i);
+            if (line.startsWith("set large_01 ")) {
+                firstChunk = i;
+            } else if (line.startsWith("delete large_00") && firstChunk >= 0) {
+                deleteMetadata = i;
+                break;
+            }
+        }
+        assertTrue(deleteMetadata >= 0 && deleteMetadata < firstChunk, "the metadata should have been deleted before the first chunk was written");
+
+        // nothing is left of a first write
+        cache.setStream("fresh", new ByteArrayInputStream(data, 0, data.length / 2), data.length, 600, Policy.ALL);
+        assertDeleted(server, "fresh", written);
+        assertEquals(countChunks(server, "fresh"), 0);
+    }
+
+    private static String chunkKey(String key, int index) {
+        return key + "_" + (index < 10 ? "0" : "") + index;
+    }
+
+    private static void assertDeleted(FakeMemcachedServer server, String key, int chunks) {
+        // the chunks are deleted after they are written, the last one last
+        assertTrue(waitFor(() -> {
+            if (!server.getCommandLog().stream().anyMatch(line -> line.startsWith("delete " + chunkKey(key, chunks)))) return false;
+            for (int i = 0; i <= chunks; i++) {
+                if (server.getItem(chunkKey(key, i)) != null) return false;
+            }
+            return true;
+        }, 2000), "the metadata and the chunks written should have been deleted : " + server.getItems().keySet());
+    }
+}
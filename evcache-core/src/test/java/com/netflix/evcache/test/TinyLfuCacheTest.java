@@ -0,0 +1,166 @@
+package com.netflix.evcache.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import com.netflix.evcache.util.TinyLfuCache;
+
+public class TinyLfuCacheTest {
+
+    private static TinyLfuCache<Integer, String> newCache(long maximumWeight) {
+        return new TinyLfuCache<Integer, String>(maximumWeight, maximumWeight, String::length, key -> "value_" + key, Runnable::run);
+    }
+
+    private static String valueOfLength(int length) {
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append('x');
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testEvictsDownToTheMaximumWeight() {
+        final TinyLfuCache<Integer, String> cache = new TinyLfuCache<Integer, String>(10, 10, v -> 1, null, Runnable::run);
+        for (int i = 0; i < 30; i++) {
+            cache.put(i, "value_" + i);
+            assertTrue(cache.weightedSize() <= 10, "the cache is over its maximum weight: " + cache.weightedSize());
+        }
+        assertEquals(cache.size(), 10);
+        assertEquals(cache.evictionCount(), 20);
+        assertEquals(cache.evictionWeight(), 20);
+    }
+
+    @Test
+    public void testWeightIsTrackedOnReplaceAndRemove() {
+        final TinyLfuCache<Integer, String> cache = newCache(1000);
+        cache.put(1, valueOfLength(10));
+        cache.put(2, valueOfLength(20));
+        assertEquals(cache.weightedSize(), 30);
+        cache.put(1, valueOfLength(50));
+        assertEquals(cache.weightedSize(), 70);
+        cache.invalidate(2);
+        assertEquals(cache.weightedSize(), 50);
+        // weights below 1 are rounded up
+        cache.put(3, "");
+        assertEquals(cache.weightedSize(), 51);
+    }
+
+    @Test
+    public void testHeavyEntriesAreEvictedByWeight() {
+        final TinyLfuCache<Integer, String> cache = newCache(100);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, valueOfLength(10));
+        }
+        assertEquals(cache.weightedSize(), 100);
+        cache.put(100, valueOfLength(45));
+        assertTrue(cache.weightedSize() <= 100, "the cache is over its maximum weight: " + cache.weightedSize());
+        assertTrue(cache.evictionWeight() >= 45, "at least the weight of the new entry should have been evicted, was " + cache.evictionWeight());
+    }
+
+    @Test
+    public void testShrinkingTheMaximumWeightEvicts() {
+        final TinyLfuCache<Integer, String> cache = newCache(100);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, valueOfLength(10));
+        }
+        cache.setMaximumWeight(50, 50);
+        assertTrue(cache.weightedSize() <= 50, "the cache is over its maximum weight: " + cache.weightedSize());
+        assertEquals(cache.size(), 5);
+    }
+
+    @Test
+    public void testFrequentlyUsedEntriesSurviveAScan() {
+        final TinyLfuCache<Integer, String> cache = new TinyLfuCache<Integer, String>(100, 100, v -> 1, null, Runnable::run);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, "hot_" + i);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 100; i++) {
+                assertEquals(cache.getIfPresent(i), "hot_" + i);
+            }
+        }
+
+        // keys that are used once are not admitted over the frequently used ones
+        for (int i = 1000; i < 2000; i++) {
+            cache.put(i, "cold_" + i);
+        }
+        int hot = 0;
+        for (int i = 0; i < 100; i++) {
+            if (cache.getIfPresent(i) != null) hot++;
+        }
+        assertTrue(hot >= 95, "only " + hot + " of the frequently used entries survived the scan");
+        assertEquals(cache.size(), 100);
+    }
+
+    @Test
+    public void testNewEntryIsAdmittedOverLessFrequentlyUsedOne() {
+        final TinyLfuCache<Integer, String> cache = new TinyLfuCache<Integer, String>(10, 10, v -> 1, null, Runnable::run);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, "value_" + i);
+        }
+        // key 100 was requested often before it was added
+        for (int i = 0; i < 10; i++) {
+            assertNull(cache.getIfPresent(100));
+        }
+        cache.put(100, "value_100");
+        cache.put(101, "value_101");
+        assertEquals(cache.getIfPresent(100), "value_100");
+    }
+
+    @Test
+    public void testLoadedValuesAreWeighed() throws Exception {
+        final TinyLfuCache<Integer, String> cache = newCache(1000);
+        assertEquals(cache.get(7), "value_7");
+        assertEquals(cache.weightedSize(), "value_7".length());
+        assertEquals(cache.loadSuccessCount(), 1);
+    }
+
+    @Test
+    public void testConcurrentReadsAreRecordedThroughTheReadBuffer() throws Exception {
+        final TinyLfuCache<Integer, String> cache = new TinyLfuCache<Integer, String>(100, 100, v -> 1, null, Runnable::run);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, "hot_" + i);
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> readers = new ArrayList<Future<?>>();
+            for (int t = 0; t < 4; t++) {
+                readers.add(executor.submit(() -> {
+                    for (int round = 0; round < 50; round++) {
+                        for (int i = 0; i < 100; i++) {
+                            assertEquals(cache.getIfPresent(i), "hot_" + i);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> reader : readers) {
+                reader.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(cache.hitCount(), 4 * 50 * 100);
+
+        // the buffered reads made it into the policy, so a scan does not flush the entries
+        for (int i = 1000; i < 2000; i++) {
+            cache.put(i, "cold_" + i);
+            assertTrue(cache.weightedSize() <= 100);
+        }
+        int hot = 0;
+        for (int i = 0; i < 100; i++) {
+            if (cache.getIfPresent(i) != null) hot++;
+        }
+        assertTrue(hot >= 95, "only " + hot + " of the frequently read entries survived the scan");
+    }
+}